@@ -0,0 +1,153 @@
+package de.dasjeff.duellSystem.benchmark;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import net.milkbowl.vault.economy.Economy;
+import net.milkbowl.vault.economy.EconomyResponse;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.damage.DamageSource;
+import org.bukkit.damage.DamageType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.ServicePriority;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+
+/**
+ * Boots the plugin on a MockBukkit server with a stub Vault economy
+ */
+public class BenchmarkServer {
+
+    private final ServerMock server;
+    private final DuellSystem plugin;
+    private int playerCount;
+
+    /**
+     * Start a mock server and enable the plugin with benchmark-friendly settings:
+     * 1 second request timeout and countdown, history log, HUD and request rate limit disabled.
+     */
+    public BenchmarkServer() {
+        this.server = MockBukkit.mock();
+
+        Plugin vault = MockBukkit.createMockPlugin("Vault");
+        server.getServicesManager().register(Economy.class, createEconomy(), vault, ServicePriority.Normal);
+
+        this.plugin = MockBukkit.load(DuellSystem.class);
+        configure();
+    }
+
+    /**
+     * Get the plugin instance
+     * @return DuellSystem instance
+     */
+    public DuellSystem getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Get the mock server
+     * @return ServerMock instance
+     */
+    public ServerMock getServer() {
+        return server;
+    }
+
+    /**
+     * Add players standing at the spawn of the default world
+     * @param count Number of players
+     * @return The players
+     */
+    public Player[] addPlayers(int count) {
+        Player[] players = new Player[count];
+        for (int i = 0; i < count; i++) {
+            SilentPlayer player = new SilentPlayer(server, "Bench" + playerCount++);
+            server.addPlayer(player);
+            players[i] = player;
+        }
+        return players;
+    }
+
+    /**
+     * Run the scheduler for a number of ticks
+     * @param ticks Number of ticks
+     */
+    public void tick(long ticks) {
+        server.getScheduler().performTicks(ticks);
+    }
+
+    /**
+     * Create a melee hit of one player on another
+     * @param damager Attacking player
+     * @param damaged Player being hit
+     * @return Damage event, not yet fired
+     */
+    public static EntityDamageByEntityEvent hit(Player damager, Player damaged) {
+        DamageSource source = DamageSource.builder(DamageType.PLAYER_ATTACK)
+                .withCausingEntity(damager)
+                .withDirectEntity(damager)
+                .build();
+        return new EntityDamageByEntityEvent(damager, damaged, EntityDamageEvent.DamageCause.ENTITY_ATTACK, source, 1.0);
+    }
+
+    // Disable the plugin and shut the mock server down
+    public void stop() {
+        MockBukkit.unmock();
+    }
+
+    // Rewrite config.yml in the plugin folder and reload it
+    private void configure() {
+        File configFile = new File(plugin.getDataFolder(), "config.yml");
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(configFile);
+        config.set("settings.request-timeout", 1);
+        config.set("settings.countdown-duration", 1);
+        config.set("settings.request-burst", 0);
+        config.set("history.enabled", false);
+        config.set("restore.enabled", false);
+        config.set("hud.enabled", false);
+        config.set("metrics.export-enabled", false);
+        try {
+            config.save(configFile);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write benchmark config", e);
+        }
+        plugin.reload();
+    }
+
+    // Economy where everyone is rich and every transaction succeeds
+    private static Economy createEconomy() {
+        return (Economy) Proxy.newProxyInstance(Economy.class.getClassLoader(), new Class<?>[]{Economy.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isEnabled":
+                        case "has":
+                        case "hasAccount":
+                            return true;
+                        case "getName":
+                            return "BenchmarkEconomy";
+                        case "getBalance":
+                            return 1_000_000_000.0;
+                        case "withdrawPlayer":
+                        case "depositPlayer":
+                            return new EconomyResponse((Double) args[args.length - 1], 1_000_000_000.0,
+                                    EconomyResponse.ResponseType.SUCCESS, null);
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "BenchmarkEconomy";
+                        default:
+                            Class<?> type = method.getReturnType();
+                            if (type == boolean.class) return false;
+                            if (type == int.class) return 0;
+                            if (type == double.class) return 0.0;
+                            return null;
+                    }
+                });
+    }
+}
@@ -0,0 +1,69 @@
+package de.dasjeff.duellSystem.benchmark;
+
+import de.dasjeff.duellSystem.listeners.CommandListener;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command filtering in CommandListener for players in and out of a duel
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandListenerBenchmark {
+
+    private BenchmarkServer server;
+    private CommandListener listener;
+    private PlayerCommandPreprocessEvent blockedCommand;
+    private PlayerCommandPreprocessEvent allowedCommand;
+    private PlayerCommandPreprocessEvent outsideDuel;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = new BenchmarkServer();
+        listener = new CommandListener(server.getPlugin());
+
+        Player[] players = server.addPlayers(3);
+        server.getPlugin().getDuellManager().createRequest(players[0], players[1], 0);
+        server.getPlugin().getDuellManager().acceptRequest(players[1], players[0]);
+
+        blockedCommand = new PlayerCommandPreprocessEvent(players[0], "/spawn");
+        allowedCommand = new PlayerCommandPreprocessEvent(players[0], "/msg Bench1 hello");
+        outsideDuel = new PlayerCommandPreprocessEvent(players[2], "/spawn");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public boolean blocked() {
+        blockedCommand.setCancelled(false);
+        listener.onPlayerCommandPreprocess(blockedCommand);
+        return blockedCommand.isCancelled();
+    }
+
+    @Benchmark
+    public boolean allowed() {
+        listener.onPlayerCommandPreprocess(allowedCommand);
+        return allowedCommand.isCancelled();
+    }
+
+    @Benchmark
+    public boolean notInDuel() {
+        listener.onPlayerCommandPreprocess(outsideDuel);
+        return outsideDuel.isCancelled();
+    }
+}
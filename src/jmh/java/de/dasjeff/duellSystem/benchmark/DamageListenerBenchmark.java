@@ -0,0 +1,82 @@
+package de.dasjeff.duellSystem.benchmark;
+
+import de.dasjeff.duellSystem.listeners.DuellListener;
+import org.bukkit.entity.Player;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Damage classification in DuellListener#onEntityDamageByEntity
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DamageListenerBenchmark {
+
+    private BenchmarkServer server;
+    private DuellListener listener;
+    private EntityDamageByEntityEvent duelHit;
+    private EntityDamageByEntityEvent countdownHit;
+    private EntityDamageByEntityEvent interference;
+    private EntityDamageByEntityEvent unrelated;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = new BenchmarkServer();
+        listener = new DuellListener(server.getPlugin());
+
+        Player[] players = server.addPlayers(6);
+        // players[0] and players[1] are fighting, players[2] and players[3] are still in the countdown
+        server.getPlugin().getDuellManager().createRequest(players[0], players[1], 0);
+        server.getPlugin().getDuellManager().acceptRequest(players[1], players[0]);
+        server.tick(21);
+        server.getPlugin().getDuellManager().createRequest(players[2], players[3], 0);
+        server.getPlugin().getDuellManager().acceptRequest(players[3], players[2]);
+
+        duelHit = BenchmarkServer.hit(players[0], players[1]);
+        countdownHit = BenchmarkServer.hit(players[2], players[3]);
+        interference = BenchmarkServer.hit(players[4], players[0]);
+        unrelated = BenchmarkServer.hit(players[4], players[5]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public boolean duelInProgress() {
+        listener.onEntityDamageByEntity(duelHit);
+        return duelHit.isCancelled();
+    }
+
+    @Benchmark
+    public boolean duelCountdown() {
+        countdownHit.setCancelled(false);
+        listener.onEntityDamageByEntity(countdownHit);
+        return countdownHit.isCancelled();
+    }
+
+    @Benchmark
+    public boolean interference() {
+        interference.setCancelled(false);
+        listener.onEntityDamageByEntity(interference);
+        return interference.isCancelled();
+    }
+
+    @Benchmark
+    public boolean noDuel() {
+        listener.onEntityDamageByEntity(unrelated);
+        return unrelated.isCancelled();
+    }
+}
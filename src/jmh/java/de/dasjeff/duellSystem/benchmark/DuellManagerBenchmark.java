@@ -0,0 +1,83 @@
+package de.dasjeff.duellSystem.benchmark;
+
+import de.dasjeff.duellSystem.managers.DuellManager;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request lifecycle in DuellManager. Every invocation returns the manager to an empty state,
+ * so each benchmark includes the cleanup path that follows the measured operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DuellManagerBenchmark {
+
+    private BenchmarkServer server;
+    private DuellManager manager;
+    private Player[] players;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = new BenchmarkServer();
+        manager = server.getPlugin().getDuellManager();
+        players = server.addPlayers(64);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    // Create a request and withdraw it again by quitting
+    @Benchmark
+    public boolean createRequest() {
+        Player sender = nextPlayer();
+        Player target = nextPlayer();
+
+        boolean created = manager.createRequest(sender, target, 0);
+        manager.handlePlayerQuit(sender.getUniqueId());
+        return created;
+    }
+
+    // Create and accept a request, then end the resulting duel; one tick lets the countdown tasks drain
+    @Benchmark
+    public boolean createAndAccept() {
+        Player sender = nextPlayer();
+        Player target = nextPlayer();
+
+        manager.createRequest(sender, target, 0);
+        boolean accepted = manager.acceptRequest(target, sender);
+        manager.endDuel(sender.getUniqueId(), target.getUniqueId());
+        server.tick(1);
+        return accepted;
+    }
+
+    // Create a request and run the 20 ticks until its timeout task expires it
+    @Benchmark
+    public boolean createAndExpire() {
+        Player sender = nextPlayer();
+        Player target = nextPlayer();
+
+        manager.createRequest(sender, target, 0);
+        server.tick(20);
+        return manager.hasPendingRequest(target.getUniqueId(), sender.getUniqueId());
+    }
+
+    private Player nextPlayer() {
+        Player player = players[next];
+        next = (next + 1) % players.length;
+        return player;
+    }
+}
@@ -0,0 +1,54 @@
+package de.dasjeff.duellSystem.benchmark;
+
+import de.dasjeff.duellSystem.config.MessageManager;
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message rendering in MessageManager
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MessageManagerBenchmark {
+
+    private BenchmarkServer server;
+    private MessageManager messageManager;
+    private Map<String, String> placeholders;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = new BenchmarkServer();
+        messageManager = server.getPlugin().getMessageManager();
+
+        placeholders = messageManager.createPlaceholderMap();
+        placeholders.put("player", "BenchPlayer");
+        placeholders.put("amount", "250");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Benchmark
+    public Component withPlaceholders() {
+        return messageManager.getMessage("request.received-with-bet", placeholders);
+    }
+
+    @Benchmark
+    public Component withoutPlaceholders() {
+        return messageManager.getMessage("duel.started");
+    }
+}
@@ -0,0 +1,32 @@
+package de.dasjeff.duellSystem.benchmark;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Mock player that drops all messages and titles, so long benchmark runs don't fill its message queue
+ */
+public class SilentPlayer extends PlayerMock {
+
+    /**
+     * Constructor
+     * @param server Mock server
+     * @param name Player name
+     */
+    public SilentPlayer(ServerMock server, String name) {
+        super(server, name, UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public void sendMessage(Component message) {
+    }
+
+    @Override
+    public void showTitle(Title title) {
+    }
+}
@@ -0,0 +1,225 @@
+package de.dasjeff.duellSystem.loadtest;
+
+import de.dasjeff.duellSystem.benchmark.BenchmarkServer;
+import de.dasjeff.duellSystem.managers.DuellManager;
+import de.dasjeff.duellSystem.metrics.LatencyRecorder;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.plugin.PluginManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Headless load test: thousands of mock players send, accept, ignore and abandon duel requests
+ * and fight while the scheduler ticks. Reports main-thread time per tick, main-thread allocation
+ * and the sizes of the DuellManager maps, then checks that all maps drain once the load stops.
+ * <p>
+ * Settings are read from the system properties {@code loadtest.players}, {@code loadtest.ticks},
+ * {@code loadtest.seed} and {@code loadtest.report} (CSV output file).
+ */
+public final class LoadTest {
+
+    private static final int REPORT_INTERVAL = 200;
+    private static final double REQUEST_CHANCE = 0.01;
+    private static final double IGNORE_CHANCE = 0.3;
+    private static final double ACCEPT_CHANCE = 0.05;
+    private static final double HIT_CHANCE = 0.5;
+    private static final double KILL_CHANCE = 1.0 / 400;
+    private static final double QUIT_CHANCE = 1.0 / 2000;
+    private static final double COMMAND_CHANCE = 0.01;
+
+    private final BenchmarkServer server;
+    private final DuellManager manager;
+    private final PluginManager pluginManager;
+    private final Player[] players;
+    private final int[] opponent;
+    private final List<int[]> pending;
+    private final Random random;
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private LoadTest(int playerCount, long seed) {
+        this.server = new BenchmarkServer();
+        this.manager = server.getPlugin().getDuellManager();
+        this.pluginManager = server.getServer().getPluginManager();
+        this.players = server.addPlayers(playerCount);
+        this.opponent = new int[playerCount];
+        this.pending = new ArrayList<>();
+        this.random = new Random(seed);
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Arrays.fill(opponent, -1);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int playerCount = Integer.getInteger("loadtest.players", 1000);
+        int ticks = Integer.getInteger("loadtest.ticks", 2400);
+        long seed = Long.getLong("loadtest.seed", 42L);
+        File report = new File(System.getProperty("loadtest.report", "build/loadtest/report.csv"));
+
+        LoadTest loadTest = new LoadTest(playerCount, seed);
+        boolean drained;
+        try {
+            drained = loadTest.run(ticks, report);
+        } finally {
+            loadTest.server.stop();
+        }
+
+        if (!drained) {
+            System.err.println("DuellManager still holds state after the drain phase");
+            System.exit(1);
+        }
+    }
+
+    private boolean run(int ticks, File report) throws IOException {
+        File folder = report.getAbsoluteFile().getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+        }
+
+        System.out.printf("Load test: %d players, %d ticks%n", players.length, ticks);
+        System.out.printf("%8s %9s %9s %9s %12s %8s %8s %8s %8s%n",
+                "tick", "p50 ms", "p99 ms", "max ms", "alloc KB/t", "duels", "requests", "targets", "senders");
+
+        try (PrintWriter csv = new PrintWriter(report, "UTF-8")) {
+            csv.println("tick,p50_ms,p99_ms,max_ms,alloc_kb_per_tick,active_duels,pending_requests,pending_targets,senders");
+
+            LatencyRecorder tickTimes = new LatencyRecorder();
+            long allocated = 0;
+            for (int tick = 1; tick <= ticks; tick++) {
+                long allocStart = threadBean.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+
+                simulateTick();
+                server.tick(1);
+
+                tickTimes.record(System.nanoTime() - start);
+                allocated += threadBean.getCurrentThreadAllocatedBytes() - allocStart;
+
+                if (tick % REPORT_INTERVAL == 0) {
+                    report(csv, tick, tickTimes, allocated / (double) REPORT_INTERVAL / 1024.0);
+                    tickTimes.reset();
+                    allocated = 0;
+                }
+            }
+        }
+
+        return drain();
+    }
+
+    // One tick of player behaviour
+    private void simulateTick() {
+        // New requests between idle players; a share of them is never answered and expires
+        int requests = (int) Math.max(1, players.length * REQUEST_CHANCE);
+        for (int i = 0; i < requests; i++) {
+            int sender = random.nextInt(players.length);
+            int target = random.nextInt(players.length);
+            if (sender == target || opponent[sender] >= 0 || opponent[target] >= 0) continue;
+
+            if (manager.createRequest(players[sender], players[target], 0) && random.nextDouble() >= IGNORE_CHANCE) {
+                pending.add(new int[]{sender, target});
+            }
+        }
+
+        // Answer some of the pending requests
+        Iterator<int[]> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            int[] request = iterator.next();
+            if (random.nextDouble() >= ACCEPT_CHANCE) continue;
+            iterator.remove();
+
+            int sender = request[0];
+            int target = request[1];
+            if (opponent[sender] >= 0 || opponent[target] >= 0) continue;
+            if (manager.acceptRequest(players[target], players[sender])) {
+                opponent[sender] = target;
+                opponent[target] = sender;
+            }
+        }
+
+        // Fighting, commands, kills and quits
+        for (int i = 0; i < players.length; i++) {
+            int other = opponent[i];
+            if (other < i) continue;
+
+            if (random.nextDouble() < COMMAND_CHANCE) {
+                pluginManager.callEvent(new PlayerCommandPreprocessEvent(players[i], "/spawn"));
+            }
+
+            if (!manager.isDuelInProgress(players[i].getUniqueId())) {
+                if (!manager.isInDuel(players[i].getUniqueId())) {
+                    // The duel ended by another path, e.g. the opponent quit
+                    release(i, other);
+                }
+                continue;
+            }
+
+            if (random.nextDouble() < HIT_CHANCE) {
+                pluginManager.callEvent(BenchmarkServer.hit(players[i], players[other]));
+            }
+
+            if (random.nextDouble() < KILL_CHANCE) {
+                manager.endDuel(players[i].getUniqueId(), players[other].getUniqueId());
+                release(i, other);
+            } else if (random.nextDouble() < QUIT_CHANCE) {
+                manager.handlePlayerQuit(players[other].getUniqueId());
+                release(i, other);
+            }
+        }
+
+        // Some idle players leave with requests still open
+        if (random.nextDouble() < players.length * QUIT_CHANCE) {
+            int quitter = random.nextInt(players.length);
+            if (opponent[quitter] < 0) {
+                manager.handlePlayerQuit(players[quitter].getUniqueId());
+            }
+        }
+    }
+
+    // End all fights, let every request time out and check that nothing is left behind
+    private boolean drain() {
+        for (int i = 0; i < players.length; i++) {
+            if (opponent[i] > i) {
+                manager.endDuel(players[i].getUniqueId(), players[opponent[i]].getUniqueId());
+                release(i, opponent[i]);
+            }
+        }
+        pending.clear();
+
+        int timeoutTicks = server.getPlugin().getConfigManager().getRequestTimeout() * 20
+                + server.getPlugin().getConfigManager().getCountdownDuration() * 20 + 1;
+        server.tick(timeoutTicks);
+
+        System.out.printf("After drain: %d duels, %d requests, %d targets, %d senders%n",
+                manager.getActiveDuelCount(), manager.getPendingRequestCount(),
+                manager.getPendingTargetCount(), manager.getSenderCount());
+        return manager.getActiveDuelCount() == 0 && manager.getPendingRequestCount() == 0
+                && manager.getPendingTargetCount() == 0 && manager.getSenderCount() == 0;
+    }
+
+    private void report(PrintWriter csv, int tick, LatencyRecorder tickTimes, double allocKbPerTick) {
+        double p50 = tickTimes.getPercentile(50) / 1_000_000.0;
+        double p99 = tickTimes.getPercentile(99) / 1_000_000.0;
+        double max = tickTimes.getMax() / 1_000_000.0;
+
+        System.out.printf("%8d %9.3f %9.3f %9.3f %12.1f %8d %8d %8d %8d%n", tick, p50, p99, max, allocKbPerTick,
+                manager.getActiveDuelCount(), manager.getPendingRequestCount(),
+                manager.getPendingTargetCount(), manager.getSenderCount());
+        csv.printf("%d,%.4f,%.4f,%.4f,%.2f,%d,%d,%d,%d%n", tick, p50, p99, max, allocKbPerTick,
+                manager.getActiveDuelCount(), manager.getPendingRequestCount(),
+                manager.getPendingTargetCount(), manager.getSenderCount());
+    }
+
+    private void release(int a, int b) {
+        opponent[a] = -1;
+        if (b >= 0) {
+            opponent[b] = -1;
+        }
+    }
+}
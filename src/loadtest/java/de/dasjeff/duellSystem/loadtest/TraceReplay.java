@@ -0,0 +1,138 @@
+package de.dasjeff.duellSystem.loadtest;
+
+import de.dasjeff.duellSystem.benchmark.BenchmarkServer;
+import de.dasjeff.duellSystem.managers.DuellManager;
+import de.dasjeff.duellSystem.metrics.LatencyRecorder;
+import de.dasjeff.duellSystem.trace.TraceFormat;
+import de.dasjeff.duellSystem.trace.TraceReader;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.PluginManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a trace recorded with {@code /duel trace} against the plugin on a MockBukkit server.
+ * The scheduler is advanced by one tick per 50 ms of recorded time, so timeouts and countdowns
+ * behave as they did in production. Reports throughput and per-event-type latency.
+ * <p>
+ * The trace file is read from the system property {@code replay.trace}.
+ */
+public final class TraceReplay {
+
+    private static final String[] TYPE_NAMES = {"", "request", "accept", "damage", "death", "quit", "command"};
+
+    private final BenchmarkServer server;
+    private final DuellManager manager;
+    private final PluginManager pluginManager;
+    private final List<Player> players;
+    private final LatencyRecorder[] latencies;
+    private final long[] counts;
+
+    private TraceReplay() {
+        this.server = new BenchmarkServer();
+        this.manager = server.getPlugin().getDuellManager();
+        this.pluginManager = server.getServer().getPluginManager();
+        this.players = new ArrayList<>();
+        this.latencies = new LatencyRecorder[TYPE_NAMES.length];
+        this.counts = new long[TYPE_NAMES.length];
+        for (int i = 1; i < latencies.length; i++) {
+            latencies[i] = new LatencyRecorder();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String path = System.getProperty("replay.trace");
+        if (path == null || path.isEmpty()) {
+            System.err.println("No trace given, use -Ptrace=<file>");
+            System.exit(1);
+        }
+
+        TraceReplay replay = new TraceReplay();
+        try {
+            replay.run(new File(path));
+        } finally {
+            replay.server.stop();
+        }
+    }
+
+    private void run(File file) throws IOException {
+        long tick = 0;
+        long events = 0;
+        long tickNanos = 0;
+        long start = System.nanoTime();
+
+        try (TraceReader reader = new TraceReader(file)) {
+            while (reader.next()) {
+                // Catch the scheduler up with the recorded time
+                long targetTick = reader.getTimeMillis() / 50;
+                if (targetTick > tick) {
+                    long tickStart = System.nanoTime();
+                    server.tick(targetTick - tick);
+                    tickNanos += System.nanoTime() - tickStart;
+                    tick = targetTick;
+                }
+
+                byte type = reader.getType();
+                long eventStart = System.nanoTime();
+                dispatch(reader);
+                latencies[type].record(System.nanoTime() - eventStart);
+                counts[type]++;
+                events++;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Replayed %d events from %d players over %d ticks in %.1f ms (%.0f events/s, %.3f ms ticking)%n",
+                events, players.size(), tick, elapsed / 1_000_000.0, events / (elapsed / 1_000_000_000.0),
+                tickNanos / 1_000_000.0);
+        System.out.printf("%-8s %10s %10s %10s %10s%n", "event", "count", "p50 us", "p99 us", "max us");
+        for (int i = 1; i < TYPE_NAMES.length; i++) {
+            if (counts[i] == 0) continue;
+            System.out.printf("%-8s %10d %10.1f %10.1f %10.1f%n", TYPE_NAMES[i], counts[i],
+                    latencies[i].getPercentile(50) / 1000.0, latencies[i].getPercentile(99) / 1000.0,
+                    latencies[i].getMax() / 1000.0);
+        }
+    }
+
+    private void dispatch(TraceReader reader) {
+        Player player = player(reader.getPlayer());
+        switch (reader.getType()) {
+            case TraceFormat.REQUEST:
+                manager.createRequest(player, player(reader.getOther()), reader.getBetAmount());
+                break;
+            case TraceFormat.ACCEPT:
+                manager.acceptRequest(player, player(reader.getOther()));
+                break;
+            case TraceFormat.DAMAGE:
+                pluginManager.callEvent(BenchmarkServer.hit(player, player(reader.getOther())));
+                break;
+            case TraceFormat.DEATH:
+                manager.handlePlayerDeath(player.getUniqueId(),
+                        reader.getOther() >= 0 ? player(reader.getOther()).getUniqueId() : null);
+                break;
+            case TraceFormat.QUIT:
+                pluginManager.callEvent(new PlayerQuitEvent(player, Component.empty(),
+                        PlayerQuitEvent.QuitReason.DISCONNECTED));
+                break;
+            case TraceFormat.COMMAND:
+                pluginManager.callEvent(new PlayerCommandPreprocessEvent(player, "/" + reader.getCommand()));
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Mock player for an anonymized trace id, created on first use
+    private Player player(int id) {
+        while (players.size() <= id) {
+            players.add(server.addPlayers(1)[0]);
+        }
+        return players.get(id);
+    }
+}
@@ -1,27 +1,68 @@
 package de.dasjeff.duellSystem;
 
+import de.dasjeff.duellSystem.api.DuelService;
 import de.dasjeff.duellSystem.commands.DuellCommand;
 import de.dasjeff.duellSystem.config.ConfigManager;
 import de.dasjeff.duellSystem.config.MessageManager;
+import de.dasjeff.duellSystem.hooks.DuelPlaceholderExpansion;
 import de.dasjeff.duellSystem.listeners.CommandListener;
 import de.dasjeff.duellSystem.listeners.DuellListener;
 import de.dasjeff.duellSystem.listeners.RegionListener;
 import de.dasjeff.duellSystem.listeners.DuellWorldListener;
+import de.dasjeff.duellSystem.listeners.NetworkListener;
+import de.dasjeff.duellSystem.managers.AuditManager;
+import de.dasjeff.duellSystem.managers.DuelSnapshotManager;
 import de.dasjeff.duellSystem.managers.DuellManager;
 import de.dasjeff.duellSystem.managers.EconomyManager;
+import de.dasjeff.duellSystem.managers.HistoryManager;
+import de.dasjeff.duellSystem.managers.HudManager;
+import de.dasjeff.duellSystem.managers.LeaderboardManager;
+import de.dasjeff.duellSystem.managers.MetricsManager;
+import de.dasjeff.duellSystem.managers.NetworkManager;
+import de.dasjeff.duellSystem.managers.PlaceholderManager;
+import de.dasjeff.duellSystem.managers.ProfileCache;
+import de.dasjeff.duellSystem.managers.ReconcileManager;
+import de.dasjeff.duellSystem.managers.ReplayManager;
+import de.dasjeff.duellSystem.managers.RestoreManager;
+import de.dasjeff.duellSystem.managers.SideBetManager;
+import de.dasjeff.duellSystem.managers.SpectatorManager;
+import de.dasjeff.duellSystem.managers.StatsManager;
+import de.dasjeff.duellSystem.managers.TeamDuelManager;
+import de.dasjeff.duellSystem.scheduler.TaskScheduler;
+import de.dasjeff.duellSystem.trace.TraceRecorder;
 import net.milkbowl.vault.economy.Economy;
 import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.util.function.Supplier;
 import java.util.logging.Level;
 
 public final class DuellSystem extends JavaPlugin {
 
     private static DuellSystem instance;
     private ConfigManager configManager;
+    private TaskScheduler taskScheduler;
     private MessageManager messageManager;
     private DuellManager duellManager;
+    private DuelSnapshotManager duelService;
     private EconomyManager economyManager;
+    private StatsManager statsManager;
+    private ProfileCache profileCache;
+    private LeaderboardManager leaderboardManager;
+    private HistoryManager historyManager;
+    private MetricsManager metricsManager;
+    private AuditManager auditManager;
+    private TraceRecorder traceRecorder;
+    private NetworkManager networkManager;
+    private PlaceholderManager placeholderManager;
+    private ReplayManager replayManager;
+    private HudManager hudManager;
+    private SpectatorManager spectatorManager;
+    private SideBetManager sideBetManager;
+    private TeamDuelManager teamDuelManager;
+    private RestoreManager restoreManager;
+    private ReconcileManager reconcileManager;
     private Economy economy;
     private boolean worldGuardEnabled = false;
 
@@ -32,6 +73,10 @@ public final class DuellSystem extends JavaPlugin {
         // Initialize configuration
         this.configManager = new ConfigManager(this);
         this.messageManager = new MessageManager(this);
+        this.taskScheduler = TaskScheduler.create(this);
+        if (taskScheduler.isRegionized()) {
+            getLogger().info("Folia erkannt - verwende Region-Scheduler");
+        }
 
         // Setup economy
         if (!setupEconomy()) {
@@ -42,8 +87,33 @@ public final class DuellSystem extends JavaPlugin {
         }
 
         // Initialize managers
+        this.metricsManager = new MetricsManager(this);
+        this.auditManager = new AuditManager(this);
+        this.traceRecorder = new TraceRecorder(this);
         this.economyManager = new EconomyManager(this);
+        this.statsManager = new StatsManager(this);
+        this.profileCache = new ProfileCache(this);
+        this.leaderboardManager = new LeaderboardManager(this);
+        this.historyManager = new HistoryManager(this);
+        this.replayManager = new ReplayManager(this);
+        this.hudManager = new HudManager(this);
+        this.spectatorManager = new SpectatorManager(this);
+        this.sideBetManager = new SideBetManager(this);
         this.duellManager = new DuellManager(this);
+        this.teamDuelManager = new TeamDuelManager(this);
+        this.duelService = new DuelSnapshotManager(this);
+        this.restoreManager = new RestoreManager(this);
+        this.reconcileManager = new ReconcileManager(this);
+
+        // Offer the read-only duel state to other plugins
+        getServer().getServicesManager().register(DuelService.class, duelService, this, ServicePriority.Normal);
+        this.placeholderManager = new PlaceholderManager(this);
+
+        // Connect to the other servers of the network
+        if (configManager.isNetworkEnabled()) {
+            this.networkManager = new NetworkManager(this);
+            getLogger().info("Netzwerk-Anfragen aktiviert als Server " + networkManager.getServerName());
+        }
 
         // Check for WorldGuard
         if (getServer().getPluginManager().getPlugin("WorldGuard") != null) {
@@ -51,6 +121,12 @@ public final class DuellSystem extends JavaPlugin {
             getLogger().info("WorldGuard gefunden - Region-Schutz-Override aktiviert");
         }
 
+        // Register the placeholders if PlaceholderAPI is installed
+        if (getServer().getPluginManager().getPlugin("PlaceholderAPI") != null) {
+            new DuelPlaceholderExpansion(this).register();
+            getLogger().info("PlaceholderAPI gefunden - Platzhalter %duel_...% registriert");
+        }
+
         // Register commands
         getCommand("duel").setExecutor(new DuellCommand(this));
 
@@ -63,14 +139,75 @@ public final class DuellSystem extends JavaPlugin {
             getServer().getPluginManager().registerEvents(new RegionListener(this), this);
         }
 
+        if (networkManager != null) {
+            getServer().getPluginManager().registerEvents(new NetworkListener(this), this);
+        }
+
         getLogger().info("Duell-System erfolgreich aktiviert!");
     }
 
     @Override
     public void onDisable() {
-        // Cancel all active duels
+        getServer().getServicesManager().unregisterAll(this);
+
+        // Finish a running trace recording
+        if (traceRecorder != null) {
+            traceRecorder.close();
+        }
+
+        // Save running duels for the restart and cancel them
         if (duellManager != null) {
-            duellManager.cancelAllDuels();
+            duellManager.cancelAllDuels(restoreManager != null && restoreManager.save());
+        }
+
+        // Cancel the team duels; no money is moved
+        if (teamDuelManager != null) {
+            teamDuelManager.close();
+        }
+
+        // Refund the side bets of the cancelled duels
+        if (sideBetManager != null) {
+            sideBetManager.close();
+        }
+
+        // Send the spectators back
+        if (spectatorManager != null) {
+            spectatorManager.close();
+        }
+
+        // Remove the duel HUDs
+        if (hudManager != null) {
+            hudManager.close();
+        }
+
+        // Write the last replays
+        if (replayManager != null) {
+            replayManager.close();
+        }
+
+        // Send pending network messages
+        if (networkManager != null) {
+            networkManager.close();
+        }
+
+        // Flush the duel history
+        if (historyManager != null) {
+            historyManager.close();
+        }
+
+        // Save statistics
+        if (statsManager != null) {
+            statsManager.close();
+        }
+
+        // Write the remaining audit entries
+        if (auditManager != null) {
+            auditManager.close();
+        }
+
+        // Write final metrics
+        if (metricsManager != null) {
+            metricsManager.export();
         }
 
         getLogger().info("Duell-System deaktiviert!");
@@ -98,6 +235,7 @@ public final class DuellSystem extends JavaPlugin {
     public void reload() {
         configManager.reload();
         messageManager.reload();
+        placeholderManager.reload();
         getLogger().info("Konfiguration neu geladen!");
     }
 
@@ -117,6 +255,14 @@ public final class DuellSystem extends JavaPlugin {
         return configManager;
     }
 
+    /**
+     * Get the task scheduler
+     * @return TaskScheduler instance
+     */
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+
     /**
      * Get the message manager
      * @return MessageManager instance
@@ -133,6 +279,14 @@ public final class DuellSystem extends JavaPlugin {
         return duellManager;
     }
 
+    /**
+     * Get the read-only duel service offered to other plugins
+     * @return DuelService instance
+     */
+    public DuelService getDuelService() {
+        return duelService;
+    }
+
     /**
      * Get the economy manager
      * @return EconomyManager instance
@@ -141,6 +295,134 @@ public final class DuellSystem extends JavaPlugin {
         return economyManager;
     }
 
+    /**
+     * Get the stats manager
+     * @return StatsManager instance
+     */
+    public StatsManager getStatsManager() {
+        return statsManager;
+    }
+
+    /**
+     * Get the profile cache
+     * @return ProfileCache instance
+     */
+    public ProfileCache getProfileCache() {
+        return profileCache;
+    }
+
+    /**
+     * Get the leaderboard manager
+     * @return LeaderboardManager instance
+     */
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+
+    /**
+     * Get the history manager
+     * @return HistoryManager instance
+     */
+    public HistoryManager getHistoryManager() {
+        return historyManager;
+    }
+
+    /**
+     * Get the metrics manager
+     * @return MetricsManager instance
+     */
+    public MetricsManager getMetricsManager() {
+        return metricsManager;
+    }
+
+    /**
+     * Get the audit manager
+     * @return AuditManager instance
+     */
+    public AuditManager getAuditManager() {
+        return auditManager;
+    }
+
+    /**
+     * Get the network manager
+     * @return NetworkManager instance, or null if network requests are disabled
+     */
+    public NetworkManager getNetworkManager() {
+        return networkManager;
+    }
+
+    /**
+     * Get the HUD manager
+     * @return HudManager instance
+     */
+    public HudManager getHudManager() {
+        return hudManager;
+    }
+
+    /**
+     * Get the spectator manager
+     * @return SpectatorManager instance
+     */
+    public SpectatorManager getSpectatorManager() {
+        return spectatorManager;
+    }
+
+    /**
+     * Get the side bet manager
+     * @return SideBetManager instance
+     */
+    public SideBetManager getSideBetManager() {
+        return sideBetManager;
+    }
+
+    /**
+     * Get the team duel manager
+     * @return TeamDuelManager instance
+     */
+    public TeamDuelManager getTeamDuelManager() {
+        return teamDuelManager;
+    }
+
+    /**
+     * Get the restore manager
+     * @return RestoreManager instance
+     */
+    public RestoreManager getRestoreManager() {
+        return restoreManager;
+    }
+
+    /**
+     * Get the reconcile manager
+     * @return ReconcileManager instance
+     */
+    public ReconcileManager getReconcileManager() {
+        return reconcileManager;
+    }
+
+    /**
+     * Get the replay manager
+     * @return ReplayManager instance
+     */
+    public ReplayManager getReplayManager() {
+        return replayManager;
+    }
+
+    /**
+     * Get the placeholder manager
+     * @return PlaceholderManager instance
+     */
+    public PlaceholderManager getPlaceholderManager() {
+        return placeholderManager;
+    }
+
+    /**
+     * Get the trace recorder
+     * @return TraceRecorder instance
+     */
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
     /**
      * Get the economy instance
      * @return Economy instance
@@ -158,12 +440,12 @@ public final class DuellSystem extends JavaPlugin {
     }
 
     /**
-     * Log a debug message if debug mode is enabled
-     * @param message Message to log
+     * Log a debug message if debug mode is enabled; the message is only built when it is logged
+     * @param message Supplier of the message to log
      */
-    public void debug(String message) {
+    public void debug(Supplier<String> message) {
         if (configManager.isDebugEnabled()) {
-            getLogger().log(Level.INFO, "[DEBUG] " + message);
+            getLogger().log(Level.INFO, "[DEBUG] " + message.get());
         }
     }
 }
@@ -0,0 +1,16 @@
+package de.dasjeff.duellSystem.api;
+
+/**
+ * Phase of a player in the duel lifecycle
+ */
+public enum DuelPhase {
+
+    /** Not in a duel */
+    NONE,
+
+    /** In a duel that is still counting down */
+    COUNTDOWN,
+
+    /** In a duel that is being fought */
+    FIGHTING
+}
@@ -0,0 +1,68 @@
+package de.dasjeff.duellSystem.api;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only view of the duels on this server for other plugins, registered in Bukkit's ServicesManager.
+ * <p>
+ * All answers come from an immutable snapshot that is republished at most once per tick, so every method
+ * may be called from any thread without locking. The snapshot can lag the live state by up to one tick.
+ * <p>
+ * Members of a team duel count as in a duel until they are knocked out; their opponent is the first member
+ * of the other team still standing. The {@code DuelStartEvent}, {@code DuelEndEvent} and
+ * {@code DuelCancelEvent} are only fired for 1v1 duels.
+ * <pre>{@code
+ * DuelService duels = Bukkit.getServicesManager().load(DuelService.class);
+ * if (duels != null && duels.isInDuel(player.getUniqueId())) { ... }
+ * }</pre>
+ */
+public interface DuelService {
+
+    /**
+     * Check if a player is in a duel
+     * @param playerId UUID of the player
+     * @return True if the player is counting down or fighting
+     */
+    boolean isInDuel(UUID playerId);
+
+    /**
+     * Get the opponent of a player
+     * @param playerId UUID of the player
+     * @return UUID of the opponent (the first one standing in a team duel), or null if the player is not in a duel
+     */
+    UUID getOpponent(UUID playerId);
+
+    /**
+     * Get the duel phase of a player
+     * @param playerId UUID of the player
+     * @return Phase of the player's duel, {@link DuelPhase#NONE} if the player is not in one
+     */
+    DuelPhase getPhase(UUID playerId);
+
+    /**
+     * Get the bet of a player's duel
+     * @param playerId UUID of the player
+     * @return Bet amount in minor units, 0 for friendly duels or if the player is not in a duel
+     */
+    long getBetAmount(UUID playerId);
+
+    /**
+     * Get the number of active duels
+     * @return Number of 1v1 and team duels counting down or fighting
+     */
+    int getActiveDuelCount();
+
+    /**
+     * Get the number of pending requests
+     * @return Number of requests not yet accepted or expired
+     */
+    int getPendingRequestCount();
+
+    /**
+     * Get the players who sent a pending request to a player
+     * @param targetId UUID of the player receiving the requests
+     * @return Unmodifiable list of sender UUIDs, oldest request first
+     */
+    List<UUID> getPendingRequests(UUID targetId);
+}
@@ -0,0 +1,37 @@
+package de.dasjeff.duellSystem.audit;
+
+/**
+ * Kind of an audit log entry
+ */
+public enum AuditAction {
+
+    /** A duel request was sent; player is the sender, other the target */
+    REQUEST,
+
+    /** A duel request was accepted; player is the target, other the sender */
+    ACCEPT,
+
+    /** A duel began its countdown; player and other are the participants */
+    START,
+
+    /** A duel ended; player is the winner, other the loser, detail the end reason */
+    END,
+
+    /** A round of a series ended; player is the round winner, other the loser, detail the score */
+    ROUND,
+
+    /** A duel was cancelled without a winner */
+    CANCEL,
+
+    /** Money was taken from a player */
+    WITHDRAW,
+
+    /** Money was given to a player */
+    DEPOSIT,
+
+    /** Money was given back to a player after a failed transfer */
+    REFUND,
+
+    /** A money movement failed; detail names the failed step */
+    MONEY_FAILED
+}
@@ -0,0 +1,17 @@
+package de.dasjeff.duellSystem.audit;
+
+import java.util.UUID;
+
+/**
+ * One entry of the audit log
+ * @param timestamp Time of the action in epoch milliseconds
+ * @param action Kind of the action
+ * @param sessionId UUID of the duel session, or null
+ * @param playerId UUID of the player the action is about, or null
+ * @param otherId UUID of the other player involved, or null
+ * @param amount Amount of money, 0 if none
+ * @param detail Additional detail, or null
+ */
+public record AuditEntry(long timestamp, AuditAction action, UUID sessionId, UUID playerId, UUID otherId,
+                         long amount, String detail) {
+}
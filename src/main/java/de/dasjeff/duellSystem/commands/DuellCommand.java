@@ -1,6 +1,17 @@
 package de.dasjeff.duellSystem.commands;
 
 import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.managers.LeaderboardManager;
+import de.dasjeff.duellSystem.managers.ReconcileManager;
+import de.dasjeff.duellSystem.metrics.HandlerProfiler;
+import de.dasjeff.duellSystem.metrics.LatencyRecorder;
+import de.dasjeff.duellSystem.metrics.Metric;
+import de.dasjeff.duellSystem.metrics.ProfiledHandler;
+import de.dasjeff.duellSystem.model.DuellHistoryRecord;
+import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.model.PlayerStats;
+import de.dasjeff.duellSystem.trace.TraceRecorder;
+import de.dasjeff.duellSystem.util.Money;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -8,10 +19,17 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -19,6 +37,10 @@ import java.util.stream.Collectors;
  */
 public class DuellCommand implements CommandExecutor, TabCompleter {
 
+    private static final DateTimeFormatter HISTORY_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy HH:mm");
+    private static final DateTimeFormatter EXPORT_FILE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final long RECONCILE_COMMAND_BUDGET_MILLIS = 50;
+
     private final DuellSystem plugin;
 
     /**
@@ -51,6 +73,42 @@ public class DuellCommand implements CommandExecutor, TabCompleter {
             case "reload":
                 handleReload(player);
                 break;
+            case "top":
+                handleTop(player, args);
+                break;
+            case "rank":
+                handleRank(player, args);
+                break;
+            case "history":
+                handleHistory(player, args);
+                break;
+            case "export":
+                handleExport(player);
+                break;
+            case "metrics":
+                handleMetrics(player);
+                break;
+            case "profile":
+                handleProfile(player, args);
+                break;
+            case "trace":
+                handleTrace(player, args);
+                break;
+            case "replay":
+                handleReplay(player, args);
+                break;
+            case "reconcile":
+                handleReconcile(player);
+                break;
+            case "spectate":
+                handleSpectate(player, args);
+                break;
+            case "bet":
+                handleBet(player, args);
+                break;
+            case "team":
+                handleTeam(player, args);
+                break;
             default:
                 handleRequest(player, args);
                 break;
@@ -81,14 +139,30 @@ public class DuellCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
+        // Check if player is watching a duel
+        if (plugin.getSpectatorManager().isSpectating(player.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(player, "spectate.not-while-spectating");
+            return;
+        }
+
         // Get the target player
         Player target = Bukkit.getPlayer(args[1]);
         if (target == null || !target.isOnline()) {
+            // The request may come from a player on another server
+            if (plugin.getNetworkManager() != null && plugin.getNetworkManager().acceptRequest(player, args[1])) {
+                return;
+            }
             plugin.getMessageManager().sendMessage(player, "general.player-not-found", 
                     createPlaceholderMap("player", args[1]));
             return;
         }
 
+        // The request may be for a team duel
+        if (plugin.getTeamDuelManager().hasInvite(player.getUniqueId(), target.getUniqueId())) {
+            plugin.getTeamDuelManager().accept(player, target);
+            return;
+        }
+
         // Check if target is already in a duel
         if (plugin.getDuellManager().isInDuel(target.getUniqueId())) {
             plugin.getMessageManager().sendMessage(player, "general.target-already-in-duel", 
@@ -114,6 +188,524 @@ public class DuellCommand implements CommandExecutor, TabCompleter {
         plugin.getMessageManager().sendMessage(player, "general.reload");
     }
 
+    /**
+     * Handle the /duel top [n] command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleTop(Player player, String[] args) {
+        if (!player.hasPermission("duel.stats")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        int limit = 10;
+        if (args.length > 1) {
+            try {
+                limit = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                limit = 0;
+            }
+
+            if (limit < 1) {
+                plugin.getMessageManager().sendMessage(player, "stats.invalid-number", 
+                        createPlaceholderMap("value", args[1]));
+                return;
+            }
+        }
+
+        List<LeaderboardManager.Entry> entries = plugin.getLeaderboardManager().getTop(limit);
+        if (entries.isEmpty()) {
+            plugin.getMessageManager().sendMessage(player, "stats.top-empty");
+            return;
+        }
+
+        player.sendMessage(plugin.getMessageManager().getMessage("stats.top-header"));
+        for (LeaderboardManager.Entry entry : entries) {
+            Map<String, String> placeholders = createPlaceholderMap("rank", String.valueOf(entry.rank()), 
+                    "player", entry.name());
+            placeholders.put("rating", String.valueOf(entry.rating()));
+            placeholders.put("wins", String.valueOf(entry.wins()));
+            placeholders.put("losses", String.valueOf(entry.losses()));
+            plugin.getMessageManager().sendMessage(player, "stats.top-entry", placeholders);
+        }
+    }
+
+    /**
+     * Handle the /duel rank [player] command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleRank(Player player, String[] args) {
+        if (!player.hasPermission("duel.stats")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        String name = args.length > 1 ? args[1] : player.getName();
+        PlayerStats stats = args.length > 1
+                ? plugin.getStatsManager().getStats(name)
+                : plugin.getStatsManager().getStats(player.getUniqueId());
+        if (stats == null) {
+            plugin.getMessageManager().sendMessage(player, "stats.no-stats", 
+                    createPlaceholderMap("player", name));
+            return;
+        }
+
+        Map<String, String> placeholders = createPlaceholderMap("player", stats.getName(), 
+                "rank", String.valueOf(plugin.getLeaderboardManager().getRank(stats.getPlayerId())));
+        placeholders.put("rating", String.valueOf(stats.getRating()));
+        placeholders.put("wins", String.valueOf(stats.getWins()));
+        placeholders.put("losses", String.valueOf(stats.getLosses()));
+        plugin.getMessageManager().sendMessage(player, "stats.rank", placeholders);
+
+        Map<String, String> combat = createPlaceholderMap("hits", String.valueOf(stats.getHits()), 
+                "damage", String.format("%.1f", stats.getDamageDealt()));
+        combat.put("crits", String.valueOf(stats.getCriticalHits()));
+        combat.put("combo", String.valueOf(stats.getLongestCombo()));
+        combat.put("fastest", stats.getFastestKillMillis() > 0 
+                ? String.format("%.1fs", stats.getFastestKillMillis() / 1000.0) : "-");
+        plugin.getMessageManager().sendMessage(player, "stats.combat", combat);
+    }
+
+    /**
+     * Handle the /duel history [player] command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleHistory(Player player, String[] args) {
+        if (!player.hasPermission("duel.stats")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        UUID targetId;
+        String targetName;
+        if (args.length > 1) {
+            Player online = Bukkit.getPlayer(args[1]);
+            PlayerStats stats = online == null ? plugin.getStatsManager().getStats(args[1]) : null;
+            if (online != null) {
+                targetId = online.getUniqueId();
+                targetName = online.getName();
+            } else if (stats != null) {
+                targetId = stats.getPlayerId();
+                targetName = stats.getName();
+            } else {
+                plugin.getMessageManager().sendMessage(player, "general.player-not-found", 
+                        createPlaceholderMap("player", args[1]));
+                return;
+            }
+        } else {
+            targetId = player.getUniqueId();
+            targetName = player.getName();
+        }
+
+        plugin.getHistoryManager().query(targetId, plugin.getConfigManager().getHistoryPageSize(), records -> {
+            if (!player.isOnline()) return;
+
+            if (records.isEmpty()) {
+                plugin.getMessageManager().sendMessage(player, "history.empty", 
+                        createPlaceholderMap("player", targetName));
+                return;
+            }
+
+            plugin.getMessageManager().sendMessage(player, "history.header", 
+                    createPlaceholderMap("player", targetName));
+            for (DuellHistoryRecord record : records) {
+                String path;
+                if (!record.isDecided()) {
+                    path = "history.entry-cancelled";
+                } else if (record.getWinnerId().equals(targetId)) {
+                    path = "history.entry-won";
+                } else {
+                    path = "history.entry-lost";
+                }
+
+                Map<String, String> placeholders = createPlaceholderMap(
+                        "date", HISTORY_DATE_FORMAT.format(LocalDateTime.ofInstant(record.getStartedAt(), ZoneId.systemDefault())), 
+                        "opponent", resolveName(record.getOpponentId(targetId)));
+                placeholders.put("amount", record.getBetAmount() > 0 ? Money.format(record.getBetAmount()) : "-");
+                placeholders.put("reason", plugin.getMessageManager().getRawMessage(
+                        "history.reasons." + record.getReason().name().toLowerCase()));
+                plugin.getMessageManager().sendMessage(player, path, placeholders);
+            }
+        });
+    }
+
+    /**
+     * Handle the /duel export command
+     * @param player Player executing the command
+     */
+    private void handleExport(Player player) {
+        if (!player.hasPermission("duel.admin")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        File target = new File(plugin.getDataFolder(), 
+                "history-export-" + EXPORT_FILE_FORMAT.format(LocalDateTime.now()) + ".csv");
+        plugin.getMessageManager().sendMessage(player, "history.export-started");
+        plugin.getHistoryManager().exportCsv(target, exported -> {
+            if (!player.isOnline()) return;
+
+            if (exported < 0) {
+                plugin.getMessageManager().sendMessage(player, "history.export-failed");
+            } else {
+                plugin.getMessageManager().sendMessage(player, "history.export-done", 
+                        createPlaceholderMap("count", String.valueOf(exported), "file", target.getName()));
+            }
+        });
+    }
+
+    /**
+     * Handle the /duel metrics command
+     * @param player Player executing the command
+     */
+    private void handleMetrics(Player player) {
+        if (!player.hasPermission("duel.admin")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        plugin.getMessageManager().sendMessage(player, "metrics.header");
+        for (Metric metric : plugin.getMetricsManager().getRegistry().getMetrics()) {
+            plugin.getMessageManager().sendMessage(player, "metrics.entry", 
+                    createPlaceholderMap("name", metric.getDisplayName(), "value", metric.summarize()));
+        }
+    }
+
+    /**
+     * Handle the /duel reconcile command: run the state reconciler now and show what it repaired
+     * @param player Player executing the command
+     */
+    private void handleReconcile(Player player) {
+        if (!player.hasPermission("duel.admin")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        ReconcileManager reconciler = plugin.getReconcileManager();
+        plugin.getTaskScheduler().executeGlobal(() -> {
+            int repaired = reconciler.run(TimeUnit.MILLISECONDS.toNanos(RECONCILE_COMMAND_BUDGET_MILLIS));
+            if (!player.isOnline()) return;
+
+            Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+            placeholders.put("repaired", String.valueOf(repaired));
+            placeholders.put("runs", String.valueOf(reconciler.getRuns()));
+            placeholders.put("sessions", String.valueOf(reconciler.getSessionsRepaired()));
+            placeholders.put("timeouts", String.valueOf(reconciler.getTimeoutsRepaired()));
+            placeholders.put("indexes", String.valueOf(reconciler.getIndexesRepaired()));
+            placeholders.put("duels", String.valueOf(plugin.getDuellManager().getActiveDuelCount()));
+            placeholders.put("requests", String.valueOf(plugin.getDuellManager().getPendingRequestCount()));
+            placeholders.put("targets", String.valueOf(plugin.getDuellManager().getPendingTargetCount()));
+            placeholders.put("senders", String.valueOf(plugin.getDuellManager().getSenderCount()));
+            plugin.getMessageManager().sendMessage(player, "reconcile.result", placeholders);
+            plugin.getMessageManager().sendMessage(player, "reconcile.totals", placeholders);
+            plugin.getMessageManager().sendMessage(player, "reconcile.state", placeholders);
+        });
+    }
+
+    /**
+     * Handle the /duel profile [start|stop] command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleProfile(Player player, String[] args) {
+        if (!player.hasPermission("duel.admin")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        HandlerProfiler profiler = plugin.getMetricsManager().getProfiler();
+        String action = args.length > 1 ? args[1].toLowerCase() : "";
+        switch (action) {
+            case "start":
+                profiler.start(plugin.getConfigManager().getProfilerSampleRate(), Bukkit.getCurrentTick());
+                plugin.getMessageManager().sendMessage(player, "profile.started", 
+                        createPlaceholderMap("every", String.valueOf(profiler.getSampleEvery())));
+                break;
+            case "stop":
+                if (!profiler.isRunning()) {
+                    plugin.getMessageManager().sendMessage(player, "profile.not-running");
+                    return;
+                }
+                profiler.stop();
+                sendProfileReport(player, profiler);
+                break;
+            default:
+                if (profiler.isRunning()) {
+                    sendProfileReport(player, profiler);
+                } else {
+                    plugin.getMessageManager().sendMessage(player, "profile.usage");
+                }
+                break;
+        }
+    }
+
+    /**
+     * Handle the /duel trace [start|stop] command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleTrace(Player player, String[] args) {
+        if (!player.hasPermission("duel.admin")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        TraceRecorder recorder = plugin.getTraceRecorder();
+        String action = args.length > 1 ? args[1].toLowerCase() : "";
+        switch (action) {
+            case "start":
+                if (recorder.isRecording()) {
+                    plugin.getMessageManager().sendMessage(player, "trace.already-running");
+                    return;
+                }
+                File target = new File(new File(plugin.getDataFolder(), "traces"), 
+                        "trace-" + EXPORT_FILE_FORMAT.format(LocalDateTime.now()) + ".dtr");
+                try {
+                    recorder.start(target);
+                    plugin.getMessageManager().sendMessage(player, "trace.started", 
+                            createPlaceholderMap("file", target.getName()));
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Could not start trace recording: " + e.getMessage());
+                    plugin.getMessageManager().sendMessage(player, "trace.failed");
+                }
+                break;
+            case "stop":
+                if (!recorder.isRecording()) {
+                    plugin.getMessageManager().sendMessage(player, "trace.not-running");
+                    return;
+                }
+                recorder.stop();
+                plugin.getMessageManager().sendMessage(player, "trace.stopped", 
+                        createPlaceholderMap("file", recorder.getFile().getName()));
+                break;
+            default:
+                plugin.getMessageManager().sendMessage(player, "trace.usage");
+                break;
+        }
+    }
+
+    /**
+     * Handle the /duel replay <id|stop> command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleReplay(Player player, String[] args) {
+        if (!player.hasPermission("duel.stats")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        if (args.length < 2) {
+            plugin.getMessageManager().sendMessage(player, "replay.usage");
+            return;
+        }
+
+        if (args[1].equalsIgnoreCase("stop")) {
+            if (plugin.getReplayManager().stop(player)) {
+                plugin.getMessageManager().sendMessage(player, "replay.stopped");
+            } else {
+                plugin.getMessageManager().sendMessage(player, "replay.not-playing");
+            }
+            return;
+        }
+
+        int id;
+        try {
+            id = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            id = 0;
+        }
+
+        if (id < 1) {
+            plugin.getMessageManager().sendMessage(player, "stats.invalid-number", 
+                    createPlaceholderMap("value", args[1]));
+            return;
+        }
+
+        plugin.getReplayManager().play(player, id);
+    }
+
+    /**
+     * Handle the /duel spectate <player|stop> command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleSpectate(Player player, String[] args) {
+        if (!player.hasPermission("duel.spectate")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        if (args.length < 2) {
+            plugin.getMessageManager().sendMessage(player, "spectate.usage");
+            return;
+        }
+
+        if (args[1].equalsIgnoreCase("stop")) {
+            if (plugin.getSpectatorManager().stopSpectating(player)) {
+                plugin.getMessageManager().sendMessage(player, "spectate.stopped");
+            } else {
+                plugin.getMessageManager().sendMessage(player, "spectate.not-spectating");
+            }
+            return;
+        }
+
+        Player target = Bukkit.getPlayer(args[1]);
+        if (target == null || !target.isOnline()) {
+            plugin.getMessageManager().sendMessage(player, "general.player-not-found", 
+                    createPlaceholderMap("player", args[1]));
+            return;
+        }
+
+        plugin.getSpectatorManager().spectate(player, target);
+    }
+
+    /**
+     * Handle the /duel bet <player> <amount> command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleBet(Player player, String[] args) {
+        if (!player.hasPermission("duel.spectate")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        if (args.length < 3) {
+            plugin.getMessageManager().sendMessage(player, "side-bet.usage");
+            return;
+        }
+
+        Player fighter = Bukkit.getPlayer(args[1]);
+        if (fighter == null || !fighter.isOnline()) {
+            plugin.getMessageManager().sendMessage(player, "general.player-not-found", 
+                    createPlaceholderMap("player", args[1]));
+            return;
+        }
+
+        long amount;
+        try {
+            amount = Money.parse(args[2]);
+        } catch (NumberFormatException e) {
+            plugin.getMessageManager().sendMessage(player, "side-bet.invalid-amount", 
+                    createPlaceholderMap("min", Money.format(plugin.getConfigManager().getMinSideBet()), 
+                            "max", Money.format(plugin.getConfigManager().getMaxSideBet())));
+            return;
+        }
+
+        plugin.getSideBetManager().pledge(player, fighter, amount);
+    }
+
+    /**
+     * Handle the /duel team <teammates> <opponents> [amount] command
+     * @param player Player executing the command
+     * @param args Command arguments
+     */
+    private void handleTeam(Player player, String[] args) {
+        if (!player.hasPermission("duel.request")) {
+            plugin.getMessageManager().sendMessage(player, "general.no-permission");
+            return;
+        }
+
+        if (args.length < 3) {
+            plugin.getMessageManager().sendMessage(player, "team.usage");
+            return;
+        }
+
+        List<Player> teammates = parsePlayerList(player, args[1]);
+        if (teammates == null) return;
+        List<Player> opponents = parsePlayerList(player, args[2]);
+        if (opponents == null) return;
+
+        long betAmount = 0;
+        if (args.length >= 4) {
+            try {
+                betAmount = Money.parse(args[3]);
+            } catch (NumberFormatException e) {
+                betAmount = -1;
+            }
+
+            // Check if bet amount is valid
+            if (betAmount < plugin.getConfigManager().getMinBet() || betAmount > plugin.getConfigManager().getMaxBet()) {
+                plugin.getMessageManager().sendMessage(player, "request.invalid-amount", 
+                        createPlaceholderMap("min", Money.format(plugin.getConfigManager().getMinBet()), 
+                                "max", Money.format(plugin.getConfigManager().getMaxBet())));
+                return;
+            }
+        }
+
+        plugin.getTeamDuelManager().createRequest(player, teammates, opponents, betAmount);
+    }
+
+    /**
+     * Resolve a comma-separated list of online players
+     * @param player Player to tell about unknown names
+     * @param names Comma-separated player names
+     * @return The players, or null if a name is unknown
+     */
+    private List<Player> parsePlayerList(Player player, String names) {
+        List<Player> players = new ArrayList<>();
+        for (String name : names.split(",")) {
+            if (name.isEmpty()) continue;
+
+            Player target = Bukkit.getPlayer(name);
+            if (target == null || !target.isOnline()) {
+                plugin.getMessageManager().sendMessage(player, "general.player-not-found", 
+                        createPlaceholderMap("player", name));
+                return null;
+            }
+            players.add(target);
+        }
+        return players;
+    }
+
+    /**
+     * Send the per-handler results of the profiler to a player
+     * @param player Player to send the report to
+     * @param profiler Profiler to report
+     */
+    private void sendProfileReport(Player player, HandlerProfiler profiler) {
+        int ticks = Math.max(1, Bukkit.getCurrentTick() - profiler.getStartTick());
+        plugin.getMessageManager().sendMessage(player, "profile.header", 
+                createPlaceholderMap("ticks", String.valueOf(ticks)));
+
+        for (ProfiledHandler handler : ProfiledHandler.values()) {
+            long invocations = profiler.getInvocations(handler);
+            if (invocations == 0) continue;
+
+            LatencyRecorder recorder = profiler.getRecorder(handler);
+            double perTick = invocations / (double) ticks;
+            Map<String, String> placeholders = createPlaceholderMap("handler", handler.getDisplayName(), 
+                    "per-tick", String.format("%.2f", perTick));
+            placeholders.put("p50", formatMicros(recorder.getPercentile(50)));
+            placeholders.put("p99", formatMicros(recorder.getPercentile(99)));
+            placeholders.put("max", formatMicros(recorder.getMax()));
+            placeholders.put("cost", formatMicros((long) (recorder.getMean() * perTick)));
+            plugin.getMessageManager().sendMessage(player, "profile.entry", placeholders);
+        }
+    }
+
+    /**
+     * Format a duration in microseconds
+     * @param nanos Duration in nanoseconds
+     * @return Formatted duration
+     */
+    private String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    /**
+     * Resolve the name of a player for display
+     * @param playerId UUID of the player
+     * @return Name of the player, or "Unknown"
+     */
+    private String resolveName(UUID playerId) {
+        return plugin.getProfileCache().getName(playerId);
+    }
+
     /**
      * Handle the /duel <player> [amount] command
      * @param player Player executing the command
@@ -131,50 +723,118 @@ public class DuellCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        // Get the target player
+        // Check if player is watching a duel
+        if (plugin.getSpectatorManager().isSpectating(player.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(player, "spectate.not-while-spectating");
+            return;
+        }
+
+        // Get the target player; players on other servers are looked up through the network
         Player target = Bukkit.getPlayer(args[0]);
-        if (target == null || !target.isOnline()) {
+        boolean remote = target == null || !target.isOnline();
+        if (remote && plugin.getNetworkManager() == null) {
             plugin.getMessageManager().sendMessage(player, "general.player-not-found", 
                     createPlaceholderMap("player", args[0]));
             return;
         }
 
         // Check if target is the same as sender
-        if (target.equals(player)) {
+        if (!remote && target.equals(player)) {
             plugin.getMessageManager().sendMessage(player, "general.cannot-duel-self");
             return;
         }
 
         // Check if target is already in a duel
-        if (plugin.getDuellManager().isInDuel(target.getUniqueId())) {
+        if (!remote && plugin.getDuellManager().isInDuel(target.getUniqueId())) {
             plugin.getMessageManager().sendMessage(player, "general.target-already-in-duel", 
                     createPlaceholderMap("player", target.getName()));
             return;
         }
 
+        // Check if target is watching a duel
+        if (!remote && plugin.getSpectatorManager().isSpectating(target.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(player, "spectate.target-spectating", 
+                    createPlaceholderMap("player", target.getName()));
+            return;
+        }
+
+        // Parse the series mode, which may follow the player or the bet amount
+        int rounds = 1;
+        int modeIndex = args.length > 1 && isSeriesMode(args[args.length - 1]) ? args.length - 1 : -1;
+        if (modeIndex > 0) {
+            if (!plugin.getConfigManager().isSeriesEnabled()) {
+                plugin.getMessageManager().sendMessage(player, "series.disabled");
+                return;
+            }
+            
+            rounds = parseRounds(args[modeIndex]);
+            if (rounds < 0) {
+                plugin.getMessageManager().sendMessage(player, "series.invalid", 
+                        createPlaceholderMap("max", String.valueOf(plugin.getConfigManager().getSeriesMaxRounds())));
+                return;
+            }
+            
+            if (remote && rounds > 1) {
+                plugin.getMessageManager().sendMessage(player, "series.not-remote");
+                return;
+            }
+        }
+
         // Parse bet amount
-        double betAmount = 0;
-        if (args.length > 1) {
+        long betAmount = 0;
+        if (args.length > 1 && modeIndex != 1) {
             try {
-                betAmount = Double.parseDouble(args[1]);
+                betAmount = Money.parse(args[1]);
             } catch (NumberFormatException e) {
                 plugin.getMessageManager().sendMessage(player, "request.invalid-amount", 
-                        createPlaceholderMap("min", String.valueOf(plugin.getConfigManager().getMinBet()), 
-                                "max", String.valueOf(plugin.getConfigManager().getMaxBet())));
+                        createPlaceholderMap("min", Money.format(plugin.getConfigManager().getMinBet()), 
+                                "max", Money.format(plugin.getConfigManager().getMaxBet())));
                 return;
             }
 
             // Check if bet amount is valid
             if (betAmount < plugin.getConfigManager().getMinBet() || betAmount > plugin.getConfigManager().getMaxBet()) {
                 plugin.getMessageManager().sendMessage(player, "request.invalid-amount", 
-                        createPlaceholderMap("min", String.valueOf(plugin.getConfigManager().getMinBet()), 
-                                "max", String.valueOf(plugin.getConfigManager().getMaxBet())));
+                        createPlaceholderMap("min", Money.format(plugin.getConfigManager().getMinBet()), 
+                                "max", Money.format(plugin.getConfigManager().getMaxBet())));
                 return;
             }
         }
 
         // Create the request
-        plugin.getDuellManager().createRequest(player, target, betAmount);
+        if (remote) {
+            plugin.getNetworkManager().sendRequest(player, args[0], betAmount);
+        } else {
+            plugin.getDuellManager().createRequest(player, target, betAmount, rounds);
+        }
+    }
+
+    /**
+     * Check if an argument names a series mode like bo3
+     * @param arg Command argument
+     * @return True if the argument starts with "bo"
+     */
+    private boolean isSeriesMode(String arg) {
+        return arg.regionMatches(true, 0, "bo", 0, 2);
+    }
+
+    /**
+     * Parse a series mode like bo3
+     * @param arg Command argument
+     * @return Number of rounds, or -1 if the mode is not an odd number of rounds within the limit
+     */
+    private int parseRounds(String arg) {
+        int rounds;
+        try {
+            rounds = Integer.parseInt(arg.substring(2));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        
+        if (rounds < 1 || rounds % 2 == 0 || rounds > plugin.getConfigManager().getSeriesMaxRounds()) {
+            return -1;
+        }
+        return rounds;
     }
 
     /**
@@ -185,13 +845,48 @@ public class DuellCommand implements CommandExecutor, TabCompleter {
         player.sendMessage(plugin.getMessageManager().getMessage("usage.header"));
         player.sendMessage(plugin.getMessageManager().getMessage("usage.line.request"));
         player.sendMessage(plugin.getMessageManager().getMessage("usage.line.request_bet"));
+        if (plugin.getConfigManager().isSeriesEnabled()) {
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.request_series"));
+        }
+        if (plugin.getConfigManager().isTeamDuelEnabled()) {
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.team"));
+        }
         player.sendMessage(plugin.getMessageManager().getMessage("usage.line.accept"));
+        if (player.hasPermission("duel.spectate")) {
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.spectate"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.bet"));
+        }
+        if (player.hasPermission("duel.stats")) {
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.top"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.rank"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.history"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.replay"));
+        }
         if (player.hasPermission("duel.admin")) {
             player.sendMessage(plugin.getMessageManager().getMessage("usage.line.reload"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.export"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.metrics"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.profile"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.trace"));
+            player.sendMessage(plugin.getMessageManager().getMessage("usage.line.reconcile"));
         }
         player.sendMessage(plugin.getMessageManager().getMessage("usage.footer"));
     }
 
+    /**
+     * Get the series modes players may request
+     * @return Modes like bo3 and bo5, empty if series are disabled
+     */
+    private List<String> getSeriesModes() {
+        List<String> modes = new ArrayList<>();
+        if (!plugin.getConfigManager().isSeriesEnabled()) return modes;
+        
+        for (int rounds = 3; rounds <= plugin.getConfigManager().getSeriesMaxRounds(); rounds += 2) {
+            modes.add("bo" + rounds);
+        }
+        return modes;
+    }
+
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (!(sender instanceof Player)) {
@@ -205,8 +900,26 @@ public class DuellCommand implements CommandExecutor, TabCompleter {
             
             // Add subcommands
             completions.add("accept");
+            if (plugin.getConfigManager().isTeamDuelEnabled()) {
+                completions.add("team");
+            }
+            if (player.hasPermission("duel.spectate")) {
+                completions.add("spectate");
+                completions.add("bet");
+            }
+            if (player.hasPermission("duel.stats")) {
+                completions.add("top");
+                completions.add("rank");
+                completions.add("history");
+                completions.add("replay");
+            }
             if (player.hasPermission("duel.admin")) {
                 completions.add("reload");
+                completions.add("export");
+                completions.add("metrics");
+                completions.add("profile");
+                completions.add("trace");
+                completions.add("reconcile");
             }
             
             // Add online players
@@ -218,21 +931,78 @@ public class DuellCommand implements CommandExecutor, TabCompleter {
             return completions.stream()
                     .filter(s -> s.toLowerCase().startsWith(args[0].toLowerCase()))
                     .collect(Collectors.toList());
+        } else if ((args.length == 2 || args.length == 3) && args[0].equalsIgnoreCase("team")) {
+            // Complete the last name of the comma-separated list
+            String list = args[args.length - 1];
+            String prefix = list.substring(0, list.lastIndexOf(',') + 1);
+            String last = list.substring(prefix.length()).toLowerCase();
+            return Bukkit.getOnlinePlayers().stream()
+                    .filter(p -> !p.equals(player))
+                    .map(Player::getName)
+                    .filter(s -> s.toLowerCase().startsWith(last))
+                    .map(s -> prefix + s)
+                    .collect(Collectors.toList());
         } else if (args.length == 2) {
             if (args[0].equalsIgnoreCase("accept")) {
                 // Only show players who have sent a request
                 return Bukkit.getOnlinePlayers().stream()
                         .filter(p -> !p.equals(player))
-                        .filter(p -> plugin.getDuellManager().hasPendingRequest(player.getUniqueId(), p.getUniqueId()))
+                        .filter(p -> plugin.getDuellManager().hasPendingRequest(player.getUniqueId(), p.getUniqueId())
+                                || plugin.getTeamDuelManager().hasInvite(player.getUniqueId(), p.getUniqueId()))
                         .map(Player::getName)
                         .filter(s -> s.toLowerCase().startsWith(args[1].toLowerCase()))
                         .collect(Collectors.toList());
-            } else {
-                // Suggest bet amounts
-                return Arrays.asList("10", "50", "100", "500", "1000").stream()
+            } else if ((args[0].equalsIgnoreCase("profile") || args[0].equalsIgnoreCase("trace")) 
+                    && player.hasPermission("duel.admin")) {
+                return Arrays.asList("start", "stop").stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            } else if (args[0].equalsIgnoreCase("spectate") && player.hasPermission("duel.spectate")) {
+                // Only show players who are in a duel
+                List<String> names = Bukkit.getOnlinePlayers().stream()
+                        .filter(p -> plugin.getDuellManager().isInDuel(p.getUniqueId()))
+                        .map(Player::getName)
+                        .collect(Collectors.toList());
+                names.add("stop");
+                return names.stream()
+                        .filter(s -> s.toLowerCase().startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            } else if (args[0].equalsIgnoreCase("bet") && player.hasPermission("duel.spectate")) {
+                // Only show the fighters of the watched duel
+                DuellSession session = plugin.getSpectatorManager().getWatchedSession(player.getUniqueId());
+                if (session == null) {
+                    return new ArrayList<>();
+                }
+                return Arrays.asList(session.getPlayer1Id(), session.getPlayer2Id()).stream()
+                        .map(Bukkit::getPlayer)
+                        .filter(p -> p != null)
+                        .map(Player::getName)
+                        .filter(s -> s.toLowerCase().startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            } else if (args[0].equalsIgnoreCase("replay") && player.hasPermission("duel.stats")) {
+                return "stop".startsWith(args[1].toLowerCase()) ? Arrays.asList("stop") : new ArrayList<>();
+            } else if (args[0].equalsIgnoreCase("top")) {
+                return Arrays.asList("5", "10", "25").stream()
                         .filter(s -> s.startsWith(args[1]))
                         .collect(Collectors.toList());
+            } else if (args[0].equalsIgnoreCase("rank") || args[0].equalsIgnoreCase("history")) {
+                return Bukkit.getOnlinePlayers().stream()
+                        .map(Player::getName)
+                        .filter(s -> s.toLowerCase().startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
+            } else {
+                // Suggest bet amounts and series modes
+                List<String> suggestions = new ArrayList<>(Arrays.asList("10", "50", "100", "500", "1000"));
+                suggestions.addAll(getSeriesModes());
+                return suggestions.stream()
+                        .filter(s -> s.startsWith(args[1].toLowerCase()))
+                        .collect(Collectors.toList());
             }
+        } else if (args.length == 3 && !isSeriesMode(args[1]) && Bukkit.getPlayer(args[0]) != null) {
+            // Suggest series modes after the bet amount
+            return getSeriesModes().stream()
+                    .filter(s -> s.startsWith(args[2].toLowerCase()))
+                    .collect(Collectors.toList());
         }
 
         return new ArrayList<>();
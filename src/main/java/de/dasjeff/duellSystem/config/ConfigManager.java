@@ -1,6 +1,8 @@
 package de.dasjeff.duellSystem.config;
 
 import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.model.TeamDuelSession;
+import de.dasjeff.duellSystem.util.Money;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
@@ -14,6 +16,10 @@ public class ConfigManager {
     private final DuellSystem plugin;
     private FileConfiguration config;
     private File configFile;
+    private long minBet;
+    private long maxBet;
+    private long minSideBet;
+    private long maxSideBet;
 
     /**
      * Constructor
@@ -35,9 +41,30 @@ public class ConfigManager {
         }
 
         config = YamlConfiguration.loadConfiguration(configFile);
+        minBet = readAmount("economy.min-bet", 10 * Money.UNIT);
+        maxBet = readAmount("economy.max-bet", 10000 * Money.UNIT);
+        minSideBet = readAmount("spectator.side-bets.min", Money.UNIT);
+        maxSideBet = readAmount("spectator.side-bets.max", 1000 * Money.UNIT);
         plugin.getLogger().info("Konfiguration geladen!");
     }
 
+    /**
+     * Read a money amount
+     * @param path Path in the configuration
+     * @param def Default in minor units
+     * @return Amount in minor units
+     */
+    private long readAmount(String path, long def) {
+        String value = config.getString(path);
+        if (value == null) return def;
+        try {
+            return Money.parse(value);
+        } catch (NumberFormatException e) {
+            plugin.getLogger().warning("Ungültiger Betrag für " + path + ": " + value);
+            return def;
+        }
+    }
+
     // Reload the configuration
     public void reload() {
         loadConfig();
@@ -75,20 +102,124 @@ public class ConfigManager {
         return config.getInt("settings.request-timeout", 30);
     }
 
+    /**
+     * Get the number of requests a player can send in a row before the rate limit applies
+     * @return Request burst, 0 to disable the rate limit
+     */
+    public int getRequestBurst() {
+        return config.getInt("settings.request-burst", 5);
+    }
+
+    /**
+     * Get the time after which a player can send another request
+     * @return Refill interval in milliseconds
+     */
+    public long getRequestRefillMillis() {
+        return (long) (config.getDouble("settings.request-refill", 3) * 1000);
+    }
+
+    /**
+     * Get the maximum number of pending requests per target; the oldest is evicted beyond it
+     * @return Maximum pending requests, 0 for no limit
+     */
+    public int getMaxPendingRequests() {
+        return config.getInt("settings.max-pending-requests", 5);
+    }
+
+    /**
+     * Get the maximum number of cached player profiles
+     * @return Maximum cached profiles
+     */
+    public int getProfileCacheSize() {
+        return Math.max(16, config.getInt("settings.profile-cache-size", 1000));
+    }
+
+    /**
+     * Get the interval of the state reconciler
+     * @return Interval in seconds
+     */
+    public int getReconcileInterval() {
+        return Math.max(1, config.getInt("reconcile.interval", 60));
+    }
+
+    /**
+     * Get the time one reconciler run may take
+     * @return Time budget in milliseconds
+     */
+    public int getReconcileBudget() {
+        return Math.max(1, config.getInt("reconcile.budget", 2));
+    }
+
+    /**
+     * Check if duels and requests are saved on shutdown and restored after the restart
+     * @return True if restoring is enabled
+     */
+    public boolean isRestoreEnabled() {
+        return config.getBoolean("restore.enabled", true);
+    }
+
+    /**
+     * Get the time players have after the restart to return to a saved duel
+     * @return Grace period in seconds
+     */
+    public int getRestoreGracePeriod() {
+        return Math.max(1, config.getInt("restore.grace-period", 120));
+    }
+
+    /**
+     * Get the longest downtime after which saved duels are still restored
+     * @return Maximum downtime in seconds
+     */
+    public int getRestoreMaxDowntime() {
+        return config.getInt("restore.max-downtime", 600);
+    }
+
+    /**
+     * Check if the audit log is enabled
+     * @return True if the audit log is enabled
+     */
+    public boolean isAuditEnabled() {
+        return config.getBoolean("audit.enabled", true);
+    }
+
+    /**
+     * Get the number of audit entries that can wait for the writer
+     * @return Audit buffer size
+     */
+    public int getAuditBufferSize() {
+        return Math.max(64, config.getInt("audit.buffer-size", 8192));
+    }
+
+    /**
+     * Get the size at which the audit log is rotated
+     * @return Maximum file size in MB
+     */
+    public int getAuditMaxFileSize() {
+        return Math.max(1, config.getInt("audit.max-file-size", 10));
+    }
+
+    /**
+     * Get the number of rotated audit log files to keep
+     * @return Number of old files
+     */
+    public int getAuditMaxFiles() {
+        return Math.max(0, config.getInt("audit.max-files", 5));
+    }
+
     /**
      * Get the minimum bet amount
-     * @return Minimum bet amount
+     * @return Minimum bet amount in minor units
      */
-    public double getMinBet() {
-        return config.getDouble("economy.min-bet", 10);
+    public long getMinBet() {
+        return minBet;
     }
 
     /**
      * Get the maximum bet amount
-     * @return Maximum bet amount
+     * @return Maximum bet amount in minor units
      */
-    public double getMaxBet() {
-        return config.getDouble("economy.max-bet", 10000);
+    public long getMaxBet() {
+        return maxBet;
     }
 
     /**
@@ -99,6 +230,278 @@ public class ConfigManager {
         return config.getBoolean("economy.allow-negative-balance", false);
     }
 
+    /**
+     * Get the rating assigned to players on their first duel
+     * @return Start rating
+     */
+    public int getStartRating() {
+        return config.getInt("stats.start-rating", 1000);
+    }
+
+    /**
+     * Get the K-factor used for rating updates
+     * @return K-factor
+     */
+    public int getKFactor() {
+        return config.getInt("stats.k-factor", 32);
+    }
+
+    /**
+     * Get the number of entries kept in the leaderboard snapshot
+     * @return Leaderboard size
+     */
+    public int getLeaderboardSize() {
+        return config.getInt("stats.leaderboard-size", 100);
+    }
+
+    /**
+     * Get the interval between automatic statistics saves in seconds
+     * @return Autosave interval in seconds
+     */
+    public int getStatsAutosaveInterval() {
+        return config.getInt("stats.autosave-interval", 300);
+    }
+
+    /**
+     * Check if finished duels are recorded in the history log
+     * @return True if the history log is enabled
+     */
+    public boolean isHistoryEnabled() {
+        return config.getBoolean("history.enabled", true);
+    }
+
+    /**
+     * Get the number of records per history segment file
+     * @return Records per segment
+     */
+    public int getHistorySegmentRecords() {
+        return config.getInt("history.segment-records", 100000);
+    }
+
+    /**
+     * Get the number of duels shown by /duel history
+     * @return Number of duels shown
+     */
+    public int getHistoryPageSize() {
+        return config.getInt("history.page-size", 10);
+    }
+
+    /**
+     * Check if metrics are exported to metrics.prom
+     * @return True if the metrics export is enabled
+     */
+    public boolean isMetricsExportEnabled() {
+        return config.getBoolean("metrics.export-enabled", true);
+    }
+
+    /**
+     * Get the interval between metrics exports in seconds
+     * @return Export interval in seconds
+     */
+    public int getMetricsExportInterval() {
+        return config.getInt("metrics.export-interval", 15);
+    }
+
+    /**
+     * Get the fraction of event handler invocations timed by the profiler
+     * @return Sample rate between 0 and 1
+     */
+    public double getProfilerSampleRate() {
+        return config.getDouble("metrics.profiler-sample-rate", 0.1);
+    }
+
+    /**
+     * Get the size after which a trace recording stops automatically
+     * @return Maximum trace size in bytes
+     */
+    public long getTraceMaxBytes() {
+        return config.getLong("trace.max-size-mb", 64) * 1024L * 1024L;
+    }
+
+    /**
+     * Check if fighting duels are recorded for /duel replay
+     * @return True if replays are recorded
+     */
+    public boolean isReplayEnabled() {
+        return config.getBoolean("replay.enabled", false);
+    }
+
+    /**
+     * Get the length of the end of a duel kept in a replay
+     * @return Maximum replay length in seconds
+     */
+    public int getReplayMaxSeconds() {
+        return Math.max(1, config.getInt("replay.max-seconds", 300));
+    }
+
+    /**
+     * Check if the in-duel HUD is shown
+     * @return True if the HUD is enabled
+     */
+    public boolean isHudEnabled() {
+        return config.getBoolean("hud.enabled", true);
+    }
+
+    /**
+     * Check if the countdown is shown as a boss bar
+     * @return True if the boss bar is enabled
+     */
+    public boolean isHudBossBarEnabled() {
+        return config.getBoolean("hud.bossbar", true);
+    }
+
+    /**
+     * Check if the sidebar is shown while fighting
+     * @return True if the sidebar is enabled
+     */
+    public boolean isHudSidebarEnabled() {
+        return config.getBoolean("hud.sidebar", true);
+    }
+
+    /**
+     * Get the number of ticks between two updates of a player's HUD
+     * @return Update interval in ticks
+     */
+    public int getHudUpdateInterval() {
+        return Math.max(1, config.getInt("hud.update-interval", 5));
+    }
+
+    /**
+     * Check if players can spectate duels
+     * @return True if spectating is enabled
+     */
+    public boolean isSpectatorEnabled() {
+        return config.getBoolean("spectator.enabled", true);
+    }
+
+    /**
+     * Get the maximum number of spectators per duel
+     * @return Maximum number of spectators
+     */
+    public int getSpectatorMaxPerDuel() {
+        return Math.max(1, config.getInt("spectator.max-per-duel", 50));
+    }
+
+    /**
+     * Get the maximum distance of spectators from the duel
+     * @return Maximum distance in blocks
+     */
+    public double getSpectatorMaxDistance() {
+        return Math.max(4, config.getDouble("spectator.max-distance", 32));
+    }
+
+    /**
+     * Get the number of ticks between two checks of the spectator distance
+     * @return Check interval in ticks
+     */
+    public int getSpectatorCheckInterval() {
+        return Math.max(1, config.getInt("spectator.check-interval", 10));
+    }
+
+    /**
+     * Check if spectators can bet on the fighters
+     * @return True if side bets are enabled
+     */
+    public boolean isSideBetEnabled() {
+        return config.getBoolean("spectator.side-bets.enabled", true);
+    }
+
+    /**
+     * Get the minimum side bet of a spectator
+     * @return Minimum side bet in minor units
+     */
+    public long getMinSideBet() {
+        return minSideBet;
+    }
+
+    /**
+     * Get the maximum side bet of a spectator
+     * @return Maximum side bet in minor units
+     */
+    public long getMaxSideBet() {
+        return maxSideBet;
+    }
+
+    /**
+     * Check if best-of-N series are enabled
+     * @return True if series are enabled
+     */
+    public boolean isSeriesEnabled() {
+        return config.getBoolean("series.enabled", true);
+    }
+
+    /**
+     * Get the maximum number of rounds of a series
+     * @return Maximum number of rounds
+     */
+    public int getSeriesMaxRounds() {
+        return Math.max(1, Math.min(99, config.getInt("series.max-rounds", 5)));
+    }
+
+    /**
+     * Get the pause between two rounds of a series
+     * @return Pause in ticks
+     */
+    public int getSeriesRoundDelay() {
+        return Math.max(1, config.getInt("series.round-delay", 40));
+    }
+
+    /**
+     * Get the countdown duration before the following rounds of a series
+     * @return Countdown duration in seconds
+     */
+    public int getSeriesRoundCountdown() {
+        return Math.max(0, config.getInt("series.round-countdown", 3));
+    }
+
+    /**
+     * Check if team duels are enabled
+     * @return True if team duels are enabled
+     */
+    public boolean isTeamDuelEnabled() {
+        return config.getBoolean("team-duels.enabled", true);
+    }
+
+    /**
+     * Get the maximum number of players per team
+     * @return Maximum team size
+     */
+    public int getTeamDuelMaxSize() {
+        return Math.max(2, Math.min(TeamDuelSession.MAX_MEMBERS / 2, config.getInt("team-duels.max-team-size", 3)));
+    }
+
+    /**
+     * Check if requests to players on other servers of the network are enabled
+     * @return True if network requests are enabled
+     */
+    public boolean isNetworkEnabled() {
+        return config.getBoolean("network.enabled", false);
+    }
+
+    /**
+     * Get the name of this server as configured in the proxy
+     * @return Server name
+     */
+    public String getNetworkServerName() {
+        return config.getString("network.server-name", "lobby");
+    }
+
+    /**
+     * Get the server that network duels are fought on
+     * @return Server name
+     */
+    public String getNetworkDuelServer() {
+        return config.getString("network.duel-server", "pvp");
+    }
+
+    /**
+     * Get the transport used for network messages
+     * @return "plugin-messaging" or "memory"
+     */
+    public String getNetworkTransport() {
+        return config.getString("network.transport", "plugin-messaging");
+    }
+
     /**
      * Check if debug mode is enabled
      * @return True if debug mode is enabled
@@ -83,6 +83,42 @@ public class MessageManager {
         return getMessage(path, null);
     }
 
+    /**
+     * Get a message component without the prefix, e.g. for scoreboard lines, boss bars and the action bar
+     * @param path Path to the message
+     * @param placeholders Placeholders to replace
+     * @return Formatted component
+     */
+    public Component getText(String path, Map<String, String> placeholders) {
+        String message = messages.getString(path);
+        if (message == null) {
+            plugin.getLogger().warning("Message not found: " + path);
+            return Component.text(path);
+        }
+
+        if (placeholders != null) {
+            for (Map.Entry<String, String> entry : placeholders.entrySet()) {
+                message = message.replace("%" + entry.getKey() + "%", entry.getValue());
+            }
+        }
+
+        return colorize(message);
+    }
+
+    /**
+     * Get a raw message string without prefix and colors, e.g. to use it as a placeholder value
+     * @param path Path to the message
+     * @return Raw message, or the path itself if the message is missing
+     */
+    public String getRawMessage(String path) {
+        String message = messages.getString(path);
+        if (message == null) {
+            plugin.getLogger().warning("Message not found: " + path);
+            return path;
+        }
+        return message;
+    }
+
     /**
      * Get a title component from the configuration
      * @param path Path to the title
@@ -156,24 +192,45 @@ public class MessageManager {
      * @param fadeOut Fade out time in ticks
      */
     public void sendTitle(Player player, String path, Map<String, String> placeholders, int fadeIn, int stay, int fadeOut) {
+        player.showTitle(createTitle(path, placeholders, fadeIn, stay, fadeOut));
+    }
+
+    /**
+     * Send a title to a player with default timings using Adventure API
+     * @param player Player to send the title to
+     * @param path Path to the title
+     * @param placeholders Placeholders to replace
+     */
+    public void sendTitle(Player player, String path, Map<String, String> placeholders) {
+        sendTitle(player, path, placeholders, 10, 70, 20); 
+    }
+
+    /**
+     * Create a title from the configuration, e.g. to show it to several players
+     * @param path Path to the title
+     * @param placeholders Placeholders to replace
+     * @param fadeIn Fade in time in ticks
+     * @param stay Stay time in ticks
+     * @param fadeOut Fade out time in ticks
+     * @return The title
+     */
+    public Title createTitle(String path, Map<String, String> placeholders, int fadeIn, int stay, int fadeOut) {
         Component titleComponent = getTitle(path, placeholders);
         Component subtitleComponent = getSubtitle(path, placeholders);
 
         Title.Times times = Title.Times.times(Ticks.duration(fadeIn), Ticks.duration(stay), Ticks.duration(fadeOut));
 
-        Title title = Title.title(titleComponent, subtitleComponent, times);
-
-        player.showTitle(title);
+        return Title.title(titleComponent, subtitleComponent, times);
     }
 
     /**
-     * Send a title to a player with default timings using Adventure API
-     * @param player Player to send the title to
+     * Create a title with default timings from the configuration
      * @param path Path to the title
      * @param placeholders Placeholders to replace
+     * @return The title
      */
-    public void sendTitle(Player player, String path, Map<String, String> placeholders) {
-        sendTitle(player, path, placeholders, 10, 70, 20); 
+    public Title createTitle(String path, Map<String, String> placeholders) {
+        return createTitle(path, placeholders, 10, 70, 20);
     }
 
     /**
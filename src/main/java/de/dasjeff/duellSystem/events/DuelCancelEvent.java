@@ -0,0 +1,53 @@
+package de.dasjeff.duellSystem.events;
+
+import de.dasjeff.duellSystem.model.DuellSession;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called when a 1v1 duel is cancelled without a result, e.g. when the plugin is disabled; bets are not settled.
+ * Team duels do not fire it.
+ */
+public class DuelCancelEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final DuellSession session;
+
+    /**
+     * Constructor
+     * @param session The cancelled session
+     */
+    public DuelCancelEvent(DuellSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Get the cancelled session
+     * @return Duel session
+     */
+    public DuellSession getSession() {
+        return session;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    /**
+     * Get the handler list of this event
+     * @return Handler list
+     */
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    /**
+     * Check if any listener is registered, so the event only has to be built when someone receives it
+     * @return True if the event has listeners
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+}
@@ -0,0 +1,88 @@
+package de.dasjeff.duellSystem.events;
+
+import de.dasjeff.duellSystem.model.DuellEndReason;
+import de.dasjeff.duellSystem.model.DuellSession;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.UUID;
+
+/**
+ * Called when a 1v1 duel has been decided by a kill or because a participant left; team duels do not fire it
+ */
+public class DuelEndEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final DuellSession session;
+    private final UUID winnerId;
+    private final UUID loserId;
+    private final DuellEndReason reason;
+
+    /**
+     * Constructor
+     * @param session The ended session
+     * @param winnerId UUID of the winner
+     * @param loserId UUID of the loser
+     * @param reason Reason why the duel ended
+     */
+    public DuelEndEvent(DuellSession session, UUID winnerId, UUID loserId, DuellEndReason reason) {
+        this.session = session;
+        this.winnerId = winnerId;
+        this.loserId = loserId;
+        this.reason = reason;
+    }
+
+    /**
+     * Get the ended session
+     * @return Duel session
+     */
+    public DuellSession getSession() {
+        return session;
+    }
+
+    /**
+     * Get the winner
+     * @return UUID of the winner
+     */
+    public UUID getWinnerId() {
+        return winnerId;
+    }
+
+    /**
+     * Get the loser
+     * @return UUID of the loser
+     */
+    public UUID getLoserId() {
+        return loserId;
+    }
+
+    /**
+     * Get the reason why the duel ended
+     * @return End reason
+     */
+    public DuellEndReason getReason() {
+        return reason;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    /**
+     * Get the handler list of this event
+     * @return Handler list
+     */
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    /**
+     * Check if any listener is registered, so the event only has to be built when someone receives it
+     * @return True if the event has listeners
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+}
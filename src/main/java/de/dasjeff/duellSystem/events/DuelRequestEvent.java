@@ -0,0 +1,86 @@
+package de.dasjeff.duellSystem.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called when a player sends a duel request to a player on this server; cancelling it drops the request
+ */
+public class DuelRequestEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Player sender;
+    private final Player target;
+    private final long betAmount;
+    private boolean cancelled;
+
+    /**
+     * Constructor
+     * @param sender Player sending the request
+     * @param target Player receiving the request
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     */
+    public DuelRequestEvent(Player sender, Player target, long betAmount) {
+        this.sender = sender;
+        this.target = target;
+        this.betAmount = betAmount;
+    }
+
+    /**
+     * Get the player sending the request
+     * @return Sender
+     */
+    public Player getSender() {
+        return sender;
+    }
+
+    /**
+     * Get the player receiving the request
+     * @return Target
+     */
+    public Player getTarget() {
+        return target;
+    }
+
+    /**
+     * Get the bet amount
+     * @return Bet amount in minor units (0 for friendly duel)
+     */
+    public long getBetAmount() {
+        return betAmount;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    /**
+     * Get the handler list of this event
+     * @return Handler list
+     */
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    /**
+     * Check if any listener is registered, so the event only has to be built when someone receives it
+     * @return True if the event has listeners
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+}
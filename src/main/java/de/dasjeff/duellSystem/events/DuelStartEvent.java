@@ -0,0 +1,88 @@
+package de.dasjeff.duellSystem.events;
+
+import de.dasjeff.duellSystem.model.DuellSession;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called when two players are about to enter a duel, before the countdown; cancelling it prevents the duel.
+ * An accepted request stays consumed when the duel is cancelled. Team duels do not fire it.
+ */
+public class DuelStartEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final Player sender;
+    private final Player target;
+    private final DuellSession session;
+    private boolean cancelled;
+
+    /**
+     * Constructor
+     * @param sender Player who sent the request
+     * @param target Player who accepted the request
+     * @param session Session of the duel, not yet registered
+     */
+    public DuelStartEvent(Player sender, Player target, DuellSession session) {
+        this.sender = sender;
+        this.target = target;
+        this.session = session;
+    }
+
+    /**
+     * Get the player who sent the request
+     * @return Sender
+     */
+    public Player getSender() {
+        return sender;
+    }
+
+    /**
+     * Get the player who accepted the request
+     * @return Target
+     */
+    public Player getTarget() {
+        return target;
+    }
+
+    /**
+     * Get the duel session
+     * @return Duel session
+     */
+    public DuellSession getSession() {
+        return session;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    /**
+     * Get the handler list of this event
+     * @return Handler list
+     */
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+
+    /**
+     * Check if any listener is registered, so the event only has to be built when someone receives it
+     * @return True if the event has listeners
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+}
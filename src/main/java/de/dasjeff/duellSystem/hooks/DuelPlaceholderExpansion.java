@@ -0,0 +1,52 @@
+package de.dasjeff.duellSystem.hooks;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.bukkit.OfflinePlayer;
+
+/**
+ * PlaceholderAPI expansion for the {@code %duel_...%} placeholders.
+ * <p>
+ * Only loaded if PlaceholderAPI is installed. The values come from the cached strings of the
+ * {@link de.dasjeff.duellSystem.managers.PlaceholderManager}.
+ */
+public class DuelPlaceholderExpansion extends PlaceholderExpansion {
+
+    private final DuellSystem plugin;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public DuelPlaceholderExpansion(DuellSystem plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "duel";
+    }
+
+    @Override
+    public String getAuthor() {
+        return "DasJeff";
+    }
+
+    @Override
+    public String getVersion() {
+        return plugin.getPluginMeta().getVersion();
+    }
+
+    @Override
+    public boolean persist() {
+        // Keep the expansion registered across /papi reload
+        return true;
+    }
+
+    @Override
+    public String onRequest(OfflinePlayer player, String params) {
+        if (player == null) return null;
+
+        return plugin.getPlaceholderManager().resolve(player.getUniqueId(), params);
+    }
+}
@@ -0,0 +1,220 @@
+package de.dasjeff.duellSystem.hud;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.model.DuellSession;
+import io.papermc.paper.scoreboard.numbers.NumberFormat;
+import net.kyori.adventure.bossbar.BossBar;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.Criteria;
+import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Scoreboard;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-duel HUD of one player: a boss bar during the countdown and a sidebar while fighting.
+ * Between the rounds of a series the boss bar comes back for the round countdown.
+ * <p>
+ * The HUD remembers the values it last sent (countdown percent and seconds, opponent health in tenths,
+ * elapsed seconds) and only touches the boss bar or a sidebar line when that value changed, so an
+ * unchanged HUD sends no packets.
+ */
+public class PlayerHud {
+
+    private static final String OBJECTIVE = "duel_hud";
+    private static final String ENTRY_OPPONENT = "hud-opponent";
+    private static final String ENTRY_HEALTH = "hud-health";
+    private static final String ENTRY_TIME = "hud-time";
+    private static final String ENTRY_BET = "hud-bet";
+
+    private final DuellSystem plugin;
+    private final Player player;
+    private final DuellSession session;
+    private final UUID opponentId;
+    private final String opponentName;
+    private final int slot;
+    private final boolean bossBarEnabled;
+    private final boolean sidebarEnabled;
+    private long shownAt;
+    private long countdownMillis;
+    private boolean fighting;
+    private BossBar bossBar;
+    private int sentProgress = -1;
+    private int sentCountdownSeconds = -1;
+    private Scoreboard previousScoreboard;
+    private Objective objective;
+    private int sentHealth = -1;
+    private int sentSeconds = -1;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     * @param player Player the HUD is shown to
+     * @param session Duel session of the player
+     * @param opponentName Name of the opponent
+     * @param slot Update slot, spreads the updates of many HUDs over the update interval
+     * @param bossBarEnabled True to show the countdown boss bar
+     * @param sidebarEnabled True to show the sidebar while fighting
+     */
+    public PlayerHud(DuellSystem plugin, Player player, DuellSession session, String opponentName, int slot,
+                     boolean bossBarEnabled, boolean sidebarEnabled) {
+        this.plugin = plugin;
+        this.player = player;
+        this.session = session;
+        this.opponentId = session.getOpponentId(player.getUniqueId());
+        this.opponentName = opponentName;
+        this.shownAt = System.currentTimeMillis();
+        this.countdownMillis = plugin.getConfigManager().getCountdownDuration() * 1000L;
+        this.slot = slot;
+        this.bossBarEnabled = bossBarEnabled;
+        this.sidebarEnabled = sidebarEnabled;
+        showBossBar();
+    }
+
+    /**
+     * Get the update slot
+     * @return Update slot
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Get the duel session
+     * @return Duel session
+     */
+    public DuellSession getSession() {
+        return session;
+    }
+
+    /**
+     * Bring the HUD up to date, sending only what changed
+     * @param now Current time in epoch milliseconds
+     */
+    public void update(long now) {
+        if (!session.isStarted()) {
+            // A round of a series ended; the next countdown starts after the round delay
+            if (fighting) {
+                fighting = false;
+                shownAt = now + plugin.getConfigManager().getSeriesRoundDelay() * 50L;
+                countdownMillis = plugin.getConfigManager().getSeriesRoundCountdown() * 1000L;
+                showBossBar();
+            }
+            updateCountdown(now);
+            return;
+        }
+        fighting = true;
+
+        if (bossBar != null) {
+            player.hideBossBar(bossBar);
+            bossBar = null;
+        }
+
+        if (!sidebarEnabled) return;
+        if (objective == null) {
+            createSidebar();
+        }
+
+        Player opponent = Bukkit.getPlayer(opponentId);
+        int health = opponent != null ? (int) Math.round(opponent.getHealth() * 10.0) : 0;
+        if (health != sentHealth) {
+            setLine(ENTRY_HEALTH, "hud.health", "health", String.format("%.1f", health / 10.0));
+            sentHealth = health;
+        }
+
+        long startedAt = session.getStartedAt() != null ? session.getStartedAt().toEpochMilli() : now;
+        int seconds = (int) Math.max(0, (now - startedAt) / 1000);
+        if (seconds != sentSeconds) {
+            setLine(ENTRY_TIME, "hud.time", "time", String.format("%d:%02d", seconds / 60, seconds % 60));
+            sentSeconds = seconds;
+        }
+    }
+
+    // Remove the boss bar and give the player their previous scoreboard back
+    public void remove() {
+        if (bossBar != null) {
+            player.hideBossBar(bossBar);
+            bossBar = null;
+        }
+
+        if (objective != null) {
+            objective.unregister();
+            objective = null;
+            if (player.isOnline()) {
+                player.setScoreboard(previousScoreboard != null
+                        ? previousScoreboard : Bukkit.getScoreboardManager().getMainScoreboard());
+            }
+        }
+    }
+
+    /**
+     * Update the countdown boss bar
+     * @param now Current time in epoch milliseconds
+     */
+    private void updateCountdown(long now) {
+        if (bossBar == null) return;
+
+        long remaining = Math.min(countdownMillis, Math.max(0, countdownMillis - (now - shownAt)));
+        int progress = (int) (remaining * 100 / countdownMillis);
+        if (progress != sentProgress) {
+            bossBar.progress(progress / 100.0f);
+            sentProgress = progress;
+        }
+
+        int seconds = (int) ((remaining + 999) / 1000);
+        if (seconds != sentCountdownSeconds) {
+            Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+            placeholders.put("seconds", String.valueOf(seconds));
+            bossBar.name(plugin.getMessageManager().getText("hud.countdown", placeholders));
+            sentCountdownSeconds = seconds;
+        }
+    }
+
+    // Show a full countdown boss bar if enabled
+    private void showBossBar() {
+        if (!bossBarEnabled || countdownMillis <= 0 || bossBar != null) return;
+
+        this.bossBar = BossBar.bossBar(plugin.getMessageManager().getText("hud.countdown", null), 1.0f,
+                BossBar.Color.RED, BossBar.Overlay.PROGRESS);
+        this.sentProgress = -1;
+        this.sentCountdownSeconds = -1;
+        player.showBossBar(bossBar);
+    }
+
+    // Create the sidebar with the lines that never change
+    private void createSidebar() {
+        previousScoreboard = player.getScoreboard();
+        Scoreboard scoreboard = Bukkit.getScoreboardManager().getNewScoreboard();
+        objective = scoreboard.registerNewObjective(OBJECTIVE, Criteria.DUMMY,
+                plugin.getMessageManager().getText("hud.title", null));
+        objective.numberFormat(NumberFormat.blank());
+        objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+
+        objective.getScore(ENTRY_OPPONENT).setScore(4);
+        objective.getScore(ENTRY_HEALTH).setScore(3);
+        objective.getScore(ENTRY_TIME).setScore(2);
+        setLine(ENTRY_OPPONENT, "hud.opponent", "player", opponentName);
+        if (!session.isFriendly()) {
+            objective.getScore(ENTRY_BET).setScore(1);
+            setLine(ENTRY_BET, "hud.bet", "amount", session.getBetDisplay());
+        }
+
+        player.setScoreboard(scoreboard);
+    }
+
+    /**
+     * Replace the text of a sidebar line
+     * @param entry Score entry of the line
+     * @param path Path to the message
+     * @param key Placeholder key
+     * @param value Placeholder value
+     */
+    private void setLine(String entry, String path, String key, String value) {
+        Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+        placeholders.put(key, value);
+        objective.getScore(entry).customName(plugin.getMessageManager().getText(path, placeholders));
+    }
+}
@@ -1,6 +1,9 @@
 package de.dasjeff.duellSystem.listeners;
 
 import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.metrics.HandlerProfiler;
+import de.dasjeff.duellSystem.metrics.ProfiledHandler;
+import de.dasjeff.duellSystem.trace.TraceRecorder;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -17,6 +20,8 @@ import java.util.stream.Collectors;
 public class CommandListener implements Listener {
 
     private final DuellSystem plugin;
+    private final HandlerProfiler profiler;
+    private final TraceRecorder traceRecorder;
     private final Set<String> allowedBaseCommands;
 
     /**
@@ -25,6 +30,8 @@ public class CommandListener implements Listener {
      */
     public CommandListener(DuellSystem plugin) {
         this.plugin = plugin;
+        this.profiler = plugin.getMetricsManager().getProfiler();
+        this.traceRecorder = plugin.getTraceRecorder();
         // Store allowed commands
         this.allowedBaseCommands = Arrays.asList(
                 "duel",
@@ -37,31 +44,38 @@ public class CommandListener implements Listener {
     // Handle command preprocess
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onPlayerCommandPreprocess(PlayerCommandPreprocessEvent event) {
-        Player player = event.getPlayer();
+        long profileStart = profiler.begin(ProfiledHandler.COMMAND_PREPROCESS);
+        try {
+            Player player = event.getPlayer();
+            traceRecorder.recordCommand(player.getUniqueId(), event.getMessage());
 
-        // Check if player is in a duel
-        if (plugin.getDuellManager().isInDuel(player.getUniqueId())) {
-            String message = event.getMessage();
-            String baseCommand = "";
+            // Check if player is in a duel
+            if (plugin.getDuellManager().isInDuel(player.getUniqueId())) {
+                String message = event.getMessage();
+                String baseCommand = "";
 
-            // Extract the base command
-            if (message.length() > 1 && message.startsWith("/")) {
-                int firstSpace = message.indexOf(' ');
-                if (firstSpace == -1) {
-                    baseCommand = message.substring(1).toLowerCase();
+                // Extract the base command
+                if (message.length() > 1 && message.startsWith("/")) {
+                    int firstSpace = message.indexOf(' ');
+                    if (firstSpace == -1) {
+                        baseCommand = message.substring(1).toLowerCase();
+                    } else {
+                        baseCommand = message.substring(1, firstSpace).toLowerCase();
+                    }
                 } else {
-                    baseCommand = message.substring(1, firstSpace).toLowerCase();
+                    // Treat as disallowed unless admin.
+                    baseCommand = "";
                 }
-            } else {
-                // Treat as disallowed unless admin.
-                baseCommand = "";
-            }
 
-            // Check if command is allowed
-            if (!allowedBaseCommands.contains(baseCommand) && !player.hasPermission("duel.admin")) {
-                event.setCancelled(true);
-                plugin.getMessageManager().sendMessage(player, "general.command-blocked");
+                // Check if command is allowed
+                if (!allowedBaseCommands.contains(baseCommand) && !player.hasPermission("duel.admin")) {
+                    event.setCancelled(true);
+                    plugin.getMetricsManager().getCommandsBlocked().increment();
+                    plugin.getMessageManager().sendMessage(player, "general.command-blocked");
+                }
             }
+        } finally {
+            profiler.end(ProfiledHandler.COMMAND_PREPROCESS, profileStart);
         }
     }
 }
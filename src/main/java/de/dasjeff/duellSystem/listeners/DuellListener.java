@@ -1,20 +1,31 @@
 package de.dasjeff.duellSystem.listeners;
 
 import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.managers.ReplayManager;
+import de.dasjeff.duellSystem.metrics.HandlerProfiler;
+import de.dasjeff.duellSystem.metrics.ProfiledHandler;
+import de.dasjeff.duellSystem.trace.TraceRecorder;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.PlayerDeathEvent;
+import org.bukkit.event.player.PlayerAnimationEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
+import java.util.UUID;
+
 /**
  * Handles events related to duels
  */
 public class DuellListener implements Listener {
 
     private final DuellSystem plugin;
+    private final HandlerProfiler profiler;
+    private final TraceRecorder traceRecorder;
+    private final ReplayManager replayManager;
 
     /**
      * Constructor
@@ -22,63 +33,119 @@ public class DuellListener implements Listener {
      */
     public DuellListener(DuellSystem plugin) {
         this.plugin = plugin;
+        this.profiler = plugin.getMetricsManager().getProfiler();
+        this.traceRecorder = plugin.getTraceRecorder();
+        this.replayManager = plugin.getReplayManager();
+    }
+
+    // Handle player join
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        long profileStart = profiler.begin(ProfiledHandler.DUELL_JOIN);
+        try {
+            plugin.getProfileCache().remember(event.getPlayer());
+            plugin.getRestoreManager().handleJoin(event.getPlayer());
+        } finally {
+            profiler.end(ProfiledHandler.DUELL_JOIN, profileStart);
+        }
     }
 
     // Handle player death
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerDeath(PlayerDeathEvent event) {
-        Player player = event.getEntity();
-        
-        // Check if player is in a duel
-        if (plugin.getDuellManager().isInDuel(player.getUniqueId())) {
-            // Get the killer
+        long profileStart = profiler.begin(ProfiledHandler.DUELL_DEATH);
+        try {
+            Player player = event.getEntity();
             Player killer = player.getKiller();
-            if (killer == null || !plugin.getDuellManager().areInSameDuel(player.getUniqueId(), killer.getUniqueId())) {
-                // End the duel with the player as loser
-                plugin.getDuellManager().handlePlayerQuit(player.getUniqueId());
-            } else {
-                // End the duel with the killer as winner
-                plugin.getDuellManager().endDuel(killer.getUniqueId(), player.getUniqueId());
+            UUID killerId = killer != null ? killer.getUniqueId() : null;
+            traceRecorder.recordDeath(player.getUniqueId(), killerId);
+        
+            // End the duel if the player is in one
+            if (plugin.getDuellManager().handlePlayerDeath(player.getUniqueId(), killerId)) {
+                // Keep inventory and exp
+                event.setKeepInventory(true);
+                event.setKeepLevel(true);
+                event.getDrops().clear();
+                event.setDroppedExp(0);
             }
-            
-            // Keep inventory and exp
-            event.setKeepInventory(true);
-            event.setKeepLevel(true);
-            event.getDrops().clear();
-            event.setDroppedExp(0);
+        } finally {
+            profiler.end(ProfiledHandler.DUELL_DEATH, profileStart);
         }
     }
 
     // Handle player quit
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerQuit(PlayerQuitEvent event) {
-        Player player = event.getPlayer();
+        long profileStart = profiler.begin(ProfiledHandler.DUELL_QUIT);
+        try {
+            Player player = event.getPlayer();
+            traceRecorder.recordQuit(player.getUniqueId());
+            plugin.getPlaceholderManager().forget(player.getUniqueId());
+            plugin.getSpectatorManager().handleQuit(player);
         
-        if (plugin.getDuellManager().isInDuel(player.getUniqueId())) {
-            // Handle player quit
-            plugin.getDuellManager().handlePlayerQuit(player.getUniqueId());
+            boolean inDuel = plugin.getDuellManager().isInDuel(player.getUniqueId());
+            plugin.getTeamDuelManager().handleQuit(player.getUniqueId());
+            if (inDuel) {
+                // Handle player quit; the profile stays cached so the duel can still be settled
+                plugin.getDuellManager().handlePlayerQuit(player.getUniqueId());
+            } else {
+                plugin.getProfileCache().forget(player.getUniqueId());
+            }
+        } finally {
+            profiler.end(ProfiledHandler.DUELL_QUIT, profileStart);
         }
     }
 
     // Handle entity damage by entity
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-        if (!(event.getEntity() instanceof Player) || !(event.getDamager() instanceof Player)) {
-            return;
-        }
+        long profileStart = profiler.begin(ProfiledHandler.DUELL_DAMAGE);
+        try {
+            if (!(event.getEntity() instanceof Player) || !(event.getDamager() instanceof Player)) {
+                return;
+            }
         
-        Player damaged = (Player) event.getEntity();
-        Player damager = (Player) event.getDamager();
-        if (plugin.getDuellManager().areInSameDuel(damaged.getUniqueId(), damager.getUniqueId())) {
-            // Check if the duel has started
-            if (!plugin.getDuellManager().isDuelInProgress(damaged.getUniqueId())) {
-                // Cancel damage during countdown
+            Player damaged = (Player) event.getEntity();
+            Player damager = (Player) event.getDamager();
+            traceRecorder.recordDamage(damager.getUniqueId(), damaged.getUniqueId());
+            // Teammates fall through to the interference check below
+            if (plugin.getDuellManager().areOpponents(damaged.getUniqueId(), damager.getUniqueId())) {
+                // Check if the duel has started
+                if (!plugin.getDuellManager().isDuelInProgress(damaged.getUniqueId())) {
+                    // Cancel damage during countdown
+                    event.setCancelled(true);
+                    plugin.getMetricsManager().getDamageCancelled().increment();
+                } else {
+                    plugin.getDuellManager().recordHit(damager.getUniqueId(), damaged.getUniqueId(), 
+                            event.getFinalDamage(), event.isCritical());
+                    replayManager.recordHit(damager.getUniqueId(), damaged.getUniqueId());
+                    
+                    // A lethal hit only ends the round of a series, the player does not die;
+                    // the final damage has absorption already taken off
+                    if (event.getFinalDamage() >= damaged.getHealth()
+                            && plugin.getDuellManager().endRound(damager.getUniqueId(), damaged.getUniqueId())) {
+                        event.setCancelled(true);
+                    }
+                }
+            
+            } else if (plugin.getDuellManager().isInDuel(damaged.getUniqueId()) || plugin.getDuellManager().isInDuel(damager.getUniqueId())) {
+                // Cancel damage to prevent interference
                 event.setCancelled(true);
+                plugin.getMetricsManager().getDamageCancelled().increment();
             }
-            
-        } else if (plugin.getDuellManager().isInDuel(damaged.getUniqueId()) || plugin.getDuellManager().isInDuel(damager.getUniqueId())) {
-            // Cancel damage to prevent interference
-            event.setCancelled(true);
+        } finally {
+            profiler.end(ProfiledHandler.DUELL_DAMAGE, profileStart);
+        }
+    }
+
+    // Mark arm swings in duel replays
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerAnimation(PlayerAnimationEvent event) {
+        long profileStart = profiler.begin(ProfiledHandler.DUELL_SWING);
+        try {
+            replayManager.recordSwing(event.getPlayer().getUniqueId());
+        } finally {
+            profiler.end(ProfiledHandler.DUELL_SWING, profileStart);
         }
     }
 }
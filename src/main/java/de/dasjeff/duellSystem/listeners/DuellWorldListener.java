@@ -1,6 +1,8 @@
 package de.dasjeff.duellSystem.listeners;
 
 import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.metrics.HandlerProfiler;
+import de.dasjeff.duellSystem.metrics.ProfiledHandler;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -16,9 +18,11 @@ import org.bukkit.event.player.PlayerInteractEvent;
 public class DuellWorldListener implements Listener {
 
     private final DuellSystem plugin;
+    private final HandlerProfiler profiler;
 
     public DuellWorldListener(DuellSystem plugin) {
         this.plugin = plugin;
+        this.profiler = plugin.getMetricsManager().getProfiler();
     }
 
     /**
@@ -27,10 +31,15 @@ public class DuellWorldListener implements Listener {
      */
     @EventHandler(ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
-        Player player = event.getPlayer();
-        if (plugin.getDuellManager().isDuelInProgress(player.getUniqueId())) {
-            event.setCancelled(true);
-            sendDisabledMessage(player);
+        long profileStart = profiler.begin(ProfiledHandler.WORLD_BLOCK_BREAK);
+        try {
+            Player player = event.getPlayer();
+            if (plugin.getDuellManager().isDuelInProgress(player.getUniqueId())) {
+                event.setCancelled(true);
+                sendDisabledMessage(player);
+            }
+        } finally {
+            profiler.end(ProfiledHandler.WORLD_BLOCK_BREAK, profileStart);
         }
     }
 
@@ -40,10 +49,15 @@ public class DuellWorldListener implements Listener {
      */
     @EventHandler(ignoreCancelled = true)
     public void onBlockPlace(BlockPlaceEvent event) {
-        Player player = event.getPlayer();
-        if (plugin.getDuellManager().isDuelInProgress(player.getUniqueId())) {
-            event.setCancelled(true);
-            sendDisabledMessage(player);
+        long profileStart = profiler.begin(ProfiledHandler.WORLD_BLOCK_PLACE);
+        try {
+            Player player = event.getPlayer();
+            if (plugin.getDuellManager().isDuelInProgress(player.getUniqueId())) {
+                event.setCancelled(true);
+                sendDisabledMessage(player);
+            }
+        } finally {
+            profiler.end(ProfiledHandler.WORLD_BLOCK_PLACE, profileStart);
         }
     }
     
@@ -53,15 +67,20 @@ public class DuellWorldListener implements Listener {
      */
      @EventHandler(ignoreCancelled = true)
      public void onPlayerInteract(PlayerInteractEvent event) {
-         Player player = event.getPlayer();
-         if (plugin.getDuellManager().isDuelInProgress(player.getUniqueId())) {
-             if (event.getAction() == Action.RIGHT_CLICK_BLOCK) {
-                 Material clickedType = event.getClickedBlock().getType();
-                 if (!isAllowedInteraction(clickedType)) { 
-                     event.setCancelled(true);
-                     sendDisabledMessage(player);
+         long profileStart = profiler.begin(ProfiledHandler.WORLD_INTERACT);
+         try {
+             Player player = event.getPlayer();
+             if (plugin.getDuellManager().isDuelInProgress(player.getUniqueId())) {
+                 if (event.getAction() == Action.RIGHT_CLICK_BLOCK) {
+                     Material clickedType = event.getClickedBlock().getType();
+                     if (!isAllowedInteraction(clickedType)) { 
+                         event.setCancelled(true);
+                         sendDisabledMessage(player);
+                     }
                  }
              }
+         } finally {
+             profiler.end(ProfiledHandler.WORLD_INTERACT, profileStart);
          }
      }
 
@@ -80,6 +99,7 @@ public class DuellWorldListener implements Listener {
      * @param player The player to send the message to.
      */
     private void sendDisabledMessage(Player player) {
+        plugin.getMetricsManager().getInteractionsBlocked().increment();
         plugin.getMessageManager().sendMessage(player, "duel.interaction-disabled"); 
     }
 } 
\ No newline at end of file
@@ -0,0 +1,51 @@
+package de.dasjeff.duellSystem.listeners;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.managers.NetworkManager;
+import de.dasjeff.duellSystem.metrics.HandlerProfiler;
+import de.dasjeff.duellSystem.metrics.ProfiledHandler;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Starts duels arranged on other servers and withdraws network requests of leaving players
+ */
+public class NetworkListener implements Listener {
+
+    private final NetworkManager networkManager;
+    private final HandlerProfiler profiler;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public NetworkListener(DuellSystem plugin) {
+        this.networkManager = plugin.getNetworkManager();
+        this.profiler = plugin.getMetricsManager().getProfiler();
+    }
+
+    // Handle player join
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        long profileStart = profiler.begin(ProfiledHandler.NETWORK_JOIN);
+        try {
+            networkManager.handleJoin(event.getPlayer());
+        } finally {
+            profiler.end(ProfiledHandler.NETWORK_JOIN, profileStart);
+        }
+    }
+
+    // Handle player quit
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        long profileStart = profiler.begin(ProfiledHandler.NETWORK_QUIT);
+        try {
+            networkManager.handleQuit(event.getPlayer().getUniqueId());
+        } finally {
+            profiler.end(ProfiledHandler.NETWORK_QUIT, profileStart);
+        }
+    }
+}
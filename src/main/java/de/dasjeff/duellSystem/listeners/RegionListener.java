@@ -4,6 +4,8 @@ import com.sk89q.worldguard.bukkit.WorldGuardPlugin;
 import com.sk89q.worldguard.protection.flags.Flags;
 import com.sk89q.worldguard.protection.regions.RegionQuery;
 import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.metrics.HandlerProfiler;
+import de.dasjeff.duellSystem.metrics.ProfiledHandler;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -17,6 +19,7 @@ import org.bukkit.event.entity.EntityDamageByEntityEvent;
 public class RegionListener implements Listener {
 
     private final DuellSystem plugin;
+    private final HandlerProfiler profiler;
 
     /**
      * Constructor
@@ -24,29 +27,36 @@ public class RegionListener implements Listener {
      */
     public RegionListener(DuellSystem plugin) {
         this.plugin = plugin;
+        this.profiler = plugin.getMetricsManager().getProfiler();
     }
 
     // Handle entity damage by entity
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-        if (!(event.getEntity() instanceof Player) || !(event.getDamager() instanceof Player)) {
-            return;
-        }
+        long profileStart = profiler.begin(ProfiledHandler.REGION_DAMAGE);
+        try {
+            if (!(event.getEntity() instanceof Player) || !(event.getDamager() instanceof Player)) {
+                return;
+            }
         
-        Player damaged = (Player) event.getEntity();
-        Player damager = (Player) event.getDamager();
+            Player damaged = (Player) event.getEntity();
+            Player damager = (Player) event.getDamager();
         
-        // Check if both players are in the same duel and the duel has started
-        if (plugin.getDuellManager().areInSameDuel(damaged.getUniqueId(), damager.getUniqueId()) &&
-                plugin.getDuellManager().isDuelInProgress(damaged.getUniqueId())) {
+            // Check if both players fight each other and the duel has started
+            if (plugin.getDuellManager().areOpponents(damaged.getUniqueId(), damager.getUniqueId()) &&
+                    plugin.getDuellManager().isDuelInProgress(damaged.getUniqueId())) {
             
-            // Check if the event was cancelled due to region protection
-            if (event.isCancelled() && isPvPDisabledInRegion(damaged.getLocation(), damager)) {
-                // Override the cancellation
-                event.setCancelled(false);
-                plugin.debug("Overriding WorldGuard PvP protection for duel between " + 
-                        damager.getName() + " and " + damaged.getName());
+                // Check if the event was cancelled due to region protection
+                if (event.isCancelled() && isPvPDisabledInRegion(damaged.getLocation(), damager)) {
+                    // Override the cancellation
+                    event.setCancelled(false);
+                    plugin.getMetricsManager().getPvpOverrides().increment();
+                    plugin.debug(() -> "Overriding WorldGuard PvP protection for duel between " + 
+                            damager.getName() + " and " + damaged.getName());
+                }
             }
+        } finally {
+            profiler.end(ProfiledHandler.REGION_DAMAGE, profileStart);
         }
     }
     
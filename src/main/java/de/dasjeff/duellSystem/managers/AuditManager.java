@@ -0,0 +1,233 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.audit.AuditAction;
+import de.dasjeff.duellSystem.audit.AuditEntry;
+import de.dasjeff.duellSystem.util.Money;
+import de.dasjeff.duellSystem.util.RingBuffer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Writes an audit log of duel requests, duels and money movements to {@code audit/audit.log}.
+ * <p>
+ * Producers only put an {@link AuditEntry} into a lock-free {@link RingBuffer} and never wait; when the
+ * buffer is full the entry is dropped and counted. A background thread takes the entries in batches and
+ * appends them as JSON lines. When the file exceeds {@code audit.max-file-size} it is rotated to
+ * {@code audit.1.log}, {@code audit.2.log} and so on, keeping {@code audit.max-files} old files.
+ */
+public class AuditManager {
+
+    private static final int BATCH_SIZE = 512;
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final DuellSystem plugin;
+    private final boolean enabled;
+    private final RingBuffer<AuditEntry> buffer;
+    private final File folder;
+    private final File file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Thread writer;
+    private volatile boolean running;
+    private OutputStream out;
+    private long fileBytes;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public AuditManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.enabled = plugin.getConfigManager().isAuditEnabled();
+        this.buffer = new RingBuffer<>(plugin.getConfigManager().getAuditBufferSize());
+        this.folder = new File(plugin.getDataFolder(), "audit");
+        this.file = new File(folder, "audit.log");
+        this.maxFileBytes = plugin.getConfigManager().getAuditMaxFileSize() * 1024L * 1024L;
+        this.maxFiles = plugin.getConfigManager().getAuditMaxFiles();
+        this.writer = new Thread(this::run, "DuellSystem-Audit");
+        this.writer.setDaemon(true);
+
+        if (enabled) {
+            this.running = true;
+            writer.start();
+        }
+    }
+
+    /**
+     * Add an entry to the audit log without blocking
+     * @param action Kind of the action
+     * @param sessionId UUID of the duel session, or null
+     * @param playerId UUID of the player the action is about, or null
+     * @param otherId UUID of the other player involved, or null
+     * @param amount Amount of money in minor units, 0 if none
+     * @param detail Additional detail, or null
+     */
+    public void log(AuditAction action, UUID sessionId, UUID playerId, UUID otherId, long amount, String detail) {
+        if (!running) return;
+
+        AuditEntry entry = new AuditEntry(System.currentTimeMillis(), action, sessionId, playerId, otherId, amount, detail);
+        if (!buffer.offer(entry)) {
+            plugin.getMetricsManager().getAuditDropped().increment();
+        }
+    }
+
+    // Stop the writer after it has written all buffered entries
+    public void close() {
+        if (!running) return;
+
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            plugin.getLogger().warning("Audit log did not finish writing in time");
+        }
+    }
+
+    // Take batches from the buffer and write them until closed and drained
+    private void run() {
+        List<AuditEntry> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder line = new StringBuilder(256);
+        try {
+            open();
+            while (running || !buffer.isEmpty()) {
+                if (buffer.drainTo(batch, BATCH_SIZE) == 0) {
+                    if (!running) break;
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                    continue;
+                }
+
+                for (AuditEntry entry : batch) {
+                    line.setLength(0);
+                    format(entry, line);
+                    byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                    out.write(bytes);
+                    fileBytes += bytes.length;
+                }
+                batch.clear();
+                out.flush();
+
+                if (fileBytes >= maxFileBytes) {
+                    rotate();
+                }
+            }
+        } catch (IOException e) {
+            running = false;
+            plugin.getLogger().log(Level.SEVERE, "Could not write audit log", e);
+        } finally {
+            closeFile();
+        }
+    }
+
+    /**
+     * Open the log file for appending
+     * @throws IOException If the file cannot be opened
+     */
+    private void open() throws IOException {
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+        }
+        fileBytes = file.length();
+        out = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+    }
+
+    /**
+     * Move the current file to audit.1.log, shifting older files up and deleting the oldest
+     * @throws IOException If the files cannot be moved
+     */
+    private void rotate() throws IOException {
+        closeFile();
+
+        File oldest = rotatedFile(maxFiles);
+        if (oldest.exists() && !oldest.delete()) {
+            throw new IOException("Could not delete " + oldest);
+        }
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            File rotated = rotatedFile(i);
+            if (rotated.exists()) {
+                Files.move(rotated.toPath(), rotatedFile(i + 1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file.toPath(), rotatedFile(1).toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else if (!file.delete()) {
+            throw new IOException("Could not delete " + file);
+        }
+
+        open();
+    }
+
+    // Close the log file, ignoring errors
+    private void closeFile() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not close audit log", e);
+        }
+        out = null;
+    }
+
+    private File rotatedFile(int index) {
+        return new File(folder, "audit." + index + ".log");
+    }
+
+    /**
+     * Format an entry as one JSON line
+     * @param entry Entry to format
+     * @param line Builder to append to
+     */
+    private static void format(AuditEntry entry, StringBuilder line) {
+        line.append("{\"time\":\"").append(Instant.ofEpochMilli(entry.timestamp()))
+                .append("\",\"action\":\"").append(entry.action().name()).append('"');
+        appendId(line, "session", entry.sessionId());
+        appendId(line, "player", entry.playerId());
+        appendId(line, "other", entry.otherId());
+        if (entry.amount() != 0) {
+            line.append(",\"amount\":").append(Money.format(entry.amount()));
+        }
+        if (entry.detail() != null) {
+            line.append(",\"detail\":\"");
+            appendEscaped(line, entry.detail());
+            line.append('"');
+        }
+        line.append("}\n");
+    }
+
+    private static void appendId(StringBuilder line, String key, UUID id) {
+        if (id != null) {
+            line.append(",\"").append(key).append("\":\"").append(id).append('"');
+        }
+    }
+
+    private static void appendEscaped(StringBuilder line, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.api.DuelPhase;
+import de.dasjeff.duellSystem.api.DuelService;
+import de.dasjeff.duellSystem.model.DuellRequest;
+import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.model.TeamDuelSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implements {@link DuelService} on immutable snapshots of the {@link DuellManager} and {@link TeamDuelManager} state.
+ * <p>
+ * A global timer rebuilds the snapshot once per tick if the state version of the manager has changed
+ * and publishes it through a volatile field. Readers only ever see a complete snapshot.
+ */
+public class DuelSnapshotManager implements DuelService {
+
+    private final DuellManager duellManager;
+    private final TeamDuelManager teamDuelManager;
+    private volatile Snapshot snapshot;
+    private int publishedVersion;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public DuelSnapshotManager(DuellSystem plugin) {
+        this.duellManager = plugin.getDuellManager();
+        this.teamDuelManager = plugin.getTeamDuelManager();
+        this.snapshot = Snapshot.EMPTY;
+        this.publishedVersion = -1;
+
+        plugin.getTaskScheduler().runGlobalTimer(this::refresh, 1L, 1L);
+    }
+
+    // Rebuild the snapshot if the duel state has changed since the last one
+    public void refresh() {
+        int version = duellManager.getStateVersion();
+        if (version == publishedVersion) return;
+
+        Map<UUID, Duel> duels = new HashMap<>();
+        int duelCount = 0;
+        for (DuellSession session : duellManager.getActiveSessions()) {
+            if (!session.isActive() || duels.containsKey(session.getPlayer1Id())) continue;
+
+            DuelPhase phase = session.isStarted() ? DuelPhase.FIGHTING : DuelPhase.COUNTDOWN;
+            duels.put(session.getPlayer1Id(), new Duel(session.getPlayer2Id(), phase, session.getBetAmount()));
+            duels.put(session.getPlayer2Id(), new Duel(session.getPlayer1Id(), phase, session.getBetAmount()));
+            duelCount++;
+        }
+        
+        // Members of team duels see the first opponent still standing
+        for (TeamDuelSession session : teamDuelManager.getActiveSessions()) {
+            if (!session.isActive()) continue;
+
+            DuelPhase phase = session.isStarted() ? DuelPhase.FIGHTING : DuelPhase.COUNTDOWN;
+            for (int team = 0; team < 2; team++) {
+                UUID opponentId = firstStanding(session, 1 - team);
+                for (UUID memberId : session.getTeam(team)) {
+                    if (session.isStanding(memberId)) {
+                        duels.put(memberId, new Duel(opponentId, phase, session.getBetAmount()));
+                    }
+                }
+            }
+            duelCount++;
+        }
+
+        Map<UUID, List<UUID>> requests = new HashMap<>();
+        List<DuellRequest> pending = duellManager.copyPendingRequests();
+        for (DuellRequest request : pending) {
+            requests.computeIfAbsent(request.getTargetId(), k -> new ArrayList<>()).add(request.getSenderId());
+        }
+        requests.replaceAll((target, senders) -> Collections.unmodifiableList(senders));
+
+        this.snapshot = new Snapshot(duels, requests, duelCount, pending.size());
+        this.publishedVersion = version;
+    }
+
+    /**
+     * Get the first member of a team still standing
+     * @param session Team duel session
+     * @param team Team index
+     * @return UUID of the member, or null if the team is eliminated
+     */
+    private static UUID firstStanding(TeamDuelSession session, int team) {
+        for (UUID memberId : session.getTeam(team)) {
+            if (session.isStanding(memberId)) return memberId;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isInDuel(UUID playerId) {
+        return snapshot.duels().containsKey(playerId);
+    }
+
+    @Override
+    public UUID getOpponent(UUID playerId) {
+        Duel duel = snapshot.duels().get(playerId);
+        return duel != null ? duel.opponentId() : null;
+    }
+
+    @Override
+    public DuelPhase getPhase(UUID playerId) {
+        Duel duel = snapshot.duels().get(playerId);
+        return duel != null ? duel.phase() : DuelPhase.NONE;
+    }
+
+    @Override
+    public long getBetAmount(UUID playerId) {
+        Duel duel = snapshot.duels().get(playerId);
+        return duel != null ? duel.betAmount() : 0;
+    }
+
+    @Override
+    public int getActiveDuelCount() {
+        return snapshot.duelCount();
+    }
+
+    @Override
+    public int getPendingRequestCount() {
+        return snapshot.requestCount();
+    }
+
+    @Override
+    public List<UUID> getPendingRequests(UUID targetId) {
+        return snapshot.requests().getOrDefault(targetId, Collections.emptyList());
+    }
+
+    /**
+     * Duel of one player as seen in a snapshot
+     */
+    private record Duel(UUID opponentId, DuelPhase phase, long betAmount) {
+    }
+
+    /**
+     * Immutable state of all duels and requests at one tick
+     */
+    private record Snapshot(Map<UUID, Duel> duels, Map<UUID, List<UUID>> requests, int duelCount, int requestCount) {
+
+        private static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyMap(), 0, 0);
+    }
+}
@@ -1,18 +1,41 @@
 package de.dasjeff.duellSystem.managers;
 
 import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.audit.AuditAction;
+import de.dasjeff.duellSystem.events.DuelCancelEvent;
+import de.dasjeff.duellSystem.events.DuelEndEvent;
+import de.dasjeff.duellSystem.events.DuelRequestEvent;
+import de.dasjeff.duellSystem.events.DuelStartEvent;
+import de.dasjeff.duellSystem.model.DuelSlot;
+import de.dasjeff.duellSystem.model.DuellEndReason;
 import de.dasjeff.duellSystem.model.DuellRequest;
 import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.scheduler.TaskHandle;
+import de.dasjeff.duellSystem.scheduler.TaskScheduler;
+import de.dasjeff.duellSystem.util.Money;
+import de.dasjeff.duellSystem.util.RateLimiter;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages all duels and duel requests
+ * <p>
+ * On Folia the two participants of a duel can be ticked by different region threads. Lookups read
+ * the concurrent maps without locking; every change to requests or sessions happens while holding
+ * {@link #lock}, so a request is claimed and a duel registered exactly once. Every participant of a 1v1
+ * or team duel has a {@link DuelSlot}, so "same duel" and "opponent" checks only compare two ints.
+ * <p>
+ * A best-of-N series keeps its session between rounds. A round ends with the lethal hit, which is
+ * cancelled; both players are healed, brought back to where they stood when the first round began and
+ * count down again. The bet is only settled when the series is decided.
  */
 public class DuellManager {
 
@@ -20,7 +43,13 @@ public class DuellManager {
     private final Map<UUID, Set<DuellRequest>> pendingRequests;
     private final Map<UUID, Set<DuellRequest>> sentRequests;
     private final Map<UUID, DuellSession> activeDuels;
-    private final Map<UUID, BukkitTask> requestTimeoutTasks;
+    private final Map<UUID, DuelSlot> slots;
+    private final Map<UUID, TaskHandle> requestTimeoutTasks;
+    private final Map<UUID, Location> roundSpawns;
+    private final RateLimiter requestLimiter;
+    private final TaskScheduler scheduler;
+    private final Object lock;
+    private final AtomicInteger stateVersion;
 
     /**
      * Constructor
@@ -31,21 +60,57 @@ public class DuellManager {
         this.pendingRequests = new ConcurrentHashMap<>();
         this.sentRequests = new ConcurrentHashMap<>();
         this.activeDuels = new ConcurrentHashMap<>();
+        this.slots = new ConcurrentHashMap<>();
         this.requestTimeoutTasks = new ConcurrentHashMap<>();
+        this.roundSpawns = new ConcurrentHashMap<>();
+        this.requestLimiter = new RateLimiter();
+        this.scheduler = plugin.getTaskScheduler();
+        this.lock = new Object();
+        this.stateVersion = new AtomicInteger();
+        
+        // Forget senders whose limit has fully recovered
+        scheduler.runGlobalTimer(() -> requestLimiter.purge(System.currentTimeMillis()), 1200L, 1200L);
+    }
+
+    /**
+     * Create a new duel request
+     * @param sender Player sending the request
+     * @param target Player receiving the request
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     * @return True if the request was created successfully
+     */
+    public boolean createRequest(Player sender, Player target, long betAmount) {
+        return createRequest(sender, target, betAmount, 1);
     }
 
     /**
      * Create a new duel request
      * @param sender Player sending the request
      * @param target Player receiving the request
-     * @param betAmount Bet amount (0 for friendly duel)
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     * @param rounds Number of rounds of the series (1 for a single duel)
      * @return True if the request was created successfully
      */
-    public boolean createRequest(Player sender, Player target, double betAmount) {
+    public boolean createRequest(Player sender, Player target, long betAmount, int rounds) {
+        long startNanos = System.nanoTime();
+        plugin.getTraceRecorder().recordRequest(sender.getUniqueId(), target.getUniqueId(), betAmount);
+        
+        // Check the request rate of the sender
+        if (!checkRequestRate(sender)) {
+            return false;
+        }
+        
+        // Check if the sender already has a request pending at the target
+        if (hasPendingRequest(target.getUniqueId(), sender.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(sender, "request.already-sent", 
+                    createPlaceholderMap("player", target.getName()));
+            return false;
+        }
+        
         // Check if sender can afford the bet
         if (betAmount > 0 && !plugin.getEconomyManager().hasEnoughMoney(sender, betAmount)) {
             plugin.getMessageManager().sendMessage(sender, "request.not-enough-money", 
-                    createPlaceholderMap("amount", String.valueOf(betAmount)));
+                    createPlaceholderMap("amount", Money.format(betAmount)));
             return false;
         }
         
@@ -64,55 +129,26 @@ public class DuellManager {
             return false;
         }
         
-        // Create the request
-        DuellRequest request = new DuellRequest(sender.getUniqueId(), target.getUniqueId(), betAmount);
-        
-        // Add to pending requests
-        pendingRequests.computeIfAbsent(target.getUniqueId(), k -> new HashSet<>()).add(request);
-        sentRequests.computeIfAbsent(sender.getUniqueId(), k -> new HashSet<>()).add(request);
-        
-        // Schedule timeout task
-        BukkitTask timeoutTask = Bukkit.getScheduler().runTaskLater(plugin, () -> {
-            boolean removedFromPending = false;
-            if (pendingRequests.containsKey(target.getUniqueId())) {
-                if (pendingRequests.get(target.getUniqueId()).remove(request)) {
-                    removedFromPending = true;
-                    if (pendingRequests.get(target.getUniqueId()).isEmpty()) {
-                        pendingRequests.remove(target.getUniqueId());
-                    }
-                }
-            }
-            
-            boolean removedFromSent = false;
-            if (sentRequests.containsKey(sender.getUniqueId())) {
-                if (sentRequests.get(sender.getUniqueId()).remove(request)) {
-                    removedFromSent = true;
-                    if (sentRequests.get(sender.getUniqueId()).isEmpty()) {
-                        sentRequests.remove(sender.getUniqueId());
-                    }
-                }
-            }
-            
-            requestTimeoutTasks.remove(request.getId());
-            
-            if (removedFromPending || removedFromSent) {
-                Player senderPlayer = Bukkit.getPlayer(request.getSenderId());
-                if (senderPlayer != null && senderPlayer.isOnline()) {
-                    plugin.getMessageManager().sendMessage(senderPlayer, "request.expired", 
-                            createPlaceholderMap("player", target.getName()));
-                }
+        // Let other plugins veto the request; the event is only built if someone listens
+        if (DuelRequestEvent.hasListeners()) {
+            DuelRequestEvent event = new DuelRequestEvent(sender, target, betAmount);
+            plugin.getServer().getPluginManager().callEvent(event);
+            if (event.isCancelled()) {
+                return false;
             }
-        }, plugin.getConfigManager().getRequestTimeout() * 20L);
+        }
         
-        requestTimeoutTasks.put(request.getId(), timeoutTask);
+        // Create the request
+        DuellRequest request = new DuellRequest(sender.getUniqueId(), target.getUniqueId(), betAmount, rounds);
+        addRequest(request, plugin.getConfigManager().getRequestTimeout() * 20L);
         
         // Send messages
         Map<String, String> placeholders = createPlaceholderMap("player", target.getName());
         if (betAmount > 0) {
-            placeholders.put("amount", String.valueOf(betAmount));
+            placeholders.put("amount", request.getBetDisplay());
             plugin.getMessageManager().sendMessage(sender, "request.sent-with-bet", placeholders);
             
-            placeholders = createPlaceholderMap("player", sender.getName(), "amount", String.valueOf(betAmount));
+            placeholders = createPlaceholderMap("player", sender.getName(), "amount", request.getBetDisplay());
             plugin.getMessageManager().sendMessage(target, "request.received-with-bet", placeholders);
         } else {
             plugin.getMessageManager().sendMessage(sender, "request.sent", placeholders);
@@ -120,10 +156,148 @@ public class DuellManager {
             placeholders = createPlaceholderMap("player", sender.getName());
             plugin.getMessageManager().sendMessage(target, "request.received", placeholders);
         }
+        if (rounds > 1) {
+            placeholders = createPlaceholderMap("rounds", String.valueOf(rounds), "wins", String.valueOf(rounds / 2 + 1));
+            plugin.getMessageManager().sendMessage(sender, "series.request-info", placeholders);
+            plugin.getMessageManager().sendMessage(target, "series.request-info", placeholders);
+        }
         
+        plugin.getAuditManager().log(AuditAction.REQUEST, null, sender.getUniqueId(), target.getUniqueId(), betAmount, 
+                seriesDetail(rounds));
+        plugin.getMetricsManager().getRequestsCreated().increment();
+        plugin.getMetricsManager().getRequestDuration().recordSince(startNanos);
         return true;
     }
     
+    /**
+     * Register a request saved before a restart; the players do not need to be online
+     * @param senderId UUID of the player who sent the request
+     * @param targetId UUID of the player who received the request
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     * @param rounds Number of rounds of the series (1 for a single duel)
+     * @param timeoutTicks Ticks until the request expires
+     */
+    public void restoreRequest(UUID senderId, UUID targetId, long betAmount, int rounds, long timeoutTicks) {
+        addRequest(new DuellRequest(senderId, targetId, betAmount, rounds), timeoutTicks);
+    }
+    
+    /**
+     * Add a request to both indexes and schedule its timeout, making room in a full inbox
+     * @param request Request to add
+     * @param timeoutTicks Ticks until the request expires
+     */
+    private void addRequest(DuellRequest request, long timeoutTicks) {
+        List<DuellRequest> evicted = new ArrayList<>();
+        synchronized (lock) {
+            // Make room in a full inbox; evicting the last request drops the inbox from the map
+            int maxPending = plugin.getConfigManager().getMaxPendingRequests();
+            Set<DuellRequest> inbox;
+            while (maxPending > 0 && (inbox = pendingRequests.get(request.getTargetId())) != null 
+                    && inbox.size() >= maxPending) {
+                DuellRequest oldest = inbox.iterator().next();
+                removeRequest(oldest);
+                evicted.add(oldest);
+            }
+            pendingRequests.computeIfAbsent(request.getTargetId(), k -> new LinkedHashSet<>()).add(request);
+            sentRequests.computeIfAbsent(request.getSenderId(), k -> new HashSet<>()).add(request);
+            stateVersion.incrementAndGet();
+            
+            // Schedule timeout task
+            TaskHandle timeoutTask = scheduler.runGlobalLater(() -> {
+                boolean removed;
+                synchronized (lock) {
+                    removed = removeRequest(request);
+                }
+                
+                if (removed) {
+                    plugin.getMetricsManager().getRequestsExpired().increment();
+                    Player senderPlayer = Bukkit.getPlayer(request.getSenderId());
+                    if (senderPlayer != null && senderPlayer.isOnline()) {
+                        plugin.getMessageManager().sendMessage(senderPlayer, "request.expired", 
+                                createPlaceholderMap("player", plugin.getProfileCache().getName(request.getTargetId())));
+                    }
+                }
+            }, timeoutTicks);
+            
+            requestTimeoutTasks.put(request.getId(), timeoutTask);
+        }
+        
+        // Tell the senders of evicted requests once the lock is released
+        for (DuellRequest oldest : evicted) {
+            notifyEvicted(oldest);
+        }
+    }
+    
+    /**
+     * Take a token from the request limit of a player
+     * @param sender Player sending a request
+     * @return True if the player may send a request now
+     */
+    boolean checkRequestRate(Player sender) {
+        int burst = plugin.getConfigManager().getRequestBurst();
+        if (burst <= 0) return true;
+        
+        long now = System.currentTimeMillis();
+        long wait = requestLimiter.tryAcquire(sender.getUniqueId(), now, burst, 
+                plugin.getConfigManager().getRequestRefillMillis());
+        if (wait == 0) return true;
+        
+        plugin.getMetricsManager().getRequestsRateLimited().increment();
+        if (requestLimiter.shouldNotify(sender.getUniqueId(), now, wait)) {
+            plugin.getMessageManager().sendMessage(sender, "request.rate-limited", 
+                    createPlaceholderMap("seconds", String.valueOf((wait + 999) / 1000)));
+        }
+        return false;
+    }
+    
+    /**
+     * Tell the sender that their request was pushed out of a full inbox
+     * @param request The evicted request
+     */
+    private void notifyEvicted(DuellRequest request) {
+        plugin.getMetricsManager().getRequestsEvicted().increment();
+        Player senderPlayer = Bukkit.getPlayer(request.getSenderId());
+        if (senderPlayer != null && senderPlayer.isOnline()) {
+            plugin.getMessageManager().sendMessage(senderPlayer, "request.evicted", 
+                    createPlaceholderMap("player", plugin.getProfileCache().getName(request.getTargetId())));
+        }
+    }
+    
+    /**
+     * Remove a request from both indexes and cancel its timeout; the caller must hold the lock
+     * @param request Request to remove
+     * @return True if the request was still pending
+     */
+    private boolean removeRequest(DuellRequest request) {
+        boolean removed = false;
+        UUID targetId = request.getTargetId();
+        Set<DuellRequest> received = pendingRequests.get(targetId);
+        if (received != null && received.remove(request)) {
+            removed = true;
+            if (received.isEmpty()) {
+                pendingRequests.remove(targetId);
+            }
+        }
+        
+        UUID senderId = request.getSenderId();
+        Set<DuellRequest> sent = sentRequests.get(senderId);
+        if (sent != null && sent.remove(request)) {
+            removed = true;
+            if (sent.isEmpty()) {
+                sentRequests.remove(senderId);
+            }
+        }
+        
+        TaskHandle timeoutTask = requestTimeoutTasks.remove(request.getId());
+        if (timeoutTask != null) {
+            timeoutTask.cancel();
+        }
+        if (removed) {
+            stateVersion.incrementAndGet();
+        }
+        return removed;
+    }
+    
     /**
      * Accept a duel request
      * @param target Player accepting the request
@@ -131,6 +305,8 @@ public class DuellManager {
      * @return True if the request was accepted successfully
      */
     public boolean acceptRequest(Player target, Player sender) {
+        plugin.getTraceRecorder().recordAccept(target.getUniqueId(), sender.getUniqueId());
+        
         // Check if there is a pending request
         if (!hasPendingRequest(target.getUniqueId(), sender.getUniqueId())) {
             plugin.getMessageManager().sendMessage(target, "request.no-pending-request", 
@@ -155,7 +331,7 @@ public class DuellManager {
         }
         
         // Check if players can still afford the bet
-        double betAmount = request.getBetAmount();
+        long betAmount = request.getBetAmount();
         if (betAmount > 0) {
             if (!plugin.getEconomyManager().hasEnoughMoney(sender, betAmount)) {
                 plugin.getMessageManager().sendMessage(target, "request.target-not-enough-money", 
@@ -165,38 +341,38 @@ public class DuellManager {
             
             if (!plugin.getEconomyManager().hasEnoughMoney(target, betAmount)) {
                 plugin.getMessageManager().sendMessage(target, "request.not-enough-money", 
-                        createPlaceholderMap("amount", String.valueOf(betAmount)));
+                        createPlaceholderMap("amount", request.getBetDisplay()));
                 return false;
             }
         }
         
-        // Remove the request
-        boolean removedFromPending = false;
-        if (pendingRequests.containsKey(target.getUniqueId())) {
-            if (pendingRequests.get(target.getUniqueId()).remove(request)) {
-                removedFromPending = true;
-                if (pendingRequests.get(target.getUniqueId()).isEmpty()) {
-                    pendingRequests.remove(target.getUniqueId());
-                }
+        // Claim the request and register the duel in one step, so concurrent accepts cannot both succeed
+        DuellSession session;
+        synchronized (lock) {
+            if (!removeRequest(request)) {
+                plugin.getMessageManager().sendMessage(target, "request.no-pending-request", 
+                        createPlaceholderMap("player", sender.getName()));
+                return false;
             }
-        }
-        
-        boolean removedFromSent = false;
-        if (sentRequests.containsKey(sender.getUniqueId())) {
-            if (sentRequests.get(sender.getUniqueId()).remove(request)) {
-                removedFromSent = true;
-                if (sentRequests.get(sender.getUniqueId()).isEmpty()) {
-                    sentRequests.remove(sender.getUniqueId());
-                }
+            
+            if (isInDuel(sender.getUniqueId()) || isInDuel(target.getUniqueId())) {
+                plugin.getMessageManager().sendMessage(target, "general.target-already-in-duel", 
+                        createPlaceholderMap("player", sender.getName()));
+                return false;
             }
+            
+            session = new DuellSession(sender.getUniqueId(), target.getUniqueId(), betAmount, request.getRounds());
+            register(session);
         }
         
-        // Cancel the timeout task
-        if (requestTimeoutTasks.containsKey(request.getId())) {
-            requestTimeoutTasks.get(request.getId()).cancel();
-            requestTimeoutTasks.remove(request.getId());
+        if (!callStartEvent(sender, target, session)) {
+            return false;
         }
         
+        plugin.getAuditManager().log(AuditAction.ACCEPT, session.getId(), target.getUniqueId(), sender.getUniqueId(), 
+                betAmount, null);
+        plugin.getMetricsManager().getRequestsAccepted().increment();
+        
         // Send messages
         Map<String, String> placeholders = createPlaceholderMap("player", sender.getName());
         plugin.getMessageManager().sendMessage(target, "duel.accepted", placeholders);
@@ -205,83 +381,255 @@ public class DuellManager {
         plugin.getMessageManager().sendMessage(sender, "duel.target-accepted", placeholders);
         
         // Start the duel
-        startDuel(sender, target, betAmount);
+        startDuel(sender, target, session);
         
         return true;
     }
     
     /**
-     * Start a duel between two players
-     * @param player1 First player
-     * @param player2 Second player
-     * @param betAmount Bet amount
+     * Start a duel agreed on another server, once both players have arrived here
+     * @param sender Player who sent the request
+     * @param target Player who accepted the request
+     * @param betAmount Bet amount in minor units
+     * @return True if the duel was started
      */
-    private void startDuel(Player player1, Player player2, double betAmount) {
-        // Create the duel session
-        DuellSession session = new DuellSession(player1.getUniqueId(), player2.getUniqueId(), betAmount);
+    public boolean startArrangedDuel(Player sender, Player target, long betAmount) {
+        return startArrangedDuel(sender, target, betAmount, 1, 0, 0);
+    }
+    
+    /**
+     * Start a duel or series agreed earlier, e.g. one resumed after a restart, once both players are here
+     * @param sender Player who sent the request
+     * @param target Player who accepted the request
+     * @param betAmount Bet amount in minor units
+     * @param rounds Number of rounds of the series (1 for a single duel)
+     * @param senderWins Rounds the sender already won
+     * @param targetWins Rounds the target already won
+     * @return True if the duel was started
+     */
+    public boolean startArrangedDuel(Player sender, Player target, long betAmount, int rounds, int senderWins, 
+                                     int targetWins) {
+        // Check if both players can still afford the bet
+        if (betAmount > 0 && (!plugin.getEconomyManager().hasEnoughMoney(sender, betAmount) 
+                || !plugin.getEconomyManager().hasEnoughMoney(target, betAmount))) {
+            plugin.getMessageManager().sendMessage(target, "request.target-not-enough-money", 
+                    createPlaceholderMap("player", sender.getName()));
+            plugin.getMessageManager().sendMessage(sender, "request.target-not-enough-money", 
+                    createPlaceholderMap("player", target.getName()));
+            return false;
+        }
         
-        // Add to active duels
-        activeDuels.put(player1.getUniqueId(), session);
-        activeDuels.put(player2.getUniqueId(), session);
+        DuellSession session;
+        synchronized (lock) {
+            if (isInDuel(sender.getUniqueId()) || isInDuel(target.getUniqueId())) {
+                return false;
+            }
+            
+            session = new DuellSession(sender.getUniqueId(), target.getUniqueId(), betAmount, rounds);
+            session.setScore(senderWins, targetWins);
+            register(session);
+        }
         
-        // Start countdown
-        startCountdown(player1, player2, session);
+        if (!callStartEvent(sender, target, session)) {
+            return false;
+        }
+        
+        startDuel(sender, target, session);
+        return true;
     }
     
     /**
-     * Start the countdown for a duel
+     * Let other plugins veto a registered duel before its countdown; a vetoed duel is removed again
+     * @param sender Player who sent the request
+     * @param target Player who accepted the request
+     * @param session Registered duel session
+     * @return True if the duel may start
+     */
+    private boolean callStartEvent(Player sender, Player target, DuellSession session) {
+        if (!DuelStartEvent.hasListeners()) return true;
+        
+        DuelStartEvent event = new DuelStartEvent(sender, target, session);
+        plugin.getServer().getPluginManager().callEvent(event);
+        if (!event.isCancelled()) return true;
+        
+        session.end();
+        synchronized (lock) {
+            unregister(session);
+        }
+        plugin.getSpectatorManager().endSession(session);
+        plugin.getSideBetManager().refund(session);
+        
+        plugin.getAuditManager().log(AuditAction.CANCEL, session.getId(), sender.getUniqueId(), target.getUniqueId(), 
+                session.getBetAmount(), "vetoed");
+        plugin.getMetricsManager().getDuelsEnded(DuellEndReason.CANCEL).increment();
+        plugin.getMessageManager().sendMessage(sender, "duel.start-vetoed");
+        plugin.getMessageManager().sendMessage(target, "duel.start-vetoed");
+        return false;
+    }
+    
+    /**
+     * Start a registered duel between two players
      * @param player1 First player
      * @param player2 Second player
      * @param session Duel session
      */
-    private void startCountdown(Player player1, Player player2, DuellSession session) {
+    private void startDuel(Player player1, Player player2, DuellSession session) {
+        plugin.getAuditManager().log(AuditAction.START, session.getId(), player1.getUniqueId(), player2.getUniqueId(), 
+                session.getBetAmount(), seriesDetail(session.getRounds()));
+        plugin.getMetricsManager().getDuelsStarted().increment();
+        plugin.getHudManager().show(session, player1, player2);
+        
+        // Start countdown
         int countdownDuration = plugin.getConfigManager().getCountdownDuration();
+        startCountdown(player1, session, countdownDuration);
+        startCountdown(player2, session, countdownDuration);
+    }
+    
+    /**
+     * Start the countdown for one player of a duel or round; runs on the thread owning the player
+     * @param player Player in the duel
+     * @param session Duel session
+     * @param countdownDuration Countdown duration in seconds
+     */
+    private void startCountdown(Player player, DuellSession session, int countdownDuration) {
+        // Only the countdown of the first player is shown to the spectators
+        boolean spectatorFeed = player.getUniqueId().equals(session.getPlayer1Id());
         
         for (int i = countdownDuration; i > 0; i--) {
             final int seconds = i;
-            Bukkit.getScheduler().runTaskLater(plugin, () -> {
-                if (!session.isActive()) return;
-                
-                Map<String, String> placeholders = createPlaceholderMap("seconds", String.valueOf(seconds));
+            scheduler.runForEntityLater(player, () -> {
+                if (!session.isActive() || !player.isOnline()) return;
                 
                 // Send countdown message
-                if (player1.isOnline()) {
-                    plugin.getMessageManager().sendMessage(player1, "duel.countdown", placeholders);
-                    plugin.getMessageManager().sendTitle(player1, "countdown", placeholders);
-                }
-                
-                if (player2.isOnline()) {
-                    plugin.getMessageManager().sendMessage(player2, "duel.countdown", placeholders);
-                    plugin.getMessageManager().sendTitle(player2, "countdown", placeholders);
+                Map<String, String> placeholders = createPlaceholderMap("seconds", String.valueOf(seconds));
+                plugin.getMessageManager().sendMessage(player, "duel.countdown", placeholders);
+                plugin.getMessageManager().sendTitle(player, "countdown", placeholders);
+                if (spectatorFeed) {
+                    plugin.getSpectatorManager().broadcast(session, "duel.countdown", placeholders);
+                    plugin.getSpectatorManager().broadcastTitle(session, "countdown", placeholders);
                 }
             }, (countdownDuration - i) * 20L);
         }
         
         // Start the duel after countdown
-        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+        scheduler.runForEntityLater(player, () -> {
             if (!session.isActive()) return;
             
-            session.start();
-            
-            // Send start message
-            if (player1.isOnline()) {
-                plugin.getMessageManager().sendMessage(player1, "duel.started");
-                plugin.getMessageManager().sendTitle(player1, "start", null);
+            // The replay and the round spawn points cover the whole series
+            boolean firstStart = session.getStartedAt() == null;
+            if (session.start()) {
+                stateVersion.incrementAndGet();
+                if (firstStart) {
+                    plugin.getReplayManager().begin(session);
+                }
+            }
+            if (session.isSeries() && player.isOnline()) {
+                roundSpawns.putIfAbsent(player.getUniqueId(), player.getLocation());
+            }
+            if (spectatorFeed) {
+                plugin.getSpectatorManager().broadcast(session, "duel.started", null);
+                plugin.getSpectatorManager().broadcastTitle(session, "start", null);
             }
             
-            if (player2.isOnline()) {
-                plugin.getMessageManager().sendMessage(player2, "duel.started");
-                plugin.getMessageManager().sendTitle(player2, "start", null);
+            // Send start message
+            if (player.isOnline()) {
+                plugin.getMessageManager().sendMessage(player, "duel.started");
+                plugin.getMessageManager().sendTitle(player, "start", null);
             }
         }, countdownDuration * 20L);
     }
     
     /**
-     * End a duel
+     * Score a round of a best-of-N series; the series ends once the winner has won enough rounds
+     * @param winnerId UUID of the round winner
+     * @param loserId UUID of the round loser
+     * @return True if both players are in the same series, false for single duels
+     */
+    public boolean endRound(UUID winnerId, UUID loserId) {
+        DuellSession session = activeDuels.get(winnerId);
+        if (session == null || !session.isSeries() || !session.hasPlayer(loserId)) return false;
+        
+        // Only the first lethal hit of a round scores
+        int wins = session.finishRound(winnerId);
+        if (wins < 0) return true;
+        stateVersion.incrementAndGet();
+        
+        int round = session.getRound() - 1;
+        plugin.getAuditManager().log(AuditAction.ROUND, session.getId(), winnerId, loserId, 0, 
+                session.getWins(session.getPlayer1Id()) + ":" + session.getWins(session.getPlayer2Id()));
+        if (wins >= session.getWinsNeeded()) {
+            endDuel(winnerId, loserId, DuellEndReason.KILL);
+            return true;
+        }
+        
+        // Announce the score to both players and the spectators
+        ProfileCache profileCache = plugin.getProfileCache();
+        Map<String, String> placeholders = createPlaceholderMap("winner", profileCache.getName(winnerId), 
+                "round", String.valueOf(round));
+        placeholders.put("player1", profileCache.getName(session.getPlayer1Id()));
+        placeholders.put("player2", profileCache.getName(session.getPlayer2Id()));
+        placeholders.put("score1", String.valueOf(session.getWins(session.getPlayer1Id())));
+        placeholders.put("score2", String.valueOf(session.getWins(session.getPlayer2Id())));
+        plugin.getSpectatorManager().broadcast(session, "series.round-won", placeholders);
+        plugin.getSpectatorManager().broadcastTitle(session, "round-end", placeholders);
+        
+        long delay = plugin.getConfigManager().getSeriesRoundDelay();
+        for (UUID playerId : new UUID[] {session.getPlayer1Id(), session.getPlayer2Id()}) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline()) continue;
+            
+            plugin.getMessageManager().sendMessage(player, "series.round-won", placeholders);
+            plugin.getMessageManager().sendTitle(player, "round-end", placeholders);
+            scheduler.runForEntityLater(player, () -> beginRound(player, session), delay);
+        }
+        return true;
+    }
+    
+    /**
+     * Reset a player for the next round of a series and count down again; runs on the thread owning the player
+     * @param player Player in the series
+     * @param session Duel session
+     */
+    private void beginRound(Player player, DuellSession session) {
+        if (!session.isActive() || !player.isOnline()) return;
+        
+        // A player killed by a projectile has to respawn first
+        if (player.isDead()) {
+            scheduler.runForEntityLater(player, () -> beginRound(player, session), 20L);
+            return;
+        }
+        
+        AttributeInstance maxHealth = player.getAttribute(Attribute.MAX_HEALTH);
+        player.setHealth(maxHealth != null ? maxHealth.getValue() : 20.0);
+        player.setFoodLevel(20);
+        player.setFireTicks(0);
+        player.setFallDistance(0);
+        Location spawn = roundSpawns.get(player.getUniqueId());
+        if (spawn != null) {
+            player.teleportAsync(spawn);
+        }
+        
+        plugin.getMessageManager().sendMessage(player, "series.next-round", 
+                createPlaceholderMap("round", String.valueOf(session.getRound())));
+        startCountdown(player, session, plugin.getConfigManager().getSeriesRoundCountdown());
+    }
+    
+    /**
+     * End a duel after a kill
      * @param winnerId UUID of the winner
      * @param loserId UUID of the loser
      */
     public void endDuel(UUID winnerId, UUID loserId) {
+        endDuel(winnerId, loserId, DuellEndReason.KILL);
+    }
+
+    /**
+     * End a duel
+     * @param winnerId UUID of the winner
+     * @param loserId UUID of the loser
+     * @param reason Reason why the duel ended
+     */
+    public void endDuel(UUID winnerId, UUID loserId, DuellEndReason reason) {
         // Get the duel session
         DuellSession session = activeDuels.get(winnerId);
         if (session == null) {
@@ -289,35 +637,57 @@ public class DuellManager {
             if (session == null) return;
         }
         
-        // Ensure the session is marked as ended
-        if (!session.isActive()) {
+        // Only the first caller ends the session
+        if (!session.end()) {
             return;
         }
-        session.end();
+        long startNanos = System.nanoTime();
         
         // Remove from active duels
-        activeDuels.remove(session.getPlayer1Id());
-        activeDuels.remove(session.getPlayer2Id());
+        synchronized (lock) {
+            unregister(session);
+        }
+        forgetRoundSpawns(session);
+        plugin.getReplayManager().finish(session);
+        plugin.getHudManager().hide(session);
         
         // Get players
         UUID actualWinnerId = session.getPlayer1Id().equals(winnerId) ? winnerId : session.getPlayer2Id();
         UUID actualLoserId = session.getPlayer1Id().equals(loserId) ? loserId : session.getPlayer2Id();
         
+        if (DuelEndEvent.hasListeners()) {
+            plugin.getServer().getPluginManager().callEvent(new DuelEndEvent(session, actualWinnerId, actualLoserId, reason));
+        }
+        
+        plugin.getAuditManager().log(AuditAction.END, session.getId(), actualWinnerId, actualLoserId, 
+                session.getBetAmount(), reason.name());
+        
         Player winner = Bukkit.getPlayer(actualWinnerId);
         Player loser = Bukkit.getPlayer(actualLoserId);
         
-        // Handle bet
-        double betAmount = session.getBetAmount();
-        if (betAmount > 0) {
-            plugin.getEconomyManager().transferMoney(actualLoserId, actualWinnerId, betAmount);
-        }
+        // Settle the bet and update history and statistics on the global thread
+        long betAmount = session.getBetAmount();
+        DuellSession endedSession = session;
+        ProfileCache profileCache = plugin.getProfileCache();
+        String winnerName = profileCache.findName(actualWinnerId);
+        String loserName = profileCache.findName(actualLoserId);
+        OfflinePlayer winnerAccount = betAmount > 0 ? profileCache.getPlayer(actualWinnerId) : null;
+        OfflinePlayer loserAccount = betAmount > 0 ? profileCache.getPlayer(actualLoserId) : null;
+        scheduler.executeGlobal(() -> {
+            if (betAmount > 0) {
+                plugin.getEconomyManager().transferMoney(endedSession.getId(), loserAccount, winnerAccount, betAmount);
+            }
+            plugin.getHistoryManager().record(endedSession, actualWinnerId, actualLoserId, reason);
+            plugin.getStatsManager().recordResult(actualWinnerId, winnerName, actualLoserId, loserName, 
+                    endedSession, reason);
+        });
         
         // Send messages
         if (winner != null && winner.isOnline()) {
-            Map<String, String> placeholders = createPlaceholderMap("player", loser != null ? loser.getName() : "Unknown");
+            Map<String, String> placeholders = createPlaceholderMap("player", loserName != null ? loserName : "Unknown");
             
             if (betAmount > 0) {
-                placeholders.put("amount", String.valueOf(betAmount));
+                placeholders.put("amount", endedSession.getBetDisplay());
                 plugin.getMessageManager().sendMessage(winner, "duel.won-with-bet", placeholders);
             } else {
                 plugin.getMessageManager().sendMessage(winner, "duel.won", placeholders);
@@ -327,10 +697,10 @@ public class DuellManager {
         }
         
         if (loser != null && loser.isOnline()) {
-            Map<String, String> placeholders = createPlaceholderMap("player", winner != null ? winner.getName() : "Unknown");
+            Map<String, String> placeholders = createPlaceholderMap("player", winnerName != null ? winnerName : "Unknown");
             
             if (betAmount > 0) {
-                placeholders.put("amount", String.valueOf(betAmount));
+                placeholders.put("amount", endedSession.getBetDisplay());
                 plugin.getMessageManager().sendMessage(loser, "duel.lost-with-bet", placeholders);
             } else {
                 plugin.getMessageManager().sendMessage(loser, "duel.lost", placeholders);
@@ -338,6 +708,102 @@ public class DuellManager {
             
             plugin.getMessageManager().sendTitle(loser, "lose", null);
         }
+        
+        // Tell the spectators and send them back
+        Map<String, String> spectatorPlaceholders = createPlaceholderMap("winner", winnerName != null ? winnerName : "Unknown", 
+                "loser", loserName != null ? loserName : "Unknown");
+        plugin.getSpectatorManager().broadcast(session, "spectate.duel-won", spectatorPlaceholders);
+        plugin.getSpectatorManager().broadcastTitle(session, "spectate-end", spectatorPlaceholders);
+        plugin.getSpectatorManager().endSession(session);
+        plugin.getSideBetManager().settle(session, actualWinnerId);
+        
+        // Show the combat statistics to both players
+        if (session.getStartedAt() != null) {
+            sendSummary(winner, session, winnerName, actualWinnerId, loserName, actualLoserId);
+            sendSummary(loser, session, winnerName, actualWinnerId, loserName, actualLoserId);
+        }
+        
+        plugin.getMetricsManager().getDuelsEnded(reason).increment();
+        plugin.getMetricsManager().getEndDuration().recordSince(startNanos);
+    }
+    
+    /**
+     * Send the combat statistics of a finished duel to a participant
+     * @param player Participant, or null if offline
+     * @param session The finished session
+     * @param winnerName Name of the winner, or null if unknown
+     * @param winnerId UUID of the winner
+     * @param loserName Name of the loser, or null if unknown
+     * @param loserId UUID of the loser
+     */
+    private void sendSummary(Player player, DuellSession session, String winnerName, UUID winnerId, 
+                             String loserName, UUID loserId) {
+        if (player == null || !player.isOnline()) return;
+        
+        plugin.getMessageManager().sendMessage(player, "duel.summary-header", 
+                createPlaceholderMap("seconds", String.format("%.1f", session.getFightMillis() / 1000.0)));
+        plugin.getMessageManager().sendMessage(player, "duel.summary-entry", 
+                createSummaryPlaceholders(session, winnerId, winnerName));
+        plugin.getMessageManager().sendMessage(player, "duel.summary-entry", 
+                createSummaryPlaceholders(session, loserId, loserName));
+    }
+    
+    /**
+     * Create the placeholders of one line of the combat statistics
+     * @param session The finished session
+     * @param playerId UUID of the participant
+     * @param name Name of the participant, or null if unknown
+     * @return The placeholder map
+     */
+    private Map<String, String> createSummaryPlaceholders(DuellSession session, UUID playerId, String name) {
+        Map<String, String> placeholders = createPlaceholderMap("player", name != null ? name : "Unknown", 
+                "hits", String.valueOf(session.getHits(playerId)));
+        placeholders.put("damage", String.format("%.1f", session.getDamageDealt(playerId)));
+        placeholders.put("combo", String.valueOf(session.getLongestCombo(playerId)));
+        placeholders.put("crits", String.valueOf(session.getCriticalHits(playerId)));
+        return placeholders;
+    }
+    
+    /**
+     * Record a hit between the participants of a fighting duel
+     * @param damagerId UUID of the attacking player
+     * @param damagedId UUID of the player being hit
+     * @param damage Damage dealt
+     * @param critical True if the hit was a critical hit
+     */
+    public void recordHit(UUID damagerId, UUID damagedId, double damage, boolean critical) {
+        DuellSession session = activeDuels.get(damagerId);
+        if (session != null && session.hasPlayer(damagedId)) {
+            session.recordHit(damagerId, damage, critical);
+        }
+    }
+    
+    /**
+     * Handle the death of a player
+     * @param playerId UUID of the player who died
+     * @param killerId UUID of the killer, or null if the player was not killed by a player
+     * @return True if the player was in a duel
+     */
+    public boolean handlePlayerDeath(UUID playerId, UUID killerId) {
+        if (!isInDuel(playerId)) return false;
+        
+        // Members of a team duel are only knocked out
+        if (!activeDuels.containsKey(playerId)) {
+            return plugin.getTeamDuelManager().handleDown(playerId);
+        }
+        
+        if (killerId == null || !areInSameDuel(playerId, killerId)) {
+            // A death by fall, lava or the void scores the round of a series for the opponent,
+            // otherwise the duel ends with the player as loser
+            DuellSession session = activeDuels.get(playerId);
+            if (session == null || !endRound(session.getOpponentId(playerId), playerId)) {
+                handlePlayerQuit(playerId);
+            }
+        } else if (!endRound(killerId, playerId)) {
+            // End the duel with the killer as winner
+            endDuel(killerId, playerId);
+        }
+        return true;
     }
     
     /**
@@ -351,51 +817,29 @@ public class DuellManager {
             UUID opponentId = session.getOpponentId(playerId);
             
             // End the duel
-            endDuel(opponentId, playerId);
+            endDuel(opponentId, playerId, DuellEndReason.QUIT);
             
             // Send message
             Player opponent = Bukkit.getPlayer(opponentId);
             if (opponent != null && opponent.isOnline()) {
-                OfflinePlayer quittingPlayer = Bukkit.getOfflinePlayer(playerId);
                 plugin.getMessageManager().sendMessage(opponent, "duel.player-left", 
-                        createPlaceholderMap("player", quittingPlayer.getName() != null ? quittingPlayer.getName() : "Unknown"));
+                        createPlaceholderMap("player", plugin.getProfileCache().getName(playerId)));
             }
         }
         
-        // Remove pending requests
-        Set<DuellRequest> requestsReceived = pendingRequests.remove(playerId);
-        if (requestsReceived != null) {
-            for (DuellRequest request : requestsReceived) {
-                if (requestTimeoutTasks.containsKey(request.getId())) {
-                    requestTimeoutTasks.get(request.getId()).cancel();
-                    requestTimeoutTasks.remove(request.getId());
-                }
-                UUID senderId = request.getSenderId();
-                if (sentRequests.containsKey(senderId)) {
-                    if (sentRequests.get(senderId).remove(request)) {
-                        if (sentRequests.get(senderId).isEmpty()) {
-                            sentRequests.remove(senderId);
-                        }
-                    }
+        // Remove pending and sent requests
+        synchronized (lock) {
+            Set<DuellRequest> requestsReceived = pendingRequests.get(playerId);
+            if (requestsReceived != null) {
+                for (DuellRequest request : new ArrayList<>(requestsReceived)) {
+                    removeRequest(request);
                 }
             }
-        }
-        
-        // Remove sent requests
-        Set<DuellRequest> requestsSent = sentRequests.remove(playerId);
-        if (requestsSent != null) {
-            for (DuellRequest request : requestsSent) {
-                if (requestTimeoutTasks.containsKey(request.getId())) {
-                    requestTimeoutTasks.get(request.getId()).cancel();
-                    requestTimeoutTasks.remove(request.getId());
-                }
-                UUID targetId = request.getTargetId();
-                if (pendingRequests.containsKey(targetId)) {
-                    if (pendingRequests.get(targetId).remove(request)) {
-                        if (pendingRequests.get(targetId).isEmpty()) {
-                            pendingRequests.remove(targetId);
-                        }
-                    }
+            
+            Set<DuellRequest> requestsSent = sentRequests.get(playerId);
+            if (requestsSent != null) {
+                for (DuellRequest request : new ArrayList<>(requestsSent)) {
+                    removeRequest(request);
                 }
             }
         }
@@ -407,7 +851,143 @@ public class DuellManager {
      * @return True if the player is in a duel
      */
     public boolean isInDuel(UUID playerId) {
-        return activeDuels.containsKey(playerId);
+        return slots.containsKey(playerId);
+    }
+    
+    /**
+     * Get the slot of a player in a 1v1 or team duel
+     * @param playerId UUID of the player
+     * @return Slot of the player, or null if the player is not in a duel
+     */
+    public DuelSlot getSlot(UUID playerId) {
+        return slots.get(playerId);
+    }
+    
+    /**
+     * Give the members of a team duel their slots if none of them is in a duel yet
+     * @param members Slots by member
+     * @return True if all members were free and are now registered
+     */
+    public boolean registerTeam(Map<UUID, DuelSlot> members) {
+        synchronized (lock) {
+            for (UUID memberId : members.keySet()) {
+                if (slots.containsKey(memberId)) return false;
+            }
+            slots.putAll(members);
+            stateVersion.incrementAndGet();
+        }
+        return true;
+    }
+    
+    /**
+     * Free the slot of a team duel member who is out or whose duel is over
+     * @param memberId UUID of the member
+     * @param slot Slot of the member in that duel
+     */
+    public void releaseTeamSlot(UUID memberId, DuelSlot slot) {
+        if (slots.remove(memberId, slot)) {
+            stateVersion.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Add a 1v1 session for both players; the caller must hold the lock
+     * @param session Duel session
+     */
+    private void register(DuellSession session) {
+        activeDuels.put(session.getPlayer1Id(), session);
+        activeDuels.put(session.getPlayer2Id(), session);
+        slots.put(session.getPlayer1Id(), session.getSlot(session.getPlayer1Id()));
+        slots.put(session.getPlayer2Id(), session.getSlot(session.getPlayer2Id()));
+        stateVersion.incrementAndGet();
+    }
+    
+    /**
+     * Remove a 1v1 session of both players; the caller must hold the lock
+     * @param session Duel session
+     */
+    private void unregister(DuellSession session) {
+        activeDuels.remove(session.getPlayer1Id(), session);
+        activeDuels.remove(session.getPlayer2Id(), session);
+        slots.remove(session.getPlayer1Id(), session.getSlot(session.getPlayer1Id()));
+        slots.remove(session.getPlayer2Id(), session.getSlot(session.getPlayer2Id()));
+        stateVersion.incrementAndGet();
+    }
+    
+    /**
+     * Get the duel session of a player
+     * @param playerId UUID of the player
+     * @return Duel session, or null if the player is not in a duel
+     */
+    public DuellSession getSession(UUID playerId) {
+        return activeDuels.get(playerId);
+    }
+    
+    /**
+     * Get the number of active duels
+     * @return Number of active duels
+     */
+    public int getActiveDuelCount() {
+        return activeDuels.size() / 2;
+    }
+    
+    /**
+     * Get the number of pending requests
+     * @return Number of pending requests
+     */
+    public int getPendingRequestCount() {
+        return requestTimeoutTasks.size();
+    }
+    
+    /**
+     * Get the number of players with received requests
+     * @return Number of entries in the received request index
+     */
+    public int getPendingTargetCount() {
+        return pendingRequests.size();
+    }
+    
+    /**
+     * Get the number of players with sent requests
+     * @return Number of entries in the sent request index
+     */
+    public int getSenderCount() {
+        return sentRequests.size();
+    }
+    
+    /**
+     * Get the version of the duel and request state; it changes whenever a request, a duel or a duel phase changes
+     * @return State version
+     */
+    public int getStateVersion() {
+        return stateVersion.get();
+    }
+    
+    // Mark a change of a team duel phase so the snapshot is rebuilt
+    void markChanged() {
+        stateVersion.incrementAndGet();
+    }
+    
+    /**
+     * Get the active duel sessions; each session appears once per participant
+     * @return Live, weakly consistent view of the sessions
+     */
+    public Collection<DuellSession> getActiveSessions() {
+        return Collections.unmodifiableCollection(activeDuels.values());
+    }
+    
+    /**
+     * Copy all pending requests
+     * @return New list of the pending requests, oldest first per target
+     */
+    public List<DuellRequest> copyPendingRequests() {
+        synchronized (lock) {
+            List<DuellRequest> requests = new ArrayList<>(requestTimeoutTasks.size());
+            for (Set<DuellRequest> received : pendingRequests.values()) {
+                requests.addAll(received);
+            }
+            return requests;
+        }
     }
     
     /**
@@ -417,15 +997,7 @@ public class DuellManager {
      * @return True if there is a pending request
      */
     public boolean hasPendingRequest(UUID targetId, UUID senderId) {
-        if (!pendingRequests.containsKey(targetId)) return false;
-        
-        for (DuellRequest request : pendingRequests.get(targetId)) {
-            if (request.getSenderId().equals(senderId)) {
-                return true;
-            }
-        }
-        
-        return false;
+        return getPendingRequest(targetId, senderId) != null;
     }
     
     /**
@@ -437,9 +1009,14 @@ public class DuellManager {
     public DuellRequest getPendingRequest(UUID targetId, UUID senderId) {
         if (!pendingRequests.containsKey(targetId)) return null;
         
-        for (DuellRequest request : pendingRequests.get(targetId)) {
-            if (request.getSenderId().equals(senderId)) {
-                return request;
+        synchronized (lock) {
+            Set<DuellRequest> requests = pendingRequests.get(targetId);
+            if (requests == null) return null;
+            
+            for (DuellRequest request : requests) {
+                if (request.getSenderId().equals(senderId)) {
+                    return request;
+                }
             }
         }
         
@@ -453,10 +1030,19 @@ public class DuellManager {
      * @return True if the players are in the same duel
      */
     public boolean areInSameDuel(UUID player1Id, UUID player2Id) {
-        DuellSession session1 = activeDuels.get(player1Id);
-        DuellSession session2 = activeDuels.get(player2Id);
-        
-        return session1 != null && session2 != null && session1.equals(session2);
+        DuelSlot slot1 = slots.get(player1Id);
+        return slot1 != null && slot1.isSameDuel(slots.get(player2Id));
+    }
+    
+    /**
+     * Check if two players are on opposing teams of the same duel
+     * @param player1Id UUID of the first player
+     * @param player2Id UUID of the second player
+     * @return True if the players fight each other
+     */
+    public boolean areOpponents(UUID player1Id, UUID player2Id) {
+        DuelSlot slot1 = slots.get(player1Id);
+        return slot1 != null && slot1.isOpponent(slots.get(player2Id));
     }
     
     /**
@@ -466,30 +1052,261 @@ public class DuellManager {
      */
     public boolean isDuelInProgress(UUID playerId) {
         DuellSession session = activeDuels.get(playerId);
-        return session != null && session.isStarted();
+        if (session != null) return session.isStarted();
+        
+        return slots.containsKey(playerId) && plugin.getTeamDuelManager().isFighting(playerId);
     }
 
     // Cancel all active duels
     public void cancelAllDuels() {
+        cancelAllDuels(false);
+    }
+    
+    /**
+     * Cancel all active duels and drop all requests
+     * @param suspended True if the duels were saved to be resumed after a restart; they are then not recorded as cancelled
+     */
+    public void cancelAllDuels(boolean suspended) {
         Set<UUID> playerIds = new HashSet<>(activeDuels.keySet());
         
         for (UUID playerId : playerIds) {
             DuellSession session = activeDuels.get(playerId);
             if (session != null) {
-                session.end();
+                cancelSession(session, suspended ? "suspended" : null, !suspended);
             }
         }
         
         activeDuels.clear();
+        slots.clear();
+        roundSpawns.clear();
+        stateVersion.incrementAndGet();
         
         // Cancel all timeout tasks
-        for (BukkitTask task : requestTimeoutTasks.values()) {
-            task.cancel();
+        synchronized (lock) {
+            for (TaskHandle task : requestTimeoutTasks.values()) {
+                task.cancel();
+            }
+            
+            requestTimeoutTasks.clear();
+            pendingRequests.clear();
+            sentRequests.clear();
+        }
+    }
+    
+    /**
+     * Cancel a duel without a winner and remove it from the active duels
+     * @param session Duel session
+     * @param auditDetail Detail for the audit log, or null
+     * @param record True to record the duel as cancelled in history and metrics
+     * @return True if the session was still active
+     */
+    private boolean cancelSession(DuellSession session, String auditDetail, boolean record) {
+        if (!session.end()) return false;
+        
+        synchronized (lock) {
+            unregister(session);
+        }
+        forgetRoundSpawns(session);
+        plugin.getReplayManager().finish(session);
+        plugin.getHudManager().hide(session);
+        plugin.getSpectatorManager().broadcast(session, "spectate.duel-cancelled", null);
+        plugin.getSpectatorManager().endSession(session);
+        plugin.getSideBetManager().refund(session);
+        plugin.getAuditManager().log(AuditAction.CANCEL, session.getId(), session.getPlayer1Id(), 
+                session.getPlayer2Id(), session.getBetAmount(), auditDetail);
+        if (DuelCancelEvent.hasListeners()) {
+            plugin.getServer().getPluginManager().callEvent(new DuelCancelEvent(session));
+        }
+        if (record) {
+            plugin.getHistoryManager().record(session, session.getPlayer1Id(), session.getPlayer2Id(), 
+                    DuellEndReason.CANCEL);
+            plugin.getMetricsManager().getDuelsEnded(DuellEndReason.CANCEL).increment();
+        }
+        return true;
+    }
+    
+    /**
+     * Drop the round spawn points of an ended series
+     * @param session The ended session
+     */
+    private void forgetRoundSpawns(DuellSession session) {
+        if (!session.isSeries()) return;
+        
+        roundSpawns.remove(session.getPlayer1Id());
+        roundSpawns.remove(session.getPlayer2Id());
+    }
+    
+    /**
+     * Get the audit detail of a series
+     * @param rounds Number of rounds
+     * @return "bo" followed by the number of rounds, or null for a single duel
+     */
+    private static String seriesDetail(int rounds) {
+        return rounds > 1 ? "bo" + rounds : null;
+    }
+    
+    /**
+     * Repair duel sessions: drop mappings of ended sessions, end duels with an offline participant as if
+     * they had quit and cancel sessions that are registered for only one of their players
+     * @param deadline System nano time at which to stop
+     * @return Number of repaired sessions
+     */
+    int reconcileSessions(long deadline) {
+        int repaired = 0;
+        for (Map.Entry<UUID, DuellSession> entry : activeDuels.entrySet()) {
+            if (System.nanoTime() - deadline > 0) break;
+            
+            UUID playerId = entry.getKey();
+            DuellSession session = entry.getValue();
+            if (!session.isActive()) {
+                if (activeDuels.remove(playerId, session)) {
+                    slots.remove(playerId, session.getSlot(playerId));
+                    stateVersion.incrementAndGet();
+                    repaired++;
+                }
+                continue;
+            }
+            
+            UUID opponentId = session.getOpponentId(playerId);
+            if (activeDuels.get(opponentId) != session) {
+                // A duel being registered right now has only one player yet; check again under the lock
+                boolean halfRegistered;
+                synchronized (lock) {
+                    halfRegistered = activeDuels.get(playerId) == session && activeDuels.get(opponentId) != session;
+                }
+                if (!halfRegistered) continue;
+                
+                Player player = Bukkit.getPlayer(playerId);
+                if (cancelSession(session, "reconciled", true)) {
+                    repaired++;
+                    if (player != null && player.isOnline()) {
+                        plugin.getMessageManager().sendMessage(player, "duel.cancelled");
+                    }
+                }
+                continue;
+            }
+            
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline()) {
+                handlePlayerQuit(playerId);
+                repaired++;
+            }
         }
         
-        requestTimeoutTasks.clear();
-        pendingRequests.clear();
-        sentRequests.clear();
+        // Drop slots that neither a 1v1 duel nor a team duel holds any more
+        for (Map.Entry<UUID, DuelSlot> entry : slots.entrySet()) {
+            if (System.nanoTime() - deadline > 0) break;
+            
+            UUID playerId = entry.getKey();
+            if (activeDuels.containsKey(playerId) || plugin.getTeamDuelManager().hasSession(playerId)) continue;
+            
+            synchronized (lock) {
+                if (!activeDuels.containsKey(playerId) && !plugin.getTeamDuelManager().hasSession(playerId)
+                        && slots.remove(playerId, entry.getValue())) {
+                    stateVersion.incrementAndGet();
+                    repaired++;
+                }
+            }
+        }
+        return repaired;
+    }
+    
+    /**
+     * Repair request timeouts: cancel timeout tasks of requests that are no longer pending and drop
+     * requests whose timeout was lost and that are long overdue
+     * @param deadline System nano time at which to stop
+     * @return Number of repaired timeouts
+     */
+    int reconcileTimeouts(long deadline) {
+        int repaired = 0;
+        long overdueMillis = plugin.getConfigManager().getRequestTimeout() * 2000L;
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            Set<UUID> pendingIds = new HashSet<>();
+            List<DuellRequest> overdue = new ArrayList<>();
+            for (Set<DuellRequest> received : pendingRequests.values()) {
+                for (DuellRequest request : received) {
+                    pendingIds.add(request.getId());
+                    if (!requestTimeoutTasks.containsKey(request.getId()) 
+                            && now - request.getCreatedAt().toEpochMilli() > overdueMillis) {
+                        overdue.add(request);
+                    }
+                }
+            }
+            
+            for (DuellRequest request : overdue) {
+                if (System.nanoTime() - deadline > 0) return repaired;
+                if (removeRequest(request)) {
+                    repaired++;
+                }
+            }
+            
+            Iterator<Map.Entry<UUID, TaskHandle>> iterator = requestTimeoutTasks.entrySet().iterator();
+            while (iterator.hasNext() && System.nanoTime() - deadline <= 0) {
+                Map.Entry<UUID, TaskHandle> entry = iterator.next();
+                if (!pendingIds.contains(entry.getKey())) {
+                    entry.getValue().cancel();
+                    iterator.remove();
+                    repaired++;
+                }
+            }
+        }
+        return repaired;
+    }
+    
+    /**
+     * Repair the request indexes: drop empty inboxes, pending requests missing from the sender's index and
+     * sent-request entries without a matching pending request
+     * @param deadline System nano time at which to stop
+     * @return Number of repaired index entries
+     */
+    int reconcileIndexes(long deadline) {
+        int repaired = 0;
+        synchronized (lock) {
+            List<DuellRequest> unindexed = new ArrayList<>();
+            Iterator<Set<DuellRequest>> inboxes = pendingRequests.values().iterator();
+            while (inboxes.hasNext() && System.nanoTime() - deadline <= 0) {
+                Set<DuellRequest> received = inboxes.next();
+                if (received.isEmpty()) {
+                    inboxes.remove();
+                    repaired++;
+                    continue;
+                }
+                for (DuellRequest request : received) {
+                    Set<DuellRequest> sent = sentRequests.get(request.getSenderId());
+                    if (sent == null || !sent.contains(request)) {
+                        unindexed.add(request);
+                    }
+                }
+            }
+            for (DuellRequest request : unindexed) {
+                removeRequest(request);
+                repaired++;
+            }
+            
+            Iterator<Set<DuellRequest>> outboxes = sentRequests.values().iterator();
+            while (outboxes.hasNext() && System.nanoTime() - deadline <= 0) {
+                Set<DuellRequest> sent = outboxes.next();
+                Iterator<DuellRequest> requests = sent.iterator();
+                while (requests.hasNext()) {
+                    DuellRequest request = requests.next();
+                    Set<DuellRequest> received = pendingRequests.get(request.getTargetId());
+                    if (received == null || !received.contains(request)) {
+                        requests.remove();
+                        repaired++;
+                    }
+                }
+                if (sent.isEmpty()) {
+                    outboxes.remove();
+                    repaired++;
+                }
+            }
+            
+            if (repaired > 0) {
+                stateVersion.incrementAndGet();
+            }
+        }
+        return repaired;
     }
     
     /**
@@ -498,7 +1315,7 @@ public class DuellManager {
      * @param player2 Second player
      * @return True if the players are close enough
      */
-    private boolean isPlayerInRange(Player player1, Player player2) {
+    boolean isPlayerInRange(Player player1, Player player2) {
         if (!player1.getWorld().equals(player2.getWorld())) {
             return false;
         }
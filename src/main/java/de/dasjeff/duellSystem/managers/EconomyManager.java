@@ -1,14 +1,15 @@
 package de.dasjeff.duellSystem.managers;
 
 import de.dasjeff.duellSystem.DuellSystem;
-import org.bukkit.Bukkit;
+import de.dasjeff.duellSystem.audit.AuditAction;
+import de.dasjeff.duellSystem.util.Money;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
 import java.util.UUID;
 
 /**
- * Manages economy operations
+ * Manages economy operations; amounts are minor units and only converted to coins for Vault
  */
 public class EconomyManager {
 
@@ -25,13 +26,13 @@ public class EconomyManager {
     /**
      * Check if a player has enough money
      * @param player Player to check
-     * @param amount Amount to check
+     * @param amount Amount to check in minor units
      * @return True if the player has enough money
      */
-    public boolean hasEnoughMoney(Player player, double amount) {
+    public boolean hasEnoughMoney(Player player, long amount) {
         if (amount <= 0) return true;
         
-        if (!plugin.getConfigManager().allowNegativeBalance() && plugin.getEconomy().getBalance(player) < amount) {
+        if (!plugin.getConfigManager().allowNegativeBalance() && plugin.getEconomy().getBalance(player) < Money.toDouble(amount)) {
             return false;
         }
         
@@ -40,37 +41,107 @@ public class EconomyManager {
 
     /**
      * Transfer money from one player to another
-     * @param fromId UUID of the player to take money from
-     * @param toId UUID of the player to give money to
-     * @param amount Amount to transfer
+     * @param sessionId UUID of the duel session the money is for
+     * @param from Player to take money from
+     * @param to Player to give money to
+     * @param amount Amount to transfer in minor units
      * @return True if the transfer was successful
      */
-    public boolean transferMoney(UUID fromId, UUID toId, double amount) {
+    public boolean transferMoney(UUID sessionId, OfflinePlayer from, OfflinePlayer to, long amount) {
         if (amount <= 0) return true;
         
-        OfflinePlayer from = Bukkit.getOfflinePlayer(fromId);
-        OfflinePlayer to = Bukkit.getOfflinePlayer(toId);
+        long startNanos = System.nanoTime();
+        boolean success = withdrawAndDeposit(sessionId, from, to, amount);
+        plugin.getMetricsManager().getSettlementDuration().recordSince(startNanos);
+        if (!success) {
+            plugin.getMetricsManager().getSettlementFailures().increment();
+        }
+        return success;
+    }
+
+    /**
+     * Take money from a player, e.g. to hold a side bet until the duel is over
+     * @param sessionId UUID of the duel session the money is for
+     * @param player Player to take money from
+     * @param amount Amount in minor units
+     * @param detail Detail for the audit log
+     * @return True if the money was taken
+     */
+    public boolean withdraw(UUID sessionId, OfflinePlayer player, long amount, String detail) {
+        if (amount <= 0) return true;
+
+        if (!plugin.getEconomy().withdrawPlayer(player, Money.toDouble(amount)).transactionSuccess()) {
+            plugin.getLogger().warning("Failed to withdraw " + Money.format(amount) + " from player " + player.getName());
+            plugin.getAuditManager().log(AuditAction.MONEY_FAILED, sessionId, player.getUniqueId(), null, amount, detail);
+            return false;
+        }
+        plugin.getAuditManager().log(AuditAction.WITHDRAW, sessionId, player.getUniqueId(), null, amount, detail);
+        return true;
+    }
+
+    /**
+     * Give money to a player, e.g. to pay out or refund a side bet
+     * @param sessionId UUID of the duel session the money is for
+     * @param player Player to give money to
+     * @param amount Amount in minor units
+     * @param action {@link AuditAction#DEPOSIT} or {@link AuditAction#REFUND}
+     * @param detail Detail for the audit log
+     * @return True if the money was given
+     */
+    public boolean deposit(UUID sessionId, OfflinePlayer player, long amount, AuditAction action, String detail) {
+        if (amount <= 0) return true;
+
+        if (!plugin.getEconomy().depositPlayer(player, Money.toDouble(amount)).transactionSuccess()) {
+            plugin.getLogger().severe("CRITICAL: Failed to deposit " + Money.format(amount) + " to player " 
+                    + player.getName() + " (" + detail + "). Money may have been lost!");
+            plugin.getAuditManager().log(AuditAction.MONEY_FAILED, sessionId, player.getUniqueId(), null, amount, detail);
+            return false;
+        }
+        plugin.getAuditManager().log(action, sessionId, player.getUniqueId(), null, amount, detail);
+        return true;
+    }
+
+    /**
+     * Withdraw money from one player and deposit it to another, refunding on failure
+     * @param sessionId UUID of the duel session the money is for
+     * @param from Player to take money from
+     * @param to Player to give money to
+     * @param amount Amount to transfer in minor units
+     * @return True if the transfer was successful
+     */
+    private boolean withdrawAndDeposit(UUID sessionId, OfflinePlayer from, OfflinePlayer to, long amount) {
+        AuditManager audit = plugin.getAuditManager();
+        UUID fromId = from.getUniqueId();
+        UUID toId = to.getUniqueId();
+        double coins = Money.toDouble(amount);
+        String display = Money.format(amount);
         
         // Withdraw from loser
-        if (!plugin.getEconomy().withdrawPlayer(from, amount).transactionSuccess()) {
-            plugin.getLogger().warning("Failed to withdraw " + amount + " from player " + from.getName());
+        if (!plugin.getEconomy().withdrawPlayer(from, coins).transactionSuccess()) {
+            plugin.getLogger().warning("Failed to withdraw " + display + " from player " + from.getName());
+            audit.log(AuditAction.MONEY_FAILED, sessionId, fromId, toId, amount, "withdraw");
             return false;
         }
+        audit.log(AuditAction.WITHDRAW, sessionId, fromId, toId, amount, null);
         
         // Deposit to winner
-        if (!plugin.getEconomy().depositPlayer(to, amount).transactionSuccess()) {
-            plugin.getLogger().warning("Failed to deposit " + amount + " to player " + to.getName() + ". Attempting refund...");
+        if (!plugin.getEconomy().depositPlayer(to, coins).transactionSuccess()) {
+            plugin.getLogger().warning("Failed to deposit " + display + " to player " + to.getName() + ". Attempting refund...");
+            audit.log(AuditAction.MONEY_FAILED, sessionId, toId, fromId, amount, "deposit");
             
             // Refund the loser
-            if (!plugin.getEconomy().depositPlayer(from, amount).transactionSuccess()) {
+            if (!plugin.getEconomy().depositPlayer(from, coins).transactionSuccess()) {
                 // Log severe error if refund fails
-                plugin.getLogger().severe("CRITICAL: Failed to refund " + amount + " to player " + from.getName() + 
+                plugin.getLogger().severe("CRITICAL: Failed to refund " + display + " to player " + from.getName() + 
                         " after failed deposit to " + to.getName() + ". Money may have been lost!");
+                audit.log(AuditAction.MONEY_FAILED, sessionId, fromId, toId, amount, "refund");
             } else {
-                plugin.getLogger().info("Successfully refunded " + amount + " to player " + from.getName());
+                plugin.getLogger().info("Successfully refunded " + display + " to player " + from.getName());
+                audit.log(AuditAction.REFUND, sessionId, fromId, toId, amount, null);
             }
             return false;
         }
+        audit.log(AuditAction.DEPOSIT, sessionId, toId, fromId, amount, null);
         
         return true;
     }
@@ -0,0 +1,398 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.model.DuellEndReason;
+import de.dasjeff.duellSystem.model.DuellHistoryRecord;
+import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.util.Money;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Records finished duels in a fixed-width, append-only binary log.
+ * <p>
+ * The log is split into segments of a fixed number of records, so a record number maps directly to a
+ * file and an offset. Every record stores, for both participants, the number of that player's previous
+ * record. Together with the per-player head pointers in {@code players.dat} this forms a backwards
+ * index, so a player's history is read newest-first without scanning the log.
+ * <p>
+ * Bets are stored as {@code long} minor units.
+ * <p>
+ * All file access happens on a single background thread.
+ */
+public class HistoryManager {
+
+    private static final int SEGMENT_MAGIC = 0x44484C47;
+    private static final int PLAYERS_MAGIC = 0x44485053;
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int PLAYERS_HEADER_SIZE = 12;
+    private static final int PLAYER_ENTRY_SIZE = 20;
+    private static final int RECORD_SIZE = 38;
+    private static final int NO_RECORD = -1;
+
+    private final DuellSystem plugin;
+    private final File historyFolder;
+    private final ExecutorService executor;
+
+    // Only accessed from the history thread
+    private final Map<UUID, Integer> playerIndex;
+    private final List<UUID> players;
+    private int[] heads;
+    private int segmentRecords;
+    private int recordCount;
+    private RandomAccessFile playersFile;
+    private RandomAccessFile segmentFile;
+    private int openSegment = -1;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public HistoryManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.historyFolder = new File(plugin.getDataFolder(), "history");
+        this.playerIndex = new HashMap<>();
+        this.players = new ArrayList<>();
+        this.heads = new int[64];
+        this.executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "DuellSystem-History"));
+
+        executor.execute(this::open);
+    }
+
+    /**
+     * Record a finished duel session
+     * @param session The finished session
+     * @param winnerId UUID of the winner (any participant if the duel was cancelled)
+     * @param loserId UUID of the loser (the other participant if the duel was cancelled)
+     * @param reason Reason why the duel ended
+     */
+    public void record(DuellSession session, UUID winnerId, UUID loserId, DuellEndReason reason) {
+        if (!plugin.getConfigManager().isHistoryEnabled()) return;
+
+        Instant startedAt = session.getStartedAt() != null ? session.getStartedAt() : session.getCreatedAt();
+        Instant endedAt = session.getEndedAt() != null ? session.getEndedAt() : Instant.now();
+        long startMillis = startedAt.toEpochMilli();
+        int durationMillis = (int) Math.min(Integer.MAX_VALUE, Math.max(0, endedAt.toEpochMilli() - startMillis));
+        long betAmount = session.getBetAmount();
+        boolean decided = reason != DuellEndReason.CANCEL;
+
+        executor.execute(() -> {
+            try {
+                append(winnerId, loserId, startMillis, durationMillis, betAmount, decided, reason);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not write duel history", e);
+            }
+        });
+    }
+
+    /**
+     * Read the most recent duels of a player, newest first
+     * @param playerId UUID of the player
+     * @param limit Maximum number of records
+     * @param callback Called on the global thread with the records
+     */
+    public void query(UUID playerId, int limit, Consumer<List<DuellHistoryRecord>> callback) {
+        executor.execute(() -> {
+            List<DuellHistoryRecord> records;
+            try {
+                records = readHistory(playerId, limit);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not read duel history", e);
+                records = Collections.emptyList();
+            }
+
+            List<DuellHistoryRecord> result = records;
+            plugin.getTaskScheduler().executeGlobal(() -> callback.accept(result));
+        });
+    }
+
+    /**
+     * Stream the whole log into a CSV file
+     * @param target File to write
+     * @param callback Called on the global thread with the number of exported records, or -1 on failure
+     */
+    public void exportCsv(File target, Consumer<Integer> callback) {
+        executor.execute(() -> {
+            int exported;
+            try {
+                exported = writeCsv(target);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not export duel history", e);
+                exported = -1;
+            }
+
+            int result = exported;
+            plugin.getTaskScheduler().executeGlobal(() -> callback.accept(result));
+        });
+    }
+
+    // Flush pending writes and close the log
+    public void close() {
+        executor.execute(this::closeFiles);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Duel history did not finish writing in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Open the player index and find the end of the log
+    private void open() {
+        try {
+            if (!historyFolder.exists() && !historyFolder.mkdirs()) {
+                throw new IOException("Could not create " + historyFolder);
+            }
+
+            File file = new File(historyFolder, "players.dat");
+            boolean exists = file.exists() && file.length() >= PLAYERS_HEADER_SIZE;
+            playersFile = new RandomAccessFile(file, "rw");
+
+            if (exists) {
+                int magic = playersFile.readInt();
+                int version = playersFile.readInt();
+                if (magic != PLAYERS_MAGIC || version != FORMAT_VERSION) {
+                    throw new IOException("Unsupported history format in " + file);
+                }
+                // The segment size is fixed by the first run, since record numbers depend on it
+                segmentRecords = playersFile.readInt();
+
+                int entries = (int) ((playersFile.length() - PLAYERS_HEADER_SIZE) / PLAYER_ENTRY_SIZE);
+                ByteBuffer buffer = ByteBuffer.allocate(entries * PLAYER_ENTRY_SIZE);
+                playersFile.readFully(buffer.array());
+                for (int i = 0; i < entries; i++) {
+                    UUID playerId = new UUID(buffer.getLong(), buffer.getLong());
+                    addPlayer(playerId, buffer.getInt());
+                }
+            } else {
+                segmentRecords = Math.max(1, plugin.getConfigManager().getHistorySegmentRecords());
+                playersFile.setLength(0);
+                playersFile.writeInt(PLAYERS_MAGIC);
+                playersFile.writeInt(FORMAT_VERSION);
+                playersFile.writeInt(segmentRecords);
+            }
+
+            int lastSegment = -1;
+            String[] names = historyFolder.list();
+            if (names != null) {
+                for (String name : names) {
+                    if (name.startsWith("segment-") && name.endsWith(".dat")) {
+                        lastSegment = Math.max(lastSegment, Integer.parseInt(name.substring(8, name.length() - 4)));
+                    }
+                }
+            }
+
+            if (lastSegment >= 0) {
+                long length = segmentFile(lastSegment).length();
+                // A partially written record after a crash is overwritten by the next append
+                int records = (int) Math.max(0, (length - SEGMENT_HEADER_SIZE) / RECORD_SIZE);
+                recordCount = lastSegment * segmentRecords + records;
+            }
+
+            plugin.debug(() -> "Duel history opened with " + recordCount + " records and " + players.size() + " players");
+        } catch (IOException | NumberFormatException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not open duel history", e);
+        }
+    }
+
+    private void append(UUID winnerId, UUID loserId, long startMillis, int durationMillis, long betAmount,
+                        boolean decided, DuellEndReason reason) throws IOException {
+        if (playersFile == null) return;
+
+        int winnerIdx = indexOf(winnerId);
+        int loserIdx = indexOf(loserId);
+        int recordNo = recordCount;
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        buffer.putInt(winnerIdx);
+        buffer.putInt(loserIdx);
+        buffer.putInt(heads[winnerIdx]);
+        buffer.putInt(heads[loserIdx]);
+        buffer.putLong(startMillis);
+        buffer.putInt(durationMillis);
+        buffer.putLong(betAmount);
+        buffer.put((byte) (decided ? 1 : 0));
+        buffer.put((byte) reason.ordinal());
+
+        RandomAccessFile segment = writerFor(recordNo / segmentRecords);
+        segment.seek(SEGMENT_HEADER_SIZE + (long) (recordNo % segmentRecords) * RECORD_SIZE);
+        segment.write(buffer.array());
+        recordCount++;
+
+        // Move the head pointers only after the record itself is on disk
+        setHead(winnerIdx, recordNo);
+        setHead(loserIdx, recordNo);
+    }
+
+    private List<DuellHistoryRecord> readHistory(UUID playerId, int limit) throws IOException {
+        Integer idx = playerIndex.get(playerId);
+        if (idx == null) return Collections.emptyList();
+
+        List<DuellHistoryRecord> records = new ArrayList<>(limit);
+        Map<Integer, RandomAccessFile> readers = new HashMap<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        try {
+            int recordNo = heads[idx];
+            while (recordNo != NO_RECORD && records.size() < limit) {
+                int segment = recordNo / segmentRecords;
+                RandomAccessFile reader = readers.get(segment);
+                if (reader == null) {
+                    reader = new RandomAccessFile(segmentFile(segment), "r");
+                    readers.put(segment, reader);
+                }
+
+                reader.seek(SEGMENT_HEADER_SIZE + (long) (recordNo % segmentRecords) * RECORD_SIZE);
+                buffer.clear();
+                reader.readFully(buffer.array());
+
+                int winnerIdx = buffer.getInt(0);
+                records.add(decode(buffer));
+                recordNo = winnerIdx == idx ? buffer.getInt(8) : buffer.getInt(12);
+            }
+        } finally {
+            for (RandomAccessFile reader : readers.values()) {
+                reader.close();
+            }
+        }
+        return records;
+    }
+
+    private int writeCsv(File target) throws IOException {
+        int exported = 0;
+        int segments = (recordCount + segmentRecords - 1) / segmentRecords;
+        byte[] record = new byte[RECORD_SIZE];
+
+        try (BufferedWriter writer = Files.newBufferedWriter(target.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("started_at,ended_at,winner,loser,bet,decided,reason");
+            writer.newLine();
+
+            for (int segment = 0; segment < segments; segment++) {
+                int inSegment = Math.min(segmentRecords, recordCount - segment * segmentRecords);
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                        new FileInputStream(segmentFile(segment)), 64 * 1024))) {
+                    in.skipNBytes(SEGMENT_HEADER_SIZE);
+                    for (int i = 0; i < inSegment; i++) {
+                        try {
+                            in.readFully(record);
+                        } catch (EOFException e) {
+                            break;
+                        }
+
+                        DuellHistoryRecord decoded = decode(ByteBuffer.wrap(record));
+                        writer.write(decoded.getStartedAt() + "," + decoded.getEndedAt() + ","
+                                + decoded.getWinnerId() + "," + decoded.getLoserId() + ","
+                                + Money.format(decoded.getBetAmount()) + "," + decoded.isDecided() + ","
+                                + decoded.getReason().name().toLowerCase());
+                        writer.newLine();
+                        exported++;
+                    }
+                }
+            }
+        }
+        return exported;
+    }
+
+    private DuellHistoryRecord decode(ByteBuffer buffer) {
+        UUID winnerId = players.get(buffer.getInt(0));
+        UUID loserId = players.get(buffer.getInt(4));
+        long startMillis = buffer.getLong(16);
+        int durationMillis = buffer.getInt(24);
+        long betAmount = buffer.getLong(28);
+        boolean decided = buffer.get(36) != 0;
+        DuellEndReason reason = DuellEndReason.values()[buffer.get(37)];
+
+        return new DuellHistoryRecord(winnerId, loserId, betAmount, Instant.ofEpochMilli(startMillis),
+                Instant.ofEpochMilli(startMillis + durationMillis), decided, reason);
+    }
+
+    private int indexOf(UUID playerId) throws IOException {
+        Integer idx = playerIndex.get(playerId);
+        if (idx != null) return idx;
+
+        int newIdx = addPlayer(playerId, NO_RECORD);
+        playersFile.seek(PLAYERS_HEADER_SIZE + (long) newIdx * PLAYER_ENTRY_SIZE);
+        playersFile.writeLong(playerId.getMostSignificantBits());
+        playersFile.writeLong(playerId.getLeastSignificantBits());
+        playersFile.writeInt(NO_RECORD);
+        return newIdx;
+    }
+
+    private int addPlayer(UUID playerId, int head) {
+        int idx = players.size();
+        players.add(playerId);
+        playerIndex.put(playerId, idx);
+        if (idx == heads.length) {
+            heads = Arrays.copyOf(heads, heads.length * 2);
+        }
+        heads[idx] = head;
+        return idx;
+    }
+
+    private void setHead(int idx, int recordNo) throws IOException {
+        heads[idx] = recordNo;
+        playersFile.seek(PLAYERS_HEADER_SIZE + (long) idx * PLAYER_ENTRY_SIZE + 16);
+        playersFile.writeInt(recordNo);
+    }
+
+    private RandomAccessFile writerFor(int segment) throws IOException {
+        if (segment == openSegment) return segmentFile;
+
+        if (segmentFile != null) {
+            segmentFile.close();
+        }
+
+        File file = segmentFile(segment);
+        boolean exists = file.exists() && file.length() >= SEGMENT_HEADER_SIZE;
+        segmentFile = new RandomAccessFile(file, "rw");
+        if (!exists) {
+            segmentFile.setLength(0);
+            segmentFile.writeInt(SEGMENT_MAGIC);
+            segmentFile.writeInt(FORMAT_VERSION);
+        }
+        openSegment = segment;
+        return segmentFile;
+    }
+
+    private File segmentFile(int segment) {
+        return new File(historyFolder, String.format("segment-%05d.dat", segment));
+    }
+
+    private void closeFiles() {
+        try {
+            if (segmentFile != null) {
+                segmentFile.close();
+            }
+            if (playersFile != null) {
+                playersFile.close();
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not close duel history", e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.hud.PlayerHud;
+import de.dasjeff.duellSystem.model.DuellSession;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drives the in-duel HUDs of all players from one shared global timer.
+ * <p>
+ * Each HUD is updated once every {@code hud.update-interval} ticks; HUDs are spread over the interval by
+ * their slot so the work per tick stays even. On Folia scoreboards are not available, so only the boss
+ * bar is shown there.
+ */
+public class HudManager {
+
+    private final DuellSystem plugin;
+    private final Map<UUID, PlayerHud> huds;
+    private final boolean sidebarSupported;
+    private int tick;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public HudManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.huds = new ConcurrentHashMap<>();
+        this.sidebarSupported = !plugin.getTaskScheduler().isRegionized();
+
+        plugin.getTaskScheduler().runGlobalTimer(this::update, 1L, 1L);
+    }
+
+    /**
+     * Show the HUD to both players of a duel that is about to count down
+     * @param session Duel session
+     * @param player1 First player
+     * @param player2 Second player
+     */
+    public void show(DuellSession session, Player player1, Player player2) {
+        if (!plugin.getConfigManager().isHudEnabled()) return;
+
+        show(session, player1, player2.getName());
+        show(session, player2, player1.getName());
+    }
+
+    /**
+     * Remove the HUD of both players of a duel
+     * @param session Duel session
+     */
+    public void hide(DuellSession session) {
+        hide(session.getPlayer1Id(), session);
+        hide(session.getPlayer2Id(), session);
+    }
+
+    /**
+     * Get the number of HUDs shown
+     * @return Number of HUDs
+     */
+    public int getHudCount() {
+        return huds.size();
+    }
+
+    // Remove all HUDs
+    public void close() {
+        for (PlayerHud hud : huds.values()) {
+            hud.remove();
+        }
+        huds.clear();
+    }
+
+    /**
+     * Show the HUD to one player
+     * @param session Duel session
+     * @param player Player to show the HUD to
+     * @param opponentName Name of the opponent
+     */
+    private void show(DuellSession session, Player player, String opponentName) {
+        PlayerHud hud = new PlayerHud(plugin, player, session, opponentName, player.getUniqueId().hashCode(),
+                plugin.getConfigManager().isHudBossBarEnabled(),
+                sidebarSupported && plugin.getConfigManager().isHudSidebarEnabled());
+        PlayerHud previous = huds.put(player.getUniqueId(), hud);
+        if (previous != null) {
+            previous.remove();
+        }
+    }
+
+    /**
+     * Remove the HUD of one player if it belongs to a session
+     * @param playerId UUID of the player
+     * @param session Duel session
+     */
+    private void hide(UUID playerId, DuellSession session) {
+        PlayerHud hud = huds.get(playerId);
+        if (hud != null && hud.getSession().equals(session) && huds.remove(playerId, hud)) {
+            hud.remove();
+        }
+    }
+
+    // Update the HUDs whose slot is due this tick
+    private void update() {
+        if (huds.isEmpty()) return;
+
+        int interval = plugin.getConfigManager().getHudUpdateInterval();
+        int current = tick++;
+        long now = System.currentTimeMillis();
+        for (PlayerHud hud : huds.values()) {
+            if (Math.floorMod(current + hud.getSlot(), interval) == 0) {
+                hud.update(now);
+            }
+        }
+    }
+}
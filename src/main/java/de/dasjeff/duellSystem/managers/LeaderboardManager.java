@@ -0,0 +1,128 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.model.PlayerStats;
+import de.dasjeff.duellSystem.util.RankTree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains the rating leaderboard incrementally and publishes immutable top snapshots
+ */
+public class LeaderboardManager {
+
+    private final DuellSystem plugin;
+    private final RankTree rankTree;
+    private volatile List<Entry> snapshot;
+    private volatile boolean dirty;
+    private volatile int version;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public LeaderboardManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.rankTree = new RankTree();
+        this.snapshot = Collections.emptyList();
+
+        for (PlayerStats playerStats : plugin.getStatsManager().getAllStats()) {
+            rankTree.insert(playerStats.getPlayerId(), playerStats.getRating());
+        }
+        publishSnapshot();
+
+        // Republish at most once per tick, and only if a rating changed
+        plugin.getTaskScheduler().runGlobalTimer(() -> {
+            if (dirty) {
+                publishSnapshot();
+            }
+        }, 1L, 1L);
+    }
+
+    /**
+     * Add a new player to the leaderboard
+     * @param playerId UUID of the player
+     * @param rating Initial rating
+     */
+    public synchronized void add(UUID playerId, int rating) {
+        rankTree.insert(playerId, rating);
+        dirty = true;
+    }
+
+    /**
+     * Move a player to a new rating
+     * @param playerId UUID of the player
+     * @param oldRating Previous rating
+     * @param newRating New rating
+     */
+    public synchronized void update(UUID playerId, int oldRating, int newRating) {
+        if (oldRating == newRating) return;
+
+        rankTree.update(playerId, oldRating, newRating);
+        dirty = true;
+    }
+
+    /**
+     * Get the current rank of a player
+     * @param playerId UUID of the player
+     * @return 1-based rank, or -1 if the player is not ranked
+     */
+    public synchronized int getRank(UUID playerId) {
+        PlayerStats playerStats = plugin.getStatsManager().getStats(playerId);
+        if (playerStats == null) return -1;
+
+        return rankTree.rank(playerId, playerStats.getRating());
+    }
+
+    /**
+     * Get the best players from the last published snapshot
+     * @param limit Maximum number of entries
+     * @return Immutable list of entries in rank order
+     */
+    public List<Entry> getTop(int limit) {
+        List<Entry> current = snapshot;
+        return limit >= current.size() ? current : current.subList(0, limit);
+    }
+
+    /**
+     * Get the version of the published snapshot; it changes whenever ratings and therefore ranks may have changed
+     * @return Snapshot version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the number of ranked players
+     * @return Number of ranked players
+     */
+    public synchronized int getRankedCount() {
+        return rankTree.size();
+    }
+
+    // Rebuild the top snapshot from the first entries of the tree
+    private synchronized void publishSnapshot() {
+        List<RankTree.Entry> top = rankTree.top(plugin.getConfigManager().getLeaderboardSize());
+        List<Entry> entries = new ArrayList<>(top.size());
+
+        int rank = 1;
+        for (RankTree.Entry treeEntry : top) {
+            PlayerStats playerStats = plugin.getStatsManager().getStats(treeEntry.playerId());
+            entries.add(new Entry(rank++, playerStats.getName(), treeEntry.rating(),
+                    playerStats.getWins(), playerStats.getLosses()));
+        }
+
+        snapshot = Collections.unmodifiableList(entries);
+        dirty = false;
+        version++;
+    }
+
+    /**
+     * A single line of the published leaderboard
+     */
+    public record Entry(int rank, String name, int rating, int wins, int losses) {
+    }
+}
@@ -0,0 +1,267 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.metrics.Counter;
+import de.dasjeff.duellSystem.metrics.HandlerProfiler;
+import de.dasjeff.duellSystem.metrics.Histogram;
+import de.dasjeff.duellSystem.metrics.MetricsRegistry;
+import de.dasjeff.duellSystem.model.DuellEndReason;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+
+/**
+ * Owns the operational metrics of the plugin and exports them to a Prometheus text file
+ */
+public class MetricsManager {
+
+    private final DuellSystem plugin;
+    private final MetricsRegistry registry;
+    private final File exportFile;
+    private final HandlerProfiler profiler;
+
+    private final Counter requestsCreated;
+    private final Counter requestsAccepted;
+    private final Counter requestsExpired;
+    private final Counter requestsRateLimited;
+    private final Counter requestsEvicted;
+    private final Counter duelsStarted;
+    private final Counter[] duelsEnded;
+    private final Counter settlementFailures;
+    private final Counter commandsBlocked;
+    private final Counter damageCancelled;
+    private final Counter interactionsBlocked;
+    private final Counter pvpOverrides;
+    private final Counter auditDropped;
+    private final Counter sideBets;
+    private final Counter sideBetFailures;
+    private final Histogram requestDuration;
+    private final Histogram endDuration;
+    private final Histogram settlementDuration;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public MetricsManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.registry = new MetricsRegistry();
+        this.exportFile = new File(plugin.getDataFolder(), "metrics.prom");
+        this.profiler = new HandlerProfiler();
+
+        this.requestsCreated = registry.counter("duel_requests_created_total", "Duel requests created");
+        this.requestsAccepted = registry.counter("duel_requests_accepted_total", "Duel requests accepted");
+        this.requestsExpired = registry.counter("duel_requests_expired_total", "Duel requests expired without answer");
+        this.requestsRateLimited = registry.counter("duel_requests_rate_limited_total", "Duel requests rejected by the sender rate limit");
+        this.requestsEvicted = registry.counter("duel_requests_evicted_total", "Duel requests evicted from a full inbox");
+        this.duelsStarted = registry.counter("duel_duels_started_total", "Duels started (countdown begun)");
+        this.duelsEnded = new Counter[DuellEndReason.values().length];
+        for (DuellEndReason reason : DuellEndReason.values()) {
+            duelsEnded[reason.ordinal()] = registry.counter("duel_duels_ended_total",
+                    "reason=\"" + reason.name().toLowerCase() + "\"", "Duels ended by reason");
+        }
+        this.settlementFailures = registry.counter("duel_settlement_failures_total", "Failed bet settlements");
+        this.commandsBlocked = registry.counter("duel_commands_blocked_total", "Commands blocked during duels");
+        this.damageCancelled = registry.counter("duel_damage_cancelled_total", "Damage events cancelled by the duel listener");
+        this.interactionsBlocked = registry.counter("duel_interactions_blocked_total", "World interactions blocked during duels");
+        this.pvpOverrides = registry.counter("duel_pvp_overrides_total", "WorldGuard PvP denials overridden for duels");
+        this.auditDropped = registry.counter("duel_audit_dropped_total", "Audit log entries dropped because the buffer was full");
+        this.sideBets = registry.counter("duel_side_bets_total", "Spectator side bets placed");
+        this.sideBetFailures = registry.counter("duel_side_bet_failures_total", "Side bets that could not be escrowed or paid out");
+        this.requestDuration = registry.histogram("duel_request_duration_seconds", "Time spent creating a duel request");
+        this.endDuration = registry.histogram("duel_end_duration_seconds", "Time spent ending a duel");
+        this.settlementDuration = registry.histogram("duel_settlement_duration_seconds", "Time spent settling a bet through Vault");
+
+        registry.gauge("duel_active_duels", "Currently active duels",
+                () -> plugin.getDuellManager() != null ? plugin.getDuellManager().getActiveDuelCount() : 0);
+        registry.gauge("duel_pending_requests", "Currently pending duel requests",
+                () -> plugin.getDuellManager() != null ? plugin.getDuellManager().getPendingRequestCount() : 0);
+        registry.gauge("duel_spectators", "Players currently watching a duel",
+                () -> plugin.getSpectatorManager() != null ? plugin.getSpectatorManager().getSpectatorCount() : 0);
+
+        long exportTicks = plugin.getConfigManager().getMetricsExportInterval() * 20L;
+        plugin.getTaskScheduler().runAsyncTimer(this::export, exportTicks, exportTicks);
+    }
+
+    // Write all metrics to metrics.prom, replacing the previous file atomically
+    public void export() {
+        if (!plugin.getConfigManager().isMetricsExportEnabled()) return;
+
+        File tempFile = new File(exportFile.getParentFile(), exportFile.getName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+                registry.writePrometheus(writer);
+            }
+            Files.move(tempFile.toPath(), exportFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not export metrics", e);
+        }
+    }
+
+    /**
+     * Get the metrics registry
+     * @return MetricsRegistry instance
+     */
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Get the event handler profiler
+     * @return HandlerProfiler instance
+     */
+    public HandlerProfiler getProfiler() {
+        return profiler;
+    }
+
+    /**
+     * Get the counter of created requests
+     * @return Counter
+     */
+    public Counter getRequestsCreated() {
+        return requestsCreated;
+    }
+
+    /**
+     * Get the counter of accepted requests
+     * @return Counter
+     */
+    public Counter getRequestsAccepted() {
+        return requestsAccepted;
+    }
+
+    /**
+     * Get the counter of expired requests
+     * @return Counter
+     */
+    public Counter getRequestsExpired() {
+        return requestsExpired;
+    }
+
+    /**
+     * Get the counter of rate-limited requests
+     * @return Counter
+     */
+    public Counter getRequestsRateLimited() {
+        return requestsRateLimited;
+    }
+
+    /**
+     * Get the counter of requests evicted from a full inbox
+     * @return Counter
+     */
+    public Counter getRequestsEvicted() {
+        return requestsEvicted;
+    }
+
+    /**
+     * Get the counter of started duels
+     * @return Counter
+     */
+    public Counter getDuelsStarted() {
+        return duelsStarted;
+    }
+
+    /**
+     * Get the counter of ended duels for a reason
+     * @param reason End reason
+     * @return Counter
+     */
+    public Counter getDuelsEnded(DuellEndReason reason) {
+        return duelsEnded[reason.ordinal()];
+    }
+
+    /**
+     * Get the counter of failed settlements
+     * @return Counter
+     */
+    public Counter getSettlementFailures() {
+        return settlementFailures;
+    }
+
+    /**
+     * Get the counter of blocked commands
+     * @return Counter
+     */
+    public Counter getCommandsBlocked() {
+        return commandsBlocked;
+    }
+
+    /**
+     * Get the counter of cancelled damage events
+     * @return Counter
+     */
+    public Counter getDamageCancelled() {
+        return damageCancelled;
+    }
+
+    /**
+     * Get the counter of blocked world interactions
+     * @return Counter
+     */
+    public Counter getInteractionsBlocked() {
+        return interactionsBlocked;
+    }
+
+    /**
+     * Get the counter of overridden WorldGuard PvP denials
+     * @return Counter
+     */
+    public Counter getPvpOverrides() {
+        return pvpOverrides;
+    }
+
+    /**
+     * Get the counter of dropped audit log entries
+     * @return Counter
+     */
+    public Counter getAuditDropped() {
+        return auditDropped;
+    }
+
+    /**
+     * Get the counter of placed side bets
+     * @return Counter
+     */
+    public Counter getSideBets() {
+        return sideBets;
+    }
+
+    /**
+     * Get the counter of side bets that could not be escrowed or paid out
+     * @return Counter
+     */
+    public Counter getSideBetFailures() {
+        return sideBetFailures;
+    }
+
+    /**
+     * Get the histogram of request creation times
+     * @return Histogram
+     */
+    public Histogram getRequestDuration() {
+        return requestDuration;
+    }
+
+    /**
+     * Get the histogram of duel end times
+     * @return Histogram
+     */
+    public Histogram getEndDuration() {
+        return endDuration;
+    }
+
+    /**
+     * Get the histogram of settlement times
+     * @return Histogram
+     */
+    public Histogram getSettlementDuration() {
+        return settlementDuration;
+    }
+}
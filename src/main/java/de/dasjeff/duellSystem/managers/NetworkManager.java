@@ -0,0 +1,432 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.network.InMemoryTransport;
+import de.dasjeff.duellSystem.network.MessageTransport;
+import de.dasjeff.duellSystem.network.NetworkCodec;
+import de.dasjeff.duellSystem.network.NetworkMessage;
+import de.dasjeff.duellSystem.network.PluginMessageTransport;
+import de.dasjeff.duellSystem.scheduler.TaskHandle;
+import de.dasjeff.duellSystem.util.Money;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Sends duel requests to players on other servers of the network.
+ * <p>
+ * A request is broadcast to all servers; the server the target is on shows it, and an acceptance
+ * sends both players to the configured duel server, which starts the duel once both have arrived.
+ * Outgoing messages are encoded into one buffer and sent as a single batch per tick.
+ */
+public class NetworkManager {
+
+    // Stay below the 32 KiB limit of a forwarded plugin message
+    private static final int MAX_BATCH_BYTES = 30000;
+
+    private final DuellSystem plugin;
+    private final MessageTransport transport;
+    private final String serverName;
+    private final ByteArrayOutputStream buffer;
+    private final DataOutputStream out;
+    private final Map<UUID, NetworkMessage> outgoing;
+    private final Map<UUID, NetworkMessage> incoming;
+    private final Map<UUID, NetworkMessage> arrivals;
+    private final Map<UUID, TaskHandle> timeouts;
+    private int queued;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public NetworkManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.serverName = plugin.getConfigManager().getNetworkServerName();
+        this.buffer = new ByteArrayOutputStream(1024);
+        this.out = new DataOutputStream(buffer);
+        this.outgoing = new HashMap<>();
+        this.incoming = new HashMap<>();
+        this.arrivals = new HashMap<>();
+        this.timeouts = new HashMap<>();
+
+        if ("memory".equalsIgnoreCase(plugin.getConfigManager().getNetworkTransport())) {
+            this.transport = new InMemoryTransport(InMemoryTransport.Hub.shared());
+        } else {
+            this.transport = new PluginMessageTransport(plugin);
+        }
+        transport.start(batch -> plugin.getTaskScheduler().executeGlobal(() -> receive(batch)));
+        plugin.getTaskScheduler().runGlobalTimer(this::flush, 1L, 1L);
+    }
+
+    /**
+     * Send a request to a player who is not on this server
+     * @param sender Player sending the request
+     * @param targetName Name of the target player
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     * @return True if the request was sent
+     */
+    public synchronized boolean sendRequest(Player sender, String targetName, long betAmount) {
+        if (!plugin.getDuellManager().checkRequestRate(sender)) {
+            return false;
+        }
+
+        if (betAmount > 0 && !plugin.getEconomyManager().hasEnoughMoney(sender, betAmount)) {
+            plugin.getMessageManager().sendMessage(sender, "request.not-enough-money", 
+                    createPlaceholderMap("amount", Money.format(betAmount)));
+            return false;
+        }
+
+        NetworkMessage request = NetworkMessage.request(UUID.randomUUID(), sender.getUniqueId(), sender.getName(),
+                targetName, betAmount, serverName);
+        outgoing.put(request.getRequestId(), request);
+        queue(request);
+
+        // Expire the request if nobody accepts it
+        scheduleTimeout(request.getRequestId(), () -> {
+            if (outgoing.remove(request.getRequestId()) == null) return;
+
+            queue(NetworkMessage.expire(request.getRequestId()));
+            plugin.getMetricsManager().getRequestsExpired().increment();
+            Player senderPlayer = Bukkit.getPlayer(request.getSenderId());
+            if (senderPlayer != null && senderPlayer.isOnline()) {
+                plugin.getMessageManager().sendMessage(senderPlayer, "request.expired", 
+                        createPlaceholderMap("player", targetName));
+            }
+        });
+
+        if (betAmount > 0) {
+            plugin.getMessageManager().sendMessage(sender, "request.sent-remote-with-bet", 
+                    createPlaceholderMap("player", targetName, "amount", Money.format(betAmount)));
+        } else {
+            plugin.getMessageManager().sendMessage(sender, "request.sent-remote", 
+                    createPlaceholderMap("player", targetName));
+        }
+        plugin.getMetricsManager().getRequestsCreated().increment();
+        return true;
+    }
+
+    /**
+     * Accept a request from a player on another server
+     * @param target Player accepting the request
+     * @param senderName Name of the sender
+     * @return True if there was such a request
+     */
+    public synchronized boolean acceptRequest(Player target, String senderName) {
+        NetworkMessage request = null;
+        for (NetworkMessage candidate : incoming.values()) {
+            if (candidate.getTargetName().equalsIgnoreCase(target.getName())
+                    && candidate.getSenderName().equalsIgnoreCase(senderName)) {
+                request = candidate;
+                break;
+            }
+        }
+        if (request == null) return false;
+
+        // Do not send the player to the duel server just to be rejected there
+        if (plugin.getDuellManager().isInDuel(target.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(target, "general.already-in-duel");
+            return true;
+        }
+        if (request.getBetAmount() > 0 && !plugin.getEconomyManager().hasEnoughMoney(target, request.getBetAmount())) {
+            plugin.getMessageManager().sendMessage(target, "request.not-enough-money", 
+                    createPlaceholderMap("amount", Money.format(request.getBetAmount())));
+            return true;
+        }
+
+        incoming.remove(request.getRequestId());
+        cancelTimeout(request.getRequestId());
+
+        String duelServer = plugin.getConfigManager().getNetworkDuelServer();
+        NetworkMessage accept = NetworkMessage.accept(request, target.getUniqueId(), duelServer);
+        queue(accept);
+        plugin.getMetricsManager().getRequestsAccepted().increment();
+        plugin.getMessageManager().sendMessage(target, "duel.accepted", 
+                createPlaceholderMap("player", request.getSenderName()));
+
+        if (duelServer.equalsIgnoreCase(serverName)) {
+            // This is the duel server, wait here for the sender
+            expectArrival(accept);
+        } else {
+            route(target, duelServer);
+        }
+        return true;
+    }
+
+    /**
+     * Start a waiting duel once a player has joined this server
+     * @param player Player who joined
+     */
+    public synchronized void handleJoin(Player player) {
+        Iterator<NetworkMessage> iterator = arrivals.values().iterator();
+        while (iterator.hasNext()) {
+            NetworkMessage accept = iterator.next();
+            if (accept.getSenderId().equals(player.getUniqueId()) || accept.getTargetId().equals(player.getUniqueId())) {
+                if (arePresent(accept)) {
+                    iterator.remove();
+                    cancelTimeout(accept.getRequestId());
+                    tryStart(accept);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Withdraw the requests of a player leaving the server
+     * @param playerId UUID of the player
+     */
+    public synchronized void handleQuit(UUID playerId) {
+        Iterator<NetworkMessage> iterator = outgoing.values().iterator();
+        while (iterator.hasNext()) {
+            NetworkMessage request = iterator.next();
+            if (request.getSenderId().equals(playerId)) {
+                iterator.remove();
+                cancelTimeout(request.getRequestId());
+                queue(NetworkMessage.expire(request.getRequestId()));
+            }
+        }
+    }
+
+    // Send the queued messages as one batch
+    public synchronized void flush() {
+        if (queued == 0) return;
+
+        ByteArrayOutputStream batch = new ByteArrayOutputStream(buffer.size() + 8);
+        try {
+            NetworkCodec.writeHeader(new DataOutputStream(batch), queued);
+            buffer.writeTo(batch);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not encode network batch", e);
+            return;
+        }
+
+        if (transport.send(batch.toByteArray())) {
+            buffer.reset();
+            queued = 0;
+        }
+    }
+
+    // Send the remaining messages and detach from the transport
+    public synchronized void close() {
+        flush();
+        transport.close();
+    }
+
+    /**
+     * Get the name of this server in the network
+     * @return Server name
+     */
+    public String getServerName() {
+        return serverName;
+    }
+
+    // Handle a batch received from another server
+    private synchronized void receive(byte[] batch) {
+        List<NetworkMessage> messages;
+        try {
+            messages = NetworkCodec.readBatch(batch);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Received a malformed network batch", e);
+            return;
+        }
+
+        for (NetworkMessage message : messages) {
+            switch (message.getType()) {
+                case NetworkMessage.REQUEST:
+                    receiveRequest(message);
+                    break;
+                case NetworkMessage.ACCEPT:
+                    receiveAccept(message);
+                    break;
+                case NetworkMessage.EXPIRE:
+                    if (incoming.remove(message.getRequestId()) != null) {
+                        cancelTimeout(message.getRequestId());
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    // Show a request to its target if the target is on this server
+    private void receiveRequest(NetworkMessage request) {
+        Player target = Bukkit.getPlayerExact(request.getTargetName());
+        if (target == null || !target.isOnline() || plugin.getDuellManager().isInDuel(target.getUniqueId())) {
+            return;
+        }
+
+        incoming.put(request.getRequestId(), request);
+        scheduleTimeout(request.getRequestId(), () -> incoming.remove(request.getRequestId()));
+
+        if (request.getBetAmount() > 0) {
+            plugin.getMessageManager().sendMessage(target, "request.received-remote-with-bet", 
+                    createPlaceholderMap("player", request.getSenderName(), "server", request.getServer(), 
+                            "amount", Money.format(request.getBetAmount())));
+        } else {
+            plugin.getMessageManager().sendMessage(target, "request.received-remote", 
+                    createPlaceholderMap("player", request.getSenderName(), "server", request.getServer()));
+        }
+    }
+
+    // Send the sender of an accepted request to the duel server, and wait for both players if this is it
+    private void receiveAccept(NetworkMessage accept) {
+        if (outgoing.remove(accept.getRequestId()) != null) {
+            cancelTimeout(accept.getRequestId());
+
+            Player sender = Bukkit.getPlayer(accept.getSenderId());
+            if (sender != null && sender.isOnline()) {
+                plugin.getMessageManager().sendMessage(sender, "duel.target-accepted", 
+                        createPlaceholderMap("player", accept.getTargetName()));
+                if (!accept.getServer().equalsIgnoreCase(serverName)) {
+                    route(sender, accept.getServer());
+                }
+            }
+        }
+
+        if (accept.getServer().equalsIgnoreCase(serverName)) {
+            expectArrival(accept);
+        }
+    }
+
+    // Wait for both players of an accepted request to be on this server
+    private void expectArrival(NetworkMessage accept) {
+        if (arePresent(accept)) {
+            tryStart(accept);
+            return;
+        }
+
+        arrivals.put(accept.getRequestId(), accept);
+        scheduleTimeout(accept.getRequestId(), () -> {
+            if (arrivals.remove(accept.getRequestId()) == null) return;
+
+            for (UUID playerId : new UUID[]{accept.getSenderId(), accept.getTargetId()}) {
+                Player player = Bukkit.getPlayer(playerId);
+                if (player != null && player.isOnline()) {
+                    plugin.getMessageManager().sendMessage(player, "duel.partner-missing");
+                }
+            }
+        });
+    }
+
+    // Check if both players of an accepted request are on this server
+    private boolean arePresent(NetworkMessage accept) {
+        Player sender = Bukkit.getPlayer(accept.getSenderId());
+        Player target = Bukkit.getPlayer(accept.getTargetId());
+        return sender != null && target != null && sender.isOnline() && target.isOnline();
+    }
+
+    /**
+     * Start the duel of an accepted request whose players are both here; both are told if it cannot start
+     * @param accept The accepted request
+     * @return True if the duel was started
+     */
+    private boolean tryStart(NetworkMessage accept) {
+        Player sender = Bukkit.getPlayer(accept.getSenderId());
+        Player target = Bukkit.getPlayer(accept.getTargetId());
+        if (sender == null || target == null || !sender.isOnline() || !target.isOnline()) {
+            return false;
+        }
+
+        if (plugin.getDuellManager().startArrangedDuel(sender, target, accept.getBetAmount())) {
+            return true;
+        }
+        plugin.getMessageManager().sendMessage(sender, "duel.start-failed");
+        plugin.getMessageManager().sendMessage(target, "duel.start-failed");
+        return false;
+    }
+
+    private void route(Player player, String server) {
+        plugin.getMessageManager().sendMessage(player, "duel.routing", createPlaceholderMap("server", server));
+        transport.connect(player, server);
+    }
+
+    private void queue(NetworkMessage message) {
+        if (buffer.size() > MAX_BATCH_BYTES) {
+            flush();
+
+            // Nobody is online to carry the batch; drop the stale messages instead of growing past the limit
+            if (queued > 0) {
+                plugin.getLogger().warning("Dropped " + queued + " network messages, no player online to send them");
+                buffer.reset();
+                queued = 0;
+            }
+        }
+
+        try {
+            NetworkCodec.write(out, message);
+            queued++;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not encode network message", e);
+        }
+    }
+
+    private void scheduleTimeout(UUID requestId, Runnable task) {
+        TaskHandle handle = plugin.getTaskScheduler().runGlobalLater(() -> {
+            synchronized (this) {
+                timeouts.remove(requestId);
+                task.run();
+            }
+        }, plugin.getConfigManager().getRequestTimeout() * 20L);
+        timeouts.put(requestId, handle);
+    }
+
+    private void cancelTimeout(UUID requestId) {
+        TaskHandle handle = timeouts.remove(requestId);
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+
+    /**
+     * Create a placeholder map
+     * @param key First key
+     * @param value First value
+     * @return The placeholder map
+     */
+    private Map<String, String> createPlaceholderMap(String key, String value) {
+        Map<String, String> placeholders = new HashMap<>();
+        placeholders.put(key, value);
+        return placeholders;
+    }
+
+    /**
+     * Create a placeholder map
+     * @param key1 First key
+     * @param value1 First value
+     * @param key2 Second key
+     * @param value2 Second value
+     * @return The placeholder map
+     */
+    private Map<String, String> createPlaceholderMap(String key1, String value1, String key2, String value2) {
+        Map<String, String> placeholders = createPlaceholderMap(key1, value1);
+        placeholders.put(key2, value2);
+        return placeholders;
+    }
+
+    /**
+     * Create a placeholder map
+     * @param key1 First key
+     * @param value1 First value
+     * @param key2 Second key
+     * @param value2 Second value
+     * @param key3 Third key
+     * @param value3 Third value
+     * @return The placeholder map
+     */
+    private Map<String, String> createPlaceholderMap(String key1, String value1, String key2, String value2,
+                                                     String key3, String value3) {
+        Map<String, String> placeholders = createPlaceholderMap(key1, value1, key2, value2);
+        placeholders.put(key3, value3);
+        return placeholders;
+    }
+}
@@ -0,0 +1,201 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.api.DuelPhase;
+import de.dasjeff.duellSystem.api.DuelService;
+import de.dasjeff.duellSystem.model.PlayerStats;
+import de.dasjeff.duellSystem.util.Money;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the duel placeholders of a player from cached strings.
+ * <p>
+ * Scoreboard and tab plugins poll placeholders many times per second. Every player has an immutable
+ * cache entry for the duel part and one for the stats part; an entry is only rebuilt when the values it
+ * was built from differ from the current ones. Checking this reads a few primitives from the
+ * {@link DuelService} snapshot and the player's stats, so a poll of an unchanged value does not allocate.
+ * Entries are safe to read from any thread.
+ */
+public class PlaceholderManager {
+
+    private final DuellSystem plugin;
+    private final Map<UUID, DuelValues> duelCache;
+    private final Map<UUID, StatsValues> statsCache;
+    private volatile Labels labels;
+    private volatile ActiveDuels activeDuels;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public PlaceholderManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.duelCache = new ConcurrentHashMap<>();
+        this.statsCache = new ConcurrentHashMap<>();
+        this.activeDuels = new ActiveDuels(0, "0");
+        reload();
+    }
+
+    // Reload the labels from messages.yml and drop all cached strings
+    public void reload() {
+        this.labels = new Labels(
+                plugin.getMessageManager().getRawMessage("placeholders.state.none"),
+                plugin.getMessageManager().getRawMessage("placeholders.state.countdown"),
+                plugin.getMessageManager().getRawMessage("placeholders.state.fighting"),
+                plugin.getMessageManager().getRawMessage("placeholders.none"));
+        duelCache.clear();
+        statsCache.clear();
+    }
+
+    /**
+     * Resolve a placeholder
+     * @param playerId UUID of the player the placeholder is shown to
+     * @param params Placeholder name without the {@code duel_} prefix
+     * @return The value, or null if the placeholder is unknown
+     */
+    public String resolve(UUID playerId, String params) {
+        switch (params) {
+            case "state":
+                return getDuelValues(playerId).state();
+            case "in_duel":
+                return getDuelValues(playerId).inDuel();
+            case "opponent":
+                return getDuelValues(playerId).opponent();
+            case "bet":
+                return getDuelValues(playerId).bet();
+            case "wins":
+                return getStatsValues(playerId).wins();
+            case "losses":
+                return getStatsValues(playerId).losses();
+            case "rating":
+                return getStatsValues(playerId).rating();
+            case "rank":
+                return getStatsValues(playerId).rank();
+            case "active_duels":
+                return getActiveDuels();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Forget the cached strings of a player
+     * @param playerId UUID of the player
+     */
+    public void forget(UUID playerId) {
+        duelCache.remove(playerId);
+        statsCache.remove(playerId);
+    }
+
+    /**
+     * Get the cached duel strings of a player, rebuilding them if the duel has changed
+     * @param playerId UUID of the player
+     * @return Current duel strings
+     */
+    private DuelValues getDuelValues(UUID playerId) {
+        DuelService service = plugin.getDuelService();
+        UUID opponentId = service.getOpponent(playerId);
+        DuelPhase phase = service.getPhase(playerId);
+        long betAmount = service.getBetAmount(playerId);
+        Labels current = labels;
+
+        DuelValues cached = duelCache.get(playerId);
+        if (cached != null && cached.labels() == current && cached.phase() == phase
+                && cached.betAmount() == betAmount && Objects.equals(cached.opponentId(), opponentId)) {
+            return cached;
+        }
+
+        String state = switch (phase) {
+            case COUNTDOWN -> current.countdown();
+            case FIGHTING -> current.fighting();
+            default -> current.noDuel();
+        };
+        DuelValues values = new DuelValues(current, opponentId, phase, betAmount, state,
+                String.valueOf(phase != DuelPhase.NONE),
+                opponentId != null ? resolveName(opponentId) : current.none(),
+                betAmount > 0 ? Money.format(betAmount) : current.none());
+        duelCache.put(playerId, values);
+        return values;
+    }
+
+    /**
+     * Get the cached stats strings of a player, rebuilding them if the stats or the leaderboard have changed
+     * @param playerId UUID of the player
+     * @return Current stats strings
+     */
+    private StatsValues getStatsValues(UUID playerId) {
+        PlayerStats stats = plugin.getStatsManager().getStats(playerId);
+        int wins = stats != null ? stats.getWins() : 0;
+        int losses = stats != null ? stats.getLosses() : 0;
+        int rating = stats != null ? stats.getRating() : plugin.getConfigManager().getStartRating();
+        int leaderboardVersion = plugin.getLeaderboardManager().getVersion();
+        Labels current = labels;
+
+        StatsValues cached = statsCache.get(playerId);
+        if (cached != null && cached.labels() == current && cached.winCount() == wins
+                && cached.lossCount() == losses && cached.ratingValue() == rating
+                && cached.leaderboardVersion() == leaderboardVersion) {
+            return cached;
+        }
+
+        int rank = stats != null ? plugin.getLeaderboardManager().getRank(playerId) : -1;
+        StatsValues values = new StatsValues(current, wins, losses, rating, leaderboardVersion,
+                String.valueOf(wins), String.valueOf(losses), String.valueOf(rating),
+                rank > 0 ? String.valueOf(rank) : current.none());
+        statsCache.put(playerId, values);
+        return values;
+    }
+
+    /**
+     * Get the cached number of active duels
+     * @return Number of active duels
+     */
+    private String getActiveDuels() {
+        int count = plugin.getDuelService().getActiveDuelCount();
+        ActiveDuels cached = activeDuels;
+        if (cached.count() != count) {
+            cached = new ActiveDuels(count, String.valueOf(count));
+            activeDuels = cached;
+        }
+        return cached.text();
+    }
+
+    /**
+     * Resolve the name of a player for display
+     * @param playerId UUID of the player
+     * @return Name of the player, or "Unknown"
+     */
+    private String resolveName(UUID playerId) {
+        return plugin.getProfileCache().getName(playerId);
+    }
+
+    /**
+     * Number of active duels and its string
+     */
+    private record ActiveDuels(int count, String text) {
+    }
+
+    /**
+     * Labels from messages.yml
+     */
+    private record Labels(String noDuel, String countdown, String fighting, String none) {
+    }
+
+    /**
+     * Duel strings of a player and the values they were built from
+     */
+    private record DuelValues(Labels labels, UUID opponentId, DuelPhase phase, long betAmount,
+                              String state, String inDuel, String opponent, String bet) {
+    }
+
+    /**
+     * Stats strings of a player and the values they were built from
+     */
+    private record StatsValues(Labels labels, int winCount, int lossCount, int ratingValue, int leaderboardVersion,
+                               String wins, String losses, String rating, String rank) {
+    }
+}
@@ -0,0 +1,145 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.model.PlayerStats;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bounded cache of player profiles, so names and Vault accounts can be resolved without
+ * {@link Bukkit#getOfflinePlayer(UUID)}, which may read the user cache or player data from disk.
+ * <p>
+ * Profiles are added on join and dropped on quit, except for duel participants: their profiles stay until
+ * they are evicted as the least recently used entry, so a duel can still be settled after they left.
+ * The cache keeps only the UUID and name, never the {@link Player} entity; the Vault account of a player
+ * who left is created once from the UUID and kept with the profile.
+ */
+public class ProfileCache {
+
+    private final DuellSystem plugin;
+    private final Map<UUID, Profile> profiles;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public ProfileCache(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.profiles = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Profile> eldest) {
+                return size() > plugin.getConfigManager().getProfileCacheSize();
+            }
+        };
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            remember(player);
+        }
+    }
+
+    /**
+     * Add or refresh the profile of a player
+     * @param player The player
+     */
+    public void remember(Player player) {
+        synchronized (profiles) {
+            profiles.put(player.getUniqueId(), new Profile(player.getName(), null));
+        }
+    }
+
+    /**
+     * Drop the profile of a player who left without taking part in a duel
+     * @param playerId UUID of the player
+     */
+    public void forget(UUID playerId) {
+        synchronized (profiles) {
+            profiles.remove(playerId);
+        }
+    }
+
+    /**
+     * Get the profile of a player for economy calls; only unknown players are looked up through Bukkit
+     * @param playerId UUID of the player
+     * @return The player
+     */
+    public OfflinePlayer getPlayer(UUID playerId) {
+        Player online = Bukkit.getPlayer(playerId);
+        if (online != null) {
+            return online;
+        }
+
+        Profile cached;
+        synchronized (profiles) {
+            cached = profiles.get(playerId);
+        }
+        if (cached != null && cached.account() != null) {
+            return cached.account();
+        }
+
+        // The player is offline, so this is never the entity of the player
+        if (cached == null) {
+            plugin.debug(() -> "Profile cache miss for " + playerId);
+        }
+        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(playerId);
+        String name = cached != null ? cached.name() : offlinePlayer.getName();
+        synchronized (profiles) {
+            profiles.put(playerId, new Profile(name, offlinePlayer));
+        }
+        return offlinePlayer;
+    }
+
+    /**
+     * Find the name of a player from online players, the cache and the statistics
+     * @param playerId UUID of the player
+     * @return Name of the player, or null if unknown
+     */
+    public String findName(UUID playerId) {
+        Player online = Bukkit.getPlayer(playerId);
+        if (online != null) {
+            return online.getName();
+        }
+
+        synchronized (profiles) {
+            Profile cached = profiles.get(playerId);
+            if (cached != null && cached.name() != null) {
+                return cached.name();
+            }
+        }
+
+        PlayerStats stats = plugin.getStatsManager().getStats(playerId);
+        return stats != null ? stats.getName() : null;
+    }
+
+    /**
+     * Get the name of a player for messages and logs
+     * @param playerId UUID of the player
+     * @return Name of the player, or "Unknown"
+     */
+    public String getName(UUID playerId) {
+        String name = findName(playerId);
+        return name != null ? name : "Unknown";
+    }
+
+    /**
+     * Get the number of cached profiles
+     * @return Number of profiles
+     */
+    public int size() {
+        synchronized (profiles) {
+            return profiles.size();
+        }
+    }
+
+    /**
+     * Cached profile of a player
+     * @param name Last known name, or null if unknown
+     * @param account Vault account once created after the player left, or null
+     */
+    private record Profile(String name, OfflinePlayer account) {
+    }
+}
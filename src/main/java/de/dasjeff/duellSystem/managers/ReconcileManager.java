@@ -0,0 +1,131 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically looks for state the regular code paths left behind in the {@link DuellManager} maps and
+ * repairs it: sessions of offline or missing players (1v1 and team duels), duel slots no session holds,
+ * timeout tasks of requests that are gone and dangling entries in the sent-request index.
+ * <p>
+ * Each run works on the global thread for at most {@code reconcile.budget} milliseconds. A phase that
+ * runs out of time is started again on the next run; since repaired entries are gone by then, every run
+ * makes progress.
+ */
+public class ReconcileManager {
+
+    private static final int PHASES = 3;
+
+    private final DuellSystem plugin;
+    private final AtomicLong sessionsRepaired;
+    private final AtomicLong timeoutsRepaired;
+    private final AtomicLong indexesRepaired;
+    private final AtomicLong runs;
+    private volatile long lastRunAt;
+    private int phase;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public ReconcileManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.sessionsRepaired = new AtomicLong();
+        this.timeoutsRepaired = new AtomicLong();
+        this.indexesRepaired = new AtomicLong();
+        this.runs = new AtomicLong();
+
+        long intervalTicks = plugin.getConfigManager().getReconcileInterval() * 20L;
+        plugin.getTaskScheduler().runGlobalTimer(
+                () -> run(TimeUnit.MILLISECONDS.toNanos(plugin.getConfigManager().getReconcileBudget())),
+                intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Run the phases in turn until all are done or the time budget is used up; must run on the global thread
+     * @param budgetNanos Time budget in nanoseconds
+     * @return Number of repaired entries
+     */
+    public synchronized int run(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int repaired = 0;
+        do {
+            repaired += runPhase(deadline);
+            if (System.nanoTime() - deadline > 0) break;
+            phase = (phase + 1) % PHASES;
+        } while (phase != 0);
+
+        runs.incrementAndGet();
+        lastRunAt = System.currentTimeMillis();
+        if (repaired > 0) {
+            int total = repaired;
+            plugin.debug(() -> "Reconciler repaired " + total + " entries");
+        }
+        return repaired;
+    }
+
+    /**
+     * Run the current phase
+     * @param deadline System nano time at which to stop
+     * @return Number of repaired entries
+     */
+    private int runPhase(long deadline) {
+        switch (phase) {
+            case 0:
+                int sessions = plugin.getTeamDuelManager().reconcileSessions(deadline)
+                        + plugin.getDuellManager().reconcileSessions(deadline);
+                sessionsRepaired.addAndGet(sessions);
+                return sessions;
+            case 1:
+                int timeouts = plugin.getDuellManager().reconcileTimeouts(deadline);
+                timeoutsRepaired.addAndGet(timeouts);
+                return timeouts;
+            default:
+                int indexes = plugin.getDuellManager().reconcileIndexes(deadline);
+                indexesRepaired.addAndGet(indexes);
+                return indexes;
+        }
+    }
+
+    /**
+     * Get the number of repaired duel sessions
+     * @return Repaired sessions since the start
+     */
+    public long getSessionsRepaired() {
+        return sessionsRepaired.get();
+    }
+
+    /**
+     * Get the number of repaired request timeouts
+     * @return Repaired timeouts since the start
+     */
+    public long getTimeoutsRepaired() {
+        return timeoutsRepaired.get();
+    }
+
+    /**
+     * Get the number of repaired request index entries
+     * @return Repaired index entries since the start
+     */
+    public long getIndexesRepaired() {
+        return indexesRepaired.get();
+    }
+
+    /**
+     * Get the number of runs
+     * @return Runs since the start
+     */
+    public long getRuns() {
+        return runs.get();
+    }
+
+    /**
+     * Get the time of the last run
+     * @return Epoch milliseconds of the last run, 0 if there was none
+     */
+    public long getLastRunAt() {
+        return lastRunAt;
+    }
+}
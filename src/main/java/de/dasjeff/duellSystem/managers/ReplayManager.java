@@ -0,0 +1,306 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.replay.ReplayCodec;
+import de.dasjeff.duellSystem.replay.ReplayPlayer;
+import de.dasjeff.duellSystem.replay.ReplayRecording;
+import de.dasjeff.duellSystem.replay.ReplayTrack;
+import de.dasjeff.duellSystem.scheduler.TaskHandle;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Records fighting duels tick by tick and plays the recordings back.
+ * <p>
+ * Each participant is sampled by a timer on the thread owning the player into a preallocated
+ * {@link ReplayTrack}. When the duel ends the recording is compressed and written to
+ * {@code replays/<id>.rpl} on a background thread.
+ */
+public class ReplayManager {
+
+    private final DuellSystem plugin;
+    private final File replayFolder;
+    private final ExecutorService executor;
+    private final AtomicInteger nextId;
+    private final Map<UUID, ActiveRecording> recordings;
+    private final Map<UUID, ReplayTrack> tracks;
+    private final Map<UUID, ReplayPlayer> playbacks;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public ReplayManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.replayFolder = new File(plugin.getDataFolder(), "replays");
+        this.executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "DuellSystem-Replay"));
+        this.nextId = new AtomicInteger(findHighestId() + 1);
+        this.recordings = new ConcurrentHashMap<>();
+        this.tracks = new ConcurrentHashMap<>();
+        this.playbacks = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Start recording a duel that has just started fighting
+     * @param session The duel session
+     */
+    public void begin(DuellSession session) {
+        if (!plugin.getConfigManager().isReplayEnabled()) return;
+
+        Player player1 = Bukkit.getPlayer(session.getPlayer1Id());
+        Player player2 = Bukkit.getPlayer(session.getPlayer2Id());
+        if (player1 == null || player2 == null) return;
+
+        int capacity = plugin.getConfigManager().getReplayMaxSeconds() * 20;
+        ReplayTrack track1 = new ReplayTrack(player1.getUniqueId(), player1.getName(), capacity);
+        ReplayTrack track2 = new ReplayTrack(player2.getUniqueId(), player2.getName(), capacity);
+        ReplayRecording recording = new ReplayRecording(nextId.getAndIncrement(), session.getId(),
+                System.currentTimeMillis(), player1.getWorld().getName(), track1, track2);
+
+        ActiveRecording active = new ActiveRecording(recording);
+        if (recordings.putIfAbsent(session.getId(), active) != null) return;
+
+        tracks.put(player1.getUniqueId(), track1);
+        tracks.put(player2.getUniqueId(), track2);
+        active.task1 = plugin.getTaskScheduler().runForEntityTimer(player1, () -> track1.sample(player1), 0L, 1L);
+        active.task2 = plugin.getTaskScheduler().runForEntityTimer(player2, () -> track2.sample(player2), 0L, 1L);
+
+        // The duel may have ended while the timers were being scheduled
+        if (!session.isActive()) {
+            finish(session);
+        }
+    }
+
+    /**
+     * Stop recording a duel and write the recording to disk
+     * @param session The ended duel session
+     */
+    public void finish(DuellSession session) {
+        ActiveRecording active = recordings.remove(session.getId());
+        if (active == null) return;
+
+        active.cancel();
+        ReplayRecording recording = active.recording;
+        tracks.remove(recording.getTrack1().getPlayerId(), recording.getTrack1());
+        tracks.remove(recording.getTrack2().getPlayerId(), recording.getTrack2());
+        if (recording.getFrameCount() == 0) return;
+
+        executor.execute(() -> {
+            try {
+                if (!replayFolder.exists() && !replayFolder.mkdirs()) {
+                    throw new IOException("Could not create " + replayFolder);
+                }
+                ReplayCodec.write(recording, replayFile(recording.getId()));
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Could not write replay " + recording.getId(), e);
+                return;
+            }
+
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("id", String.valueOf(recording.getId()));
+            plugin.getTaskScheduler().executeGlobal(() -> {
+                notifySaved(recording.getTrack1().getPlayerId(), placeholders);
+                notifySaved(recording.getTrack2().getPlayerId(), placeholders);
+            });
+        });
+    }
+
+    /**
+     * Mark a hit in the recordings of both players
+     * @param damagerId UUID of the attacking player
+     * @param damagedId UUID of the player being hit
+     */
+    public void recordHit(UUID damagerId, UUID damagedId) {
+        if (tracks.isEmpty()) return;
+
+        ReplayTrack damager = tracks.get(damagerId);
+        if (damager != null) {
+            damager.mark(ReplayTrack.HIT_DEALT);
+        }
+        ReplayTrack damaged = tracks.get(damagedId);
+        if (damaged != null) {
+            damaged.mark(ReplayTrack.HIT_TAKEN);
+        }
+    }
+
+    /**
+     * Mark an arm swing in the recording of a player
+     * @param playerId UUID of the player
+     */
+    public void recordSwing(UUID playerId) {
+        if (tracks.isEmpty()) return;
+
+        ReplayTrack track = tracks.get(playerId);
+        if (track != null) {
+            track.mark(ReplayTrack.SWING);
+        }
+    }
+
+    /**
+     * Load a replay and play it to a player
+     * @param viewer Player watching the replay
+     * @param id Replay ID
+     */
+    public void play(Player viewer, int id) {
+        File file = replayFile(id);
+        executor.execute(() -> {
+            ReplayRecording recording = null;
+            if (file.exists()) {
+                try {
+                    recording = ReplayCodec.read(file);
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Could not read replay " + id, e);
+                }
+            }
+
+            ReplayRecording loaded = recording;
+            plugin.getTaskScheduler().executeGlobal(() -> startPlayback(viewer, id, loaded));
+        });
+    }
+
+    /**
+     * Stop the replay a player is watching
+     * @param viewer Player watching the replay
+     * @return True if a replay was playing
+     */
+    public boolean stop(Player viewer) {
+        ReplayPlayer playback = playbacks.remove(viewer.getUniqueId());
+        if (playback == null) return false;
+
+        playback.stop();
+        return true;
+    }
+
+    /**
+     * Get the number of duels being recorded
+     * @return Number of active recordings
+     */
+    public int getActiveRecordingCount() {
+        return recordings.size();
+    }
+
+    // Stop all playbacks and recordings and wait for pending writes
+    public void close() {
+        for (ActiveRecording active : recordings.values()) {
+            active.cancel();
+        }
+        for (ReplayPlayer playback : playbacks.values()) {
+            playback.stop();
+        }
+        playbacks.clear();
+
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Replays did not finish writing in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Start playing a loaded recording
+     * @param viewer Player watching the replay
+     * @param id Replay ID
+     * @param recording The recording, or null if it could not be loaded
+     */
+    private void startPlayback(Player viewer, int id, ReplayRecording recording) {
+        if (!viewer.isOnline()) return;
+
+        Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+        placeholders.put("id", String.valueOf(id));
+        if (recording == null) {
+            plugin.getMessageManager().sendMessage(viewer, "replay.not-found", placeholders);
+            return;
+        }
+
+        if (!viewer.getWorld().getName().equals(recording.getWorldName())) {
+            placeholders.put("world", recording.getWorldName());
+            plugin.getMessageManager().sendMessage(viewer, "replay.wrong-world", placeholders);
+            return;
+        }
+
+        stop(viewer);
+        ReplayPlayer playback = new ReplayPlayer(plugin, viewer, recording, finished -> {
+            if (playbacks.remove(viewer.getUniqueId(), finished) && viewer.isOnline()) {
+                plugin.getMessageManager().sendMessage(viewer, "replay.finished", placeholders);
+            }
+        });
+        playbacks.put(viewer.getUniqueId(), playback);
+        playback.start();
+
+        placeholders.put("player1", recording.getTrack1().getName());
+        placeholders.put("player2", recording.getTrack2().getName());
+        placeholders.put("seconds", String.valueOf(recording.getFrameCount() / 20));
+        plugin.getMessageManager().sendMessage(viewer, "replay.started", placeholders);
+    }
+
+    /**
+     * Tell a participant that the replay of their duel was saved
+     * @param playerId UUID of the participant
+     * @param placeholders Placeholders with the replay ID
+     */
+    private void notifySaved(UUID playerId, Map<String, String> placeholders) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null && player.isOnline()) {
+            plugin.getMessageManager().sendMessage(player, "duel.replay-saved", placeholders);
+        }
+    }
+
+    /**
+     * Find the highest ID of the replays on disk
+     * @return Highest replay ID, or 0 if there are none
+     */
+    private int findHighestId() {
+        String[] names = replayFolder.list();
+        if (names == null) return 0;
+
+        int highest = 0;
+        for (String name : names) {
+            if (!name.endsWith(".rpl")) continue;
+            try {
+                highest = Math.max(highest, Integer.parseInt(name.substring(0, name.length() - 4)));
+            } catch (NumberFormatException ignored) {
+                // Not a replay written by the plugin
+            }
+        }
+        return highest;
+    }
+
+    private File replayFile(int id) {
+        return new File(replayFolder, id + ".rpl");
+    }
+
+    /**
+     * A recording in progress and the timers sampling its players
+     */
+    private static final class ActiveRecording {
+
+        private final ReplayRecording recording;
+        private volatile TaskHandle task1;
+        private volatile TaskHandle task2;
+
+        private ActiveRecording(ReplayRecording recording) {
+            this.recording = recording;
+        }
+
+        private void cancel() {
+            if (task1 != null) task1.cancel();
+            if (task2 != null) task2.cancel();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.audit.AuditAction;
+import de.dasjeff.duellSystem.model.DuellEndReason;
+import de.dasjeff.duellSystem.model.DuellRequest;
+import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.scheduler.TaskHandle;
+import de.dasjeff.duellSystem.util.Money;
+import de.dasjeff.duellSystem.util.VarInt;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Saves pending requests and running duels on shutdown and brings them back after the restart.
+ * <p>
+ * The snapshot {@code restore.dat} starts with {@link #MAGIC} and {@link #VERSION} and the time it was
+ * written, followed by the requests (sender, target, bet, rounds) and the duels (both players, bet, phase,
+ * rounds and round wins of a series), with counts as varints and bets in minor units. It is deleted once
+ * loaded. Requests are registered again right away and expire after the grace period. A duel starts again
+ * with a fresh countdown as soon as both players are online; if one of them does not return within the
+ * grace period it is cancelled. Bets are only moved when a duel ends, so a cancelled duel leaves both
+ * balances untouched.
+ */
+public class RestoreManager {
+
+    public static final int MAGIC = 0x44525354;
+    public static final int VERSION = 1;
+
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final DuellSystem plugin;
+    private final File file;
+    private final Map<UUID, RestoredDuel> restoredDuels;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public RestoreManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "restore.dat");
+        this.restoredDuels = new ConcurrentHashMap<>();
+
+        if (file.exists()) {
+            load();
+        }
+    }
+
+    /**
+     * Save the pending requests and running duels, including restored duels still waiting for their players
+     * @return True if a snapshot was written and the duels may be suspended instead of cancelled
+     */
+    public boolean save() {
+        if (!plugin.getConfigManager().isRestoreEnabled()) return false;
+
+        List<DuellRequest> requests = plugin.getDuellManager().copyPendingRequests();
+        Set<DuellSession> sessions = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DuellSession session : plugin.getDuellManager().getActiveSessions()) {
+            if (session.isActive()) {
+                sessions.add(session);
+            }
+        }
+        Set<RestoredDuel> waiting = Collections.newSetFromMap(new IdentityHashMap<>());
+        waiting.addAll(restoredDuels.values());
+
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(System.currentTimeMillis());
+
+            VarInt.write(out, requests.size());
+            for (DuellRequest request : requests) {
+                writeId(out, request.getSenderId());
+                writeId(out, request.getTargetId());
+                out.writeLong(request.getBetAmount());
+                out.writeByte(request.getRounds());
+            }
+
+            VarInt.write(out, sessions.size() + waiting.size());
+            for (DuellSession session : sessions) {
+                writeDuel(out, session.getPlayer1Id(), session.getPlayer2Id(), session.getBetAmount(), session.isStarted(),
+                        session.getRounds(), session.getWins(session.getPlayer1Id()), session.getWins(session.getPlayer2Id()));
+            }
+            for (RestoredDuel duel : waiting) {
+                writeDuel(out, duel.player1Id, duel.player2Id, duel.betAmount, duel.fighting, duel.rounds, duel.wins1,
+                        duel.wins2);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save duels for the restart", e);
+            return false;
+        }
+
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save duels for the restart", e);
+            return false;
+        }
+
+        plugin.getLogger().info(requests.size() + " Anfragen und " + (sessions.size() + waiting.size())
+                + " Duelle für den Neustart gespeichert");
+        return true;
+    }
+
+    /**
+     * Resume a restored duel of a player who joined, or tell them to wait for the opponent
+     * @param player Player who joined
+     */
+    public void handleJoin(Player player) {
+        if (restoredDuels.isEmpty()) return;
+
+        RestoredDuel duel = restoredDuels.get(player.getUniqueId());
+        if (duel == null || tryResume(duel)) return;
+
+        UUID opponentId = duel.player1Id.equals(player.getUniqueId()) ? duel.player2Id : duel.player1Id;
+        Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+        placeholders.put("player", plugin.getProfileCache().getName(opponentId));
+        placeholders.put("seconds", String.valueOf(Math.max(0, (duel.expiresAt - System.currentTimeMillis()) / 1000)));
+        plugin.getMessageManager().sendMessage(player, "restore.waiting", placeholders);
+    }
+
+    /**
+     * Get the number of restored duels waiting for their players
+     * @return Number of waiting duels
+     */
+    public int getWaitingCount() {
+        return restoredDuels.size() / 2;
+    }
+
+    // Read the snapshot, delete it and register its requests and duels
+    private void load() {
+        long graceMillis = plugin.getConfigManager().getRestoreGracePeriod() * 1000L;
+        long maxDowntimeMillis = plugin.getConfigManager().getRestoreMaxDowntime() * 1000L;
+        int requestCount = 0;
+        int duelCount = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a restore snapshot");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+
+            long savedAt = in.readLong();
+            if (!plugin.getConfigManager().isRestoreEnabled() || System.currentTimeMillis() - savedAt > maxDowntimeMillis) {
+                plugin.getLogger().info("Gespeicherte Duelle sind abgelaufen und werden verworfen");
+                return;
+            }
+
+            requestCount = readCount(in);
+            long graceTicks = graceMillis / 50;
+            for (int i = 0; i < requestCount; i++) {
+                UUID senderId = readId(in);
+                UUID targetId = readId(in);
+                long betAmount = in.readLong();
+                int rounds = in.readUnsignedByte();
+                plugin.getDuellManager().restoreRequest(senderId, targetId, betAmount, rounds, graceTicks);
+            }
+
+            duelCount = readCount(in);
+            long expiresAt = System.currentTimeMillis() + graceMillis;
+            for (int i = 0; i < duelCount; i++) {
+                UUID player1Id = readId(in);
+                UUID player2Id = readId(in);
+                long betAmount = in.readLong();
+                boolean fighting = in.readBoolean();
+                int rounds = in.readUnsignedByte();
+                int wins1 = in.readUnsignedByte();
+                int wins2 = in.readUnsignedByte();
+                RestoredDuel duel = new RestoredDuel(player1Id, player2Id, betAmount, fighting, rounds, wins1, wins2, expiresAt);
+                restoredDuels.put(duel.player1Id, duel);
+                restoredDuels.put(duel.player2Id, duel);
+                duel.expiry = plugin.getTaskScheduler().runGlobalLater(() -> expire(duel), graceTicks);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not load saved duels", e);
+        } finally {
+            if (!file.delete()) {
+                plugin.getLogger().warning("Could not delete " + file.getName());
+            }
+        }
+
+        if (requestCount > 0 || duelCount > 0) {
+            plugin.getLogger().info(requestCount + " Anfragen und " + duelCount + " Duelle nach dem Neustart wiederhergestellt");
+        }
+
+        // Players may still be online after a plugin reload
+        for (RestoredDuel duel : new ArrayList<>(restoredDuels.values())) {
+            tryResume(duel);
+        }
+    }
+
+    /**
+     * Start a restored duel again if both players are online
+     * @param duel Restored duel
+     * @return True if the duel no longer waits for its players
+     */
+    private boolean tryResume(RestoredDuel duel) {
+        Player player1 = Bukkit.getPlayer(duel.player1Id);
+        Player player2 = Bukkit.getPlayer(duel.player2Id);
+        if (player1 == null || player2 == null || !player1.isOnline() || !player2.isOnline()) {
+            return false;
+        }
+        if (!claim(duel)) return true;
+
+        if (plugin.getDuellManager().startArrangedDuel(player1, player2, duel.betAmount, duel.rounds, duel.wins1, duel.wins2)) {
+            plugin.getMessageManager().sendMessage(player1, "restore.resumed", placeholders("player", player2.getName()));
+            plugin.getMessageManager().sendMessage(player2, "restore.resumed", placeholders("player", player1.getName()));
+        } else {
+            plugin.getMessageManager().sendMessage(player1, "restore.failed", placeholders("player", player2.getName()));
+            plugin.getMessageManager().sendMessage(player2, "restore.failed", placeholders("player", player1.getName()));
+        }
+        return true;
+    }
+
+    /**
+     * Cancel a restored duel whose players did not both return in time
+     * @param duel Restored duel
+     */
+    private void expire(RestoredDuel duel) {
+        if (!claim(duel)) return;
+
+        DuellSession session = new DuellSession(duel.player1Id, duel.player2Id, duel.betAmount, duel.rounds);
+        session.end();
+        plugin.getAuditManager().log(AuditAction.CANCEL, session.getId(), duel.player1Id, duel.player2Id,
+                duel.betAmount, "restore-expired");
+        plugin.getHistoryManager().record(session, duel.player1Id, duel.player2Id, DuellEndReason.CANCEL);
+        plugin.getMetricsManager().getDuelsEnded(DuellEndReason.CANCEL).increment();
+
+        notifyExpired(duel.player1Id, duel.player2Id, duel.betAmount);
+        notifyExpired(duel.player2Id, duel.player1Id, duel.betAmount);
+    }
+
+    /**
+     * Tell a player of a restored duel that it was cancelled
+     * @param playerId UUID of the player
+     * @param opponentId UUID of the opponent
+     * @param betAmount Bet amount in minor units
+     */
+    private void notifyExpired(UUID playerId, UUID opponentId, long betAmount) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null || !player.isOnline()) return;
+
+        Map<String, String> placeholders = placeholders("player", plugin.getProfileCache().getName(opponentId));
+        if (betAmount > 0) {
+            placeholders.put("amount", Money.format(betAmount));
+            plugin.getMessageManager().sendMessage(player, "restore.expired-with-bet", placeholders);
+        } else {
+            plugin.getMessageManager().sendMessage(player, "restore.expired", placeholders);
+        }
+    }
+
+    /**
+     * Remove a restored duel so only one caller resumes or expires it
+     * @param duel Restored duel
+     * @return True if the caller removed the duel
+     */
+    private boolean claim(RestoredDuel duel) {
+        if (!restoredDuels.remove(duel.player1Id, duel)) return false;
+
+        restoredDuels.remove(duel.player2Id, duel);
+        if (duel.expiry != null) {
+            duel.expiry.cancel();
+        }
+        return true;
+    }
+
+    private Map<String, String> placeholders(String key, String value) {
+        Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+        placeholders.put(key, value);
+        return placeholders;
+    }
+
+    private static void writeDuel(DataOutputStream out, UUID player1Id, UUID player2Id, long betAmount,
+                                  boolean fighting, int rounds, int wins1, int wins2) throws IOException {
+        writeId(out, player1Id);
+        writeId(out, player2Id);
+        out.writeLong(betAmount);
+        out.writeBoolean(fighting);
+        out.writeByte(rounds);
+        out.writeByte(wins1);
+        out.writeByte(wins2);
+    }
+
+    private static void writeId(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readId(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+        int count = VarInt.read(in);
+        if (count < 0 || count > MAX_ENTRIES) {
+            throw new IOException("Invalid entry count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * A duel from the snapshot that waits for both players to be online
+     */
+    private static final class RestoredDuel {
+
+        private final UUID player1Id;
+        private final UUID player2Id;
+        private final long betAmount;
+        private final boolean fighting;
+        private final int rounds;
+        private final int wins1;
+        private final int wins2;
+        private final long expiresAt;
+        private volatile TaskHandle expiry;
+
+        private RestoredDuel(UUID player1Id, UUID player2Id, long betAmount, boolean fighting, int rounds, int wins1,
+                             int wins2, long expiresAt) {
+            this.player1Id = player1Id;
+            this.player2Id = player2Id;
+            this.betAmount = betAmount;
+            this.fighting = fighting;
+            this.rounds = rounds;
+            this.wins1 = wins1;
+            this.wins2 = wins2;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
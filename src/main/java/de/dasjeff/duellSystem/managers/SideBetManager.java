@@ -0,0 +1,231 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.audit.AuditAction;
+import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.spectator.SideBetPool;
+import de.dasjeff.duellSystem.util.Money;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets spectators bet on a fighter of the duel they watch while it counts down.
+ * <p>
+ * Bets go into a {@link SideBetPool} per duel without any lock. A global timer takes the money of all new
+ * bets once per tick; bets that cannot be paid are dropped and the spectator is told. When the duel ends
+ * the winning side shares the stakes of the losing side in proportion to their own stakes, paid out in a
+ * single pass. Cancelled duels, duels without bets on both sides and a shutdown refund every stake.
+ */
+public class SideBetManager {
+
+    private static final String AUDIT_DETAIL = "side-bet";
+
+    private final DuellSystem plugin;
+    private final Map<UUID, SideBetPool> pools;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public SideBetManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.pools = new ConcurrentHashMap<>();
+
+        plugin.getTaskScheduler().runGlobalTimer(this::update, 1L, 1L);
+    }
+
+    /**
+     * Bet on a fighter of the watched duel; runs on the thread owning the spectator
+     * @param player The spectator
+     * @param fighter Fighter to bet on
+     * @param amount Amount in minor units
+     * @return True if the bet was placed
+     */
+    public boolean pledge(Player player, Player fighter, long amount) {
+        if (!plugin.getConfigManager().isSideBetEnabled()) {
+            plugin.getMessageManager().sendMessage(player, "side-bet.disabled");
+            return false;
+        }
+
+        DuellSession session = plugin.getSpectatorManager().getWatchedSession(player.getUniqueId());
+        if (session == null) {
+            plugin.getMessageManager().sendMessage(player, "side-bet.not-watching");
+            return false;
+        }
+
+        if (!session.hasPlayer(fighter.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(player, "side-bet.not-fighter", placeholders("player", fighter.getName()));
+            return false;
+        }
+
+        // Bets close when the first round of a series starts
+        if (!session.isActive() || session.getStartedAt() != null) {
+            plugin.getMessageManager().sendMessage(player, "side-bet.closed");
+            return false;
+        }
+
+        long min = plugin.getConfigManager().getMinSideBet();
+        long max = plugin.getConfigManager().getMaxSideBet();
+        if (amount < min || amount > max) {
+            Map<String, String> placeholders = placeholders("min", Money.format(min));
+            placeholders.put("max", Money.format(max));
+            plugin.getMessageManager().sendMessage(player, "side-bet.invalid-amount", placeholders);
+            return false;
+        }
+
+        if (!plugin.getEconomyManager().hasEnoughMoney(player, amount)) {
+            plugin.getMessageManager().sendMessage(player, "request.not-enough-money");
+            return false;
+        }
+
+        SideBetPool pool = pools.computeIfAbsent(session.getId(), id -> new SideBetPool(session));
+        int side = pool.sideOf(fighter.getUniqueId());
+        if (!pool.pledge(player.getUniqueId(), side, amount)) {
+            plugin.getMessageManager().sendMessage(player, "side-bet.other-side");
+            return false;
+        }
+        plugin.getMetricsManager().getSideBets().increment();
+
+        Map<String, String> placeholders = placeholders("amount", Money.format(amount));
+        placeholders.put("player", fighter.getName());
+        placeholders.put("pot", Money.format(pool.getPot()));
+        plugin.getMessageManager().sendMessage(player, "side-bet.placed", placeholders);
+        return true;
+    }
+
+    /**
+     * Pay out the side bets of an ended duel on the global thread
+     * @param session The ended duel session
+     * @param winnerId UUID of the winning fighter, or null to refund all stakes
+     */
+    public void settle(DuellSession session, UUID winnerId) {
+        SideBetPool pool = pools.get(session.getId());
+        if (pool == null) return;
+
+        pool.close(winnerId);
+        plugin.getTaskScheduler().executeGlobal(() -> finish(pool));
+    }
+
+    /**
+     * Refund the side bets of a cancelled duel on the global thread
+     * @param session The cancelled duel session
+     */
+    public void refund(DuellSession session) {
+        settle(session, null);
+    }
+
+    /**
+     * Get the number of duels with side bets
+     * @return Number of pools
+     */
+    public int getPoolCount() {
+        return pools.size();
+    }
+
+    // Refund all side bets that were not paid out yet; called on shutdown after the duels were cancelled
+    public void close() {
+        for (SideBetPool pool : pools.values()) {
+            if (!pool.isClosed()) {
+                pool.close(null);
+            }
+            finish(pool);
+        }
+        pools.clear();
+    }
+
+    // Take the money of all new bets in one pass
+    private void update() {
+        if (pools.isEmpty()) return;
+
+        for (SideBetPool pool : pools.values()) {
+            if (pool.isClosed()) continue;
+
+            // A bet may have created a pool after its duel was already settled
+            if (!pool.getSession().isActive()) {
+                pool.close(null);
+                finish(pool);
+                continue;
+            }
+            escrow(pool);
+        }
+    }
+
+    /**
+     * Take the money of the pledges not paid yet; global thread only
+     * @param pool Pool of the duel
+     */
+    private void escrow(SideBetPool pool) {
+        UUID sessionId = pool.getSession().getId();
+        SideBetPool.Pledge pledge;
+        while ((pledge = pool.pollPending()) != null) {
+            OfflinePlayer account = plugin.getProfileCache().getPlayer(pledge.playerId());
+            if (plugin.getEconomyManager().withdraw(sessionId, account, pledge.amount(), AUDIT_DETAIL)) {
+                pool.confirm(pledge);
+                continue;
+            }
+
+            pool.reject(pledge);
+            plugin.getMetricsManager().getSideBetFailures().increment();
+            Player player = Bukkit.getPlayer(pledge.playerId());
+            if (player != null) {
+                plugin.getMessageManager().sendMessage(player, "side-bet.failed", placeholders("amount", Money.format(pledge.amount())));
+            }
+        }
+    }
+
+    /**
+     * Pay out or refund all stakes of a closed pool exactly once; global thread only
+     * @param pool Pool of the ended duel
+     */
+    private void finish(SideBetPool pool) {
+        if (!pool.claimSettlement()) return;
+
+        escrow(pool);
+        pools.remove(pool.getSession().getId(), pool);
+
+        UUID winnerId = pool.getWinnerId();
+        int winningSide = winnerId != null ? pool.sideOf(winnerId) : 0;
+        Map<UUID, Long> payouts = winnerId != null ? pool.computePayouts(winningSide) : Map.of();
+        boolean refund = payouts.isEmpty();
+        String winnerName = winnerId != null ? plugin.getProfileCache().getName(winnerId) : null;
+        UUID sessionId = pool.getSession().getId();
+
+        for (int side = 0; side < 2; side++) {
+            for (Map.Entry<UUID, Long> stake : pool.getStakes(side).entrySet()) {
+                UUID playerId = stake.getKey();
+                Player player = Bukkit.getPlayer(playerId);
+                if (refund) {
+                    plugin.getEconomyManager().deposit(sessionId, plugin.getProfileCache().getPlayer(playerId),
+                            stake.getValue(), AuditAction.REFUND, AUDIT_DETAIL);
+                    if (player != null) {
+                        plugin.getMessageManager().sendMessage(player, "side-bet.refunded", placeholders("amount", Money.format(stake.getValue())));
+                    }
+                } else if (side == winningSide) {
+                    long payout = payouts.get(playerId);
+                    plugin.getEconomyManager().deposit(sessionId, plugin.getProfileCache().getPlayer(playerId),
+                            payout, AuditAction.DEPOSIT, AUDIT_DETAIL);
+                    if (player != null) {
+                        Map<String, String> placeholders = placeholders("amount", Money.format(payout));
+                        placeholders.put("player", winnerName);
+                        plugin.getMessageManager().sendMessage(player, "side-bet.won", placeholders);
+                    }
+                } else if (player != null) {
+                    Map<String, String> placeholders = placeholders("amount", Money.format(stake.getValue()));
+                    placeholders.put("player", winnerName);
+                    plugin.getMessageManager().sendMessage(player, "side-bet.lost", placeholders);
+                }
+            }
+        }
+    }
+
+    private Map<String, String> placeholders(String key, String value) {
+        Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+        placeholders.put(key, value);
+        return placeholders;
+    }
+}
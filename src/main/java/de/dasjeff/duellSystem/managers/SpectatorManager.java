@@ -0,0 +1,306 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.spectator.SpectatorAudience;
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lets players watch running duels in spectator mode.
+ * <p>
+ * Each watched duel has one {@link SpectatorAudience}. The duel code only renders a message once and queues
+ * it there; a single global timer flushes all audiences every tick and, every
+ * {@code spectator.check-interval} ticks, brings spectators who moved too far away back to the duel. When
+ * the duel is over the spectators get their previous game mode back and return to where they started
+ * watching.
+ */
+public class SpectatorManager {
+
+    private final DuellSystem plugin;
+    private final Map<UUID, SpectatorAudience> audiences;
+    private final Map<UUID, Spectator> spectators;
+    private int tick;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public SpectatorManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.audiences = new ConcurrentHashMap<>();
+        this.spectators = new ConcurrentHashMap<>();
+
+        plugin.getTaskScheduler().runGlobalTimer(this::update, 1L, 1L);
+    }
+
+    /**
+     * Start watching the duel of a player; runs on the thread owning the spectator
+     * @param player Player who wants to watch
+     * @param target Player in the duel
+     * @return True if the player is now watching
+     */
+    public boolean spectate(Player player, Player target) {
+        if (!plugin.getConfigManager().isSpectatorEnabled()) {
+            plugin.getMessageManager().sendMessage(player, "spectate.disabled");
+            return false;
+        }
+
+        if (plugin.getDuellManager().isInDuel(player.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(player, "general.already-in-duel");
+            return false;
+        }
+
+        DuellSession session = plugin.getDuellManager().getSession(target.getUniqueId());
+        if (session == null || !session.isActive()) {
+            plugin.getMessageManager().sendMessage(player, "spectate.not-in-duel", placeholders("player", target.getName()));
+            return false;
+        }
+
+        Spectator previous = spectators.get(player.getUniqueId());
+        if (previous != null && previous.audience.getSession().equals(session)) {
+            plugin.getMessageManager().sendMessage(player, "spectate.already-watching");
+            return false;
+        }
+
+        SpectatorAudience audience = audiences.computeIfAbsent(session.getId(), id -> new SpectatorAudience(session));
+        int max = plugin.getConfigManager().getSpectatorMaxPerDuel();
+        if (audience.getSize() >= max) {
+            plugin.getMessageManager().sendMessage(player, "spectate.full", placeholders("max", String.valueOf(max)));
+            return false;
+        }
+
+        // Switching to another duel keeps the place and game mode from before the first one
+        Spectator spectator = previous != null
+                ? new Spectator(audience, previous.returnLocation, previous.previousMode)
+                : new Spectator(audience, player.getLocation(), player.getGameMode());
+        if (previous != null) {
+            previous.audience.remove(player);
+        }
+        spectators.put(player.getUniqueId(), spectator);
+        audience.add(player);
+
+        // The duel may have ended while the audience was created
+        if (!session.isActive()) {
+            stopSpectating(player);
+            return false;
+        }
+
+        player.setGameMode(GameMode.SPECTATOR);
+        player.teleportAsync(target.getLocation());
+
+        Map<String, String> placeholders = placeholders("player1", plugin.getProfileCache().getName(session.getPlayer1Id()));
+        placeholders.put("player2", plugin.getProfileCache().getName(session.getPlayer2Id()));
+        plugin.getMessageManager().sendMessage(player, "spectate.started", placeholders);
+        return true;
+    }
+
+    /**
+     * Stop watching a duel; runs on the thread owning the spectator
+     * @param player The spectator
+     * @return True if the player was watching a duel
+     */
+    public boolean stopSpectating(Player player) {
+        Spectator spectator = spectators.remove(player.getUniqueId());
+        if (spectator == null) return false;
+
+        spectator.audience.remove(player);
+        restore(player, spectator);
+        return true;
+    }
+
+    /**
+     * Check if a player is watching a duel
+     * @param playerId UUID of the player
+     * @return True if the player is a spectator
+     */
+    public boolean isSpectating(UUID playerId) {
+        return spectators.containsKey(playerId);
+    }
+
+    /**
+     * Get the duel a player is watching
+     * @param playerId UUID of the player
+     * @return Duel session, or null if the player is not a spectator
+     */
+    public DuellSession getWatchedSession(UUID playerId) {
+        Spectator spectator = spectators.get(playerId);
+        return spectator != null ? spectator.audience.getSession() : null;
+    }
+
+    /**
+     * Get the number of spectators of all duels
+     * @return Number of spectators
+     */
+    public int getSpectatorCount() {
+        return spectators.size();
+    }
+
+    /**
+     * Queue a message for the spectators of a duel
+     * @param session Duel session
+     * @param path Path to the message
+     * @param placeholders Placeholders to replace
+     */
+    public void broadcast(DuellSession session, String path, Map<String, String> placeholders) {
+        SpectatorAudience audience = audiences.get(session.getId());
+        if (audience == null || audience.getSize() == 0) return;
+
+        audience.queueMessage(plugin.getMessageManager().getMessage(path, placeholders));
+    }
+
+    /**
+     * Queue a title for the spectators of a duel
+     * @param session Duel session
+     * @param path Path to the title
+     * @param placeholders Placeholders to replace
+     */
+    public void broadcastTitle(DuellSession session, String path, Map<String, String> placeholders) {
+        SpectatorAudience audience = audiences.get(session.getId());
+        if (audience == null || audience.getSize() == 0) return;
+
+        audience.queueTitle(plugin.getMessageManager().createTitle(path, placeholders));
+    }
+
+    /**
+     * Send the spectators of a duel back after the messages queued so far
+     * @param session The ended duel session
+     */
+    public void endSession(DuellSession session) {
+        SpectatorAudience audience = audiences.get(session.getId());
+        if (audience != null) {
+            audience.close();
+        }
+    }
+
+    /**
+     * Give a spectator who leaves the server their game mode and place back
+     * @param player Player who leaves
+     */
+    public void handleQuit(Player player) {
+        stopSpectating(player);
+    }
+
+    // Send all spectators back right away
+    public void close() {
+        for (SpectatorAudience audience : audiences.values()) {
+            for (Player player : audience.getSpectators()) {
+                stopSpectating(player);
+            }
+        }
+        audiences.clear();
+    }
+
+    // Flush the audiences, release the spectators of ended duels and check the distances
+    private void update() {
+        if (audiences.isEmpty()) return;
+
+        boolean checkDistance = ++tick % plugin.getConfigManager().getSpectatorCheckInterval() == 0;
+        for (SpectatorAudience audience : audiences.values()) {
+            audience.flush();
+
+            if (audience.isClosed()) {
+                audiences.remove(audience.getSession().getId(), audience);
+                for (Player player : audience.getSpectators()) {
+                    release(player, audience);
+                }
+            } else if (audience.getSize() == 0 && !audience.getSession().isActive()) {
+                audiences.remove(audience.getSession().getId(), audience);
+            } else if (checkDistance) {
+                keepInBounds(audience);
+            }
+        }
+    }
+
+    /**
+     * Bring spectators back who moved too far away from the duel
+     * @param audience Spectators of a duel
+     */
+    private void keepInBounds(SpectatorAudience audience) {
+        DuellSession session = audience.getSession();
+        Player player1 = Bukkit.getPlayer(session.getPlayer1Id());
+        Player player2 = Bukkit.getPlayer(session.getPlayer2Id());
+        if (player1 == null || player2 == null) return;
+
+        Location center = center(player1.getLocation(), player2.getLocation());
+        double maxDistance = plugin.getConfigManager().getSpectatorMaxDistance();
+        double maxDistanceSquared = maxDistance * maxDistance;
+        for (Player spectator : audience.getSpectators()) {
+            Location location = spectator.getLocation();
+            if (location.getWorld() != center.getWorld() || location.distanceSquared(center) > maxDistanceSquared) {
+                spectator.teleportAsync(center);
+            }
+        }
+    }
+
+    /**
+     * Get the point between both duel players, or the first player's location if they are in different worlds
+     * @param location1 Location of the first player
+     * @param location2 Location of the second player
+     * @return Center of the duel
+     */
+    private static Location center(Location location1, Location location2) {
+        if (location1.getWorld() != location2.getWorld()) return location1;
+
+        return new Location(location1.getWorld(), (location1.getX() + location2.getX()) / 2,
+                (location1.getY() + location2.getY()) / 2, (location1.getZ() + location2.getZ()) / 2,
+                location1.getYaw(), location1.getPitch());
+    }
+
+    /**
+     * Send a spectator of an ended duel back on the thread owning the player
+     * @param player The spectator
+     * @param audience Spectators of the ended duel
+     */
+    private void release(Player player, SpectatorAudience audience) {
+        plugin.getTaskScheduler().runForEntityLater(player, () -> {
+            // The player may have left or switched to another duel in the meantime
+            Spectator spectator = spectators.get(player.getUniqueId());
+            if (spectator == null || spectator.audience != audience || !spectators.remove(player.getUniqueId(), spectator)) {
+                return;
+            }
+
+            audience.remove(player);
+            restore(player, spectator);
+            plugin.getMessageManager().sendMessage(player, "spectate.ended");
+        }, 1L);
+    }
+
+    /**
+     * Give a spectator the game mode and place from before watching
+     * @param player The spectator
+     * @param spectator State from before watching
+     */
+    private void restore(Player player, Spectator spectator) {
+        player.setGameMode(spectator.previousMode);
+        player.teleportAsync(spectator.returnLocation);
+    }
+
+    private Map<String, String> placeholders(String key, String value) {
+        Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+        placeholders.put(key, value);
+        return placeholders;
+    }
+
+    /**
+     * A player watching a duel and what to restore afterwards
+     */
+    private static final class Spectator {
+
+        private final SpectatorAudience audience;
+        private final Location returnLocation;
+        private final GameMode previousMode;
+
+        private Spectator(SpectatorAudience audience, Location returnLocation, GameMode previousMode) {
+            this.audience = audience;
+            this.returnLocation = returnLocation;
+            this.previousMode = previousMode;
+        }
+    }
+}
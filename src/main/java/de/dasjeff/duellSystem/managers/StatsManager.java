@@ -0,0 +1,268 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.model.DuellEndReason;
+import de.dasjeff.duellSystem.model.DuellSession;
+import de.dasjeff.duellSystem.model.PlayerStats;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Manages persistent duel statistics and ratings
+ * <p>
+ * The autosave copies the values on the tick and writes stats.yml on a background thread; only the
+ * final save on shutdown writes synchronously.
+ */
+public class StatsManager {
+
+    private final DuellSystem plugin;
+    private final Map<UUID, PlayerStats> stats;
+    private final Map<String, UUID> nameIndex;
+    private final ExecutorService executor;
+    private File statsFile;
+    private volatile boolean dirty;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public StatsManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.stats = new ConcurrentHashMap<>();
+        this.nameIndex = new ConcurrentHashMap<>();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "DuellSystem-Stats"));
+        loadStats();
+
+        long autosaveTicks = plugin.getConfigManager().getStatsAutosaveInterval() * 20L;
+        plugin.getTaskScheduler().runGlobalTimer(this::autosave, autosaveTicks, autosaveTicks);
+    }
+
+    // Load the statistics file
+    private void loadStats() {
+        statsFile = new File(plugin.getDataFolder(), "stats.yml");
+        if (!statsFile.exists()) {
+            return;
+        }
+
+        FileConfiguration data = YamlConfiguration.loadConfiguration(statsFile);
+        ConfigurationSection players = data.getConfigurationSection("players");
+        if (players == null) {
+            return;
+        }
+
+        int startRating = plugin.getConfigManager().getStartRating();
+        for (String key : players.getKeys(false)) {
+            UUID playerId;
+            try {
+                playerId = UUID.fromString(key);
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid UUID in stats.yml: " + key);
+                continue;
+            }
+
+            ConfigurationSection section = players.getConfigurationSection(key);
+            PlayerStats playerStats = new PlayerStats(playerId,
+                    section.getString("name", "Unknown"),
+                    section.getInt("wins", 0),
+                    section.getInt("losses", 0),
+                    section.getInt("rating", startRating));
+            playerStats.setCombatStats(section.getLong("hits", 0),
+                    section.getDouble("damage", 0),
+                    section.getLong("critical-hits", 0),
+                    section.getInt("longest-combo", 0),
+                    section.getLong("fastest-kill", 0));
+            stats.put(playerId, playerStats);
+            nameIndex.put(playerStats.getName().toLowerCase(), playerId);
+        }
+
+        plugin.getLogger().info(stats.size() + " Spielerstatistiken geladen!");
+    }
+
+    // Copy the changed statistics and write them on the background thread
+    private void autosave() {
+        if (!dirty) return;
+
+        dirty = false;
+        List<StatsRow> rows = snapshot();
+        executor.execute(() -> {
+            if (!write(rows)) {
+                dirty = true;
+            }
+        });
+    }
+
+    // Wait for pending autosaves and save the statistics file; only called on shutdown
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Statistics autosave did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        write(snapshot());
+    }
+
+    /**
+     * Copy the values of all players
+     * @return One row per player
+     */
+    private List<StatsRow> snapshot() {
+        List<StatsRow> rows = new ArrayList<>(stats.size());
+        for (PlayerStats playerStats : stats.values()) {
+            rows.add(new StatsRow(playerStats.getPlayerId(), playerStats.getName(), playerStats.getWins(),
+                    playerStats.getLosses(), playerStats.getRating(), playerStats.getHits(),
+                    playerStats.getDamageDealt(), playerStats.getCriticalHits(), playerStats.getLongestCombo(),
+                    playerStats.getFastestKillMillis()));
+        }
+        return rows;
+    }
+
+    /**
+     * Write the statistics file
+     * @param rows Copied values of all players
+     * @return True if the file was written
+     */
+    private boolean write(List<StatsRow> rows) {
+        FileConfiguration data = new YamlConfiguration();
+        for (StatsRow row : rows) {
+            String path = "players." + row.playerId();
+            data.set(path + ".name", row.name());
+            data.set(path + ".wins", row.wins());
+            data.set(path + ".losses", row.losses());
+            data.set(path + ".rating", row.rating());
+            data.set(path + ".hits", row.hits());
+            data.set(path + ".damage", row.damage());
+            data.set(path + ".critical-hits", row.criticalHits());
+            data.set(path + ".longest-combo", row.longestCombo());
+            data.set(path + ".fastest-kill", row.fastestKill());
+        }
+
+        try {
+            data.save(statsFile);
+            return true;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save stats.yml", e);
+            return false;
+        }
+    }
+
+    /**
+     * Record the result of a finished duel and update both ratings
+     * @param winnerId UUID of the winner
+     * @param winnerName Current name of the winner, or null if unknown
+     * @param loserId UUID of the loser
+     * @param loserName Current name of the loser, or null if unknown
+     * @param session The finished session with the combat statistics
+     * @param reason Reason why the duel ended
+     */
+    public void recordResult(UUID winnerId, String winnerName, UUID loserId, String loserName, 
+                             DuellSession session, DuellEndReason reason) {
+        PlayerStats winner = getOrCreate(winnerId, winnerName);
+        PlayerStats loser = getOrCreate(loserId, loserName);
+
+        addCombat(winner, session);
+        addCombat(loser, session);
+        if (reason == DuellEndReason.KILL) {
+            winner.addKill(session.getFightMillis());
+        }
+
+        int winnerRating = winner.getRating();
+        int loserRating = loser.getRating();
+
+        double expected = 1.0 / (1.0 + Math.pow(10, (loserRating - winnerRating) / 400.0));
+        int delta = Math.max(1, (int) Math.round(plugin.getConfigManager().getKFactor() * (1.0 - expected)));
+
+        winner.addWin(winnerRating + delta);
+        loser.addLoss(loserRating - delta);
+
+        LeaderboardManager leaderboard = plugin.getLeaderboardManager();
+        leaderboard.update(winnerId, winnerRating, winner.getRating());
+        leaderboard.update(loserId, loserRating, loser.getRating());
+
+        dirty = true;
+        plugin.debug(() -> "Rating update: " + winner.getName() + " " + winnerRating + " -> " + winner.getRating()
+                + ", " + loser.getName() + " " + loserRating + " -> " + loser.getRating());
+    }
+
+    /**
+     * Add the combat statistics of a duel to a participant
+     * @param playerStats Statistics of the participant
+     * @param session The finished session
+     */
+    private void addCombat(PlayerStats playerStats, DuellSession session) {
+        UUID playerId = playerStats.getPlayerId();
+        playerStats.addCombat(session.getHits(playerId), session.getDamageDealt(playerId), 
+                session.getCriticalHits(playerId), session.getLongestCombo(playerId));
+    }
+
+    /**
+     * Get the statistics of a player
+     * @param playerId UUID of the player
+     * @return The statistics, or null if the player has never finished a duel
+     */
+    public PlayerStats getStats(UUID playerId) {
+        return stats.get(playerId);
+    }
+
+    /**
+     * Get the statistics of a player by name
+     * @param name Name of the player (case-insensitive)
+     * @return The statistics, or null if no player with that name has finished a duel
+     */
+    public PlayerStats getStats(String name) {
+        UUID playerId = nameIndex.get(name.toLowerCase());
+        return playerId != null ? stats.get(playerId) : null;
+    }
+
+    /**
+     * Get the statistics of all known players
+     * @return Unmodifiable view of all statistics
+     */
+    public Collection<PlayerStats> getAllStats() {
+        return Collections.unmodifiableCollection(stats.values());
+    }
+
+    /**
+     * Get or create the statistics of a player and refresh the stored name
+     * @param playerId UUID of the player
+     * @param name Current name of the player, or null if unknown
+     * @return The statistics
+     */
+    private PlayerStats getOrCreate(UUID playerId, String name) {
+        PlayerStats playerStats = stats.get(playerId);
+        if (playerStats == null) {
+            playerStats = new PlayerStats(playerId, name != null ? name : "Unknown", 0, 0,
+                    plugin.getConfigManager().getStartRating());
+            stats.put(playerId, playerStats);
+            nameIndex.put(playerStats.getName().toLowerCase(), playerId);
+            plugin.getLeaderboardManager().add(playerId, playerStats.getRating());
+        } else if (name != null && !name.equals(playerStats.getName())) {
+            nameIndex.remove(playerStats.getName().toLowerCase(), playerId);
+            playerStats.setName(name);
+            nameIndex.put(name.toLowerCase(), playerId);
+        }
+        return playerStats;
+    }
+
+    // Values of one player copied for the background write
+    private record StatsRow(UUID playerId, String name, int wins, int losses, int rating, long hits,
+                            double damage, long criticalHits, int longestCombo, long fastestKill) {
+    }
+}
@@ -0,0 +1,585 @@
+package de.dasjeff.duellSystem.managers;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.audit.AuditAction;
+import de.dasjeff.duellSystem.model.DuelSlot;
+import de.dasjeff.duellSystem.model.DuellEndReason;
+import de.dasjeff.duellSystem.model.TeamDuelRequest;
+import de.dasjeff.duellSystem.model.TeamDuelSession;
+import de.dasjeff.duellSystem.scheduler.TaskHandle;
+import de.dasjeff.duellSystem.util.Money;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages duels between two teams of players (2v2, 3v3, ...)
+ * <p>
+ * The sender names their teammates and the opposing team; the duel starts once every invited player has
+ * accepted. Members get a {@link DuelSlot} in the {@link DuellManager}, so the
+ * listeners tell teammates from opponents by comparing two ints. A member who dies or leaves is out and
+ * free again; when all members of a team are out the other team wins. Every member of the losing team
+ * pays the bet, and the winning team shares the collected money equally.
+ */
+public class TeamDuelManager {
+
+    private static final String AUDIT_DETAIL = "team";
+
+    private final DuellSystem plugin;
+    private final Map<UUID, TeamDuelRequest> requests;
+    private final Map<UUID, TaskHandle> requestTimeoutTasks;
+    private final Map<UUID, TeamDuelSession> sessions;
+    private final Object lock;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public TeamDuelManager(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.requests = new ConcurrentHashMap<>();
+        this.requestTimeoutTasks = new ConcurrentHashMap<>();
+        this.sessions = new ConcurrentHashMap<>();
+        this.lock = new Object();
+    }
+
+    /**
+     * Create a team duel request; runs on the thread owning the sender
+     * @param sender Player sending the request
+     * @param teammates Teammates of the sender
+     * @param opponents Players of the opposing team
+     * @param betAmount Bet amount per member in minor units (0 for friendly duel)
+     * @return True if the request was created
+     */
+    public boolean createRequest(Player sender, List<Player> teammates, List<Player> opponents, long betAmount) {
+        if (!plugin.getConfigManager().isTeamDuelEnabled()) {
+            plugin.getMessageManager().sendMessage(sender, "team.disabled");
+            return false;
+        }
+
+        int teamSize = teammates.size() + 1;
+        int maxSize = plugin.getConfigManager().getTeamDuelMaxSize();
+        if (teamSize < 2 || teamSize > maxSize || opponents.size() != teamSize) {
+            plugin.getMessageManager().sendMessage(sender, "team.invalid-size", placeholders("max", String.valueOf(maxSize)));
+            return false;
+        }
+
+        // Every player may only appear once
+        List<Player> invited = new ArrayList<>(teammates);
+        invited.addAll(opponents);
+        Set<UUID> seen = new HashSet<>();
+        seen.add(sender.getUniqueId());
+        for (Player player : invited) {
+            if (!seen.add(player.getUniqueId())) {
+                plugin.getMessageManager().sendMessage(sender, "team.duplicate", placeholders("player", player.getName()));
+                return false;
+            }
+        }
+
+        if (!plugin.getDuellManager().checkRequestRate(sender)) {
+            return false;
+        }
+
+        // The sender must be free and able to pay just like everyone they invite
+        if (!canJoin(sender, sender, betAmount)) return false;
+
+        for (Player player : invited) {
+            if (!canJoin(sender, player, betAmount)) return false;
+        }
+
+        List<UUID> team1 = new ArrayList<>();
+        team1.add(sender.getUniqueId());
+        for (Player player : teammates) {
+            team1.add(player.getUniqueId());
+        }
+        List<UUID> team2 = new ArrayList<>();
+        for (Player player : opponents) {
+            team2.add(player.getUniqueId());
+        }
+        TeamDuelRequest request = new TeamDuelRequest(sender.getUniqueId(), team1, team2, betAmount);
+        requests.put(request.getId(), request);
+        requestTimeoutTasks.put(request.getId(), plugin.getTaskScheduler().runGlobalLater(() -> expire(request),
+                plugin.getConfigManager().getRequestTimeout() * 20L));
+
+        // Send messages
+        Map<String, String> placeholders = createRequestPlaceholders(request, sender.getName());
+        plugin.getMessageManager().sendMessage(sender, "team.sent", placeholders);
+        for (Player player : invited) {
+            plugin.getMessageManager().sendMessage(player, request.isFriendly() ? "team.received" : "team.received-with-bet",
+                    placeholders);
+        }
+
+        plugin.getAuditManager().log(AuditAction.REQUEST, null, sender.getUniqueId(), null, betAmount, formatMode(teamSize));
+        plugin.getMetricsManager().getRequestsCreated().increment();
+        return true;
+    }
+
+    /**
+     * Check if a player has an open team duel request from a sender
+     * @param playerId UUID of the invited player
+     * @param senderId UUID of the sender
+     * @return True if the player still has to accept
+     */
+    public boolean hasInvite(UUID playerId, UUID senderId) {
+        return findRequest(playerId, senderId) != null;
+    }
+
+    /**
+     * Accept a team duel request; the duel starts once everyone has accepted. Runs on the thread owning the player
+     * @param player Player accepting
+     * @param sender Player who sent the request
+     * @return True if the acceptance was recorded
+     */
+    public boolean accept(Player player, Player sender) {
+        TeamDuelRequest request = findRequest(player.getUniqueId(), sender.getUniqueId());
+        if (request == null) {
+            plugin.getMessageManager().sendMessage(player, "request.no-pending-request", placeholders("player", sender.getName()));
+            return false;
+        }
+
+        if (!canJoin(player, player, request.getBetAmount())) return false;
+
+        boolean complete;
+        synchronized (lock) {
+            if (!requests.containsKey(request.getId()) || !request.accept(player.getUniqueId())) {
+                plugin.getMessageManager().sendMessage(player, "request.no-pending-request", placeholders("player", sender.getName()));
+                return false;
+            }
+            complete = request.getWaitingCount() == 0 && removeRequest(request);
+        }
+        plugin.getAuditManager().log(AuditAction.ACCEPT, null, player.getUniqueId(), sender.getUniqueId(),
+                request.getBetAmount(), formatMode(request.getTeamSize()));
+
+        Map<String, String> placeholders = placeholders("player", player.getName());
+        placeholders.put("missing", String.valueOf(request.getWaitingCount()));
+        sendToAll(request.getTeam1(), request.getTeam2(), "team.accepted", placeholders);
+
+        if (complete) {
+            start(request);
+        }
+        return true;
+    }
+
+    /**
+     * Check if a player is in a team duel that is fighting
+     * @param playerId UUID of the player
+     * @return True if the countdown of the player's team duel is over
+     */
+    public boolean isFighting(UUID playerId) {
+        TeamDuelSession session = sessions.get(playerId);
+        return session != null && session.isStarted();
+    }
+
+    /**
+     * Check if a player is a member of a running team duel
+     * @param playerId UUID of the player
+     * @return True if the player has not been knocked out of a running team duel
+     */
+    public boolean hasSession(UUID playerId) {
+        return sessions.containsKey(playerId);
+    }
+
+    /**
+     * Get all running team duels
+     * @return Team duel sessions, each once
+     */
+    public Collection<TeamDuelSession> getActiveSessions() {
+        return new HashSet<>(sessions.values());
+    }
+
+    /**
+     * Repair members of ended team duels and members who left without being knocked out
+     * @param deadline System nano time at which to stop
+     * @return Number of repaired members
+     */
+    int reconcileSessions(long deadline) {
+        int repaired = 0;
+        for (Map.Entry<UUID, TeamDuelSession> entry : sessions.entrySet()) {
+            if (System.nanoTime() - deadline > 0) break;
+
+            UUID memberId = entry.getKey();
+            TeamDuelSession session = entry.getValue();
+            if (!session.isActive()) {
+                if (sessions.remove(memberId, session)) {
+                    plugin.getDuellManager().releaseTeamSlot(memberId, session.getSlot(memberId));
+                    repaired++;
+                }
+                continue;
+            }
+
+            Player player = Bukkit.getPlayer(memberId);
+            if ((player == null || !player.isOnline()) && handleDown(memberId)) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /**
+     * Get the number of running team duels
+     * @return Number of team duels
+     */
+    public int getTeamDuelCount() {
+        return (int) sessions.values().stream().distinct().count();
+    }
+
+    /**
+     * Knock a member out after dying or leaving; ends the duel when their team is eliminated
+     * @param playerId UUID of the member
+     * @return True if the player was in a team duel
+     */
+    public boolean handleDown(UUID playerId) {
+        TeamDuelSession session = sessions.remove(playerId);
+        if (session == null) return false;
+
+        plugin.getDuellManager().releaseTeamSlot(playerId, session.getSlot(playerId));
+        if (!session.knockOut(playerId) || !session.isActive()) return true;
+
+        int team = session.getTeamOf(playerId);
+        Map<String, String> placeholders = placeholders("player", plugin.getProfileCache().getName(playerId));
+        placeholders.put("standing", String.valueOf(session.getStandingCount(team)));
+        sendToAll(session.getTeam(0), session.getTeam(1), "team.member-down", placeholders);
+
+        if (session.isEliminated(team) && session.end()) {
+            finish(session, 1 - team);
+        }
+        return true;
+    }
+
+    /**
+     * Drop the requests of a player who leaves and knock them out of their team duel
+     * @param playerId UUID of the player
+     */
+    public void handleQuit(UUID playerId) {
+        List<TeamDuelRequest> dropped = new ArrayList<>();
+        synchronized (lock) {
+            for (TeamDuelRequest request : requests.values()) {
+                if (request.involves(playerId) && removeRequest(request)) {
+                    dropped.add(request);
+                }
+            }
+        }
+        for (TeamDuelRequest request : dropped) {
+            sendToAll(request.getTeam1(), request.getTeam2(), "team.request-cancelled",
+                    placeholders("player", plugin.getProfileCache().getName(playerId)));
+        }
+
+        handleDown(playerId);
+    }
+
+    // Cancel all team duels and drop all requests; no money is moved
+    public void close() {
+        synchronized (lock) {
+            for (TeamDuelRequest request : new ArrayList<>(requests.values())) {
+                removeRequest(request);
+            }
+        }
+        for (TeamDuelSession session : new HashSet<>(sessions.values())) {
+            cancel(session);
+        }
+    }
+
+    /**
+     * Check if a player may join a team duel and tell the sender why not
+     * @param sender Player to tell
+     * @param player Player who would join
+     * @param betAmount Bet amount per member in minor units
+     * @return True if the player may join
+     */
+    private boolean canJoin(Player sender, Player player, long betAmount) {
+        Map<String, String> placeholders = placeholders("player", player.getName());
+        if (plugin.getDuellManager().isInDuel(player.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(sender, sender == player ? "general.already-in-duel"
+                    : "general.target-already-in-duel", placeholders);
+            return false;
+        }
+        if (plugin.getSpectatorManager().isSpectating(player.getUniqueId())) {
+            plugin.getMessageManager().sendMessage(sender, sender == player ? "spectate.not-while-spectating"
+                    : "spectate.target-spectating", placeholders);
+            return false;
+        }
+        if (sender != player && !plugin.getDuellManager().isPlayerInRange(sender, player)) {
+            placeholders.put("distance", String.valueOf(plugin.getConfigManager().getProximityRadius()));
+            plugin.getMessageManager().sendMessage(sender, "request.too-far-away", placeholders);
+            return false;
+        }
+        if (betAmount > 0 && !plugin.getEconomyManager().hasEnoughMoney(player, betAmount)) {
+            placeholders.put("amount", Money.format(betAmount));
+            plugin.getMessageManager().sendMessage(sender, sender == player ? "request.not-enough-money"
+                    : "request.target-not-enough-money", placeholders);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Register the duel of a request everyone accepted and start the countdown
+     * @param request The complete request
+     */
+    private void start(TeamDuelRequest request) {
+        // Everyone must still be online and able to pay
+        List<Player> players = new ArrayList<>();
+        for (UUID memberId : request.getTeam1()) {
+            players.add(Bukkit.getPlayer(memberId));
+        }
+        for (UUID memberId : request.getTeam2()) {
+            players.add(Bukkit.getPlayer(memberId));
+        }
+        for (Player player : players) {
+            if (player == null || !player.isOnline()
+                    || (request.getBetAmount() > 0 && !plugin.getEconomyManager().hasEnoughMoney(player, request.getBetAmount()))) {
+                sendToAll(request.getTeam1(), request.getTeam2(), "team.start-failed", null);
+                return;
+            }
+        }
+
+        // The sessions are known before the slots, so the reconciler never sees a slot without its session
+        TeamDuelSession session = new TeamDuelSession(request.getTeam1(), request.getTeam2(), request.getBetAmount());
+        for (UUID memberId : session.getMembers()) {
+            sessions.put(memberId, session);
+        }
+        if (!plugin.getDuellManager().registerTeam(session.getSlots())) {
+            for (UUID memberId : session.getMembers()) {
+                sessions.remove(memberId, session);
+            }
+            sendToAll(request.getTeam1(), request.getTeam2(), "team.start-failed", null);
+            return;
+        }
+
+        // A member may have left while the slots were registered
+        for (Player player : players) {
+            if (!player.isOnline()) {
+                handleDown(player.getUniqueId());
+            }
+        }
+
+        plugin.getAuditManager().log(AuditAction.START, session.getId(), request.getSenderId(), null,
+                session.getBetAmount(), formatMode(request.getTeamSize()));
+        plugin.getMetricsManager().getDuelsStarted().increment();
+
+        Map<String, String> placeholders = createRequestPlaceholders(request, plugin.getProfileCache().getName(request.getSenderId()));
+        for (Player player : players) {
+            plugin.getMessageManager().sendMessage(player, "team.started", placeholders);
+            startCountdown(player, session);
+        }
+    }
+
+    /**
+     * Start the countdown for one member; runs on the thread owning the member
+     * @param player Member of the duel
+     * @param session Team duel session
+     */
+    private void startCountdown(Player player, TeamDuelSession session) {
+        int countdownDuration = plugin.getConfigManager().getCountdownDuration();
+        for (int i = countdownDuration; i > 0; i--) {
+            final int seconds = i;
+            plugin.getTaskScheduler().runForEntityLater(player, () -> {
+                if (!session.isActive() || !player.isOnline()) return;
+
+                Map<String, String> placeholders = placeholders("seconds", String.valueOf(seconds));
+                plugin.getMessageManager().sendMessage(player, "duel.countdown", placeholders);
+                plugin.getMessageManager().sendTitle(player, "countdown", placeholders);
+            }, (countdownDuration - i) * 20L);
+        }
+
+        plugin.getTaskScheduler().runForEntityLater(player, () -> {
+            if (!session.isActive()) return;
+
+            if (session.start()) {
+                plugin.getDuellManager().markChanged();
+            }
+            if (player.isOnline() && session.isStanding(player.getUniqueId())) {
+                plugin.getMessageManager().sendMessage(player, "duel.started");
+                plugin.getMessageManager().sendTitle(player, "start", null);
+            }
+        }, countdownDuration * 20L);
+    }
+
+    /**
+     * End a team duel whose other team was eliminated
+     * @param session The ended session
+     * @param winningTeam Index of the winning team
+     */
+    private void finish(TeamDuelSession session, int winningTeam) {
+        release(session);
+
+        List<UUID> winners = session.getTeam(winningTeam);
+        List<UUID> losers = session.getTeam(1 - winningTeam);
+        plugin.getAuditManager().log(AuditAction.END, session.getId(), winners.get(0), losers.get(0),
+                session.getBetAmount(), AUDIT_DETAIL);
+        plugin.getMetricsManager().getDuelsEnded(DuellEndReason.KILL).increment();
+
+        // Collect the bets of the losers and share them on the global thread
+        if (session.getBetAmount() > 0) {
+            plugin.getTaskScheduler().executeGlobal(() -> settle(session, winners, losers));
+        } else {
+            Map<String, String> placeholders = placeholders("winners", joinNames(winners));
+            sendToAll(winners, List.of(), "team.won", placeholders);
+            sendToAll(losers, List.of(), "team.lost", placeholders);
+        }
+    }
+
+    /**
+     * Take the bet from every loser and share what was collected equally among the winners
+     * @param session The ended session
+     * @param winners Members of the winning team
+     * @param losers Members of the losing team
+     */
+    private void settle(TeamDuelSession session, List<UUID> winners, List<UUID> losers) {
+        ProfileCache profileCache = plugin.getProfileCache();
+        EconomyManager economy = plugin.getEconomyManager();
+        long collected = 0;
+        for (UUID loserId : losers) {
+            if (economy.withdraw(session.getId(), profileCache.getPlayer(loserId), session.getBetAmount(), AUDIT_DETAIL)) {
+                collected += session.getBetAmount();
+            } else {
+                plugin.getMetricsManager().getSettlementFailures().increment();
+            }
+        }
+
+        // The minor units left over by the division go to the first winners
+        long share = collected / winners.size();
+        long remainder = collected % winners.size();
+        for (UUID winnerId : winners) {
+            long amount = share + (remainder-- > 0 ? 1 : 0);
+            economy.deposit(session.getId(), profileCache.getPlayer(winnerId), amount, AuditAction.DEPOSIT, AUDIT_DETAIL);
+
+            Map<String, String> placeholders = placeholders("winners", joinNames(winners));
+            placeholders.put("amount", Money.format(amount));
+            sendToAll(List.of(winnerId), List.of(), "team.won-with-bet", placeholders);
+        }
+
+        Map<String, String> placeholders = placeholders("winners", joinNames(winners));
+        placeholders.put("amount", session.getBetDisplay());
+        sendToAll(losers, List.of(), "team.lost-with-bet", placeholders);
+    }
+
+    /**
+     * Cancel a team duel without a winner
+     * @param session Team duel session
+     */
+    private void cancel(TeamDuelSession session) {
+        if (!session.end()) return;
+
+        release(session);
+        plugin.getAuditManager().log(AuditAction.CANCEL, session.getId(), null, null, session.getBetAmount(), AUDIT_DETAIL);
+        plugin.getMetricsManager().getDuelsEnded(DuellEndReason.CANCEL).increment();
+        sendToAll(session.getTeam(0), session.getTeam(1), "duel.cancelled", null);
+    }
+
+    /**
+     * Free the slots of all members of an ended team duel
+     * @param session The ended session
+     */
+    private void release(TeamDuelSession session) {
+        for (Map.Entry<UUID, DuelSlot> member : session.getSlots().entrySet()) {
+            sessions.remove(member.getKey(), session);
+            plugin.getDuellManager().releaseTeamSlot(member.getKey(), member.getValue());
+        }
+    }
+
+    /**
+     * Drop an open request whose time ran out
+     * @param request The request
+     */
+    private void expire(TeamDuelRequest request) {
+        boolean removed;
+        synchronized (lock) {
+            removed = removeRequest(request);
+        }
+        if (!removed) return;
+
+        plugin.getMetricsManager().getRequestsExpired().increment();
+        Player sender = Bukkit.getPlayer(request.getSenderId());
+        if (sender != null && sender.isOnline()) {
+            plugin.getMessageManager().sendMessage(sender, "team.expired");
+        }
+    }
+
+    /**
+     * Remove a request and cancel its timeout; the caller must hold the lock
+     * @param request The request
+     * @return True if the request was still open
+     */
+    private boolean removeRequest(TeamDuelRequest request) {
+        TaskHandle timeoutTask = requestTimeoutTasks.remove(request.getId());
+        if (timeoutTask != null) {
+            timeoutTask.cancel();
+        }
+        return requests.remove(request.getId(), request);
+    }
+
+    /**
+     * Find the open request of a sender that still waits for a player
+     * @param playerId UUID of the invited player
+     * @param senderId UUID of the sender
+     * @return The request, or null if there is none
+     */
+    private TeamDuelRequest findRequest(UUID playerId, UUID senderId) {
+        for (TeamDuelRequest request : requests.values()) {
+            if (request.getSenderId().equals(senderId) && request.isWaitingFor(playerId)) {
+                return request;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create the placeholders describing a request
+     * @param request The request
+     * @param senderName Name of the sender
+     * @return The placeholder map
+     */
+    private Map<String, String> createRequestPlaceholders(TeamDuelRequest request, String senderName) {
+        Map<String, String> placeholders = placeholders("player", senderName);
+        placeholders.put("mode", formatMode(request.getTeamSize()));
+        placeholders.put("team1", joinNames(request.getTeam1()));
+        placeholders.put("team2", joinNames(request.getTeam2()));
+        placeholders.put("amount", request.getBetDisplay());
+        return placeholders;
+    }
+
+    /**
+     * Send a message to all online players of two groups
+     * @param team1 First group
+     * @param team2 Second group
+     * @param path Path to the message
+     * @param placeholders Placeholders to replace, or null
+     */
+    private void sendToAll(List<UUID> team1, List<UUID> team2, String path, Map<String, String> placeholders) {
+        for (List<UUID> team : List.of(team1, team2)) {
+            for (UUID memberId : team) {
+                Player player = Bukkit.getPlayer(memberId);
+                if (player != null && player.isOnline()) {
+                    plugin.getMessageManager().sendMessage(player, path, placeholders);
+                }
+            }
+        }
+    }
+
+    private String joinNames(List<UUID> playerIds) {
+        List<String> names = new ArrayList<>(playerIds.size());
+        for (UUID playerId : playerIds) {
+            names.add(plugin.getProfileCache().getName(playerId));
+        }
+        return String.join(", ", names);
+    }
+
+    private static String formatMode(int teamSize) {
+        return teamSize + "v" + teamSize;
+    }
+
+    private Map<String, String> placeholders(String key, String value) {
+        Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+        placeholders.put(key, value);
+        return placeholders;
+    }
+}
@@ -0,0 +1,51 @@
+package de.dasjeff.duellSystem.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic counter backed by a {@link LongAdder}
+ */
+public class Counter extends Metric {
+
+    private final LongAdder value = new LongAdder();
+
+    /**
+     * Constructor
+     * @param name Metric name
+     * @param labels Label set, or null
+     * @param help Help text
+     */
+    Counter(String name, String labels, String help) {
+        super(name, labels, help);
+    }
+
+    // Increment the counter by one
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * Get the current value
+     * @return Current value
+     */
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    public String getType() {
+        return "counter";
+    }
+
+    @Override
+    public String summarize() {
+        return String.valueOf(get());
+    }
+
+    @Override
+    public void writeSamples(Writer out) throws IOException {
+        out.write(getDisplayName() + " " + get() + "\n");
+    }
+}
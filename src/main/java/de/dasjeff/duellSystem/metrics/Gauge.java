@@ -0,0 +1,47 @@
+package de.dasjeff.duellSystem.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.LongSupplier;
+
+/**
+ * Gauge that reads its value from a supplier when exported
+ */
+public class Gauge extends Metric {
+
+    private final LongSupplier supplier;
+
+    /**
+     * Constructor
+     * @param name Metric name
+     * @param help Help text
+     * @param supplier Supplier of the current value, must be safe to call from any thread
+     */
+    Gauge(String name, String help, LongSupplier supplier) {
+        super(name, null, help);
+        this.supplier = supplier;
+    }
+
+    /**
+     * Get the current value
+     * @return Current value
+     */
+    public long get() {
+        return supplier.getAsLong();
+    }
+
+    @Override
+    public String getType() {
+        return "gauge";
+    }
+
+    @Override
+    public String summarize() {
+        return String.valueOf(get());
+    }
+
+    @Override
+    public void writeSamples(Writer out) throws IOException {
+        out.write(getDisplayName() + " " + get() + "\n");
+    }
+}
@@ -0,0 +1,129 @@
+package de.dasjeff.duellSystem.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sampling profiler for the plugin's event handlers.
+ * <p>
+ * Handlers call {@link #begin(ProfiledHandler)} on entry and {@link #end(ProfiledHandler, long)} on exit.
+ * While the profiler is stopped, {@code begin} is a single field read. While running, every n-th
+ * invocation of each handler is timed with {@link System#nanoTime()}. On Folia the handlers run on several
+ * region threads at once, so the counters are atomic and every recorder locks while recording.
+ */
+public class HandlerProfiler {
+
+    /**
+     * Returned by {@link #begin(ProfiledHandler)} when the invocation is not timed
+     */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private static final ProfiledHandler[] HANDLERS = ProfiledHandler.values();
+
+    private final AtomicLongArray invocations = new AtomicLongArray(HANDLERS.length);
+    private final LatencyRecorder[] recorders = new LatencyRecorder[HANDLERS.length];
+    private volatile boolean running;
+    private volatile int sampleEvery = 1;
+    private volatile int startTick;
+    private volatile long startNanos;
+
+    // Constructor
+    public HandlerProfiler() {
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new LatencyRecorder();
+        }
+    }
+
+    /**
+     * Start a new profiling run, discarding previous results
+     * @param sampleRate Fraction of invocations to time, between 0 (exclusive) and 1
+     * @param currentTick Current server tick
+     */
+    public void start(double sampleRate, int currentTick) {
+        for (int i = 0; i < recorders.length; i++) {
+            invocations.set(i, 0);
+            recorders[i].reset();
+        }
+        this.sampleEvery = Math.max(1, (int) Math.round(1.0 / Math.max(sampleRate, 0.0001)));
+        this.startTick = currentTick;
+        this.startNanos = System.nanoTime();
+        this.running = true;
+    }
+
+    // Stop the current profiling run, keeping its results
+    public void stop() {
+        this.running = false;
+    }
+
+    /**
+     * Mark the entry of a handler
+     * @param handler Handler being entered
+     * @return Start time to pass to {@link #end(ProfiledHandler, long)}, or {@link #NOT_SAMPLED}
+     */
+    public long begin(ProfiledHandler handler) {
+        if (!running) return NOT_SAMPLED;
+
+        if (invocations.incrementAndGet(handler.ordinal()) % sampleEvery != 0) return NOT_SAMPLED;
+        return System.nanoTime();
+    }
+
+    /**
+     * Mark the exit of a handler
+     * @param handler Handler being left
+     * @param start Value returned by {@link #begin(ProfiledHandler)}
+     */
+    public void end(ProfiledHandler handler, long start) {
+        if (start == NOT_SAMPLED) return;
+
+        recorders[handler.ordinal()].record(System.nanoTime() - start);
+    }
+
+    /**
+     * Check if a profiling run is active
+     * @return True if the profiler is running
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Get the sampling interval
+     * @return Every n-th invocation is timed
+     */
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * Get the tick the current or last run started at
+     * @return Start tick
+     */
+    public int getStartTick() {
+        return startTick;
+    }
+
+    /**
+     * Get the wall time since the current or last run started
+     * @return Elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Get the number of invocations of a handler in the current or last run
+     * @param handler Handler
+     * @return Number of invocations, sampled or not
+     */
+    public long getInvocations(ProfiledHandler handler) {
+        return invocations.get(handler.ordinal());
+    }
+
+    /**
+     * Get the timings of a handler in the current or last run
+     * @param handler Handler
+     * @return Recorder with the sampled timings
+     */
+    public LatencyRecorder getRecorder(ProfiledHandler handler) {
+        return recorders[handler.ordinal()];
+    }
+}
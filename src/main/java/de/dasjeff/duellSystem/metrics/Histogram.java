@@ -0,0 +1,95 @@
+package de.dasjeff.duellSystem.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram with fixed bucket bounds.
+ * Recording is a linear scan over a handful of bounds plus two {@link LongAdder} increments.
+ */
+public class Histogram extends Metric {
+
+    private final long[] boundsNanos;
+    private final String[] boundLabels;
+    private final LongAdder[] buckets;
+    private final LongAdder sumNanos = new LongAdder();
+
+    /**
+     * Constructor
+     * @param name Metric name
+     * @param help Help text
+     * @param boundsSeconds Upper bucket bounds in seconds, in ascending order
+     */
+    Histogram(String name, String help, double... boundsSeconds) {
+        super(name, null, help);
+        this.boundsNanos = new long[boundsSeconds.length];
+        this.boundLabels = new String[boundsSeconds.length];
+        this.buckets = new LongAdder[boundsSeconds.length + 1];
+        for (int i = 0; i < boundsSeconds.length; i++) {
+            boundsNanos[i] = (long) (boundsSeconds[i] * 1_000_000_000L);
+            boundLabels[i] = Double.toString(boundsSeconds[i]);
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a duration
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        int i = 0;
+        while (i < boundsNanos.length && nanos > boundsNanos[i]) {
+            i++;
+        }
+        buckets[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Record the time elapsed since a {@link System#nanoTime()} reading
+     * @param startNanos Start time from {@link System#nanoTime()}
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Get the number of recorded durations
+     * @return Number of recorded durations
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    @Override
+    public String getType() {
+        return "histogram";
+    }
+
+    @Override
+    public String summarize() {
+        long count = getCount();
+        double avgMillis = count == 0 ? 0 : sumNanos.sum() / (double) count / 1_000_000.0;
+        return count + " (avg " + String.format("%.3f", avgMillis) + " ms)";
+    }
+
+    @Override
+    public void writeSamples(Writer out) throws IOException {
+        long cumulative = 0;
+        for (int i = 0; i < boundsNanos.length; i++) {
+            cumulative += buckets[i].sum();
+            out.write(getName() + "_bucket{le=\"" + boundLabels[i] + "\"} " + cumulative + "\n");
+        }
+        cumulative += buckets[boundsNanos.length].sum();
+        out.write(getName() + "_bucket{le=\"+Inf\"} " + cumulative + "\n");
+        out.write(getName() + "_sum " + (sumNanos.sum() / 1_000_000_000.0) + "\n");
+        out.write(getName() + "_count " + cumulative + "\n");
+    }
+}
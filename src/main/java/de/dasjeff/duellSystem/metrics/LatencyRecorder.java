@@ -0,0 +1,101 @@
+package de.dasjeff.duellSystem.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear latency histogram with percentile queries; all methods lock the recorder.
+ * Every power of two is split into 16 sub-buckets, so reported percentiles are within about 6%
+ * of the recorded value. Recording is a few bit operations and one array increment.
+ */
+public class LatencyRecorder {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long total;
+    private long sum;
+    private long max;
+
+    /**
+     * Record a duration
+     * @param nanos Duration in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+
+        counts[indexOf(nanos)]++;
+        total++;
+        sum += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    /**
+     * Get the value at a percentile
+     * @param percentile Percentile between 0 and 100
+     * @return Upper bound of the bucket containing the percentile in nanoseconds
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBoundOf(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Get the number of recorded durations
+     * @return Number of recorded durations
+     */
+    public synchronized long getCount() {
+        return total;
+    }
+
+    /**
+     * Get the mean of all recorded durations
+     * @return Mean in nanoseconds
+     */
+    public synchronized double getMean() {
+        return total == 0 ? 0 : sum / (double) total;
+    }
+
+    /**
+     * Get the largest recorded duration
+     * @return Maximum in nanoseconds
+     */
+    public synchronized long getMax() {
+        return max;
+    }
+
+    // Discard all recorded durations
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        long shift = exponent - SUB_BUCKET_BITS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
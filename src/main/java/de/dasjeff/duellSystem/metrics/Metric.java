@@ -0,0 +1,77 @@
+package de.dasjeff.duellSystem.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Base class for all metrics in the registry
+ */
+public abstract class Metric {
+
+    private final String name;
+    private final String labels;
+    private final String help;
+
+    /**
+     * Constructor
+     * @param name Metric name in Prometheus format
+     * @param labels Label set without braces (e.g. {@code reason="kill"}), or null
+     * @param help Help text
+     */
+    protected Metric(String name, String labels, String help) {
+        this.name = name;
+        this.labels = labels;
+        this.help = help;
+    }
+
+    /**
+     * Get the metric name
+     * @return Metric name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the label set
+     * @return Label set without braces, or null
+     */
+    public String getLabels() {
+        return labels;
+    }
+
+    /**
+     * Get the help text
+     * @return Help text
+     */
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * Get the metric name including the label set
+     * @return Name with labels
+     */
+    public String getDisplayName() {
+        return labels == null ? name : name + "{" + labels + "}";
+    }
+
+    /**
+     * Get the Prometheus metric type
+     * @return Metric type
+     */
+    public abstract String getType();
+
+    /**
+     * Get a short human-readable summary of the current value
+     * @return Summary
+     */
+    public abstract String summarize();
+
+    /**
+     * Write the samples of this metric in Prometheus text format
+     * @param out Writer to write to
+     * @throws IOException If writing fails
+     */
+    public abstract void writeSamples(Writer out) throws IOException;
+}
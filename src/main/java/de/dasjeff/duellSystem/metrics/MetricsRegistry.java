@@ -0,0 +1,97 @@
+package de.dasjeff.duellSystem.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of all plugin metrics with a Prometheus text-format writer
+ */
+public class MetricsRegistry {
+
+    /**
+     * Default latency bucket bounds in seconds, from 10 microseconds to 1 second
+     */
+    public static final double[] LATENCY_BUCKETS = {
+            0.00001, 0.00005, 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1.0
+    };
+
+    private final List<Metric> metrics = new CopyOnWriteArrayList<>();
+
+    /**
+     * Register a counter
+     * @param name Metric name
+     * @param help Help text
+     * @return The counter
+     */
+    public Counter counter(String name, String help) {
+        return counter(name, null, help);
+    }
+
+    /**
+     * Register a counter with labels
+     * @param name Metric name
+     * @param labels Label set without braces
+     * @param help Help text
+     * @return The counter
+     */
+    public Counter counter(String name, String labels, String help) {
+        Counter counter = new Counter(name, labels, help);
+        metrics.add(counter);
+        return counter;
+    }
+
+    /**
+     * Register a gauge
+     * @param name Metric name
+     * @param help Help text
+     * @param supplier Supplier of the current value, must be safe to call from any thread
+     * @return The gauge
+     */
+    public Gauge gauge(String name, String help, LongSupplier supplier) {
+        Gauge gauge = new Gauge(name, help, supplier);
+        metrics.add(gauge);
+        return gauge;
+    }
+
+    /**
+     * Register a latency histogram with the default buckets
+     * @param name Metric name
+     * @param help Help text
+     * @return The histogram
+     */
+    public Histogram histogram(String name, String help) {
+        Histogram histogram = new Histogram(name, help, LATENCY_BUCKETS);
+        metrics.add(histogram);
+        return histogram;
+    }
+
+    /**
+     * Get all registered metrics in registration order
+     * @return Unmodifiable list of metrics
+     */
+    public List<Metric> getMetrics() {
+        return Collections.unmodifiableList(metrics);
+    }
+
+    /**
+     * Write all metrics in Prometheus text format
+     * @param out Writer to write to
+     * @throws IOException If writing fails
+     */
+    public void writePrometheus(Writer out) throws IOException {
+        String lastName = null;
+        for (Metric metric : metrics) {
+            // Metrics sharing a name (different labels) share one HELP/TYPE header
+            if (!metric.getName().equals(lastName)) {
+                out.write("# HELP " + metric.getName() + " " + metric.getHelp() + "\n");
+                out.write("# TYPE " + metric.getName() + " " + metric.getType() + "\n");
+                lastName = metric.getName();
+            }
+            metric.writeSamples(out);
+        }
+    }
+}
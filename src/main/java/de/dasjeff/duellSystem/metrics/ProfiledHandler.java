@@ -0,0 +1,34 @@
+package de.dasjeff.duellSystem.metrics;
+
+/**
+ * Event handlers that can be timed by the {@link HandlerProfiler}
+ */
+public enum ProfiledHandler {
+
+    DUELL_JOIN("DuellListener#onPlayerJoin"),
+    DUELL_DEATH("DuellListener#onPlayerDeath"),
+    DUELL_QUIT("DuellListener#onPlayerQuit"),
+    DUELL_DAMAGE("DuellListener#onEntityDamageByEntity"),
+    DUELL_SWING("DuellListener#onPlayerAnimation"),
+    REGION_DAMAGE("RegionListener#onEntityDamageByEntity"),
+    WORLD_BLOCK_BREAK("DuellWorldListener#onBlockBreak"),
+    WORLD_BLOCK_PLACE("DuellWorldListener#onBlockPlace"),
+    WORLD_INTERACT("DuellWorldListener#onPlayerInteract"),
+    COMMAND_PREPROCESS("CommandListener#onPlayerCommandPreprocess"),
+    NETWORK_JOIN("NetworkListener#onPlayerJoin"),
+    NETWORK_QUIT("NetworkListener#onPlayerQuit");
+
+    private final String displayName;
+
+    ProfiledHandler(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Get the display name
+     * @return Listener class and method name
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,43 @@
+package de.dasjeff.duellSystem.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The place of a participant in a duel: the compact id of the session and the index of the team.
+ * <p>
+ * 1v1 duels have one player per team, team duels several. Whether two players may hurt each other is
+ * decided by comparing their slots, without looking at the session itself.
+ *
+ * @param sessionId Compact id of the session
+ * @param team Index of the team, 0 or 1
+ */
+public record DuelSlot(int sessionId, int team) {
+
+    private static final AtomicInteger NEXT_SESSION_ID = new AtomicInteger();
+
+    /**
+     * Get a new compact session id
+     * @return Session id, unique while the server runs
+     */
+    public static int nextSessionId() {
+        return NEXT_SESSION_ID.incrementAndGet();
+    }
+
+    /**
+     * Check if another participant is in the same duel
+     * @param other Slot of the other participant, or null if not in a duel
+     * @return True if both are in the same duel
+     */
+    public boolean isSameDuel(DuelSlot other) {
+        return other != null && sessionId == other.sessionId;
+    }
+
+    /**
+     * Check if another participant is on the opposing team of the same duel
+     * @param other Slot of the other participant, or null if not in a duel
+     * @return True if both are in the same duel on different teams
+     */
+    public boolean isOpponent(DuelSlot other) {
+        return other != null && sessionId == other.sessionId && team != other.team;
+    }
+}
@@ -0,0 +1,22 @@
+package de.dasjeff.duellSystem.model;
+
+/**
+ * Reason why a duel session ended
+ */
+public enum DuellEndReason {
+
+    /**
+     * One participant was killed by the other
+     */
+    KILL,
+
+    /**
+     * One participant left the server or died outside the duel
+     */
+    QUIT,
+
+    /**
+     * The duel was cancelled without a winner
+     */
+    CANCEL
+}
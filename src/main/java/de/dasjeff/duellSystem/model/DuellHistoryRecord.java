@@ -0,0 +1,104 @@
+package de.dasjeff.duellSystem.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Represents a finished duel read from the history log
+ */
+public class DuellHistoryRecord {
+
+    private final UUID winnerId;
+    private final UUID loserId;
+    private final long betAmount;
+    private final Instant startedAt;
+    private final Instant endedAt;
+    private final boolean decided;
+    private final DuellEndReason reason;
+
+    /**
+     * Constructor
+     * @param winnerId UUID of the winner (first participant if the duel was not decided)
+     * @param loserId UUID of the loser (second participant if the duel was not decided)
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     * @param startedAt Start time
+     * @param endedAt End time
+     * @param decided True if the duel had a winner
+     * @param reason Reason why the duel ended
+     */
+    public DuellHistoryRecord(UUID winnerId, UUID loserId, long betAmount, Instant startedAt, Instant endedAt,
+                              boolean decided, DuellEndReason reason) {
+        this.winnerId = winnerId;
+        this.loserId = loserId;
+        this.betAmount = betAmount;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+        this.decided = decided;
+        this.reason = reason;
+    }
+
+    /**
+     * Get the winner ID
+     * @return Winner ID
+     */
+    public UUID getWinnerId() {
+        return winnerId;
+    }
+
+    /**
+     * Get the loser ID
+     * @return Loser ID
+     */
+    public UUID getLoserId() {
+        return loserId;
+    }
+
+    /**
+     * Get the bet amount
+     * @return Bet amount in minor units
+     */
+    public long getBetAmount() {
+        return betAmount;
+    }
+
+    /**
+     * Get the start time
+     * @return Start time
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Get the end time
+     * @return End time
+     */
+    public Instant getEndedAt() {
+        return endedAt;
+    }
+
+    /**
+     * Check if the duel had a winner
+     * @return True if the duel had a winner
+     */
+    public boolean isDecided() {
+        return decided;
+    }
+
+    /**
+     * Get the end reason
+     * @return End reason
+     */
+    public DuellEndReason getReason() {
+        return reason;
+    }
+
+    /**
+     * Get the opponent of a participant
+     * @param playerId Player ID
+     * @return Opponent ID
+     */
+    public UUID getOpponentId(UUID playerId) {
+        return playerId.equals(winnerId) ? loserId : winnerId;
+    }
+}
@@ -1,5 +1,7 @@
 package de.dasjeff.duellSystem.model;
 
+import de.dasjeff.duellSystem.util.Money;
+
 import java.time.Instant;
 import java.util.UUID;
 
@@ -11,20 +13,35 @@ public class DuellRequest {
     private final UUID id;
     private final UUID senderId;
     private final UUID targetId;
-    private final double betAmount;
+    private final long betAmount;
+    private final String betDisplay;
+    private final int rounds;
     private final Instant createdAt;
 
     /**
      * Constructor
      * @param senderId UUID of the player sending the request
      * @param targetId UUID of the player receiving the request
-     * @param betAmount Bet amount (0 for friendly duel)
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     */
+    public DuellRequest(UUID senderId, UUID targetId, long betAmount) {
+        this(senderId, targetId, betAmount, 1);
+    }
+
+    /**
+     * Constructor
+     * @param senderId UUID of the player sending the request
+     * @param targetId UUID of the player receiving the request
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     * @param rounds Number of rounds of the series (1 for a single duel)
      */
-    public DuellRequest(UUID senderId, UUID targetId, double betAmount) {
+    public DuellRequest(UUID senderId, UUID targetId, long betAmount, int rounds) {
         this.id = UUID.randomUUID();
         this.senderId = senderId;
         this.targetId = targetId;
         this.betAmount = betAmount;
+        this.betDisplay = Money.format(betAmount);
+        this.rounds = rounds;
         this.createdAt = Instant.now();
     }
 
@@ -54,12 +71,28 @@ public class DuellRequest {
 
     /**
      * Get the bet amount
-     * @return Bet amount
+     * @return Bet amount in minor units
      */
-    public double getBetAmount() {
+    public long getBetAmount() {
         return betAmount;
     }
 
+    /**
+     * Get the bet amount formatted for display
+     * @return Formatted bet amount
+     */
+    public String getBetDisplay() {
+        return betDisplay;
+    }
+
+    /**
+     * Get the number of rounds of the series
+     * @return Number of rounds, 1 for a single duel
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
     /**
      * Get the creation time
      * @return Creation time
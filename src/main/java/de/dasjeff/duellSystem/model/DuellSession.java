@@ -1,34 +1,77 @@
 package de.dasjeff.duellSystem.model;
 
+import de.dasjeff.duellSystem.util.Money;
+
 import java.time.Instant;
 import java.util.UUID;
 
 /**
  * Represents an active duel session
+ * <p>
+ * Combat statistics are kept in primitive fields per participant, so recording a hit does not allocate.
+ * A combo is a run of hits landed without being hit in between.
+ * <p>
+ * A best-of-N series keeps one session for all its rounds: each round counts down and fights again, and
+ * the session only ends once a player has won a majority of the rounds.
  */
 public class DuellSession {
 
     private final UUID id;
+    private final int number;
+    private final DuelSlot slot1;
+    private final DuelSlot slot2;
     private final UUID player1Id;
     private final UUID player2Id;
-    private final double betAmount;
+    private final long betAmount;
+    private final String betDisplay;
+    private final int rounds;
     private final Instant createdAt;
-    private Instant startedAt;
-    private Instant endedAt;
-    private boolean active;
-    private boolean started;
+    private volatile Instant startedAt;
+    private volatile Instant endedAt;
+    private volatile boolean active;
+    private volatile boolean started;
+
+    // Combat statistics, guarded by this
+    private int hits1;
+    private int hits2;
+    private double damage1;
+    private double damage2;
+    private int criticalHits1;
+    private int criticalHits2;
+    private int combo1;
+    private int combo2;
+    private int longestCombo1;
+    private int longestCombo2;
+    private int wins1;
+    private int wins2;
 
     /**
      * Constructor
      * @param player1Id UUID of the first player
      * @param player2Id UUID of the second player
-     * @param betAmount Bet amount (0 for friendly duel)
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
      */
-    public DuellSession(UUID player1Id, UUID player2Id, double betAmount) {
+    public DuellSession(UUID player1Id, UUID player2Id, long betAmount) {
+        this(player1Id, player2Id, betAmount, 1);
+    }
+
+    /**
+     * Constructor
+     * @param player1Id UUID of the first player
+     * @param player2Id UUID of the second player
+     * @param betAmount Bet amount in minor units (0 for friendly duel)
+     * @param rounds Number of rounds of the series (1 for a single duel)
+     */
+    public DuellSession(UUID player1Id, UUID player2Id, long betAmount, int rounds) {
         this.id = UUID.randomUUID();
+        this.number = DuelSlot.nextSessionId();
+        this.slot1 = new DuelSlot(number, 0);
+        this.slot2 = new DuelSlot(number, 1);
         this.player1Id = player1Id;
         this.player2Id = player2Id;
         this.betAmount = betAmount;
+        this.betDisplay = Money.format(betAmount);
+        this.rounds = rounds;
         this.createdAt = Instant.now();
         this.active = true;
         this.started = false;
@@ -42,6 +85,23 @@ public class DuellSession {
         return id;
     }
 
+    /**
+     * Get the compact session id
+     * @return Session id, unique while the server runs
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Get the slot of a participant
+     * @param playerId Player ID
+     * @return Slot of team 0 for the first player, of team 1 for the second
+     */
+    public DuelSlot getSlot(UUID playerId) {
+        return playerId.equals(player1Id) ? slot1 : slot2;
+    }
+
     /**
      * Get the first player ID
      * @return First player ID
@@ -60,12 +120,71 @@ public class DuellSession {
 
     /**
      * Get the bet amount
-     * @return Bet amount
+     * @return Bet amount in minor units
      */
-    public double getBetAmount() {
+    public long getBetAmount() {
         return betAmount;
     }
 
+    /**
+     * Get the bet amount formatted for display
+     * @return Formatted bet amount
+     */
+    public String getBetDisplay() {
+        return betDisplay;
+    }
+
+    /**
+     * Get the number of rounds of the series
+     * @return Number of rounds, 1 for a single duel
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * Check if this is a best-of-N series
+     * @return True if the session has more than one round
+     */
+    public boolean isSeries() {
+        return rounds > 1;
+    }
+
+    /**
+     * Get the number of round wins needed to win the series
+     * @return Round wins needed
+     */
+    public int getWinsNeeded() {
+        return rounds / 2 + 1;
+    }
+
+    /**
+     * Get the current round
+     * @return Round number, starting at 1
+     */
+    public synchronized int getRound() {
+        return wins1 + wins2 + 1;
+    }
+
+    /**
+     * Get the number of rounds a participant won
+     * @param playerId Player ID
+     * @return Round wins
+     */
+    public synchronized int getWins(UUID playerId) {
+        return playerId.equals(player1Id) ? wins1 : wins2;
+    }
+
+    /**
+     * Set the score of a series resumed after a restart; only before the session is registered
+     * @param wins1 Round wins of the first player
+     * @param wins2 Round wins of the second player
+     */
+    public synchronized void setScore(int wins1, int wins2) {
+        this.wins1 = wins1;
+        this.wins2 = wins2;
+    }
+
     /**
      * Get the creation time
      * @return Creation time
@@ -107,19 +226,115 @@ public class DuellSession {
     }
 
     /**
-     * Start the duel
+     * Start the duel; later calls have no effect
+     * @return True if this call started the duel
      */
-    public void start() {
-        this.startedAt = Instant.now();
+    public synchronized boolean start() {
+        if (started) return false;
+
+        // The fight time of a series runs from its first round
+        if (startedAt == null) {
+            this.startedAt = Instant.now();
+        }
         this.started = true;
+        return true;
+    }
+
+    /**
+     * Score the fighting round for a participant and go back to the countdown phase
+     * @param winnerId UUID of the round winner
+     * @return Round wins of the winner, or -1 if no round was being fought
+     */
+    public synchronized int finishRound(UUID winnerId) {
+        if (!active || !started) return -1;
+
+        this.started = false;
+        return winnerId.equals(player1Id) ? ++wins1 : ++wins2;
     }
 
     /**
      * End the duel
+     * @return True if this call ended the duel, false if it had already ended
      */
-    public void end() {
+    public synchronized boolean end() {
+        if (!active) return false;
+
         this.endedAt = Instant.now();
         this.active = false;
+        return true;
+    }
+
+    /**
+     * Record a hit between the participants while the duel is fighting
+     * @param damagerId UUID of the attacking player
+     * @param damage Damage dealt
+     * @param critical True if the hit was a critical hit
+     */
+    public synchronized void recordHit(UUID damagerId, double damage, boolean critical) {
+        if (!active || !started) return;
+
+        if (damagerId.equals(player1Id)) {
+            hits1++;
+            damage1 += damage;
+            if (critical) criticalHits1++;
+            combo1++;
+            combo2 = 0;
+            longestCombo1 = Math.max(longestCombo1, combo1);
+        } else if (damagerId.equals(player2Id)) {
+            hits2++;
+            damage2 += damage;
+            if (critical) criticalHits2++;
+            combo2++;
+            combo1 = 0;
+            longestCombo2 = Math.max(longestCombo2, combo2);
+        }
+    }
+
+    /**
+     * Get the number of hits a participant landed
+     * @param playerId Player ID
+     * @return Number of hits
+     */
+    public synchronized int getHits(UUID playerId) {
+        return playerId.equals(player1Id) ? hits1 : hits2;
+    }
+
+    /**
+     * Get the damage a participant dealt
+     * @param playerId Player ID
+     * @return Damage dealt
+     */
+    public synchronized double getDamageDealt(UUID playerId) {
+        return playerId.equals(player1Id) ? damage1 : damage2;
+    }
+
+    /**
+     * Get the number of critical hits a participant landed
+     * @param playerId Player ID
+     * @return Number of critical hits
+     */
+    public synchronized int getCriticalHits(UUID playerId) {
+        return playerId.equals(player1Id) ? criticalHits1 : criticalHits2;
+    }
+
+    /**
+     * Get the longest combo of a participant
+     * @param playerId Player ID
+     * @return Longest run of hits without being hit
+     */
+    public synchronized int getLongestCombo(UUID playerId) {
+        return playerId.equals(player1Id) ? longestCombo1 : longestCombo2;
+    }
+
+    /**
+     * Get the time from the start of the fight to its end; for a series from the first round to the last
+     * @return Fight duration in milliseconds, or 0 if the fight never started or has not ended
+     */
+    public long getFightMillis() {
+        Instant start = startedAt;
+        Instant end = endedAt;
+        if (start == null || end == null) return 0;
+        return Math.max(0, end.toEpochMilli() - start.toEpochMilli());
     }
 
     /**
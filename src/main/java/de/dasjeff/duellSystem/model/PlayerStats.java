@@ -0,0 +1,182 @@
+package de.dasjeff.duellSystem.model;
+
+import java.util.UUID;
+
+/**
+ * Represents the persistent duel statistics of a player
+ */
+public class PlayerStats {
+
+    private final UUID playerId;
+    private String name;
+    private int wins;
+    private int losses;
+    private int rating;
+    private long hits;
+    private double damageDealt;
+    private long criticalHits;
+    private int longestCombo;
+    private long fastestKillMillis;
+
+    /**
+     * Constructor
+     * @param playerId UUID of the player
+     * @param name Last known name of the player
+     * @param wins Number of duels won
+     * @param losses Number of duels lost
+     * @param rating Current rating
+     */
+    public PlayerStats(UUID playerId, String name, int wins, int losses, int rating) {
+        this.playerId = playerId;
+        this.name = name;
+        this.wins = wins;
+        this.losses = losses;
+        this.rating = rating;
+    }
+
+    /**
+     * Restore the combat statistics loaded from disk
+     * @param hits Total hits landed
+     * @param damageDealt Total damage dealt
+     * @param criticalHits Total critical hits
+     * @param longestCombo Longest combo in any duel
+     * @param fastestKillMillis Fastest kill in milliseconds, 0 if none
+     */
+    public void setCombatStats(long hits, double damageDealt, long criticalHits, int longestCombo, long fastestKillMillis) {
+        this.hits = hits;
+        this.damageDealt = damageDealt;
+        this.criticalHits = criticalHits;
+        this.longestCombo = longestCombo;
+        this.fastestKillMillis = fastestKillMillis;
+    }
+
+    /**
+     * Get the player ID
+     * @return Player ID
+     */
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Get the last known name
+     * @return Last known name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Set the last known name
+     * @param name Last known name
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the number of duels won
+     * @return Number of duels won
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Get the number of duels lost
+     * @return Number of duels lost
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Get the current rating
+     * @return Current rating
+     */
+    public int getRating() {
+        return rating;
+    }
+
+    /**
+     * Record a won duel
+     * @param newRating Rating after the duel
+     */
+    public void addWin(int newRating) {
+        this.wins++;
+        this.rating = newRating;
+    }
+
+    /**
+     * Record a lost duel
+     * @param newRating Rating after the duel
+     */
+    public void addLoss(int newRating) {
+        this.losses++;
+        this.rating = newRating;
+    }
+
+    /**
+     * Get the total number of hits landed
+     * @return Total hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the total damage dealt
+     * @return Total damage
+     */
+    public double getDamageDealt() {
+        return damageDealt;
+    }
+
+    /**
+     * Get the total number of critical hits
+     * @return Total critical hits
+     */
+    public long getCriticalHits() {
+        return criticalHits;
+    }
+
+    /**
+     * Get the longest combo in any duel
+     * @return Longest combo
+     */
+    public int getLongestCombo() {
+        return longestCombo;
+    }
+
+    /**
+     * Get the fastest kill
+     * @return Fastest kill in milliseconds, or 0 if the player has not won a duel by a kill
+     */
+    public long getFastestKillMillis() {
+        return fastestKillMillis;
+    }
+
+    /**
+     * Add the combat statistics of a finished duel
+     * @param duelHits Hits landed in the duel
+     * @param duelDamage Damage dealt in the duel
+     * @param duelCriticalHits Critical hits in the duel
+     * @param duelLongestCombo Longest combo in the duel
+     */
+    public void addCombat(int duelHits, double duelDamage, int duelCriticalHits, int duelLongestCombo) {
+        this.hits += duelHits;
+        this.damageDealt += duelDamage;
+        this.criticalHits += duelCriticalHits;
+        this.longestCombo = Math.max(longestCombo, duelLongestCombo);
+    }
+
+    /**
+     * Record a kill and keep it if it was the fastest
+     * @param killMillis Time from the start of the fight to the kill in milliseconds
+     */
+    public void addKill(long killMillis) {
+        if (killMillis > 0 && (fastestKillMillis == 0 || killMillis < fastestKillMillis)) {
+            this.fastestKillMillis = killMillis;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package de.dasjeff.duellSystem.model;
+
+import de.dasjeff.duellSystem.util.Money;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents a request for a team duel; it turns into a duel once every invited player has accepted
+ */
+public class TeamDuelRequest {
+
+    private final UUID id;
+    private final UUID senderId;
+    private final List<UUID> team1;
+    private final List<UUID> team2;
+    private final long betAmount;
+    private final String betDisplay;
+    private final Set<UUID> waiting;
+    private final Instant createdAt;
+
+    /**
+     * Constructor
+     * @param senderId UUID of the player sending the request
+     * @param team1 Members of the sender's team, including the sender
+     * @param team2 Members of the opposing team
+     * @param betAmount Bet amount per member in minor units (0 for friendly duel)
+     */
+    public TeamDuelRequest(UUID senderId, List<UUID> team1, List<UUID> team2, long betAmount) {
+        this.id = UUID.randomUUID();
+        this.senderId = senderId;
+        this.team1 = List.copyOf(team1);
+        this.team2 = List.copyOf(team2);
+        this.betAmount = betAmount;
+        this.betDisplay = Money.format(betAmount);
+        this.waiting = ConcurrentHashMap.newKeySet();
+        this.createdAt = Instant.now();
+
+        waiting.addAll(team1);
+        waiting.addAll(team2);
+        waiting.remove(senderId);
+    }
+
+    /**
+     * Get the request ID
+     * @return Request ID
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Get the sender ID
+     * @return Sender ID
+     */
+    public UUID getSenderId() {
+        return senderId;
+    }
+
+    /**
+     * Get the members of the sender's team
+     * @return Members including the sender
+     */
+    public List<UUID> getTeam1() {
+        return team1;
+    }
+
+    /**
+     * Get the members of the opposing team
+     * @return Members
+     */
+    public List<UUID> getTeam2() {
+        return team2;
+    }
+
+    /**
+     * Get the size of each team
+     * @return Members per team
+     */
+    public int getTeamSize() {
+        return team1.size();
+    }
+
+    /**
+     * Get the bet amount per member
+     * @return Bet amount in minor units
+     */
+    public long getBetAmount() {
+        return betAmount;
+    }
+
+    /**
+     * Get the bet amount formatted for display
+     * @return Formatted bet amount
+     */
+    public String getBetDisplay() {
+        return betDisplay;
+    }
+
+    /**
+     * Get the creation time
+     * @return Creation time
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Check if a player is part of the request
+     * @param playerId Player ID
+     * @return True if the player is on one of the teams
+     */
+    public boolean involves(UUID playerId) {
+        return team1.contains(playerId) || team2.contains(playerId);
+    }
+
+    /**
+     * Check if a player still has to accept
+     * @param playerId Player ID
+     * @return True if the player was invited and has not accepted yet
+     */
+    public boolean isWaitingFor(UUID playerId) {
+        return waiting.contains(playerId);
+    }
+
+    /**
+     * Record the acceptance of an invited player
+     * @param playerId Player ID
+     * @return True if the player had not accepted before
+     */
+    public boolean accept(UUID playerId) {
+        return waiting.remove(playerId);
+    }
+
+    /**
+     * Get the number of players who still have to accept
+     * @return Number of missing acceptances
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Check if this is a friendly duel (no bet)
+     * @return True if this is a friendly duel
+     */
+    public boolean isFriendly() {
+        return betAmount <= 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TeamDuelRequest that = (TeamDuelRequest) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+}
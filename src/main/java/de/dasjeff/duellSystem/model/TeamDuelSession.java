@@ -0,0 +1,298 @@
+package de.dasjeff.duellSystem.model;
+
+import de.dasjeff.duellSystem.util.Money;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Represents an active duel between two teams of players
+ * <p>
+ * Every member has a fixed index; each team is a bitset of member indexes and the members still standing
+ * are a single atomic bitset, so knocking a member out and checking whether their team is eliminated are
+ * a few bit operations whatever the team size.
+ */
+public class TeamDuelSession {
+
+    public static final int MAX_MEMBERS = Long.SIZE;
+
+    private final UUID id;
+    private final int number;
+    private final UUID[] members;
+    private final DuelSlot[] slots;
+    private final long[] teamMasks;
+    private final AtomicLong standing;
+    private final long betAmount;
+    private final String betDisplay;
+    private final Instant createdAt;
+    private volatile Instant startedAt;
+    private volatile Instant endedAt;
+    private volatile boolean active;
+    private volatile boolean started;
+
+    /**
+     * Constructor
+     * @param team1 Members of the first team
+     * @param team2 Members of the second team
+     * @param betAmount Bet amount per member in minor units (0 for friendly duel)
+     */
+    public TeamDuelSession(List<UUID> team1, List<UUID> team2, long betAmount) {
+        int size = team1.size() + team2.size();
+        if (size > MAX_MEMBERS) {
+            throw new IllegalArgumentException("At most " + MAX_MEMBERS + " members");
+        }
+
+        this.id = UUID.randomUUID();
+        this.number = DuelSlot.nextSessionId();
+        this.members = new UUID[size];
+        this.slots = new DuelSlot[size];
+        this.teamMasks = new long[2];
+        int index = 0;
+        for (int team = 0; team < 2; team++) {
+            DuelSlot slot = new DuelSlot(number, team);
+            for (UUID memberId : team == 0 ? team1 : team2) {
+                members[index] = memberId;
+                slots[index] = slot;
+                teamMasks[team] |= 1L << index;
+                index++;
+            }
+        }
+        this.standing = new AtomicLong(teamMasks[0] | teamMasks[1]);
+        this.betAmount = betAmount;
+        this.betDisplay = Money.format(betAmount);
+        this.createdAt = Instant.now();
+        this.active = true;
+        this.started = false;
+    }
+
+    /**
+     * Get the session ID
+     * @return Session ID
+     */
+    public UUID getId() {
+        return id;
+    }
+
+    /**
+     * Get the compact session id
+     * @return Session id, unique while the server runs
+     */
+    public int getNumber() {
+        return number;
+    }
+
+    /**
+     * Get the slots of all members
+     * @return Slots by member, in member order
+     */
+    public Map<UUID, DuelSlot> getSlots() {
+        Map<UUID, DuelSlot> result = new LinkedHashMap<>();
+        for (int i = 0; i < members.length; i++) {
+            result.put(members[i], slots[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the slot of a member
+     * @param memberId UUID of the member
+     * @return Slot of the member, or null if not a member
+     */
+    public DuelSlot getSlot(UUID memberId) {
+        int index = indexOf(memberId);
+        return index >= 0 ? slots[index] : null;
+    }
+
+    /**
+     * Get all members
+     * @return Members of both teams
+     */
+    public List<UUID> getMembers() {
+        return List.of(members);
+    }
+
+    /**
+     * Get the members of a team
+     * @param team Team index, 0 or 1
+     * @return Members of the team
+     */
+    public List<UUID> getTeam(int team) {
+        List<UUID> result = new ArrayList<>();
+        for (int i = 0; i < members.length; i++) {
+            if ((teamMasks[team] & 1L << i) != 0) {
+                result.add(members[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the bet amount per member
+     * @return Bet amount in minor units
+     */
+    public long getBetAmount() {
+        return betAmount;
+    }
+
+    /**
+     * Get the bet amount formatted for display
+     * @return Formatted bet amount
+     */
+    public String getBetDisplay() {
+        return betDisplay;
+    }
+
+    /**
+     * Get the creation time
+     * @return Creation time
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Get the start time
+     * @return Start time
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Get the end time
+     * @return End time
+     */
+    public Instant getEndedAt() {
+        return endedAt;
+    }
+
+    /**
+     * Check if the session is active
+     * @return True if the session is active
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Check if the duel has started
+     * @return True if the duel has started
+     */
+    public boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * Start the duel; later calls have no effect
+     * @return True if this call started the duel
+     */
+    public synchronized boolean start() {
+        if (started) return false;
+
+        this.startedAt = Instant.now();
+        this.started = true;
+        return true;
+    }
+
+    /**
+     * End the duel
+     * @return True if this call ended the duel, false if it had already ended
+     */
+    public synchronized boolean end() {
+        if (!active) return false;
+
+        this.endedAt = Instant.now();
+        this.active = false;
+        return true;
+    }
+
+    /**
+     * Knock a member out of the duel
+     * @param memberId UUID of the member
+     * @return True if this call knocked the member out, false if they were already out or no member
+     */
+    public boolean knockOut(UUID memberId) {
+        int index = indexOf(memberId);
+        if (index < 0) return false;
+
+        long bit = 1L << index;
+        long current;
+        do {
+            current = standing.get();
+            if ((current & bit) == 0) return false;
+        } while (!standing.compareAndSet(current, current & ~bit));
+        return true;
+    }
+
+    /**
+     * Check if a member is still standing
+     * @param memberId UUID of the member
+     * @return True if the member is in the duel and not knocked out
+     */
+    public boolean isStanding(UUID memberId) {
+        int index = indexOf(memberId);
+        return index >= 0 && (standing.get() & 1L << index) != 0;
+    }
+
+    /**
+     * Get the number of members of a team still standing
+     * @param team Team index, 0 or 1
+     * @return Members standing
+     */
+    public int getStandingCount(int team) {
+        return Long.bitCount(standing.get() & teamMasks[team]);
+    }
+
+    /**
+     * Check if all members of a team are knocked out
+     * @param team Team index, 0 or 1
+     * @return True if the team is eliminated
+     */
+    public boolean isEliminated(int team) {
+        return (standing.get() & teamMasks[team]) == 0;
+    }
+
+    /**
+     * Get the team of a member
+     * @param memberId UUID of the member
+     * @return Team index, or -1 if not a member
+     */
+    public int getTeamOf(UUID memberId) {
+        int index = indexOf(memberId);
+        return index >= 0 ? slots[index].team() : -1;
+    }
+
+    /**
+     * Check if a player is a member of this duel
+     * @param playerId Player ID
+     * @return True if the player is a member
+     */
+    public boolean hasMember(UUID playerId) {
+        return indexOf(playerId) >= 0;
+    }
+
+    private int indexOf(UUID memberId) {
+        for (int i = 0; i < members.length; i++) {
+            if (members[i].equals(memberId)) return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TeamDuelSession that = (TeamDuelSession) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+}
@@ -0,0 +1,79 @@
+package de.dasjeff.duellSystem.network;
+
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Delivers batches between transports attached to the same {@link Hub} within one JVM, as a stand-in
+ * for the proxy in tests and local setups
+ */
+public class InMemoryTransport implements MessageTransport {
+
+    private final Hub hub;
+    private volatile Consumer<byte[]> receiver;
+
+    /**
+     * Constructor
+     * @param hub Hub connecting the servers
+     */
+    public InMemoryTransport(Hub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        hub.transports.add(this);
+    }
+
+    @Override
+    public boolean send(byte[] batch) {
+        for (InMemoryTransport transport : hub.transports) {
+            if (transport != this) {
+                transport.receiver.accept(batch.clone());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void connect(Player player, String server) {
+        hub.router.accept(player, server);
+    }
+
+    @Override
+    public void close() {
+        hub.transports.remove(this);
+    }
+
+    /**
+     * Connects in-memory transports; players moved between servers are handed to a router
+     */
+    public static class Hub {
+
+        private static final Hub SHARED = new Hub();
+
+        private final List<InMemoryTransport> transports = new CopyOnWriteArrayList<>();
+        private volatile BiConsumer<Player, String> router = (player, server) -> {};
+
+        /**
+         * Get the hub shared by all plugin instances in this JVM
+         * @return Shared hub
+         */
+        public static Hub shared() {
+            return SHARED;
+        }
+
+        /**
+         * Set the callback invoked when a player is moved to another server
+         * @param router Callback with the player and the name of the target server
+         */
+        public void setRouter(BiConsumer<Player, String> router) {
+            this.router = router;
+        }
+    }
+}
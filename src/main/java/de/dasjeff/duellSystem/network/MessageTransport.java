@@ -0,0 +1,34 @@
+package de.dasjeff.duellSystem.network;
+
+import org.bukkit.entity.Player;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded message batches between the servers of a network and moves players between them
+ */
+public interface MessageTransport {
+
+    /**
+     * Start receiving batches
+     * @param receiver Called with every batch sent by another server, on any thread
+     */
+    void start(Consumer<byte[]> receiver);
+
+    /**
+     * Send a batch to all other servers
+     * @param batch Encoded batch
+     * @return True if the batch was sent, false if it has to be retried later
+     */
+    boolean send(byte[] batch);
+
+    /**
+     * Move a player to another server
+     * @param player Player to move
+     * @param server Name of the target server
+     */
+    void connect(Player player, String server);
+
+    // Stop receiving batches and release the transport
+    void close();
+}
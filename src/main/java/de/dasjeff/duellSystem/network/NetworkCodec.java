@@ -0,0 +1,129 @@
+package de.dasjeff.duellSystem.network;
+
+import de.dasjeff.duellSystem.util.VarInt;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Binary encoding of message batches.
+ * <p>
+ * A batch is the format version, the number of messages as a varint and the messages. Each message
+ * is its type byte and request ID followed by the fields of its type; UUIDs are two longs, bets are longs
+ * in minor units and names modified UTF-8.
+ */
+public final class NetworkCodec {
+
+    public static final int VERSION = 2;
+
+    private NetworkCodec() {
+    }
+
+    /**
+     * Write a single message
+     * @param out Output to write to
+     * @param message Message to write
+     * @throws IOException If writing fails
+     */
+    public static void write(DataOutput out, NetworkMessage message) throws IOException {
+        out.writeByte(message.getType());
+        writeUuid(out, message.getRequestId());
+
+        switch (message.getType()) {
+            case NetworkMessage.REQUEST:
+                writeUuid(out, message.getSenderId());
+                out.writeUTF(message.getSenderName());
+                out.writeUTF(message.getTargetName());
+                out.writeLong(message.getBetAmount());
+                out.writeUTF(message.getServer());
+                break;
+            case NetworkMessage.ACCEPT:
+                writeUuid(out, message.getSenderId());
+                out.writeUTF(message.getSenderName());
+                writeUuid(out, message.getTargetId());
+                out.writeUTF(message.getTargetName());
+                out.writeLong(message.getBetAmount());
+                out.writeUTF(message.getServer());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Write the header of a batch
+     * @param out Output to write to
+     * @param count Number of messages that follow
+     * @throws IOException If writing fails
+     */
+    public static void writeHeader(DataOutput out, int count) throws IOException {
+        out.writeByte(VERSION);
+        VarInt.write(out, count);
+    }
+
+    /**
+     * Read all messages of a batch
+     * @param batch Encoded batch
+     * @return The messages in order
+     * @throws IOException If the batch is corrupt or of another version
+     */
+    public static List<NetworkMessage> readBatch(byte[] batch) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(batch));
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported batch version " + version);
+        }
+
+        int count = VarInt.read(in);
+        List<NetworkMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(read(in));
+        }
+        return messages;
+    }
+
+    private static NetworkMessage read(DataInput in) throws IOException {
+        byte type = in.readByte();
+        UUID requestId = readUuid(in);
+
+        switch (type) {
+            case NetworkMessage.REQUEST: {
+                UUID senderId = readUuid(in);
+                String senderName = in.readUTF();
+                String targetName = in.readUTF();
+                long betAmount = in.readLong();
+                String origin = in.readUTF();
+                return NetworkMessage.request(requestId, senderId, senderName, targetName, betAmount, origin);
+            }
+            case NetworkMessage.ACCEPT: {
+                UUID senderId = readUuid(in);
+                String senderName = in.readUTF();
+                UUID targetId = readUuid(in);
+                String targetName = in.readUTF();
+                long betAmount = in.readLong();
+                String duelServer = in.readUTF();
+                NetworkMessage request = NetworkMessage.request(requestId, senderId, senderName, targetName, betAmount, null);
+                return NetworkMessage.accept(request, targetId, duelServer);
+            }
+            case NetworkMessage.EXPIRE:
+                return NetworkMessage.expire(requestId);
+            default:
+                throw new IOException("Unknown message type " + type);
+        }
+    }
+
+    private static void writeUuid(DataOutput out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
@@ -0,0 +1,134 @@
+package de.dasjeff.duellSystem.network;
+
+import java.util.UUID;
+
+/**
+ * A duel request message exchanged between the servers of a network
+ */
+public final class NetworkMessage {
+
+    public static final byte REQUEST = 1;
+    public static final byte ACCEPT = 2;
+    public static final byte EXPIRE = 3;
+
+    private final byte type;
+    private final UUID requestId;
+    private final UUID senderId;
+    private final String senderName;
+    private final UUID targetId;
+    private final String targetName;
+    private final long betAmount;
+    private final String server;
+
+    private NetworkMessage(byte type, UUID requestId, UUID senderId, String senderName, UUID targetId,
+                           String targetName, long betAmount, String server) {
+        this.type = type;
+        this.requestId = requestId;
+        this.senderId = senderId;
+        this.senderName = senderName;
+        this.targetId = targetId;
+        this.targetName = targetName;
+        this.betAmount = betAmount;
+        this.server = server;
+    }
+
+    /**
+     * Create a request sent to a player on another server
+     * @param requestId ID of the request
+     * @param senderId UUID of the sender
+     * @param senderName Name of the sender
+     * @param targetName Name of the target, resolved by the server the target is on
+     * @param betAmount Bet amount in minor units
+     * @param originServer Server of the sender
+     * @return The message
+     */
+    public static NetworkMessage request(UUID requestId, UUID senderId, String senderName, String targetName,
+                                         long betAmount, String originServer) {
+        return new NetworkMessage(REQUEST, requestId, senderId, senderName, null, targetName, betAmount, originServer);
+    }
+
+    /**
+     * Create the acceptance of a request
+     * @param request The accepted request
+     * @param targetId UUID of the accepting player
+     * @param duelServer Server both players are sent to
+     * @return The message
+     */
+    public static NetworkMessage accept(NetworkMessage request, UUID targetId, String duelServer) {
+        return new NetworkMessage(ACCEPT, request.requestId, request.senderId, request.senderName, targetId,
+                request.targetName, request.betAmount, duelServer);
+    }
+
+    /**
+     * Create the expiry of a request
+     * @param requestId ID of the request
+     * @return The message
+     */
+    public static NetworkMessage expire(UUID requestId) {
+        return new NetworkMessage(EXPIRE, requestId, null, null, null, null, 0, null);
+    }
+
+    /**
+     * Get the message type
+     * @return {@link #REQUEST}, {@link #ACCEPT} or {@link #EXPIRE}
+     */
+    public byte getType() {
+        return type;
+    }
+
+    /**
+     * Get the request ID
+     * @return Request ID
+     */
+    public UUID getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Get the sender ID
+     * @return Sender ID
+     */
+    public UUID getSenderId() {
+        return senderId;
+    }
+
+    /**
+     * Get the sender name
+     * @return Sender name
+     */
+    public String getSenderName() {
+        return senderName;
+    }
+
+    /**
+     * Get the target ID
+     * @return Target ID, or null before the request was accepted
+     */
+    public UUID getTargetId() {
+        return targetId;
+    }
+
+    /**
+     * Get the target name
+     * @return Target name
+     */
+    public String getTargetName() {
+        return targetName;
+    }
+
+    /**
+     * Get the bet amount
+     * @return Bet amount in minor units
+     */
+    public long getBetAmount() {
+        return betAmount;
+    }
+
+    /**
+     * Get the server of the message: the origin of a request or the duel server of an acceptance
+     * @return Server name
+     */
+    public String getServer() {
+        return server;
+    }
+}
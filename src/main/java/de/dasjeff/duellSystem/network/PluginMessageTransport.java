@@ -0,0 +1,107 @@
+package de.dasjeff.duellSystem.network;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Sends batches through the BungeeCord plugin messaging channel of the proxy (BungeeCord and Velocity).
+ * <p>
+ * Plugin messages travel over a player connection, so batches can only be sent while at least one
+ * player is online; otherwise {@link #send} reports failure and the batch is retried.
+ */
+public class PluginMessageTransport implements MessageTransport, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+    private static final String SUBCHANNEL = "DuellSystem";
+
+    private final DuellSystem plugin;
+    private Consumer<byte[]> receiver;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public PluginMessageTransport(DuellSystem plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void start(Consumer<byte[]> receiver) {
+        this.receiver = receiver;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public boolean send(byte[] batch) {
+        Iterator<? extends Player> players = Bukkit.getOnlinePlayers().iterator();
+        if (!players.hasNext()) return false;
+
+        // The length is written as a short; a larger batch would be corrupted
+        if (batch.length > Short.MAX_VALUE) {
+            plugin.getLogger().warning("Dropped a network batch of " + batch.length + " bytes");
+            return true;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.length + 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Forward");
+            out.writeUTF("ALL");
+            out.writeUTF(SUBCHANNEL);
+            out.writeShort(batch.length);
+            out.write(batch);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not encode plugin message", e);
+            return true;
+        }
+
+        players.next().sendPluginMessage(plugin, CHANNEL, bytes.toByteArray());
+        return true;
+    }
+
+    @Override
+    public void connect(Player player, String server) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF("Connect");
+            out.writeUTF(server);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not encode plugin message", e);
+            return;
+        }
+        player.sendPluginMessage(plugin, CHANNEL, bytes.toByteArray());
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!CHANNEL.equals(channel)) return;
+
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+            if (!SUBCHANNEL.equals(in.readUTF())) return;
+
+            byte[] batch = new byte[in.readUnsignedShort()];
+            in.readFully(batch);
+            receiver.accept(batch);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Received a malformed plugin message", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin);
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin);
+    }
+}
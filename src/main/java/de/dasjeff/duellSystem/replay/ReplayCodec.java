@@ -0,0 +1,97 @@
+package de.dasjeff.duellSystem.replay;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads and writes replay files.
+ * <p>
+ * A replay file starts with {@link #MAGIC} and {@link #VERSION}. The rest is deflate-compressed: replay id,
+ * session id, start time, world name and then, for each player, the name followed by the frames as written
+ * by {@link ReplayTrack#writeFrames(java.io.DataOutput)}.
+ */
+public final class ReplayCodec {
+
+    public static final int MAGIC = 0x4452504C;
+    public static final int VERSION = 1;
+
+    private static final int MAX_FRAMES = 20 * 60 * 60;
+
+    private ReplayCodec() {
+    }
+
+    /**
+     * Write a recording; the file is replaced only once it is complete
+     * @param recording Recording to write
+     * @param file Target file
+     * @throws IOException If writing fails
+     */
+    public static void write(ReplayRecording recording, File file) throws IOException {
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+
+            DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater);
+            DataOutputStream body = new DataOutputStream(compressed);
+            body.writeInt(recording.getId());
+            body.writeLong(recording.getSessionId().getMostSignificantBits());
+            body.writeLong(recording.getSessionId().getLeastSignificantBits());
+            body.writeLong(recording.getStartedAt());
+            body.writeUTF(recording.getWorldName());
+            writeTrack(body, recording.getTrack1());
+            writeTrack(body, recording.getTrack2());
+            body.flush();
+            compressed.finish();
+        } finally {
+            deflater.end();
+        }
+
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Read a recording
+     * @param file Replay file
+     * @return The recording
+     * @throws IOException If reading fails or the file is not a replay
+     */
+    public static ReplayRecording read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a replay file: " + file.getName());
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported replay version " + version);
+            }
+
+            DataInputStream body = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in)));
+            int id = body.readInt();
+            UUID sessionId = new UUID(body.readLong(), body.readLong());
+            long startedAt = body.readLong();
+            String worldName = body.readUTF();
+            ReplayTrack track1 = ReplayTrack.readFrames(body, body.readUTF(), MAX_FRAMES);
+            ReplayTrack track2 = ReplayTrack.readFrames(body, body.readUTF(), MAX_FRAMES);
+            return new ReplayRecording(id, sessionId, startedAt, worldName, track1, track2);
+        }
+    }
+
+    private static void writeTrack(DataOutputStream out, ReplayTrack track) throws IOException {
+        out.writeUTF(track.getName());
+        track.writeFrames(out);
+    }
+}
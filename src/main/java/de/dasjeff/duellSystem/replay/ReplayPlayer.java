@@ -0,0 +1,140 @@
+package de.dasjeff.duellSystem.replay;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.scheduler.TaskHandle;
+import org.bukkit.Color;
+import org.bukkit.Particle;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Plays a recording back to a single viewer with client-side particles.
+ * <p>
+ * Each player is drawn as a coloured column with a marker in the looking direction; swings and hits show
+ * as sweep and crit particles. Nothing is spawned for other players and no entities are created.
+ */
+public class ReplayPlayer implements Runnable {
+
+    private static final Particle.DustOptions DUST_PLAYER1 = new Particle.DustOptions(Color.RED, 1.0f);
+    private static final Particle.DustOptions DUST_PLAYER2 = new Particle.DustOptions(Color.AQUA, 1.0f);
+    private static final Particle.DustOptions DUST_LOOK = new Particle.DustOptions(Color.ORANGE, 0.7f);
+    private static final double EYE_HEIGHT = 1.62;
+    private static final int ACTION_BAR_INTERVAL = 5;
+
+    private final DuellSystem plugin;
+    private final Player viewer;
+    private final ReplayRecording recording;
+    private final int frameCount;
+    private final Consumer<ReplayPlayer> onFinish;
+    private TaskHandle task;
+    private int frame;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     * @param viewer Player watching the replay
+     * @param recording Recording to play
+     * @param onFinish Called once when the playback ends on its own
+     */
+    public ReplayPlayer(DuellSystem plugin, Player viewer, ReplayRecording recording, Consumer<ReplayPlayer> onFinish) {
+        this.plugin = plugin;
+        this.viewer = viewer;
+        this.recording = recording;
+        this.frameCount = recording.getFrameCount();
+        this.onFinish = onFinish;
+    }
+
+    // Start playing, one frame per tick
+    public void start() {
+        this.task = plugin.getTaskScheduler().runForEntityTimer(viewer, this, 1L, 1L);
+    }
+
+    // Stop playing
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Get the recording being played
+     * @return The recording
+     */
+    public ReplayRecording getRecording() {
+        return recording;
+    }
+
+    @Override
+    public void run() {
+        if (!viewer.isOnline() || frame >= frameCount) {
+            stop();
+            onFinish.accept(this);
+            return;
+        }
+
+        ReplayTrack track1 = recording.getTrack1();
+        ReplayTrack track2 = recording.getTrack2();
+        draw(track1, DUST_PLAYER1);
+        draw(track2, DUST_PLAYER2);
+
+        if (frame % ACTION_BAR_INTERVAL == 0) {
+            Map<String, String> placeholders = plugin.getMessageManager().createPlaceholderMap();
+            placeholders.put("player1", track1.getName());
+            placeholders.put("health1", formatHealth(track1));
+            placeholders.put("player2", track2.getName());
+            placeholders.put("health2", formatHealth(track2));
+            placeholders.put("second", String.valueOf(frame / 20));
+            placeholders.put("length", String.valueOf(frameCount / 20));
+            viewer.sendActionBar(plugin.getMessageManager().getText("replay.action-bar", placeholders));
+        }
+
+        frame++;
+    }
+
+    /**
+     * Draw one player at the current frame; tracks shorter than the replay hold their last frame
+     * @param track Track of the player
+     * @param dust Colour of the player
+     */
+    private void draw(ReplayTrack track, Particle.DustOptions dust) {
+        int count = track.getFrameCount();
+        if (count == 0) return;
+
+        int i = Math.min(frame, count - 1);
+        double x = track.getX(i);
+        double y = track.getY(i);
+        double z = track.getZ(i);
+        for (double height = 0.2; height < 1.9; height += 0.4) {
+            viewer.spawnParticle(Particle.DUST, x, y + height, z, 1, dust);
+        }
+
+        double yaw = Math.toRadians(track.getYaw(i));
+        double pitch = Math.toRadians(track.getPitch(i));
+        double lookX = -Math.sin(yaw) * Math.cos(pitch);
+        double lookY = -Math.sin(pitch);
+        double lookZ = Math.cos(yaw) * Math.cos(pitch);
+        viewer.spawnParticle(Particle.DUST, x + lookX * 0.5, y + EYE_HEIGHT + lookY * 0.5, z + lookZ * 0.5, 1, DUST_LOOK);
+
+        if (i != frame) return;
+        int flags = track.getFlags(i);
+        if ((flags & ReplayTrack.SWING) != 0) {
+            viewer.spawnParticle(Particle.SWEEP_ATTACK, x + lookX, y + EYE_HEIGHT - 0.3 + lookY, z + lookZ, 1);
+        }
+        if ((flags & ReplayTrack.HIT_TAKEN) != 0) {
+            viewer.spawnParticle(Particle.CRIT, x, y + 1.0, z, 12, 0.3, 0.5, 0.3, 0.1);
+        }
+    }
+
+    /**
+     * Format the health of a player at the current frame
+     * @param track Track of the player
+     * @return Health with one decimal
+     */
+    private String formatHealth(ReplayTrack track) {
+        int count = track.getFrameCount();
+        if (count == 0) return "-";
+        return String.format("%.1f", track.getHealth(Math.min(frame, count - 1)));
+    }
+}
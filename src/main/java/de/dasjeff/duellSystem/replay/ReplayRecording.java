@@ -0,0 +1,90 @@
+package de.dasjeff.duellSystem.replay;
+
+import java.util.UUID;
+
+/**
+ * Recorded duel: metadata and the frames of both participants
+ */
+public class ReplayRecording {
+
+    private final int id;
+    private final UUID sessionId;
+    private final long startedAt;
+    private final String worldName;
+    private final ReplayTrack track1;
+    private final ReplayTrack track2;
+
+    /**
+     * Constructor
+     * @param id Replay ID
+     * @param sessionId ID of the recorded duel session
+     * @param startedAt Start of the recording in epoch milliseconds
+     * @param worldName World the duel was fought in
+     * @param track1 Frames of the first player
+     * @param track2 Frames of the second player
+     */
+    public ReplayRecording(int id, UUID sessionId, long startedAt, String worldName, ReplayTrack track1, ReplayTrack track2) {
+        this.id = id;
+        this.sessionId = sessionId;
+        this.startedAt = startedAt;
+        this.worldName = worldName;
+        this.track1 = track1;
+        this.track2 = track2;
+    }
+
+    /**
+     * Get the replay ID
+     * @return Replay ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Get the ID of the recorded duel session
+     * @return Session ID
+     */
+    public UUID getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Get the start of the recording
+     * @return Start in epoch milliseconds
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Get the world the duel was fought in
+     * @return World name
+     */
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Get the frames of the first player
+     * @return First track
+     */
+    public ReplayTrack getTrack1() {
+        return track1;
+    }
+
+    /**
+     * Get the frames of the second player
+     * @return Second track
+     */
+    public ReplayTrack getTrack2() {
+        return track2;
+    }
+
+    /**
+     * Get the length of the replay
+     * @return Number of frames of the longer track
+     */
+    public int getFrameCount() {
+        return Math.max(track1.getFrameCount(), track2.getFrameCount());
+    }
+}
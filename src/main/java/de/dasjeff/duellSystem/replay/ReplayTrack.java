@@ -0,0 +1,261 @@
+package de.dasjeff.duellSystem.replay;
+
+import de.dasjeff.duellSystem.util.VarInt;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Frames of one duel participant in a ring buffer of primitive arrays.
+ * <p>
+ * All arrays are allocated up front, so {@link #sample(Player)} does not allocate. Once the buffer is
+ * full the oldest frames are overwritten and the replay keeps the end of the duel. Positions are
+ * stored in 1/32 block, rotations in 1/256 turn and health in tenths of a heart point.
+ */
+public final class ReplayTrack {
+
+    public static final int SWING = 1;
+    public static final int HIT_DEALT = 2;
+    public static final int HIT_TAKEN = 4;
+
+    private final UUID playerId;
+    private final String name;
+    private final int capacity;
+    private final int[] x;
+    private final int[] y;
+    private final int[] z;
+    private final byte[] yaw;
+    private final byte[] pitch;
+    private final short[] health;
+    private final byte[] flags;
+    private final AtomicInteger pendingFlags;
+    private final Location scratch;
+    private int head;
+    private int count;
+
+    /**
+     * Constructor
+     * @param playerId UUID of the player
+     * @param name Name of the player
+     * @param capacity Maximum number of frames
+     */
+    public ReplayTrack(UUID playerId, String name, int capacity) {
+        this.playerId = playerId;
+        this.name = name;
+        this.capacity = Math.max(1, capacity);
+        this.x = new int[this.capacity];
+        this.y = new int[this.capacity];
+        this.z = new int[this.capacity];
+        this.yaw = new byte[this.capacity];
+        this.pitch = new byte[this.capacity];
+        this.health = new short[this.capacity];
+        this.flags = new byte[this.capacity];
+        this.pendingFlags = new AtomicInteger();
+        this.scratch = new Location(null, 0, 0, 0);
+    }
+
+    /**
+     * Get the player ID
+     * @return Player ID, or null for a track read from a file
+     */
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * Get the player name
+     * @return Player name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the number of recorded frames
+     * @return Number of frames
+     */
+    public synchronized int getFrameCount() {
+        return count;
+    }
+
+    /**
+     * Mark an action to be stored with the next frame; may be called from any thread
+     * @param flag {@link #SWING}, {@link #HIT_DEALT} or {@link #HIT_TAKEN}
+     */
+    public void mark(int flag) {
+        int current;
+        do {
+            current = pendingFlags.get();
+        } while (!pendingFlags.compareAndSet(current, current | flag));
+    }
+
+    /**
+     * Record the current state of the player as the next frame; runs on the thread owning the player
+     * @param player The player of this track
+     */
+    public void sample(Player player) {
+        Location location = player.getLocation(scratch);
+        append((int) Math.floor(location.getX() * 32.0), (int) Math.floor(location.getY() * 32.0),
+                (int) Math.floor(location.getZ() * 32.0), (byte) (int) (location.getYaw() * 256.0f / 360.0f),
+                (byte) (int) (location.getPitch() * 256.0f / 360.0f), (short) Math.round(player.getHealth() * 10.0),
+                (byte) pendingFlags.getAndSet(0));
+    }
+
+    // Store a frame, overwriting the oldest one if the buffer is full
+    private synchronized void append(int frameX, int frameY, int frameZ, byte frameYaw, byte framePitch,
+                                     short frameHealth, byte frameFlags) {
+        int i = head;
+        x[i] = frameX;
+        y[i] = frameY;
+        z[i] = frameZ;
+        yaw[i] = frameYaw;
+        pitch[i] = framePitch;
+        health[i] = frameHealth;
+        flags[i] = frameFlags;
+
+        head = i + 1 == capacity ? 0 : i + 1;
+        if (count < capacity) count++;
+    }
+
+    /**
+     * Get the X coordinate of a frame
+     * @param frame Frame number, 0 is the oldest frame
+     * @return X coordinate in blocks
+     */
+    public double getX(int frame) {
+        return x[index(frame)] / 32.0;
+    }
+
+    /**
+     * Get the Y coordinate of a frame
+     * @param frame Frame number, 0 is the oldest frame
+     * @return Y coordinate in blocks
+     */
+    public double getY(int frame) {
+        return y[index(frame)] / 32.0;
+    }
+
+    /**
+     * Get the Z coordinate of a frame
+     * @param frame Frame number, 0 is the oldest frame
+     * @return Z coordinate in blocks
+     */
+    public double getZ(int frame) {
+        return z[index(frame)] / 32.0;
+    }
+
+    /**
+     * Get the yaw of a frame
+     * @param frame Frame number, 0 is the oldest frame
+     * @return Yaw in degrees
+     */
+    public float getYaw(int frame) {
+        return yaw[index(frame)] * 360.0f / 256.0f;
+    }
+
+    /**
+     * Get the pitch of a frame
+     * @param frame Frame number, 0 is the oldest frame
+     * @return Pitch in degrees
+     */
+    public float getPitch(int frame) {
+        return pitch[index(frame)] * 360.0f / 256.0f;
+    }
+
+    /**
+     * Get the health of a frame
+     * @param frame Frame number, 0 is the oldest frame
+     * @return Health points
+     */
+    public double getHealth(int frame) {
+        return health[index(frame)] / 10.0;
+    }
+
+    /**
+     * Get the action flags of a frame
+     * @param frame Frame number, 0 is the oldest frame
+     * @return Combination of {@link #SWING}, {@link #HIT_DEALT} and {@link #HIT_TAKEN}
+     */
+    public int getFlags(int frame) {
+        return flags[index(frame)];
+    }
+
+    /**
+     * Write the frames oldest first, each as the difference to the previous frame.
+     * <p>
+     * The ring keeps absolute values so the oldest frame can be overwritten at any time; the deltas are
+     * only computed here, once the recording has ended.
+     * @param out Output to write to
+     * @throws IOException If writing fails
+     */
+    public synchronized void writeFrames(DataOutput out) throws IOException {
+        VarInt.write(out, count);
+        int lastX = 0;
+        int lastY = 0;
+        int lastZ = 0;
+        byte lastYaw = 0;
+        byte lastPitch = 0;
+        int lastHealth = 0;
+        for (int frame = 0; frame < count; frame++) {
+            int i = index(frame);
+            VarInt.writeSigned(out, x[i] - lastX);
+            VarInt.writeSigned(out, y[i] - lastY);
+            VarInt.writeSigned(out, z[i] - lastZ);
+            out.writeByte((byte) (yaw[i] - lastYaw));
+            out.writeByte((byte) (pitch[i] - lastPitch));
+            VarInt.writeSigned(out, health[i] - lastHealth);
+            out.writeByte(flags[i]);
+
+            lastX = x[i];
+            lastY = y[i];
+            lastZ = z[i];
+            lastYaw = yaw[i];
+            lastPitch = pitch[i];
+            lastHealth = health[i];
+        }
+    }
+
+    /**
+     * Read frames written by {@link #writeFrames(DataOutput)}
+     * @param in Input to read from
+     * @param name Name of the player
+     * @param maxFrames Upper bound for the frame count, to reject corrupt files
+     * @return Track holding exactly the frames read
+     * @throws IOException If reading fails or the file is corrupt
+     */
+    public static ReplayTrack readFrames(DataInput in, String name, int maxFrames) throws IOException {
+        int frames = VarInt.read(in);
+        if (frames < 0 || frames > maxFrames) {
+            throw new IOException("Invalid frame count " + frames);
+        }
+
+        ReplayTrack track = new ReplayTrack(null, name, frames);
+        int lastX = 0;
+        int lastY = 0;
+        int lastZ = 0;
+        byte lastYaw = 0;
+        byte lastPitch = 0;
+        int lastHealth = 0;
+        for (int frame = 0; frame < frames; frame++) {
+            lastX += VarInt.readSigned(in);
+            lastY += VarInt.readSigned(in);
+            lastZ += VarInt.readSigned(in);
+            lastYaw += in.readByte();
+            lastPitch += in.readByte();
+            lastHealth += VarInt.readSigned(in);
+            track.append(lastX, lastY, lastZ, lastYaw, lastPitch, (short) lastHealth, in.readByte());
+        }
+        return track;
+    }
+
+    // Array index of a frame counted from the oldest one
+    private int index(int frame) {
+        int i = head - count + frame;
+        return i < 0 ? i + capacity : i;
+    }
+}
@@ -0,0 +1,65 @@
+package de.dasjeff.duellSystem.scheduler;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Runs all tasks through the Bukkit scheduler on the main thread
+ */
+public class BukkitTaskScheduler implements TaskScheduler {
+
+    private final DuellSystem plugin;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public BukkitTaskScheduler(DuellSystem plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void executeGlobal(Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, task);
+        }
+    }
+
+    @Override
+    public TaskHandle runGlobalLater(Runnable task, long delay) {
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delay));
+    }
+
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delay, long period) {
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delay, period));
+    }
+
+    @Override
+    public TaskHandle runAsyncTimer(Runnable task, long delay, long period) {
+        return wrap(Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delay, period));
+    }
+
+    @Override
+    public TaskHandle runForEntityLater(Entity entity, Runnable task, long delay) {
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delay));
+    }
+
+    @Override
+    public TaskHandle runForEntityTimer(Entity entity, Runnable task, long delay, long period) {
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delay, period));
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    private static TaskHandle wrap(BukkitTask task) {
+        return task::cancel;
+    }
+}
@@ -0,0 +1,75 @@
+package de.dasjeff.duellSystem.scheduler;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on the global region, entity and async schedulers of Folia
+ */
+public class FoliaTaskScheduler implements TaskScheduler {
+
+    private static final TaskHandle NOT_SCHEDULED = () -> {};
+
+    private final DuellSystem plugin;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public FoliaTaskScheduler(DuellSystem plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void executeGlobal(Runnable task) {
+        if (Bukkit.isGlobalTickThread()) {
+            task.run();
+        } else {
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        }
+    }
+
+    @Override
+    public TaskHandle runGlobalLater(Runnable task, long delay) {
+        // Folia rejects delays below one tick
+        return wrap(Bukkit.getGlobalRegionScheduler().runDelayed(plugin, scheduled -> task.run(), Math.max(1L, delay)));
+    }
+
+    @Override
+    public TaskHandle runGlobalTimer(Runnable task, long delay, long period) {
+        return wrap(Bukkit.getGlobalRegionScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+                Math.max(1L, delay), period));
+    }
+
+    @Override
+    public TaskHandle runAsyncTimer(Runnable task, long delay, long period) {
+        return wrap(Bukkit.getAsyncScheduler().runAtFixedRate(plugin, scheduled -> task.run(),
+                Math.max(1L, delay) * 50L, period * 50L, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public TaskHandle runForEntityLater(Entity entity, Runnable task, long delay) {
+        ScheduledTask scheduled = entity.getScheduler().runDelayed(plugin, t -> task.run(), null, Math.max(1L, delay));
+        return scheduled != null ? wrap(scheduled) : NOT_SCHEDULED;
+    }
+
+    @Override
+    public TaskHandle runForEntityTimer(Entity entity, Runnable task, long delay, long period) {
+        ScheduledTask scheduled = entity.getScheduler().runAtFixedRate(plugin, t -> task.run(), null, 
+                Math.max(1L, delay), period);
+        return scheduled != null ? wrap(scheduled) : NOT_SCHEDULED;
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
+    private static TaskHandle wrap(ScheduledTask task) {
+        return task::cancel;
+    }
+}
@@ -0,0 +1,10 @@
+package de.dasjeff.duellSystem.scheduler;
+
+/**
+ * Handle of a task scheduled through a {@link TaskScheduler}
+ */
+public interface TaskHandle {
+
+    // Cancel the task if it has not run yet
+    void cancel();
+}
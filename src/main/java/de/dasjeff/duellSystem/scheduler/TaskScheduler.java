@@ -0,0 +1,86 @@
+package de.dasjeff.duellSystem.scheduler;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import org.bukkit.entity.Entity;
+
+/**
+ * Schedules plugin tasks independently of the server's threading model.
+ * <p>
+ * On Paper every method runs on the main thread through the Bukkit scheduler. On Folia global
+ * tasks run on the global region thread, entity tasks on the thread owning the entity's region
+ * and async tasks on the async scheduler. Delays and periods are given in ticks.
+ */
+public interface TaskScheduler {
+
+    /**
+     * Create the scheduler matching the running server
+     * @param plugin Plugin instance
+     * @return Folia scheduler if the server is regionized, Bukkit scheduler otherwise
+     */
+    static TaskScheduler create(DuellSystem plugin) {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return new FoliaTaskScheduler(plugin);
+        } catch (ClassNotFoundException e) {
+            return new BukkitTaskScheduler(plugin);
+        }
+    }
+
+    /**
+     * Run a task on the global thread, immediately if the caller already is on it
+     * @param task Task to run
+     */
+    void executeGlobal(Runnable task);
+
+    /**
+     * Run a task on the global thread after a delay
+     * @param task Task to run
+     * @param delay Delay in ticks
+     * @return Handle of the task
+     */
+    TaskHandle runGlobalLater(Runnable task, long delay);
+
+    /**
+     * Run a task on the global thread repeatedly
+     * @param task Task to run
+     * @param delay Delay before the first run in ticks
+     * @param period Period in ticks
+     * @return Handle of the task
+     */
+    TaskHandle runGlobalTimer(Runnable task, long delay, long period);
+
+    /**
+     * Run a task off the server threads repeatedly
+     * @param task Task to run
+     * @param delay Delay before the first run in ticks
+     * @param period Period in ticks
+     * @return Handle of the task
+     */
+    TaskHandle runAsyncTimer(Runnable task, long delay, long period);
+
+    /**
+     * Run a task on the thread owning an entity after a delay; the task is dropped if the entity
+     * is removed first
+     * @param entity Entity the task belongs to
+     * @param task Task to run
+     * @param delay Delay in ticks
+     * @return Handle of the task
+     */
+    TaskHandle runForEntityLater(Entity entity, Runnable task, long delay);
+
+    /**
+     * Run a task on the thread owning an entity repeatedly; the task stops when the entity is removed
+     * @param entity Entity the task belongs to
+     * @param task Task to run
+     * @param delay Delay before the first run in ticks
+     * @param period Period in ticks
+     * @return Handle of the task
+     */
+    TaskHandle runForEntityTimer(Entity entity, Runnable task, long delay, long period);
+
+    /**
+     * Check if this is a regionized server
+     * @return True on Folia
+     */
+    boolean isRegionized();
+}
@@ -0,0 +1,232 @@
+package de.dasjeff.duellSystem.spectator;
+
+import de.dasjeff.duellSystem.model.DuellSession;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parimutuel pot of the spectator side bets on one duel.
+ * <p>
+ * Pledges may come from many players at once, so they only add to a {@link LongAdder} per fighter and a
+ * lock-free queue. The queue is drained on the global thread, which takes the money and keeps the stakes
+ * that were actually paid; payouts are computed from those stakes only. Winners get their stake back plus
+ * a share of the losing side proportional to their stake, rounded down; the minor units left over by
+ * rounding go to the largest winning stakes first.
+ */
+public class SideBetPool {
+
+    private final DuellSession session;
+    private final LongAdder[] pledged;
+    private final Map<UUID, Integer> sides;
+    private final Queue<Pledge> pending;
+    private final AtomicBoolean settled;
+    private volatile boolean closed;
+    private volatile UUID winnerId;
+
+    // Only accessed from the global thread
+    private final List<Map<UUID, Long>> stakes;
+
+    /**
+     * Constructor
+     * @param session Duel session the bets are on
+     */
+    public SideBetPool(DuellSession session) {
+        this.session = session;
+        this.pledged = new LongAdder[] {new LongAdder(), new LongAdder()};
+        this.sides = new ConcurrentHashMap<>();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.settled = new AtomicBoolean();
+        this.stakes = List.of(new LinkedHashMap<>(), new LinkedHashMap<>());
+    }
+
+    /**
+     * Get the duel session the bets are on
+     * @return Duel session
+     */
+    public DuellSession getSession() {
+        return session;
+    }
+
+    /**
+     * Get the side of a fighter
+     * @param fighterId UUID of the fighter
+     * @return 0 for the first player, 1 for the second
+     */
+    public int sideOf(UUID fighterId) {
+        return fighterId.equals(session.getPlayer1Id()) ? 0 : 1;
+    }
+
+    /**
+     * Get the fighter of a side
+     * @param side 0 for the first player, 1 for the second
+     * @return UUID of the fighter
+     */
+    public UUID fighterOf(int side) {
+        return side == 0 ? session.getPlayer1Id() : session.getPlayer2Id();
+    }
+
+    /**
+     * Pledge money on a fighter; the money is taken later on the global thread
+     * @param playerId UUID of the spectator
+     * @param side Side to bet on
+     * @param amount Amount in minor units
+     * @return False if the spectator already bet on the other side
+     */
+    public boolean pledge(UUID playerId, int side, long amount) {
+        Integer previous = sides.putIfAbsent(playerId, side);
+        if (previous != null && previous != side) return false;
+
+        pledged[side].add(amount);
+        pending.add(new Pledge(playerId, side, amount));
+        return true;
+    }
+
+    /**
+     * Get the pledged amount of both sides, including pledges not yet paid
+     * @return Pot in minor units
+     */
+    public long getPot() {
+        return pledged[0].sum() + pledged[1].sum();
+    }
+
+    /**
+     * Take the next pledge whose money was not taken yet
+     * @return Pledge, or null if there is none
+     */
+    public Pledge pollPending() {
+        return pending.poll();
+    }
+
+    /**
+     * Keep the stake of a pledge whose money was taken; global thread only
+     * @param pledge The paid pledge
+     */
+    public void confirm(Pledge pledge) {
+        stakes.get(pledge.side()).merge(pledge.playerId(), pledge.amount(), Long::sum);
+    }
+
+    /**
+     * Drop a pledge whose money could not be taken
+     * @param pledge The unpaid pledge
+     */
+    public void reject(Pledge pledge) {
+        pledged[pledge.side()].add(-pledge.amount());
+    }
+
+    /**
+     * Get the paid stakes of a side; global thread only
+     * @param side 0 for the first player, 1 for the second
+     * @return Stakes by spectator in minor units
+     */
+    public Map<UUID, Long> getStakes(int side) {
+        return stakes.get(side);
+    }
+
+    /**
+     * Stop taking pledges
+     * @param winner UUID of the winning fighter, or null to refund all stakes
+     */
+    public void close(UUID winner) {
+        this.winnerId = winner;
+        this.closed = true;
+    }
+
+    /**
+     * Check if the pool takes no more pledges
+     * @return True if the duel is over
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Get the winning fighter
+     * @return UUID of the winner, or null if the stakes are refunded
+     */
+    public UUID getWinnerId() {
+        return winnerId;
+    }
+
+    /**
+     * Claim the settlement, so the pool is paid out exactly once
+     * @return True if the caller settles the pool
+     */
+    public boolean claimSettlement() {
+        return settled.compareAndSet(false, true);
+    }
+
+    /**
+     * Compute what each winning spectator receives; global thread only
+     * @param winningSide Side of the winner
+     * @return Payouts by spectator in minor units, empty if the stakes must be refunded
+     */
+    public Map<UUID, Long> computePayouts(int winningSide) {
+        Map<UUID, Long> winners = stakes.get(winningSide);
+        long winningTotal = sum(winners);
+        long losingTotal = sum(stakes.get(1 - winningSide));
+        Map<UUID, Long> payouts = new LinkedHashMap<>();
+        if (winningTotal == 0 || losingTotal == 0) return payouts;
+
+        long distributed = 0;
+        for (Map.Entry<UUID, Long> entry : winners.entrySet()) {
+            long share = share(entry.getValue(), losingTotal, winningTotal);
+            payouts.put(entry.getKey(), entry.getValue() + share);
+            distributed += share;
+        }
+
+        // Give the rounding remainder to the largest stakes, one minor unit each
+        long remainder = losingTotal - distributed;
+        if (remainder > 0) {
+            List<Map.Entry<UUID, Long>> largest = new ArrayList<>(winners.entrySet());
+            largest.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+            for (int i = 0; remainder > 0; i = (i + 1) % largest.size(), remainder--) {
+                payouts.merge(largest.get(i).getKey(), 1L, Long::sum);
+            }
+        }
+        return payouts;
+    }
+
+    /**
+     * Compute stake * losingTotal / winningTotal rounded down without overflowing
+     * @param stake Stake of a winner
+     * @param losingTotal Stakes of the losing side
+     * @param winningTotal Stakes of the winning side, at least the stake
+     * @return Share of the losing side; at most losingTotal since the stake is part of winningTotal
+     */
+    private static long share(long stake, long losingTotal, long winningTotal) {
+        // Repeat pledges have no total cap per spectator, so the product may not fit into a long
+        long product = stake * losingTotal;
+        if (Math.multiplyHigh(stake, losingTotal) == 0 && product >= 0) {
+            return product / winningTotal;
+        }
+        return BigInteger.valueOf(stake).multiply(BigInteger.valueOf(losingTotal))
+                .divide(BigInteger.valueOf(winningTotal)).longValue();
+    }
+
+    private static long sum(Map<UUID, Long> stakes) {
+        long total = 0;
+        for (long stake : stakes.values()) {
+            total += stake;
+        }
+        return total;
+    }
+
+    /**
+     * A pledge of a spectator
+     * @param playerId UUID of the spectator
+     * @param side 0 for the first player, 1 for the second
+     * @param amount Amount in minor units
+     */
+    public record Pledge(UUID playerId, int side, long amount) {
+    }
+}
@@ -0,0 +1,133 @@
+package de.dasjeff.duellSystem.spectator;
+
+import de.dasjeff.duellSystem.model.DuellSession;
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.audience.ForwardingAudience;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The spectators of one duel as a single Adventure {@link Audience}.
+ * <p>
+ * Messages and titles for the spectators are rendered once and queued. {@link #flush()} sends everything
+ * queued since the last flush as one chat message and only the latest title, so a duel event costs the
+ * same no matter how many players watch.
+ */
+public class SpectatorAudience implements ForwardingAudience {
+
+    private final DuellSession session;
+    private final List<Player> spectators;
+    private final Queue<Component> messages;
+    private final AtomicReference<Title> title;
+    private volatile boolean closed;
+
+    /**
+     * Constructor
+     * @param session Duel session that is watched
+     */
+    public SpectatorAudience(DuellSession session) {
+        this.session = session;
+        this.spectators = new CopyOnWriteArrayList<>();
+        this.messages = new ConcurrentLinkedQueue<>();
+        this.title = new AtomicReference<>();
+    }
+
+    /**
+     * Get the duel session that is watched
+     * @return Duel session
+     */
+    public DuellSession getSession() {
+        return session;
+    }
+
+    @Override
+    public Iterable<? extends Audience> audiences() {
+        return spectators;
+    }
+
+    /**
+     * Get the spectators
+     * @return Read-only view of the spectators
+     */
+    public List<Player> getSpectators() {
+        return spectators;
+    }
+
+    /**
+     * Get the number of spectators
+     * @return Number of spectators
+     */
+    public int getSize() {
+        return spectators.size();
+    }
+
+    /**
+     * Add a spectator
+     * @param player The spectator
+     */
+    public void add(Player player) {
+        spectators.add(player);
+    }
+
+    /**
+     * Remove a spectator
+     * @param player The spectator
+     */
+    public void remove(Player player) {
+        spectators.remove(player);
+    }
+
+    /**
+     * Queue a message for the next flush
+     * @param message Rendered message
+     */
+    public void queueMessage(Component message) {
+        messages.add(message);
+    }
+
+    /**
+     * Queue a title for the next flush, replacing a title that was not sent yet
+     * @param next Title to show
+     */
+    public void queueTitle(Title next) {
+        title.set(next);
+    }
+
+    // Send the queued messages and title to all spectators
+    public void flush() {
+        Title pendingTitle = title.getAndSet(null);
+        Component batch = null;
+        Component message;
+        while ((message = messages.poll()) != null) {
+            batch = batch == null ? message : batch.append(Component.newline()).append(message);
+        }
+        if (spectators.isEmpty()) return;
+
+        if (batch != null) {
+            sendMessage(batch);
+        }
+        if (pendingTitle != null) {
+            showTitle(pendingTitle);
+        }
+    }
+
+    // Mark the duel as over; the spectators are sent back after the next flush
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Check if the duel is over
+     * @return True if the audience was closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,32 @@
+package de.dasjeff.duellSystem.trace;
+
+/**
+ * Binary layout of event trace files.
+ * <p>
+ * A trace starts with {@link #MAGIC} and {@link #VERSION} followed by events. Each event is a type byte,
+ * the milliseconds since the previous event as a {@link de.dasjeff.duellSystem.util.VarInt} and its payload. Players are written as
+ * varint ids assigned in order of first appearance, so traces contain no UUIDs or names.
+ * <ul>
+ *     <li>{@link #REQUEST}: sender, target, bet in minor units (long)</li>
+ *     <li>{@link #ACCEPT}: target, sender</li>
+ *     <li>{@link #DAMAGE}: damager, damaged</li>
+ *     <li>{@link #DEATH}: player, killer + 1 (0 if there was no killer)</li>
+ *     <li>{@link #QUIT}: player</li>
+ *     <li>{@link #COMMAND}: player, base command (UTF, arguments are never recorded)</li>
+ * </ul>
+ */
+public final class TraceFormat {
+
+    public static final int MAGIC = 0x44545243;
+    public static final int VERSION = 1;
+
+    public static final byte REQUEST = 1;
+    public static final byte ACCEPT = 2;
+    public static final byte DAMAGE = 3;
+    public static final byte DEATH = 4;
+    public static final byte QUIT = 5;
+    public static final byte COMMAND = 6;
+
+    private TraceFormat() {
+    }
+}
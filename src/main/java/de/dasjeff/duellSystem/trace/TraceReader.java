@@ -0,0 +1,137 @@
+package de.dasjeff.duellSystem.trace;
+
+import de.dasjeff.duellSystem.util.VarInt;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+/**
+ * Sequential reader for trace files written by {@link TraceRecorder}
+ */
+public class TraceReader implements Closeable {
+
+    private final DataInputStream in;
+    private byte type;
+    private long timeMillis;
+    private int player;
+    private int other;
+    private long betAmount;
+    private String command;
+
+    /**
+     * Constructor
+     * @param file Trace file
+     * @throws IOException If the file cannot be opened or is not a trace
+     */
+    public TraceReader(File file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+        int magic = in.readInt();
+        int version = in.readInt();
+        if (magic != TraceFormat.MAGIC || version != TraceFormat.VERSION) {
+            in.close();
+            throw new IOException("Not a supported trace file: " + file);
+        }
+    }
+
+    /**
+     * Advance to the next event
+     * @return True if an event was read, false at the end of the trace
+     * @throws IOException If the trace is corrupt
+     */
+    public boolean next() throws IOException {
+        int read = in.read();
+        if (read == -1) return false;
+
+        type = (byte) read;
+        try {
+            timeMillis += VarInt.read(in);
+            player = VarInt.read(in);
+            other = -1;
+            betAmount = 0;
+            command = null;
+
+            switch (type) {
+                case TraceFormat.REQUEST:
+                    other = VarInt.read(in);
+                    betAmount = in.readLong();
+                    break;
+                case TraceFormat.ACCEPT:
+                case TraceFormat.DAMAGE:
+                    other = VarInt.read(in);
+                    break;
+                case TraceFormat.DEATH:
+                    other = VarInt.read(in) - 1;
+                    break;
+                case TraceFormat.QUIT:
+                    break;
+                case TraceFormat.COMMAND:
+                    command = in.readUTF();
+                    break;
+                default:
+                    throw new IOException("Unknown trace event type " + type);
+            }
+        } catch (EOFException e) {
+            // A recording cut off mid-event ends the trace
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Get the type of the current event
+     * @return One of the event types in {@link TraceFormat}
+     */
+    public byte getType() {
+        return type;
+    }
+
+    /**
+     * Get the time of the current event
+     * @return Milliseconds since the start of the recording
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Get the first player of the current event
+     * @return Anonymized player id
+     */
+    public int getPlayer() {
+        return player;
+    }
+
+    /**
+     * Get the second player of the current event
+     * @return Anonymized player id, or -1 if the event has none
+     */
+    public int getOther() {
+        return other;
+    }
+
+    /**
+     * Get the bet amount of a request event
+     * @return Bet amount in minor units
+     */
+    public long getBetAmount() {
+        return betAmount;
+    }
+
+    /**
+     * Get the base command of a command event
+     * @return Base command without slash, or null
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
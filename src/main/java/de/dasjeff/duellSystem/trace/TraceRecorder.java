@@ -0,0 +1,294 @@
+package de.dasjeff.duellSystem.trace;
+
+import de.dasjeff.duellSystem.DuellSystem;
+import de.dasjeff.duellSystem.util.VarInt;
+import de.dasjeff.duellSystem.scheduler.TaskHandle;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Records the events the plugin handles into a compact, anonymized binary trace for offline replay.
+ * <p>
+ * Events are encoded into an in-memory buffer, which is handed to a background writer once per
+ * second. While no recording is running, every record method returns after one field read; while
+ * recording, encoding is synchronized so region threads on Folia can record concurrently.
+ */
+public class TraceRecorder {
+
+    private final DuellSystem plugin;
+    private final Map<UUID, Integer> playerIds;
+    private final ByteArrayOutputStream buffer;
+    private final DataOutputStream out;
+    private volatile boolean recording;
+    private File file;
+    private long lastMillis;
+    private long recordedBytes;
+    private long maxBytes;
+    private ExecutorService writer;
+    private OutputStream fileOut;
+    private TaskHandle flushTask;
+
+    /**
+     * Constructor
+     * @param plugin Plugin instance
+     */
+    public TraceRecorder(DuellSystem plugin) {
+        this.plugin = plugin;
+        this.playerIds = new HashMap<>();
+        this.buffer = new ByteArrayOutputStream(64 * 1024);
+        this.out = new DataOutputStream(buffer);
+    }
+
+    /**
+     * Start recording into a new file
+     * @param file File to record into
+     * @throws IOException If the file cannot be created
+     */
+    public synchronized void start(File file) throws IOException {
+        if (recording) return;
+
+        File folder = file.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+        }
+
+        this.file = file;
+        this.fileOut = new BufferedOutputStream(new FileOutputStream(file), 64 * 1024);
+        this.writer = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "DuellSystem-Trace"));
+        this.playerIds.clear();
+        this.buffer.reset();
+        this.lastMillis = System.currentTimeMillis();
+        this.recordedBytes = 0;
+        this.maxBytes = plugin.getConfigManager().getTraceMaxBytes();
+
+        out.writeInt(TraceFormat.MAGIC);
+        out.writeInt(TraceFormat.VERSION);
+        this.recording = true;
+        this.flushTask = plugin.getTaskScheduler().runGlobalTimer(this::flush, 20L, 20L);
+    }
+
+    // Stop recording; the writer thread writes the rest and closes the file without being waited for
+    public synchronized void stop() {
+        if (!recording) return;
+
+        recording = false;
+        flushTask.cancel();
+        flush();
+
+        OutputStream closing = fileOut;
+        writer.execute(() -> {
+            try {
+                closing.close();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not close trace file", e);
+            }
+        });
+        writer.shutdown();
+        plugin.getLogger().info("Trace recording stopped: " + file.getName() + " (" + recordedBytes + " bytes)");
+    }
+
+    // Stop recording and wait for the file to be closed; only called on shutdown
+    public void close() {
+        ExecutorService closing;
+        synchronized (this) {
+            stop();
+            closing = writer;
+        }
+        if (closing == null) return;
+
+        try {
+            closing.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Check if a recording is running
+     * @return True if recording
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Get the file of the current or last recording
+     * @return Trace file, or null if nothing was recorded yet
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Record a duel request
+     * @param senderId UUID of the sender
+     * @param targetId UUID of the target
+     * @param betAmount Bet amount in minor units
+     */
+    public void recordRequest(UUID senderId, UUID targetId, long betAmount) {
+        if (!recording) return;
+
+        synchronized (this) {
+            if (!recording) return;
+            try {
+                begin(TraceFormat.REQUEST);
+                VarInt.write(out, idOf(senderId));
+                VarInt.write(out, idOf(targetId));
+                out.writeLong(betAmount);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Record an accepted duel request
+     * @param targetId UUID of the player accepting
+     * @param senderId UUID of the sender of the request
+     */
+    public void recordAccept(UUID targetId, UUID senderId) {
+        recordPair(TraceFormat.ACCEPT, targetId, senderId);
+    }
+
+    /**
+     * Record player-versus-player damage
+     * @param damagerId UUID of the damager
+     * @param damagedId UUID of the damaged player
+     */
+    public void recordDamage(UUID damagerId, UUID damagedId) {
+        recordPair(TraceFormat.DAMAGE, damagerId, damagedId);
+    }
+
+    /**
+     * Record the death of a player
+     * @param playerId UUID of the player
+     * @param killerId UUID of the killer, or null
+     */
+    public void recordDeath(UUID playerId, UUID killerId) {
+        if (!recording) return;
+
+        synchronized (this) {
+            if (!recording) return;
+            try {
+                begin(TraceFormat.DEATH);
+                VarInt.write(out, idOf(playerId));
+                VarInt.write(out, killerId != null ? idOf(killerId) + 1 : 0);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Record a player leaving the server
+     * @param playerId UUID of the player
+     */
+    public void recordQuit(UUID playerId) {
+        if (!recording) return;
+
+        synchronized (this) {
+            if (!recording) return;
+            try {
+                begin(TraceFormat.QUIT);
+                VarInt.write(out, idOf(playerId));
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Record a command; only the base command is kept
+     * @param playerId UUID of the player
+     * @param message Full command line including the leading slash
+     */
+    public void recordCommand(UUID playerId, String message) {
+        if (!recording) return;
+
+        int end = message.indexOf(' ');
+        String baseCommand = message.substring(message.startsWith("/") ? 1 : 0, end == -1 ? message.length() : end);
+        synchronized (this) {
+            if (!recording) return;
+            try {
+                begin(TraceFormat.COMMAND);
+                VarInt.write(out, idOf(playerId));
+                out.writeUTF(baseCommand.toLowerCase());
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private void recordPair(byte type, UUID firstId, UUID secondId) {
+        if (!recording) return;
+
+        synchronized (this) {
+            if (!recording) return;
+            try {
+                begin(type);
+                VarInt.write(out, idOf(firstId));
+                VarInt.write(out, idOf(secondId));
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    private void begin(byte type) throws IOException {
+        long now = System.currentTimeMillis();
+        out.writeByte(type);
+        VarInt.write(out, (int) Math.max(0, now - lastMillis));
+        lastMillis = now;
+    }
+
+    private int idOf(UUID playerId) {
+        Integer id = playerIds.get(playerId);
+        if (id == null) {
+            id = playerIds.size();
+            playerIds.put(playerId, id);
+        }
+        return id;
+    }
+
+    // Hand the buffered events to the writer thread
+    private synchronized void flush() {
+        if (buffer.size() == 0) return;
+
+        byte[] chunk = buffer.toByteArray();
+        buffer.reset();
+        recordedBytes += chunk.length;
+
+        OutputStream target = fileOut;
+        writer.execute(() -> {
+            try {
+                target.write(chunk);
+                target.flush();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not write trace file", e);
+            }
+        });
+
+        if (recording && recordedBytes >= maxBytes) {
+            plugin.getLogger().info("Trace reached the configured size limit");
+            stop();
+        }
+    }
+
+    private void fail(IOException e) {
+        // Writing into the in-memory buffer cannot fail, but keep the plugin running if it does
+        plugin.getLogger().log(Level.WARNING, "Could not record trace event", e);
+    }
+}
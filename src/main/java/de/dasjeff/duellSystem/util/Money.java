@@ -0,0 +1,69 @@
+package de.dasjeff.duellSystem.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point money amounts.
+ * <p>
+ * Amounts are kept as {@code long} minor units (hundredths of a coin) everywhere in the plugin, so they
+ * add up exactly and print without floating point noise. They are only converted to {@code double} when
+ * handed to Vault.
+ */
+public final class Money {
+
+    public static final int DECIMALS = 2;
+    public static final long UNIT = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Parse an amount such as {@code 100} or {@code 12.5}
+     * @param text Amount in coins
+     * @return Amount in minor units
+     * @throws NumberFormatException If the text is not a number, has more than two decimals or is out of range
+     */
+    public static long parse(String text) {
+        BigDecimal value = new BigDecimal(text.trim());
+        if (value.stripTrailingZeros().scale() > DECIMALS) {
+            throw new NumberFormatException("Too many decimals: " + text);
+        }
+        try {
+            return value.movePointRight(DECIMALS).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /**
+     * Convert an amount for Vault
+     * @param minor Amount in minor units
+     * @return Amount in coins
+     */
+    public static double toDouble(long minor) {
+        return minor / (double) UNIT;
+    }
+
+    /**
+     * Format an amount for display, without decimals if it is a whole number
+     * @param minor Amount in minor units
+     * @return Formatted amount, e.g. {@code 100} or {@code 12.50}
+     */
+    public static String format(long minor) {
+        long whole = minor / UNIT;
+        long cents = Math.abs(minor % UNIT);
+        if (cents == 0) {
+            return Long.toString(whole);
+        }
+
+        StringBuilder text = new StringBuilder(24);
+        if (minor < 0 && whole == 0) {
+            text.append('-');
+        }
+        text.append(whole).append('.');
+        if (cents < 10) {
+            text.append('0');
+        }
+        return text.append(cents).toString();
+    }
+}
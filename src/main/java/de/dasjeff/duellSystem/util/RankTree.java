@@ -0,0 +1,201 @@
+package de.dasjeff.duellSystem.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic treap ordering players by rating (highest first).
+ * Insert, remove and rank lookups are O(log n); reading the first k entries is O(k + log n).
+ */
+public class RankTree {
+
+    private Node root;
+
+    /**
+     * Insert a player with the given rating
+     * @param playerId UUID of the player
+     * @param rating Rating of the player
+     */
+    public void insert(UUID playerId, int rating) {
+        root = insert(root, new Node(playerId, rating));
+    }
+
+    /**
+     * Remove a player with the given rating
+     * @param playerId UUID of the player
+     * @param rating Rating the player was inserted with
+     */
+    public void remove(UUID playerId, int rating) {
+        root = remove(root, playerId, rating);
+    }
+
+    /**
+     * Move a player from one rating to another
+     * @param playerId UUID of the player
+     * @param oldRating Rating the player was inserted with
+     * @param newRating New rating of the player
+     */
+    public void update(UUID playerId, int oldRating, int newRating) {
+        remove(playerId, oldRating);
+        insert(playerId, newRating);
+    }
+
+    /**
+     * Get the 1-based rank of a player
+     * @param playerId UUID of the player
+     * @param rating Current rating of the player
+     * @return Rank of the player, or -1 if the player is not in the tree
+     */
+    public int rank(UUID playerId, int rating) {
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(playerId, rating, node);
+            if (cmp == 0) {
+                return before + size(node.left) + 1;
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the best entries in rank order
+     * @param limit Maximum number of entries
+     * @return Player IDs and ratings of the best entries
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(limit, size()));
+        collect(root, entries, limit);
+        return entries;
+    }
+
+    /**
+     * Get the number of players in the tree
+     * @return Number of players
+     */
+    public int size() {
+        return size(root);
+    }
+
+    // Remove all players
+    public void clear() {
+        root = null;
+    }
+
+    private void collect(Node node, List<Entry> entries, int limit) {
+        if (node == null || entries.size() >= limit) return;
+
+        collect(node.left, entries, limit);
+        if (entries.size() < limit) {
+            entries.add(new Entry(node.playerId, node.rating));
+            collect(node.right, entries, limit);
+        }
+    }
+
+    private Node insert(Node node, Node inserted) {
+        if (node == null) return inserted;
+
+        if (compare(inserted.playerId, inserted.rating, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, UUID playerId, int rating) {
+        if (node == null) return null;
+
+        int cmp = compare(playerId, rating, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, playerId, rating);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, playerId, rating);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    // Higher ratings come first, ties are broken by UUID so every key is unique
+    private static int compare(UUID playerId, int rating, Node node) {
+        if (rating != node.rating) {
+            return rating > node.rating ? -1 : 1;
+        }
+        return playerId.compareTo(node.playerId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * A player and rating pair read from the tree
+     */
+    public record Entry(UUID playerId, int rating) {
+    }
+
+    private static final class Node {
+        private final UUID playerId;
+        private final int rating;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size;
+
+        private Node(UUID playerId, int rating) {
+            this.playerId = playerId;
+            this.rating = rating;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+
+        private void update() {
+            size = 1 + RankTree.size(left) + RankTree.size(right);
+        }
+    }
+}
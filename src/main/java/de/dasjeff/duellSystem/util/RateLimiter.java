@@ -0,0 +1,85 @@
+package de.dasjeff.duellSystem.util;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket per player.
+ * <p>
+ * Each bucket is a single timestamp (the generic cell rate algorithm): the time at which the
+ * bucket would be full again. Taking a token advances it by one refill interval, and a request is
+ * rejected while the timestamp lies more than {@code burst - 1} intervals in the future. A check is
+ * one map lookup and one compare-and-set; a rejection allocates nothing.
+ */
+public class RateLimiter {
+
+    private final Map<UUID, Bucket> buckets;
+
+    // Constructor
+    public RateLimiter() {
+        this.buckets = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Try to take a token from a player's bucket
+     * @param playerId UUID of the player
+     * @param nowMillis Current time in milliseconds
+     * @param burst Number of tokens the bucket holds
+     * @param intervalMillis Time to refill one token in milliseconds
+     * @return 0 if a token was taken, otherwise the milliseconds until the next token is available
+     */
+    public long tryAcquire(UUID playerId, long nowMillis, int burst, long intervalMillis) {
+        Bucket bucket = buckets.get(playerId);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(playerId, k -> new Bucket());
+        }
+
+        long allowedAhead = (burst - 1) * intervalMillis;
+        while (true) {
+            long fullAt = bucket.fullAt.get();
+            long start = Math.max(fullAt, nowMillis);
+            long wait = start - nowMillis - allowedAhead;
+            if (wait > 0) return wait;
+
+            if (bucket.fullAt.compareAndSet(fullAt, start + intervalMillis)) return 0;
+        }
+    }
+
+    /**
+     * Check whether a rejected player should be told about the cooldown, at most once per cooldown
+     * @param playerId UUID of the player
+     * @param nowMillis Current time in milliseconds
+     * @param waitMillis Wait returned by {@link #tryAcquire}
+     * @return True if the player was not notified during the current cooldown yet
+     */
+    public boolean shouldNotify(UUID playerId, long nowMillis, long waitMillis) {
+        Bucket bucket = buckets.get(playerId);
+        if (bucket == null) return false;
+
+        long notifiedUntil = bucket.notifiedUntil.get();
+        return nowMillis >= notifiedUntil && bucket.notifiedUntil.compareAndSet(notifiedUntil, nowMillis + waitMillis);
+    }
+
+    /**
+     * Drop all buckets that have refilled completely, as they hold no state
+     * @param nowMillis Current time in milliseconds
+     */
+    public void purge(long nowMillis) {
+        buckets.values().removeIf(bucket -> bucket.fullAt.get() <= nowMillis);
+    }
+
+    /**
+     * Get the number of tracked players
+     * @return Number of buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+        private final AtomicLong fullAt = new AtomicLong();
+        private final AtomicLong notifiedUntil = new AtomicLong();
+    }
+}
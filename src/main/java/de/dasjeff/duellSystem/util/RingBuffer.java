@@ -0,0 +1,89 @@
+package de.dasjeff.duellSystem.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * <p>
+ * A producer claims a sequence number with one compare-and-set on the tail and then publishes its
+ * element into the slot; it never blocks and drops the element when the buffer is full. The consumer
+ * takes published elements in sequence order and stops at the first slot that was claimed but not
+ * yet published.
+ *
+ * @param <T> Element type
+ */
+public class RingBuffer<T> {
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final AtomicLong tail;
+    private volatile long head;
+
+    /**
+     * Constructor
+     * @param capacity Minimum capacity, rounded up to a power of two
+     */
+    public RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+    }
+
+    /**
+     * Add an element without blocking
+     * @param element Element to add
+     * @return True if the element was added, false if the buffer was full
+     */
+    public boolean offer(T element) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) return false;
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        slots.lazySet((int) (sequence & mask), element);
+        return true;
+    }
+
+    /**
+     * Move published elements to a list; must only be called by the consumer
+     * @param target List to add the elements to
+     * @param max Maximum number of elements to take
+     * @return Number of elements taken
+     */
+    public int drainTo(List<T> target, int max) {
+        long sequence = head;
+        int taken = 0;
+        while (taken < max) {
+            int index = (int) (sequence & mask);
+            T element = slots.get(index);
+            if (element == null) break;
+
+            slots.lazySet(index, null);
+            target.add(element);
+            sequence++;
+            taken++;
+        }
+        head = sequence;
+        return taken;
+    }
+
+    /**
+     * Check if there is nothing left to take
+     * @return True if every claimed slot has been taken
+     */
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    /**
+     * Get the capacity
+     * @return Capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,69 @@
+package de.dasjeff.duellSystem.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Unsigned variable-length integers, seven bits per byte, used by the binary formats of the plugin.
+ * Signed values are zigzag-encoded first so small negative numbers stay short.
+ */
+public final class VarInt {
+
+    private VarInt() {
+    }
+
+    /**
+     * Write an unsigned varint
+     * @param out Output to write to
+     * @param value Non-negative value
+     * @throws IOException If writing fails
+     */
+    public static void write(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Read an unsigned varint
+     * @param in Input to read from
+     * @return The value
+     * @throws IOException If reading fails
+     */
+    public static int read(DataInput in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+
+            shift += 7;
+            if (shift > 28) throw new IOException("Varint too long");
+        }
+    }
+
+    /**
+     * Write a signed varint
+     * @param out Output to write to
+     * @param value Any value
+     * @throws IOException If writing fails
+     */
+    public static void writeSigned(DataOutput out, int value) throws IOException {
+        write(out, (value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Read a signed varint
+     * @param in Input to read from
+     * @return The value
+     * @throws IOException If reading fails
+     */
+    public static int readSigned(DataInput in) throws IOException {
+        int value = read(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}